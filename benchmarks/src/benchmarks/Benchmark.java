@@ -0,0 +1,194 @@
+package benchmarks;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+
+/**
+ * A small, dependency-free benchmark harness: runs an operation for a number of warmup iterations, then measures
+ * the average wall time and the bytes allocated by the benchmarking thread per operation. Like a GC profiler, it also
+ * counts the collections that ran while measuring and the time they took, so that allocation that only shows up as
+ * collector work is not missed. An optional setup runs before every iteration, outside what is measured.
+ */
+public final class Benchmark {
+    public interface Operation {
+        void run() throws Exception;
+    }
+
+    public static final class Builder {
+        private String name;
+        private int warmupIterations = 5;
+        private int measurementIterations = 10;
+        private int operationsPerIteration = 1;
+        private Operation setup = () -> {
+        };
+        private Operation operation;
+
+        private Builder() {
+        }
+
+        public Builder name(String name) {
+            this.name = name;
+            return this;
+        }
+
+        public Builder warmupIterations(int warmupIterations) {
+            this.warmupIterations = warmupIterations;
+            return this;
+        }
+
+        public Builder measurementIterations(int measurementIterations) {
+            this.measurementIterations = measurementIterations;
+            return this;
+        }
+
+        public Builder operationsPerIteration(int operationsPerIteration) {
+            this.operationsPerIteration = operationsPerIteration;
+            return this;
+        }
+
+        /**
+         * Runs before each iteration, e.g. to build afresh what the operation uses up, and is not measured.
+         */
+        public Builder setup(Operation setup) {
+            this.setup = setup;
+            return this;
+        }
+
+        public Builder operation(Operation operation) {
+            this.operation = operation;
+            return this;
+        }
+
+        public Benchmark build() {
+            return new Benchmark(name, warmupIterations, measurementIterations, operationsPerIteration, setup, operation);
+        }
+    }
+
+    public static final class Result {
+        private final String name;
+        private final double nanosPerOperation;
+        private final double bytesPerOperation;
+        private final long collections;
+        private final long collectionMillis;
+
+        private Result(String name, double nanosPerOperation, double bytesPerOperation, long collections, long collectionMillis) {
+            this.name = name;
+            this.nanosPerOperation = nanosPerOperation;
+            this.bytesPerOperation = bytesPerOperation;
+            this.collections = collections;
+            this.collectionMillis = collectionMillis;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public double getNanosPerOperation() {
+            return nanosPerOperation;
+        }
+
+        public double getBytesPerOperation() {
+            return bytesPerOperation;
+        }
+
+        /**
+         * The megabytes the benchmarking thread allocated per second of measured time.
+         */
+        public double getAllocationRate() {
+            return bytesPerOperation / nanosPerOperation * 1e3;
+        }
+
+        /**
+         * The number of collections, by all collectors, that ran during the measurement iterations.
+         */
+        public long getCollections() {
+            return collections;
+        }
+
+        public long getCollectionMillis() {
+            return collectionMillis;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-60s %16.1f ns/op %16.1f B/op %10.1f MB/s %6d gc %8d ms gc", name, nanosPerOperation,
+                    bytesPerOperation, getAllocationRate(), collections, collectionMillis);
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    private static final com.sun.management.ThreadMXBean THREADS = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private final String name;
+    private final int warmupIterations;
+    private final int measurementIterations;
+    private final int operationsPerIteration;
+    private final Operation setup;
+    private final Operation operation;
+
+    private Benchmark(String name, int warmupIterations, int measurementIterations, int operationsPerIteration, Operation setup, Operation operation) {
+        this.name = name;
+        this.warmupIterations = warmupIterations;
+        this.measurementIterations = measurementIterations;
+        this.operationsPerIteration = operationsPerIteration;
+        this.setup = setup;
+        this.operation = operation;
+    }
+
+    public Result run() throws Exception {
+        for (int i = 0; i < warmupIterations; i++) {
+            setup.run();
+            iterate();
+        }
+        long threadId = Thread.currentThread().getId();
+        long elapsed = 0;
+        long allocated = 0;
+        long collections = 0;
+        long collectionMillis = 0;
+        for (int i = 0; i < measurementIterations; i++) {
+            setup.run();
+            long collectionsBefore = totalCollections();
+            long collectionMillisBefore = totalCollectionMillis();
+            long allocatedBefore = THREADS.getThreadAllocatedBytes(threadId);
+            long start = System.nanoTime();
+            iterate();
+            elapsed += System.nanoTime() - start;
+            allocated += THREADS.getThreadAllocatedBytes(threadId) - allocatedBefore;
+            collections += totalCollections() - collectionsBefore;
+            collectionMillis += totalCollectionMillis() - collectionMillisBefore;
+        }
+        double operations = (double) measurementIterations * operationsPerIteration;
+        return new Result(name, elapsed / operations, allocated / operations, collections, collectionMillis);
+    }
+
+    public Result runAndPrint() throws Exception {
+        Result result = run();
+        System.out.println(result);
+        return result;
+    }
+
+    private static long totalCollections() {
+        long collections = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            collections += Math.max(0, collector.getCollectionCount());
+        }
+        return collections;
+    }
+
+    private static long totalCollectionMillis() {
+        long millis = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            millis += Math.max(0, collector.getCollectionTime());
+        }
+        return millis;
+    }
+
+    private void iterate() throws Exception {
+        for (int i = 0; i < operationsPerIteration; i++) {
+            operation.run();
+        }
+    }
+}
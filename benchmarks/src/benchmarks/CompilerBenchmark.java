@@ -0,0 +1,147 @@
+package benchmarks;
+
+import information.FieldSymbolTable;
+import information.MethodSymbolTable;
+import java_cup.runtime.Scanner;
+import java_cup.runtime.lr_parser;
+import tokens.Program;
+import type_checking.TypeCheckException;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Each phase of the compiler on its own over the same inputs: lexing a source to the end, parsing it, type checking
+ * the parsed program and printing it with {@code asString}, each with its time and allocation per run. The inputs are
+ * the whole-program fixtures and programs from {@link ProgramGenerator} scaled by method count, nesting depth and
+ * expression depth, so a change to the symbol tables or the tree can be judged on every phase it touches.
+ *
+ * Run from the repository root, or pass the directory holding the fixtures.
+ */
+public final class CompilerBenchmark {
+    private static final String[] FIXTURES = {"fullValidProgramFI.as", "fullValidProgramDE.as"};
+    // Methods, nesting depth and expression depth of each generated program.
+    private static final int[][] GENERATED = {
+            {100, 2, 2}, {1_000, 2, 2}, {10_000, 2, 2},
+            {100, 8, 2}, {100, 32, 2},
+            {100, 2, 16}, {100, 2, 64},
+    };
+    // Small inputs are run many times per iteration, so that each iteration takes long enough to time.
+    private static final int CHARS_PER_ITERATION = 1_000_000;
+
+    private static long blackhole;
+
+    private final Constructor<?> grammar;
+    private final Constructor<?> parser;
+    private final Method reportTo;
+
+    private CompilerBenchmark() throws ReflectiveOperationException {
+        // The scanner and parser are generated into the default package, so they can only be reached reflectively.
+        grammar = Class.forName("Grammar").getDeclaredConstructor(Reader.class);
+        grammar.setAccessible(true);
+        parser = Class.forName("parser").getConstructor(Scanner.class);
+        reportTo = parser.getDeclaringClass().getMethod("reportTo", PrintStream.class);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path fixtures = Path.of(args.length > 0 ? args[0] : "tests");
+        Map<String, String> inputs = new LinkedHashMap<>();
+        for (String fixture : FIXTURES) {
+            inputs.put(fixture, Files.readString(fixtures.resolve(fixture), StandardCharsets.UTF_8));
+        }
+        for (int[] shape : GENERATED) {
+            String name = shape[0] + " methods, nesting " + shape[1] + ", expressions " + shape[2];
+            inputs.put(name, ProgramGenerator.builder()
+                    .methods(shape[0])
+                    .nestingDepth(shape[1])
+                    .expressionDepth(shape[2])
+                    .build()
+                    .generate());
+        }
+
+        CompilerBenchmark benchmark = new CompilerBenchmark();
+        for (Map.Entry<String, String> input : inputs.entrySet()) {
+            benchmark.run(input.getKey(), input.getValue());
+        }
+    }
+
+    private void run(String name, String source) throws Exception {
+        int operations = Math.max(1, CHARS_PER_ITERATION / source.length());
+        long tokens = lex(source);
+        Benchmark.Result lexed = measure("lex " + name, operations, () -> {
+        }, () -> blackhole += lex(source));
+        System.out.printf("%-60s %16.1f tokens/us%n", "lex " + name, tokens / (lexed.getNanosPerOperation() / 1e3));
+
+        Program parsed = parse(source);
+        if (parsed == null) {
+            System.out.printf("%-60s %s%n", name, "does not parse, so it is only lexed");
+            return;
+        }
+        measure("parse " + name, operations, () -> {
+        }, () -> blackhole += parse(source).hashCode());
+
+        // Checking caches the type of every expression in the tree, so each check gets a freshly parsed program.
+        Program[] programs = new Program[operations];
+        int[] next = new int[1];
+        measure("check " + name, operations, () -> {
+            for (int i = 0; i < operations; i++) {
+                programs[i] = parse(source);
+            }
+            next[0] = 0;
+        }, () -> {
+            Program program = programs[next[0]];
+            programs[next[0]++] = null;
+            try {
+                program.typeCheck(0, FieldSymbolTable.empty(), MethodSymbolTable.empty());
+            } catch (TypeCheckException e) {
+                blackhole += e.getDiagnostics().size();
+            }
+        });
+
+        measure("print " + name, operations, () -> {
+        }, () -> blackhole += parsed.asString(0).length());
+    }
+
+    private static Benchmark.Result measure(String name, int operations, Benchmark.Operation setup, Benchmark.Operation operation) throws Exception {
+        return Benchmark.builder()
+                .name(name)
+                .warmupIterations(5)
+                .measurementIterations(10)
+                .operationsPerIteration(operations)
+                .setup(setup)
+                .operation(operation)
+                .build()
+                .runAndPrint();
+    }
+
+    private long lex(String source) throws Exception {
+        Scanner scanner = (Scanner) grammar.newInstance(new StringReader(source));
+        long tokens = 0;
+        while (scanner.next_token().sym != 0) {
+            tokens++;
+        }
+        return tokens;
+    }
+
+    /**
+     * Parses the source, or returns null if it does not parse, without reporting the syntax errors.
+     */
+    private Program parse(String source) throws Exception {
+        lr_parser parser = (lr_parser) this.parser.newInstance(grammar.newInstance(new StringReader(source)));
+        reportTo.invoke(parser, new PrintStream(OutputStream.nullOutputStream()));
+        try {
+            return (Program) parser.parse().value;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+}
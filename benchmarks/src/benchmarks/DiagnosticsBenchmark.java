@@ -0,0 +1,60 @@
+package benchmarks;
+
+import type_checking.TypeCheckException;
+
+/**
+ * Measures raising and catching a fault from a realistic depth of nested type checks: an exception that fills in its
+ * stack trace, as {@link TypeCheckException} used to, against the stackless {@link TypeCheckException}.
+ */
+public final class DiagnosticsBenchmark {
+    private static final int DEPTH = 64;
+
+    private static int blackhole;
+
+    private DiagnosticsBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Benchmark.builder()
+                .name("exception with stack trace, depth " + DEPTH)
+                .warmupIterations(20_000)
+                .measurementIterations(100_000)
+                .operation(() -> {
+                    try {
+                        raiseWithStackTrace(DEPTH);
+                    } catch (Exception e) {
+                        blackhole += e.getMessage().length();
+                    }
+                })
+                .build()
+                .runAndPrint();
+
+        Benchmark.builder()
+                .name("stackless TypeCheckException, depth " + DEPTH)
+                .warmupIterations(20_000)
+                .measurementIterations(100_000)
+                .operation(() -> {
+                    try {
+                        raiseStackless(DEPTH);
+                    } catch (TypeCheckException e) {
+                        blackhole += e.getDiagnostics().size();
+                    }
+                })
+                .build()
+                .runAndPrint();
+    }
+
+    private static void raiseWithStackTrace(int depth) throws Exception {
+        if (depth == 0) {
+            throw new Exception("Error: cannot convert bool to int");
+        }
+        raiseWithStackTrace(depth - 1);
+    }
+
+    private static void raiseStackless(int depth) throws TypeCheckException {
+        if (depth == 0) {
+            throw TypeCheckException.withFault("Error: cannot convert bool to int");
+        }
+        raiseStackless(depth - 1);
+    }
+}
@@ -0,0 +1,101 @@
+package benchmarks;
+
+import tokens.expr.BinaryOp;
+import tokens.expr.Expr;
+import tokens.expr.ExprArena;
+import tokens.expr.Operator;
+import tokens.id.Name;
+import tokens.methods.args.Args;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compares the heap retained by the expressions of 100k lines of source when every node is its own object against
+ * when they are stored in an {@link ExprArena}. Each line holds the expression of {@code x = (a + 1) * b[i] - f(c, 2.5);},
+ * built the way the parser's actions build it, including a view for every expression the statements hold on to.
+ */
+public final class ExprArenaBenchmark {
+    private static final int LINES = 100_000;
+    private static final MemoryMXBean MEMORY = ManagementFactory.getMemoryMXBean();
+
+    private static Object retained;
+
+    private ExprArenaBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        long objectBytes = retainedBytes(ExprArenaBenchmark::objects);
+        long arenaBytes = retainedBytes(ExprArenaBenchmark::arena);
+        System.out.printf("%-60s %16d B%n", "retained per " + LINES + " lines, objects", objectBytes);
+        System.out.printf("%-60s %16d B%n", "retained per " + LINES + " lines, arena", arenaBytes);
+        System.out.printf("%-60s %16.1f %%%n", "saved", 100.0 * (objectBytes - arenaBytes) / objectBytes);
+
+        Benchmark.builder()
+                .name("build " + LINES + " lines, objects")
+                .measurementIterations(20)
+                .operation(() -> retained = objects())
+                .build()
+                .runAndPrint();
+        Benchmark.builder()
+                .name("build " + LINES + " lines, arena")
+                .measurementIterations(20)
+                .operation(() -> retained = arena())
+                .build()
+                .runAndPrint();
+    }
+
+    private interface Build {
+        Object build();
+    }
+
+    private static long retainedBytes(Build build) {
+        retained = null;
+        long before = usedAfterGc();
+        retained = build.build();
+        long after = usedAfterGc();
+        retained = null;
+        return after - before;
+    }
+
+    private static long usedAfterGc() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return MEMORY.getHeapMemoryUsage().getUsed();
+    }
+
+    private static List<Expr> objects() {
+        List<Expr> lines = new ArrayList<>(LINES);
+        for (int line = 0; line < LINES; line++) {
+            Expr sum = Expr.parenthesized(Expr.binaryOp(BinaryOp.of(Expr.simple(Name.simple("a")), Operator.PLUS, Expr.intlit(1))));
+            Expr element = Expr.simple(Name.array("b", Expr.simple(Name.simple("i"))));
+            Expr product = Expr.binaryOp(BinaryOp.of(sum, Operator.TIMES, element));
+            Args arguments = Args.builder()
+                    .expr(Expr.simple(Name.simple("c")))
+                    .expr(Expr.floatlit(2.5))
+                    .build();
+            lines.add(Expr.binaryOp(BinaryOp.of(product, Operator.MINUS, Expr.invocation("f", arguments))));
+        }
+        return lines;
+    }
+
+    private static List<Expr> arena() {
+        ExprArena arena = ExprArena.create();
+        List<Expr> lines = new ArrayList<>(LINES);
+        for (int line = 0; line < LINES; line++) {
+            int sum = arena.parenthesized(arena.binaryOp(arena.simple("a"), Operator.PLUS, arena.intlit(1)));
+            int element = arena.element("b", arena.simple("i"));
+            int product = arena.binaryOp(sum, Operator.TIMES, element);
+            Args arguments = Args.builder()
+                    .expr(arena.view(arena.simple("c")))
+                    .expr(arena.view(arena.floatlit(2.5)))
+                    .build();
+            lines.add(arena.view(arena.binaryOp(product, Operator.MINUS, arena.invocation("f", arguments))));
+        }
+        arena.trim();
+        return lines;
+    }
+}
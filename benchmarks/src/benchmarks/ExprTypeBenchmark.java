@@ -0,0 +1,59 @@
+package benchmarks;
+
+import information.FieldSymbolTable;
+import information.MethodSymbolTable;
+import tokens.expr.BinaryOp;
+import tokens.expr.Expr;
+import tokens.expr.Operator;
+import tokens.id.Name;
+import tokens.lexeme.Types;
+
+/**
+ * Measures checking a deeply nested expression for the first time against checking it again once its type is cached
+ * on the tree, which is what every later consumer of the typed tree pays.
+ */
+public final class ExprTypeBenchmark {
+    private static final int DEPTH = 2_000;
+
+    private static int blackhole;
+
+    private ExprTypeBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        FieldSymbolTable fieldSymbolTable = FieldSymbolTable.empty();
+        MethodSymbolTable methodSymbolTable = MethodSymbolTable.empty();
+        fieldSymbolTable.put("x", 2, Types.INTLIT, false);
+        fieldSymbolTable.put("y", 2, Types.FLOATLIT, false);
+
+        Benchmark.builder()
+                .name("build and first check, depth " + DEPTH)
+                .warmupIterations(200)
+                .measurementIterations(1_000)
+                .operation(() -> {
+                    Expr expr = nested();
+                    blackhole += expr.typeCheck(2, fieldSymbolTable, methodSymbolTable).getId();
+                })
+                .build()
+                .runAndPrint();
+
+        Expr checked = nested();
+        checked.typeCheck(2, fieldSymbolTable, methodSymbolTable);
+        Benchmark.builder()
+                .name("repeated check, depth " + DEPTH)
+                .warmupIterations(200)
+                .measurementIterations(1_000)
+                .operation(() -> blackhole += checked.typeCheck(2, fieldSymbolTable, methodSymbolTable).getId())
+                .build()
+                .runAndPrint();
+    }
+
+    private static Expr nested() {
+        Expr expr = Expr.simple(Name.simple("x"));
+        for (int i = 0; i < DEPTH; i++) {
+            Expr operand = Expr.simple(Name.simple(i % 2 == 0 ? "x" : "y"));
+            expr = Expr.binaryOp(BinaryOp.of(expr, i % 3 == 0 ? Operator.TIMES : Operator.PLUS, operand));
+        }
+        return expr;
+    }
+}
@@ -0,0 +1,33 @@
+package benchmarks;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * A large, valid program for benchmarks that lex or parse whole files.
+ */
+final class GeneratedSource {
+    private GeneratedSource() {
+    }
+
+    /**
+     * A class of small methods, written as UTF-8 after the given first line.
+     */
+    static void write(Path path, int methods, String firstLine) throws IOException {
+        try (Writer out = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            out.write(firstLine);
+            out.write("class Generated {\n    int total = 0;\n");
+            for (int i = 0; i < methods; i++) {
+                out.write("    int method" + i + "(int a, float b[]) {\n");
+                out.write("        total = total + a * " + i + ";\n");
+                out.write("        if (a < 10 && b[a] >= 2.5) { print(\"small\", a); } else { total = total - 1; }\n");
+                out.write("        return total;\n");
+                out.write("    }\n");
+            }
+            out.write("}\n");
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package benchmarks;
+
+import execution.Bytecode;
+import execution.BytecodeImage;
+import execution.Console;
+import execution.Interpreter;
+import execution.JvmClass;
+import information.FieldSymbolTable;
+import information.MethodSymbolTable;
+import java_cup.runtime.Scanner;
+import java_cup.runtime.lr_parser;
+import tokens.Program;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.Writer;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Running checked programs with {@link Interpreter} against running them on the virtual machine of {@link Bytecode}
+ * and as a {@link JvmClass}: compiling a checked program for each, and running the compiled program on fixed input
+ * with its output thrown away. Checking and compiling a program for the virtual machine is also measured against
+ * loading its {@link BytecodeImage image}. The programs are the numeric fixtures, the vector
+ * distance of {@code fullValidProgramDE.as} on its largest vectors and the sieve, recursion and nested loops of
+ * {@code numericLoops.as}.
+ *
+ * Run from the repository root, or pass the directory holding the fixtures.
+ */
+public final class InterpreterBenchmark {
+    private static final String[][] FIXTURES = {
+            {"fullValidProgramDE.as", "10\n1 2 3 4 5 6 7 8 9 10\n10.5 9.5 8.5 7.5 6.5 5.5 4.5 3.5 2.5 1.5\n"},
+            {"numericLoops.as", ""},
+    };
+    // Each iteration runs a program many times, so that the JIT compiler has warmed up the interpreter before measuring.
+    private static final int OPERATIONS_PER_ITERATION = 50;
+
+    private static long blackhole;
+
+    private final Constructor<?> grammar;
+    private final Constructor<?> parser;
+    private final Method reportTo;
+
+    private InterpreterBenchmark() throws ReflectiveOperationException {
+        // The scanner and parser are generated into the default package, so they can only be reached reflectively.
+        grammar = Class.forName("Grammar").getDeclaredConstructor(Reader.class);
+        grammar.setAccessible(true);
+        parser = Class.forName("parser").getConstructor(Scanner.class);
+        reportTo = parser.getDeclaringClass().getMethod("reportTo", PrintStream.class);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path fixtures = Path.of(args.length > 0 ? args[0] : "tests");
+        InterpreterBenchmark benchmark = new InterpreterBenchmark();
+        for (String[] fixture : FIXTURES) {
+            benchmark.run(fixture[0], Files.readString(fixtures.resolve(fixture[0]), StandardCharsets.UTF_8), fixture[1]);
+        }
+    }
+
+    private void run(String name, String source, String input) throws Exception {
+        Program program = check(source);
+        measure("compile " + name, () -> blackhole += Interpreter.compile(program).hashCode());
+
+        Interpreter interpreter = Interpreter.compile(program);
+        measure("run " + name, () -> interpreter.run(Console.over(new StringReader(input), Writer.nullWriter())));
+
+        measure("compile bytecode " + name, () -> blackhole += Bytecode.compile(program).hashCode());
+
+        Bytecode bytecode = Bytecode.compile(program);
+        measure("run bytecode " + name, () -> bytecode.run(Console.over(new StringReader(input), Writer.nullWriter())));
+
+        measure("check and compile bytecode " + name, () -> blackhole += Bytecode.compile(check(source)).hashCode());
+
+        Path image = Files.createTempFile("image", ".bin");
+        try {
+            long checksum = 0;
+            BytecodeImage.write(image, bytecode, checksum);
+            measure("load image " + name, () -> blackhole += BytecodeImage.load(image, checksum).hashCode());
+        } finally {
+            Files.delete(image);
+        }
+
+        measure("compile class " + name, () -> blackhole += JvmClass.compile(program).hashCode());
+
+        JvmClass compiled = JvmClass.compile(program);
+        measure("run class " + name, () -> compiled.run(Console.over(new StringReader(input), Writer.nullWriter())));
+    }
+
+    private static void measure(String name, Benchmark.Operation operation) throws Exception {
+        Benchmark.builder()
+                .name(name)
+                .warmupIterations(5)
+                .measurementIterations(10)
+                .operationsPerIteration(OPERATIONS_PER_ITERATION)
+                .operation(operation)
+                .build()
+                .runAndPrint();
+    }
+
+    private Program check(String source) throws Exception {
+        lr_parser parser = (lr_parser) this.parser.newInstance(grammar.newInstance(new StringReader(source)));
+        reportTo.invoke(parser, new PrintStream(OutputStream.nullOutputStream()));
+        Program program = (Program) parser.parse().value;
+        program.typeCheck(0, FieldSymbolTable.empty(), MethodSymbolTable.empty());
+        return program;
+    }
+}
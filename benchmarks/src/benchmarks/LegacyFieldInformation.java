@@ -0,0 +1,55 @@
+package benchmarks;
+
+import tokens.lexeme.Type;
+
+import java.util.AbstractMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * The per-identifier map of scopes the checker used before {@link information.FieldSymbolTable}, kept as the
+ * baseline the symbol table benchmarks compare against.
+ */
+final class LegacyFieldInformation {
+    private final Map<Integer, Boolean> finals = new HashMap<>();
+    private final Map<Integer, Type> scopes = new HashMap<>();
+
+    void put(int scope, Type type, boolean isFinal) {
+        finals.put(scope, isFinal);
+        scopes.put(scope, type);
+    }
+
+    Type getClosestScopeType(int scope) {
+        return getClosestScopeInfo(scope).getKey();
+    }
+
+    Map.Entry<Type, Boolean> getClosestScopeInfo(int scope) {
+        int highestScope = Integer.min(scope, getHighestScope().orElse(scope));
+        if (scopes.containsKey(highestScope)) {
+            return new AbstractMap.SimpleImmutableEntry<>(scopes.get(highestScope), finals.get(highestScope));
+        }
+        return null;
+    }
+
+    boolean isScopeTooHigh(int scope) {
+        return getLowestScope().orElse(Integer.MAX_VALUE) > scope;
+    }
+
+    void removeScope(int scope) {
+        finals.remove(scope);
+        scopes.remove(scope);
+    }
+
+    boolean isEmpty() {
+        return scopes.isEmpty();
+    }
+
+    private Optional<Integer> getLowestScope() {
+        return scopes.keySet().stream().min(Integer::compareTo);
+    }
+
+    private Optional<Integer> getHighestScope() {
+        return scopes.keySet().stream().max(Integer::compareTo);
+    }
+}
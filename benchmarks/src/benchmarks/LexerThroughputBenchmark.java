@@ -0,0 +1,97 @@
+package benchmarks;
+
+import java_cup.runtime.Scanner;
+import utils.MappedInput;
+import utils.TokenBuffer;
+
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Throughput in MB/s of reading and of lexing a generated source file through a {@link FileReader} against through a
+ * {@link MappedInput}. The file is read once as plain ASCII, which stays on the mapped input's fast path, and once with
+ * a non-ASCII character in its first line, which makes the mapped input decode almost all of it as UTF-8. Lexing is
+ * also measured with the tokens packed into a reused {@link TokenBuffer} instead of a symbol each.
+ */
+public final class LexerThroughputBenchmark {
+    private static final int METHODS = 100_000;
+    private static final double BYTES_PER_MB = 1024 * 1024;
+    private static final int BUFFER_SIZE = 16384;
+
+    private static int blackhole;
+
+    private LexerThroughputBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        // The scanner is generated package-private into the default package, so it can only be reached reflectively.
+        Constructor<?> grammar = Class.forName("Grammar").getDeclaredConstructor(Reader.class);
+        grammar.setAccessible(true);
+        Method lexInto = grammar.getDeclaringClass().getDeclaredMethod("lexInto", TokenBuffer.class);
+        lexInto.setAccessible(true);
+        TokenBuffer tokens = TokenBuffer.create();
+        Path ascii = Files.createTempFile("lexer-ascii", ".as");
+        Path unicode = Files.createTempFile("lexer-unicode", ".as");
+        try {
+            GeneratedSource.write(ascii, METHODS, "\"plain ascii\"\n");
+            GeneratedSource.write(unicode, METHODS, "\"caf\u00e9\"\n");
+            for (Path path : new Path[]{ascii, unicode}) {
+                String text = path == ascii ? "ascii" : "utf-8";
+                measure("read " + text + ", reader", path, () -> drain(new FileReader(path.toFile(), StandardCharsets.UTF_8)));
+                measure("read " + text + ", mapped", path, () -> drain(MappedInput.open(path)));
+                measure("lex " + text + ", reader", path, () -> lex(grammar, new FileReader(path.toFile(), StandardCharsets.UTF_8)));
+                measure("lex " + text + ", mapped", path, () -> lex(grammar, MappedInput.open(path)));
+                measure("lex " + text + ", mapped, packed", path, () -> {
+                    try (Reader reader = MappedInput.open(path)) {
+                        tokens.clear();
+                        lexInto.invoke(grammar.newInstance(reader), tokens);
+                        blackhole += tokens.size();
+                    }
+                });
+            }
+        } finally {
+            Files.delete(ascii);
+            Files.delete(unicode);
+        }
+    }
+
+    private static void measure(String name, Path path, Benchmark.Operation operation) throws Exception {
+        Benchmark.Result result = Benchmark.builder()
+                .name(name)
+                .warmupIterations(3)
+                .measurementIterations(10)
+                .operation(operation)
+                .build()
+                .runAndPrint();
+        double seconds = result.getNanosPerOperation() / 1e9;
+        System.out.printf("%-60s %16.1f MB/s%n", name, Files.size(path) / BYTES_PER_MB / seconds);
+    }
+
+    /**
+     * Reads everything in chunks the size of the scanner's buffer.
+     */
+    private static void drain(Reader input) throws IOException {
+        try (Reader reader = input) {
+            char[] buffer = new char[BUFFER_SIZE];
+            int read;
+            while ((read = reader.read(buffer, 0, BUFFER_SIZE)) != -1) {
+                blackhole += read;
+            }
+        }
+    }
+
+    private static void lex(Constructor<?> grammar, Reader input) throws Exception {
+        try (Reader reader = input) {
+            Scanner scanner = (Scanner) grammar.newInstance(reader);
+            while (scanner.next_token().sym != 0) {
+                blackhole++;
+            }
+        }
+    }
+}
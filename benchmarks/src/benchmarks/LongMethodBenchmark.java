@@ -0,0 +1,128 @@
+package benchmarks;
+
+import information.FieldSymbolTable;
+import information.MethodSymbolTable;
+import tokens.expr.ExprArena;
+import tokens.expr.Operator;
+import tokens.id.Name;
+import tokens.lexeme.OptionalLexeme;
+import tokens.lexeme.Types;
+import tokens.methods.MethodDecl;
+import tokens.methods.ReturnType;
+import tokens.methods.args.PrintList;
+import tokens.methods.args.argdecls.ArgDeclList;
+import tokens.methods.args.argdecls.RegularArgDecl;
+import tokens.stmts.PrintStmt;
+import tokens.stmts.ReassignStmt;
+import tokens.stmts.ReturnStmt;
+import tokens.stmts.Stmts;
+import utils.OutputBuffer;
+
+import java.io.Writer;
+
+/**
+ * Stress test for a single method with 100k statements, built the way the parser builds it. Everything runs on a
+ * thread with a deliberately small stack, so it only completes if type checking and printing the statements do not
+ * recurse once per statement. Printing is measured both into a string and streamed to a writer.
+ */
+public final class LongMethodBenchmark {
+    private static final int STATEMENTS = 100_000;
+    private static final long STACK_SIZE = 256 * 1024;
+
+    private static int blackhole;
+
+    private LongMethodBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Throwable[] failure = new Throwable[1];
+        Thread thread = new Thread(null, () -> {
+            try {
+                run();
+            } catch (Throwable e) {
+                failure[0] = e;
+            }
+        }, "long-method", STACK_SIZE);
+        thread.start();
+        thread.join();
+        if (failure[0] != null) {
+            throw new IllegalStateException("Stress test on a " + STATEMENTS + "-statement method failed", failure[0]);
+        }
+    }
+
+    private static void run() throws Exception {
+        Benchmark.builder()
+                .name("build and type check, " + STATEMENTS + " statements")
+                .warmupIterations(3)
+                .measurementIterations(10)
+                .operation(() -> {
+                    MethodDecl method = method();
+                    method.typeCheck(1, fields(), MethodSymbolTable.empty());
+                })
+                .build()
+                .runAndPrint();
+
+        MethodDecl method = method();
+        Benchmark.builder()
+                .name("asString, " + STATEMENTS + " statements")
+                .warmupIterations(3)
+                .measurementIterations(10)
+                .operation(() -> blackhole += method.asString(1).length())
+                .build()
+                .runAndPrint();
+
+        OutputBuffer out = OutputBuffer.over(Writer.nullWriter());
+        Benchmark.builder()
+                .name("appendTo an output buffer, " + STATEMENTS + " statements")
+                .warmupIterations(3)
+                .measurementIterations(10)
+                .operation(() -> {
+                    method.appendTo(out, 1);
+                    out.flush();
+                })
+                .build()
+                .runAndPrint();
+    }
+
+    private static FieldSymbolTable fields() {
+        FieldSymbolTable fieldSymbolTable = FieldSymbolTable.empty();
+        fieldSymbolTable.put("x", 1, Types.INTLIT, false);
+        return fieldSymbolTable;
+    }
+
+    /**
+     * {@code int run(int a, int b)} alternating {@code x = x + a * i;} and {@code print(x, a, b);}, then returning x.
+     */
+    private static MethodDecl method() throws Exception {
+        ExprArena arena = ExprArena.create();
+        Stmts.Builder stmts = Stmts.builder();
+        for (int i = 0; i < STATEMENTS; i++) {
+            if (i % 2 == 0) {
+                int product = arena.binaryOp(arena.simple("a"), Operator.TIMES, arena.intlit(i));
+                stmts.stmt(ReassignStmt.builder()
+                        .name(Name.simple("x"))
+                        .expr(arena.view(arena.binaryOp(arena.simple("x"), Operator.PLUS, product)))
+                        .build());
+            } else {
+                stmts.stmt(PrintStmt.of(PrintList.builder()
+                        .expr(arena.view(arena.simple("x")))
+                        .expr(arena.view(arena.simple("a")))
+                        .expr(arena.view(arena.simple("b")))
+                        .build()));
+            }
+            stmts.position(i + 4, 5);
+        }
+        stmts.stmt(ReturnStmt.withExpr(arena.view(arena.simple("x"))));
+        arena.trim();
+        return MethodDecl.builder()
+                .returnType(ReturnType.withType(Types.INTLIT))
+                .id("run")
+                .argDeclList(ArgDeclList.builder()
+                        .argDecl(RegularArgDecl.builder().type(Types.INTLIT).id("a").build())
+                        .argDecl(RegularArgDecl.builder().type(Types.INTLIT).id("b").build())
+                        .build())
+                .stmts(stmts.build())
+                .optionalSemi(OptionalLexeme.hidden())
+                .build();
+    }
+}
@@ -0,0 +1,82 @@
+package benchmarks;
+
+import information.FieldSymbolTable;
+import information.MethodSymbolTable;
+import information.Resolution;
+import tokens.id.Name;
+import tokens.lexeme.Types;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Measures time and allocation per variable reference for the original name resolution path (map of scopes,
+ * streams over boxed scope numbers and a pair per result) against {@link Name#resolve}.
+ */
+public final class NameResolutionBenchmark {
+    private static final int IDENTIFIERS = 1_000;
+    private static final int LOOKUPS = 1_000_000;
+    private static final int SCOPE = 3;
+
+    private static int blackhole;
+
+    private NameResolutionBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String[] ids = new String[IDENTIFIERS];
+        Name[] names = new Name[IDENTIFIERS];
+        Map<String, LegacyFieldInformation> legacyTable = new HashMap<>();
+        FieldSymbolTable fieldSymbolTable = FieldSymbolTable.empty();
+        MethodSymbolTable methodSymbolTable = MethodSymbolTable.empty();
+        for (int i = 0; i < IDENTIFIERS; i++) {
+            ids[i] = "v" + i;
+            names[i] = Name.simple(ids[i]);
+            LegacyFieldInformation legacy = new LegacyFieldInformation();
+            legacy.put(1, Types.INTLIT, false);
+            fieldSymbolTable.put(ids[i], 1, Types.INTLIT, false);
+            if (i % 2 == 0) {
+                legacy.put(2, Types.FLOATLIT, i % 4 == 0);
+                fieldSymbolTable.put(ids[i], 2, Types.FLOATLIT, i % 4 == 0);
+            }
+            legacyTable.put(ids[i], legacy);
+        }
+
+        Benchmark.builder()
+                .name("legacy containsKey/get/streams/Pair per lookup")
+                .operationsPerIteration(LOOKUPS)
+                .operation(new Benchmark.Operation() {
+                    private int index;
+
+                    @Override
+                    public void run() {
+                        String id = ids[index++ % IDENTIFIERS];
+                        if (!legacyTable.containsKey(id) || legacyTable.get(id).isScopeTooHigh(SCOPE)) {
+                            throw new IllegalStateException(id);
+                        }
+                        sink(legacyTable.get(id).getClosestScopeInfo(SCOPE).getValue());
+                    }
+                })
+                .build()
+                .runAndPrint();
+
+        Benchmark.builder()
+                .name("Name.resolve packed int per lookup")
+                .operationsPerIteration(LOOKUPS)
+                .operation(new Benchmark.Operation() {
+                    private int index;
+
+                    @Override
+                    public void run() throws Exception {
+                        int resolution = names[index++ % IDENTIFIERS].resolve(SCOPE, fieldSymbolTable, methodSymbolTable);
+                        sink(Resolution.isFinal(resolution));
+                    }
+                })
+                .build()
+                .runAndPrint();
+    }
+
+    private static void sink(boolean value) {
+        blackhole += value ? 1 : 0;
+    }
+}
@@ -0,0 +1,65 @@
+package benchmarks;
+
+import java_cup.runtime.Scanner;
+import java_cup.runtime.lr_parser;
+import utils.PipelinedScanner;
+
+import java.io.FileReader;
+import java.io.Reader;
+import java.lang.reflect.Constructor;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * End-to-end parse time of a generated source file with the scanner called by the parser as it goes, against with the
+ * scanner running ahead on its own thread through a {@link PipelinedScanner}. The pipelined front end can only win
+ * when there is a second core for the lexer to run on.
+ */
+public final class PipelinedParseBenchmark {
+    private static final int METHODS = 100_000;
+
+    private static Object blackhole;
+
+    private PipelinedParseBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        // The scanner is generated package-private into the default package, so it can only be reached reflectively.
+        Constructor<?> grammar = Class.forName("Grammar").getDeclaredConstructor(Reader.class);
+        grammar.setAccessible(true);
+        Constructor<?> parser = Class.forName("parser").getConstructor(Scanner.class);
+        Path path = Files.createTempFile("parse", ".as");
+        try {
+            GeneratedSource.write(path, METHODS, "");
+            System.out.println("available processors: " + Runtime.getRuntime().availableProcessors());
+            Benchmark.Result direct = Benchmark.builder()
+                    .name("parse " + METHODS + " methods, direct")
+                    .warmupIterations(3)
+                    .measurementIterations(10)
+                    .operation(() -> {
+                        try (Reader reader = new FileReader(path.toFile(), StandardCharsets.UTF_8)) {
+                            Scanner scanner = (Scanner) grammar.newInstance(reader);
+                            blackhole = ((lr_parser) parser.newInstance(scanner)).parse().value;
+                        }
+                    })
+                    .build()
+                    .runAndPrint();
+            Benchmark.Result pipelined = Benchmark.builder()
+                    .name("parse " + METHODS + " methods, pipelined")
+                    .warmupIterations(3)
+                    .measurementIterations(10)
+                    .operation(() -> {
+                        try (Reader reader = new FileReader(path.toFile(), StandardCharsets.UTF_8);
+                             PipelinedScanner scanner = PipelinedScanner.start((Scanner) grammar.newInstance(reader))) {
+                            blackhole = ((lr_parser) parser.newInstance(scanner)).parse().value;
+                        }
+                    })
+                    .build()
+                    .runAndPrint();
+            System.out.printf("%-60s %16.2f x%n", "speedup", direct.getNanosPerOperation() / pipelined.getNanosPerOperation());
+        } finally {
+            Files.delete(path);
+        }
+    }
+}
@@ -0,0 +1,472 @@
+package benchmarks;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * Generates valid programs of a chosen size and shape for scale and stress testing, and sources of a pathological
+ * shape that push one part of the front end to its limits. The same settings and seed always give the same program.
+ *
+ * A generated program has class fields of every kind (plain, {@code final}, arrays), then methods that take
+ * arguments, declare locals and run statements nested up to the nesting depth: loops, conditionals, assignments,
+ * ternaries and calls of the methods before them, over expressions up to the expression depth, and a {@code main}
+ * that calls every method once. Every program type checks cleanly, and runs to the end without faults or input: each
+ * call and each loop iteration spends one of a budget of steps held in a field, and is skipped once it is spent, and
+ * arrays are only indexed with constants.
+ */
+public final class ProgramGenerator {
+    public static final class Builder {
+        private long seed = 1;
+        private int methods = 100;
+        private int statementsPerMethod = 10;
+        private int nestingDepth = 3;
+        private int expressionDepth = 3;
+        private int identifiers = 16;
+        private int steps = 10000;
+
+        private Builder() {
+        }
+
+        public Builder seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        public Builder methods(int methods) {
+            this.methods = methods;
+            return this;
+        }
+
+        public Builder statementsPerMethod(int statementsPerMethod) {
+            this.statementsPerMethod = statementsPerMethod;
+            return this;
+        }
+
+        /**
+         * How deep loops and conditionals nest; the first statement of every method nests this deep.
+         */
+        public Builder nestingDepth(int nestingDepth) {
+            this.nestingDepth = nestingDepth;
+            return this;
+        }
+
+        /**
+         * How deep operators nest in an expression; the expression each method returns or prints last is this deep.
+         */
+        public Builder expressionDepth(int expressionDepth) {
+            this.expressionDepth = expressionDepth;
+            return this;
+        }
+
+        /**
+         * How many class fields there are for methods to use, at least one of each kind.
+         */
+        public Builder identifiers(int identifiers) {
+            this.identifiers = Math.max(FIELD_KINDS, identifiers);
+            return this;
+        }
+
+        /**
+         * How many calls and loop iterations a run of the program takes at most, beyond the calls {@code main} makes.
+         */
+        public Builder steps(int steps) {
+            this.steps = steps;
+            return this;
+        }
+
+        public ProgramGenerator build() {
+            return new ProgramGenerator(this);
+        }
+    }
+
+    private static final int FIELD_KINDS = 4;
+    private static final int INT_FIELD = 0;
+    private static final int FINAL_FIELD = 1;
+    private static final int ARRAY_FIELD = 2;
+    private static final int BOOL_FIELD = 3;
+    private static final int ARRAY_SIZE = 16;
+    private static final int MAX_BLOCK_STATEMENTS = 3;
+    // Neither a star nor a backslash, which could end a block comment early.
+    private static final String COMMENT_LINE = "lorem ipsum dolor sit amet, consectetur adipiscing elit, sed do eiusmod\n";
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    private final long seed;
+    private final int methods;
+    private final int statementsPerMethod;
+    private final int nestingDepth;
+    private final int expressionDepth;
+    private final int identifiers;
+    private final int steps;
+
+    private Random random;
+    private StringBuilder source;
+    // Whether the method being generated returns an int, and so also takes an int array.
+    private boolean returnsInt;
+    private int method;
+
+    private ProgramGenerator(Builder builder) {
+        this.seed = builder.seed;
+        this.methods = builder.methods;
+        this.statementsPerMethod = builder.statementsPerMethod;
+        this.nestingDepth = builder.nestingDepth;
+        this.expressionDepth = builder.expressionDepth;
+        this.identifiers = builder.identifiers;
+        this.steps = builder.steps;
+    }
+
+    public String generate() {
+        random = new Random(seed);
+        source = new StringBuilder("class Generated {\n");
+        source.append("    int steps = ").append(steps).append(";\n");
+        for (int i = 0; i < identifiers; i++) {
+            switch (i % FIELD_KINDS) {
+                case INT_FIELD:
+                    source.append("    int f").append(i).append(" = ").append(random.nextInt(100)).append(";\n");
+                    break;
+                case FINAL_FIELD:
+                    source.append("    final int f").append(i).append(" = ").append(random.nextInt(100)).append(";\n");
+                    break;
+                case ARRAY_FIELD:
+                    source.append("    int f").append(i).append('[').append(ARRAY_SIZE).append("];\n");
+                    break;
+                default:
+                    source.append("    bool f").append(i).append(" = ").append(random.nextBoolean()).append(";\n");
+                    break;
+            }
+        }
+        for (method = 0; method < methods; method++) {
+            returnsInt = method % 2 == 0;
+            source.append(returnsInt ? "    int m" : "    void m").append(method)
+                    .append(returnsInt ? "(int a, int v[], bool c) {\n" : "(int a, bool c) {\n");
+            source.append("        int x = a;\n        final int k = ").append(random.nextInt(100)).append(";\n");
+            source.append("        steps--;\n");
+            for (int i = 0; i < statementsPerMethod; i++) {
+                statement(i == 0 ? nestingDepth : random.nextInt(nestingDepth + 1), 2, i == 0);
+            }
+            if (returnsInt) {
+                source.append("        return ");
+                intExpression(expressionDepth);
+                source.append(";\n");
+            } else {
+                source.append("        print(\"m").append(method).append(": \", ");
+                intExpression(expressionDepth);
+                source.append(");\n");
+            }
+            source.append("    }\n");
+        }
+        source.append("    void main() {\n");
+        for (int callee = 0; callee < methods; callee++) {
+            source.append("        m").append(callee).append('(').append(callee)
+                    .append(callee % 2 == 0 ? ", f" + field(ARRAY_FIELD) + ", " : ", ")
+                    .append(random.nextBoolean()).append(");\n");
+        }
+        source.append("    }\n");
+        String program = source.append("}\n").toString();
+        source = null;
+        return program;
+    }
+
+    /**
+     * A class whose one field is initialized with a literal inside {@code depth} pairs of parentheses.
+     */
+    public static String deepParentheses(int depth) {
+        return "class Deep {\n    int f = " + "(".repeat(depth) + "1" + ")".repeat(depth) + ";\n}\n";
+    }
+
+    /**
+     * A class behind a block comment of about {@code chars} characters.
+     */
+    public static String hugeComment(int chars) {
+        int lines = Math.max(1, chars / COMMENT_LINE.length());
+        return "\\*\n" + COMMENT_LINE.repeat(lines) + "*\\\nclass Commented {\n    int f = 1;\n}\n";
+    }
+
+    /**
+     * A class that prints a string literal of {@code chars} characters.
+     */
+    public static String longString(int chars) {
+        StringBuilder literal = new StringBuilder(chars);
+        for (int i = 0; i < chars; i++) {
+            literal.append((char) ('a' + i % 26));
+        }
+        return "class Strings {\n    void m() {\n        print(\"" + literal + "\");\n    }\n}\n";
+    }
+
+    /**
+     * Writes a statement nested up to {@code depth} deep, or exactly that deep if {@code deepest}.
+     */
+    private void statement(int depth, int tabs, boolean deepest) {
+        String indent = "    ".repeat(tabs);
+        if (depth > 0 && (deepest || random.nextInt(3) == 0)) {
+            switch (random.nextInt(3)) {
+                case 0:
+                    source.append(indent).append("while (steps > 0 && (");
+                    condition(1);
+                    source.append(")) {\n");
+                    block(depth - 1, tabs + 1, deepest);
+                    source.append(indent).append("    x++;\n")
+                            .append(indent).append("    steps--;\n")
+                            .append(indent).append("}\n");
+                    return;
+                case 1:
+                    source.append(indent).append("if (");
+                    condition(1);
+                    source.append(") {\n");
+                    block(depth - 1, tabs + 1, deepest);
+                    source.append(indent).append("} else {\n");
+                    block(depth - 1, tabs + 1, false);
+                    source.append(indent).append("}\n");
+                    return;
+                default:
+                    source.append(indent).append("if (");
+                    condition(1);
+                    source.append(")\n");
+                    statement(depth - 1, tabs + 1, deepest);
+                    return;
+            }
+        }
+        source.append(indent);
+        switch (random.nextInt(7)) {
+            case 0:
+                source.append("x = ");
+                intExpression(random.nextInt(expressionDepth + 1));
+                source.append(";\n");
+                break;
+            case 1:
+                source.append('f').append(field(INT_FIELD)).append(" = ");
+                intExpression(random.nextInt(expressionDepth + 1));
+                source.append(";\n");
+                break;
+            case 2:
+                source.append('f').append(field(ARRAY_FIELD)).append('[').append(random.nextInt(ARRAY_SIZE)).append("] = ");
+                intExpression(random.nextInt(expressionDepth + 1));
+                source.append(";\n");
+                break;
+            case 3:
+                source.append(random.nextBoolean() ? "x++;\n" : "x--;\n");
+                break;
+            case 4:
+                if (method > 0) {
+                    source.append("if (steps > 0) ");
+                    call(random.nextInt(method), 0);
+                    source.append(";\n");
+                } else {
+                    source.append("print(\"x is \", x);\n");
+                }
+                break;
+            case 5:
+                source.append("c = ");
+                condition(random.nextInt(expressionDepth + 1));
+                source.append(";\n");
+                break;
+            default:
+                source.append("print(\"x is \", x, ");
+                intExpression(random.nextInt(expressionDepth + 1));
+                source.append(");\n");
+                break;
+        }
+    }
+
+    private void block(int depth, int tabs, boolean deepest) {
+        int statements = 1 + random.nextInt(MAX_BLOCK_STATEMENTS);
+        for (int i = 0; i < statements; i++) {
+            statement(depth, tabs, deepest && i == 0);
+        }
+    }
+
+    /**
+     * Writes an int expression with operators nested exactly {@code depth} deep along one path.
+     */
+    private void intExpression(int depth) {
+        if (depth == 0) {
+            switch (random.nextInt(6)) {
+                case 0:
+                    source.append('a');
+                    break;
+                case 1:
+                    source.append('x');
+                    break;
+                case 2:
+                    source.append('k');
+                    break;
+                case 3:
+                    source.append('f').append(field(random.nextBoolean() ? INT_FIELD : FINAL_FIELD));
+                    break;
+                case 4:
+                    source.append(returnsInt ? "v[" : "f" + field(ARRAY_FIELD) + "[").append(random.nextInt(ARRAY_SIZE)).append(']');
+                    break;
+                default:
+                    source.append(random.nextInt(1000));
+                    break;
+            }
+            return;
+        }
+        switch (random.nextInt(6)) {
+            case 0:
+                source.append("(x + 1) * ");
+                intExpression(depth - 1);
+                break;
+            case 1:
+                source.append('(');
+                intExpression(depth - 1);
+                source.append(") - k");
+                break;
+            case 2:
+                source.append('(');
+                condition(0);
+                source.append(" ? ");
+                intExpression(depth - 1);
+                source.append(" : ");
+                intExpression(0);
+                source.append(')');
+                break;
+            case 3:
+                source.append("-(");
+                intExpression(depth - 1);
+                source.append(')');
+                break;
+            case 4:
+                source.append('f').append(field(ARRAY_FIELD)).append('[').append(random.nextInt(ARRAY_SIZE)).append("] + (");
+                intExpression(depth - 1);
+                source.append(')');
+                break;
+            default:
+                // Only the int methods before this one can be called for their value.
+                int callee = method - 1 - (method % 2 == 0 ? 1 : 0);
+                if (callee >= 0) {
+                    source.append("(steps > 0 ? ");
+                    call(callee - 2 * random.nextInt(callee / 2 + 1), depth - 1);
+                    source.append(" : 0)");
+                } else {
+                    source.append("(a + ");
+                    intExpression(depth - 1);
+                    source.append(')');
+                }
+                break;
+        }
+    }
+
+    /**
+     * Writes a bool expression whose operands nest up to {@code depth} deep.
+     */
+    private void condition(int depth) {
+        switch (random.nextInt(4)) {
+            case 0:
+                intExpression(random.nextInt(depth + 1));
+                source.append(" < ");
+                intExpression(0);
+                break;
+            case 1:
+                source.append("~c");
+                break;
+            case 2:
+                source.append('f').append(field(BOOL_FIELD));
+                break;
+            default:
+                source.append("(x <> ");
+                intExpression(random.nextInt(depth + 1));
+                source.append(" && c)");
+                break;
+        }
+    }
+
+    /**
+     * Writes a call of an earlier method, with its first argument {@code depth} deep.
+     */
+    private void call(int callee, int depth) {
+        source.append('m').append(callee).append('(');
+        intExpression(depth);
+        source.append(callee % 2 == 0 ? ", f" + field(ARRAY_FIELD) + ", " : ", ");
+        condition(0);
+        source.append(')');
+    }
+
+    /**
+     * Picks the number of a class field of the given kind.
+     */
+    private int field(int kind) {
+        return random.nextInt(identifiers / FIELD_KINDS) * FIELD_KINDS + kind;
+    }
+
+    public static void main(String[] args) throws IOException {
+        Builder builder = builder();
+        String pathological = null;
+        int size = 0;
+        Path output = null;
+
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            if (option.equals("--out")) {
+                if (i + 1 == args.length) {
+                    System.out.println("Error: --out expects a file");
+                    return;
+                }
+                output = Path.of(args[++i]);
+                continue;
+            }
+            if (i + 1 == args.length || !args[i + 1].matches("[0-9]{1,9}")) {
+                System.out.println("Usage: ProgramGenerator [--seed N] [--methods N] [--statements N] [--nesting N]"
+                        + " [--expressions N] [--identifiers N] [--steps N] [--out FILE]");
+                System.out.println("       ProgramGenerator (--parentheses DEPTH | --comment CHARS | --string CHARS) [--out FILE]");
+                return;
+            }
+            int value = Integer.parseInt(args[++i]);
+            switch (option) {
+                case "--seed":
+                    builder.seed(value);
+                    break;
+                case "--methods":
+                    builder.methods(value);
+                    break;
+                case "--statements":
+                    builder.statementsPerMethod(value);
+                    break;
+                case "--nesting":
+                    builder.nestingDepth(value);
+                    break;
+                case "--expressions":
+                    builder.expressionDepth(value);
+                    break;
+                case "--identifiers":
+                    builder.identifiers(value);
+                    break;
+                case "--steps":
+                    builder.steps(value);
+                    break;
+                case "--parentheses":
+                case "--comment":
+                case "--string":
+                    pathological = option;
+                    size = value;
+                    break;
+                default:
+                    System.out.println("Error: unknown option " + option);
+                    return;
+            }
+        }
+
+        String program;
+        if (pathological == null) {
+            program = builder.build().generate();
+        } else if (pathological.equals("--parentheses")) {
+            program = deepParentheses(size);
+        } else if (pathological.equals("--comment")) {
+            program = hugeComment(size);
+        } else {
+            program = longString(size);
+        }
+        try (Writer out = output == null
+                ? new OutputStreamWriter(System.out, StandardCharsets.UTF_8)
+                : Files.newBufferedWriter(output, StandardCharsets.UTF_8)) {
+            out.write(program);
+        }
+    }
+}
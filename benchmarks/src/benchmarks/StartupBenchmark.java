@@ -0,0 +1,50 @@
+package benchmarks;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Wall time of running each driver on a trivial file in a fresh JVM: with the ordinary build, with the
+ * startup-optimized build that takes the parse and scan tables from a precomputed image, and with that build and its
+ * class data sharing archive. Built and run by {@code make runStartupBenchmark}, which passes the file, both class
+ * paths and the archive.
+ */
+public final class StartupBenchmark {
+    private static final String[] DRIVERS = {"LexerTest", "ParserTest", "TypeCheckerTest"};
+    private static final String JAVA = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+
+    private StartupBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length != 4) {
+            System.out.println("Usage: StartupBenchmark <file> <class path> <startup class path> <startup archive>");
+            return;
+        }
+        String file = args[0];
+        for (String driver : DRIVERS) {
+            Benchmark.Result before = measure(driver + ", ordinary build", List.of("-cp", args[1], driver, file));
+            measure(driver + ", precomputed tables", List.of("-cp", args[2], driver, file));
+            Benchmark.Result after = measure(driver + ", precomputed tables and archive",
+                    List.of("-XX:SharedArchiveFile=" + args[3], "-cp", args[2], driver, file));
+            System.out.printf("%-60s %16.2f x%n", "speedup", before.getNanosPerOperation() / after.getNanosPerOperation());
+        }
+    }
+
+    private static Benchmark.Result measure(String name, List<String> arguments) throws Exception {
+        List<String> command = new ArrayList<>();
+        command.add(JAVA);
+        command.addAll(arguments);
+        ProcessBuilder process = new ProcessBuilder(command)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .redirectError(ProcessBuilder.Redirect.DISCARD);
+        return Benchmark.builder()
+                .name(name)
+                .warmupIterations(3)
+                .measurementIterations(20)
+                .operation(() -> process.start().waitFor())
+                .build()
+                .runAndPrint();
+    }
+}
@@ -0,0 +1,100 @@
+package benchmarks;
+
+import information.FieldSymbolTable;
+import information.MethodSymbolTable;
+import java_cup.runtime.Scanner;
+import java_cup.runtime.lr_parser;
+import tokens.Program;
+import tokens.StreamingTypeCheck;
+
+import java.io.FileReader;
+import java.io.Reader;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Parsing and then type checking a generated source file against type checking it with a {@link StreamingTypeCheck}
+ * while it is parsed: the time for both, and the heap still held by what the parser returns. Parsing first keeps
+ * every method until the end, while streaming only keeps the class fields and what is left to report about each
+ * method.
+ */
+public final class StreamingTypeCheckBenchmark {
+    private static final int METHODS = 100_000;
+    private static final int JOBS = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+    private static final MemoryMXBean MEMORY = ManagementFactory.getMemoryMXBean();
+
+    private static Object retained;
+
+    private StreamingTypeCheckBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        // The scanner and parser are generated into the default package, so they can only be reached reflectively.
+        Constructor<?> grammar = Class.forName("Grammar").getDeclaredConstructor(Reader.class);
+        grammar.setAccessible(true);
+        Constructor<?> parser = Class.forName("parser").getConstructor(Scanner.class);
+        Method streamTo = parser.getDeclaringClass().getMethod("streamTo", StreamingTypeCheck.class);
+        Path path = Files.createTempFile("check", ".as");
+        try {
+            GeneratedSource.write(path, METHODS, "");
+            Benchmark.Result separate = Benchmark.builder()
+                    .name("parse, then check " + METHODS + " methods, " + JOBS + " jobs")
+                    .warmupIterations(2)
+                    .measurementIterations(5)
+                    .operation(() -> {
+                        Program program = (Program) parse(grammar, parser, streamTo, path, null);
+                        program.setJobs(JOBS);
+                        program.typeCheck(0, FieldSymbolTable.empty(), MethodSymbolTable.empty());
+                    })
+                    .build()
+                    .runAndPrint();
+            Benchmark.Result streaming = Benchmark.builder()
+                    .name("check " + METHODS + " methods while parsing, " + JOBS + " jobs")
+                    .warmupIterations(2)
+                    .measurementIterations(5)
+                    .operation(() -> {
+                        StreamingTypeCheck check = StreamingTypeCheck.withJobs(JOBS);
+                        parse(grammar, parser, streamTo, path, check);
+                        check.finish();
+                    })
+                    .build()
+                    .runAndPrint();
+            System.out.printf("%-60s %16.2f x%n", "speedup", separate.getNanosPerOperation() / streaming.getNanosPerOperation());
+
+            long before = usedAfterGc();
+            retained = parse(grammar, parser, streamTo, path, null);
+            long parsed = usedAfterGc() - before;
+            retained = null;
+            before = usedAfterGc();
+            StreamingTypeCheck check = StreamingTypeCheck.withJobs(JOBS);
+            retained = parse(grammar, parser, streamTo, path, check);
+            long streamed = usedAfterGc() - before;
+            check.finish();
+            retained = null;
+            System.out.printf("%-60s %16d B%n", "retained after parsing, then checking", parsed);
+            System.out.printf("%-60s %16d B%n", "retained after checking while parsing", streamed);
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    private static Object parse(Constructor<?> grammar, Constructor<?> parser, Method streamTo, Path path, StreamingTypeCheck check) throws Exception {
+        try (Reader reader = new FileReader(path.toFile(), StandardCharsets.UTF_8)) {
+            lr_parser instance = (lr_parser) parser.newInstance((Scanner) grammar.newInstance(reader));
+            streamTo.invoke(instance, check);
+            return instance.parse().value;
+        }
+    }
+
+    private static long usedAfterGc() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return MEMORY.getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,104 @@
+package benchmarks;
+
+import information.FieldSymbolTable;
+import information.MethodSymbolTable;
+import java_cup.runtime.Scanner;
+import java_cup.runtime.lr_parser;
+import tokens.Program;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.function.IntFunction;
+
+/**
+ * How lexing, parsing, type checking and printing scale on the pathological sources of {@link ProgramGenerator}:
+ * parentheses nested ever deeper, ever bigger block comments and ever longer string literals. Time per character
+ * that grows with the size shows where a phase stops being linear, and a phase that fails, say by running out of
+ * stack, shows where it gives up altogether.
+ */
+public final class StressBenchmark {
+    private static final int[] DEPTHS = {1_000, 10_000, 100_000};
+    private static final int[] COMMENT_CHARS = {100_000, 1_000_000, 10_000_000};
+    private static final int[] STRING_CHARS = {10_000, 100_000, 1_000_000};
+
+    private static long blackhole;
+
+    private final Constructor<?> grammar;
+    private final Constructor<?> parser;
+    private final Method reportTo;
+
+    private StressBenchmark() throws ReflectiveOperationException {
+        // The scanner and parser are generated into the default package, so they can only be reached reflectively.
+        grammar = Class.forName("Grammar").getDeclaredConstructor(Reader.class);
+        grammar.setAccessible(true);
+        parser = Class.forName("parser").getConstructor(Scanner.class);
+        reportTo = parser.getDeclaringClass().getMethod("reportTo", PrintStream.class);
+    }
+
+    public static void main(String[] args) throws Exception {
+        StressBenchmark benchmark = new StressBenchmark();
+        benchmark.run("parentheses deep", DEPTHS, ProgramGenerator::deepParentheses);
+        benchmark.run("chars of comment", COMMENT_CHARS, ProgramGenerator::hugeComment);
+        benchmark.run("chars of string", STRING_CHARS, ProgramGenerator::longString);
+    }
+
+    private void run(String shape, int[] sizes, IntFunction<String> generator) throws Exception {
+        for (int size : sizes) {
+            String source = generator.apply(size);
+            String name = size + " " + shape;
+            measure("lex " + name, source, () -> {
+            }, () -> blackhole += lex(source));
+            if (!measure("parse " + name, source, () -> {
+            }, () -> blackhole += parse(source).hashCode())) {
+                continue;
+            }
+            // Checking caches the type of every expression in the tree, so each check gets a freshly parsed program.
+            Program[] program = new Program[1];
+            measure("check " + name, source, () -> program[0] = parse(source),
+                    () -> program[0].typeCheck(0, FieldSymbolTable.empty(), MethodSymbolTable.empty()));
+            Program parsed = parse(source);
+            measure("print " + name, source, () -> {
+            }, () -> blackhole += parsed.asString(0).length());
+        }
+    }
+
+    /**
+     * Measures the phase and prints its time per character of the source, or how it failed. Returns whether it ran.
+     */
+    private static boolean measure(String name, String source, Benchmark.Operation setup, Benchmark.Operation operation) throws Exception {
+        try {
+            Benchmark.Result result = Benchmark.builder()
+                    .name(name)
+                    .warmupIterations(2)
+                    .measurementIterations(5)
+                    .setup(setup)
+                    .operation(operation)
+                    .build()
+                    .runAndPrint();
+            System.out.printf("%-60s %16.1f ns/char%n", name, result.getNanosPerOperation() / source.length());
+            return true;
+        } catch (Exception | StackOverflowError | OutOfMemoryError e) {
+            System.out.printf("%-60s fails with %s%n", name, e);
+            return false;
+        }
+    }
+
+    private long lex(String source) throws Exception {
+        Scanner scanner = (Scanner) grammar.newInstance(new StringReader(source));
+        long tokens = 0;
+        while (scanner.next_token().sym != 0) {
+            tokens++;
+        }
+        return tokens;
+    }
+
+    private Program parse(String source) throws Exception {
+        lr_parser parser = (lr_parser) this.parser.newInstance(grammar.newInstance(new StringReader(source)));
+        reportTo.invoke(parser, new PrintStream(OutputStream.nullOutputStream()));
+        return (Program) parser.parse().value;
+    }
+}
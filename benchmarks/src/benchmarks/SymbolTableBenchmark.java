@@ -0,0 +1,108 @@
+package benchmarks;
+
+import information.FieldInformation;
+import information.FieldSymbolTable;
+import tokens.lexeme.Types;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares the scope-stack {@link FieldSymbolTable} against the previous map-of-maps symbol table on the shape of a
+ * large generated method: many locals, and many statements that each open and close a nested scope.
+ */
+public final class SymbolTableBenchmark {
+    private static final int[] IDENTIFIER_COUNTS = {10_000, 50_000};
+    private static final int STATEMENTS = 1_000;
+    private static final int LOOKUPS_PER_STATEMENT = 4;
+
+    private SymbolTableBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        for (int identifiers : IDENTIFIER_COUNTS) {
+            String[] ids = identifiers(identifiers);
+            Benchmark.builder()
+                    .name("legacy map-of-maps, " + identifiers + " identifiers")
+                    .warmupIterations(2)
+                    .measurementIterations(3)
+                    .operation(() -> checkLegacy(ids))
+                    .build()
+                    .runAndPrint();
+            Benchmark.builder()
+                    .name("scope stack, " + identifiers + " identifiers")
+                    .warmupIterations(5)
+                    .measurementIterations(10)
+                    .operation(() -> checkScopeStack(ids))
+                    .build()
+                    .runAndPrint();
+        }
+    }
+
+    private static String[] identifiers(int count) {
+        String[] ids = new String[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = "v" + i;
+        }
+        return ids;
+    }
+
+    private static int checkScopeStack(String[] ids) {
+        FieldSymbolTable table = FieldSymbolTable.empty();
+        int found = 0;
+        for (String id : ids) {
+            if (!table.isAlreadyDeclaredAtScope(id, 2)) {
+                table.put(id, 2, Types.INTLIT, false);
+            }
+        }
+        for (int statement = 0; statement < STATEMENTS; statement++) {
+            String local = ids[statement % ids.length];
+            table.put(local, 3, Types.FLOATLIT, false);
+            for (int lookup = 0; lookup < LOOKUPS_PER_STATEMENT; lookup++) {
+                FieldInformation fieldInformation = table.get(ids[(statement * 31 + lookup * 7) % ids.length], 3);
+                if (fieldInformation != null && !fieldInformation.isFinal()) {
+                    found++;
+                }
+            }
+            table.removeScope(3);
+        }
+        table.removeScope(2);
+        return found;
+    }
+
+    private static int checkLegacy(String[] ids) {
+        Map<String, LegacyFieldInformation> table = new HashMap<>();
+        int found = 0;
+        for (String id : ids) {
+            table.computeIfAbsent(id, ignored -> new LegacyFieldInformation()).put(2, Types.INTLIT, false);
+        }
+        for (int statement = 0; statement < STATEMENTS; statement++) {
+            String local = ids[statement % ids.length];
+            table.computeIfAbsent(local, ignored -> new LegacyFieldInformation()).put(3, Types.FLOATLIT, false);
+            for (int lookup = 0; lookup < LOOKUPS_PER_STATEMENT; lookup++) {
+                LegacyFieldInformation fieldInformation = table.get(ids[(statement * 31 + lookup * 7) % ids.length]);
+                if (fieldInformation != null && !fieldInformation.isScopeTooHigh(3) && !fieldInformation.getClosestScopeInfo(3).getValue()) {
+                    found++;
+                }
+            }
+            removeLegacyScope(3, table);
+        }
+        removeLegacyScope(2, table);
+        return found;
+    }
+
+    private static void removeLegacyScope(int scope, Map<String, LegacyFieldInformation> table) {
+        List<String> variablesToRemove = new ArrayList<>();
+        table.forEach((variable, fieldInformation) -> {
+            fieldInformation.removeScope(scope);
+            if (fieldInformation.isEmpty()) {
+                variablesToRemove.add(variable);
+            }
+        });
+        for (String variable : variablesToRemove) {
+            table.remove(variable);
+        }
+    }
+}
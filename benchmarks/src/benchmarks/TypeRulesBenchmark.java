@@ -0,0 +1,112 @@
+package benchmarks;
+
+import tokens.expr.Operator;
+import tokens.lexeme.Type;
+import tokens.lexeme.Types;
+import type_checking.TypeRules;
+
+/**
+ * Compares the table-driven {@link TypeRules} against the branch chains the checker used before (string comparisons
+ * on the operator, identity comparisons on the types), over every operator and pair of types.
+ */
+public final class TypeRulesBenchmark {
+    private static final Type[] TYPES = new Type[Types.ID_COUNT];
+    private static final Operator[] OPERATORS = Operator.values();
+
+    private static int blackhole;
+
+    private TypeRulesBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        for (int id = 0; id < Types.ID_COUNT; id++) {
+            TYPES[id] = Types.byId(id);
+        }
+        int checks = OPERATORS.length * TYPES.length * TYPES.length;
+
+        Benchmark.builder()
+                .name("branch chains, binary op result + assignability")
+                .measurementIterations(5_000)
+                .warmupIterations(5_000)
+                .operationsPerIteration(1)
+                .operation(() -> {
+                    for (Operator operator : OPERATORS) {
+                        for (Type left : TYPES) {
+                            for (Type right : TYPES) {
+                                Type result = legacyBinaryResult(operator.getSymbol(), left, right);
+                                blackhole += result == null ? 0 : 1;
+                                blackhole += legacyIsAssignable(left, right) ? 1 : 0;
+                            }
+                        }
+                    }
+                })
+                .build()
+                .runAndPrint();
+
+        Benchmark.builder()
+                .name("lookup tables, binary op result + assignability")
+                .measurementIterations(5_000)
+                .warmupIterations(5_000)
+                .operationsPerIteration(1)
+                .operation(() -> {
+                    for (Operator operator : OPERATORS) {
+                        for (Type left : TYPES) {
+                            for (Type right : TYPES) {
+                                Type result = TypeRules.getBinaryResult(operator, left, right);
+                                blackhole += result == null ? 0 : 1;
+                                blackhole += TypeRules.isAssignable(left, right) ? 1 : 0;
+                            }
+                        }
+                    }
+                })
+                .build()
+                .runAndPrint();
+
+        System.out.println("(each operation performs " + checks + " binary op and " + checks + " assignability checks)");
+    }
+
+    private static boolean legacyIsAssignable(Type target, Type source) {
+        if (target == Types.BOOLLIT) {
+            return source == Types.BOOLLIT || source == Types.INTLIT;
+        } else if (target == Types.FLOATLIT) {
+            return source == Types.FLOATLIT || source == Types.INTLIT;
+        }
+        return target.getType().equals(source.getType()) && target.isArray() == source.isArray();
+    }
+
+    private static Type legacyBinaryResult(String operation, Type left, Type right) {
+        if (operation.equals("+") && (left == Types.STR || right == Types.STR)) {
+            return Types.STR;
+        } else if (operation.equals("+") || operation.equals("-") || operation.equals("*") || operation.equals("/")) {
+            if (left != Types.INTLIT && left != Types.FLOATLIT) {
+                return null;
+            }
+            if (right != Types.INTLIT && right != Types.FLOATLIT) {
+                return null;
+            }
+            if (left == Types.FLOATLIT) {
+                return left;
+            }
+            if (right == Types.FLOATLIT) {
+                return right;
+            }
+            return left;
+        } else if (operation.equals(">") || operation.equals("<") || operation.equals(">=") || operation.equals("<=") || operation.equals("==") || operation.equals("<>")) {
+            if (left != Types.INTLIT && left != Types.FLOATLIT) {
+                return null;
+            }
+            if (right != Types.INTLIT && right != Types.FLOATLIT) {
+                return null;
+            }
+            return Types.BOOLLIT;
+        } else {
+            if (left != Types.BOOLLIT && left != Types.INTLIT) {
+                return null;
+            }
+            if (right != Types.BOOLLIT && right != Types.INTLIT) {
+                return null;
+            }
+            return Types.BOOLLIT;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+import information.FieldSymbolTable;
+import information.MethodSymbolTable;
+import tokens.Program;
+import type_checking.Diagnostic;
+import type_checking.TypeCheckException;
+import utils.CompileStats;
+import utils.OutputBuffer;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Reader;
+
+/**
+ * Parses one source, prints it and optionally type checks it, for the drivers that handle many sources in one JVM.
+ * Each source gets its own scanner, parser and symbol tables, and everything about it, errors included, goes to the
+ * stream it is given rather than to standard output and error.
+ */
+final class Compilation {
+    static final String PASSED = "passed";
+    static final String SYNTAX_ERROR = "syntax error";
+
+    private Compilation() {
+    }
+
+    /**
+     * Parses the source and prints the program, returning {@link #PASSED} or {@link #SYNTAX_ERROR}.
+     */
+    static String parse(Reader reader, PrintStream out) throws IOException {
+        Program program = parseProgram(reader, out, null);
+        if (program == null) {
+            return SYNTAX_ERROR;
+        }
+        print(program, out, null);
+        return PASSED;
+    }
+
+    /**
+     * Parses the source, prints the program and type checks it, returning {@link #PASSED} or what went wrong.
+     */
+    static String check(Reader reader, PrintStream out) throws IOException {
+        return check(reader, out, null);
+    }
+
+    /**
+     * Checks the source as {@link #check(Reader, PrintStream)} does, measuring each phase into the given stats, which
+     * must have been started on this thread.
+     */
+    static String check(Reader reader, PrintStream out, CompileStats stats) throws IOException {
+        Program program = parseProgram(reader, out, stats);
+        if (program == null) {
+            return SYNTAX_ERROR;
+        }
+        print(program, out, stats);
+        try {
+            CompileStats.Phase checking = CompileStats.measure(stats, CompileStats.CHECK);
+            try {
+                if (stats != null) {
+                    program.typeCheck(0, FieldSymbolTable.counting(stats), MethodSymbolTable.empty().countingInto(stats));
+                } else {
+                    program.typeCheck(0, FieldSymbolTable.empty(), MethodSymbolTable.empty());
+                }
+                out.println("Type checking complete!");
+                return PASSED;
+            } finally {
+                checking.end();
+            }
+        } catch (TypeCheckException e) {
+            for (Diagnostic diagnostic : e.getDiagnostics()) {
+                out.println(diagnostic);
+            }
+            return e.getDiagnostics().size() + (e.getDiagnostics().size() == 1 ? " type error" : " type errors");
+        }
+    }
+
+    private static Program parseProgram(Reader reader, PrintStream out, CompileStats stats) {
+        Grammar scanner = new Grammar(reader);
+        scanner.reportTo(out);
+        parser parser = new parser(stats != null ? stats.lexing(scanner) : scanner);
+        parser.reportTo(out);
+        try {
+            CompileStats.Phase parsing = CompileStats.measure(stats, CompileStats.PARSE);
+            try {
+                return (Program) parser.parse().value;
+            } finally {
+                parsing.end();
+            }
+        } catch (Exception e) {
+            out.println(e);
+            return null;
+        } finally {
+            if (stats != null) {
+                stats.nodes(parser.nodesBuilt());
+            }
+        }
+    }
+
+    private static void print(Program program, PrintStream out, CompileStats stats) throws IOException {
+        CompileStats.Phase printing = CompileStats.measure(stats, CompileStats.PRINT);
+        try {
+            OutputBuffer buffer = OutputBuffer.over(new OutputStreamWriter(out));
+            program.appendTo(buffer, 0);
+            buffer.flush();
+        } finally {
+            printing.end();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.net.SocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Has a {@link CompileServer} parse or type check a file, or standard input, and prints what it sends back. When no
+ * server is listening, the source is larger than it takes, or it does not reply, does the work itself instead,
+ * printing the same. Exits with 1 unless the source passed.
+ */
+public final class CompileClient {
+
+    private CompileClient() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        byte mode = CompileServer.CHECK;
+        SocketAddress address = CompileServer.defaultAddress();
+        String inputPath = null;
+
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--parse")) {
+                mode = CompileServer.PARSE;
+            } else if (args[i].equals("--check")) {
+                mode = CompileServer.CHECK;
+            } else if (args[i].equals("--socket") || args[i].equals("--port")) {
+                address = CompileServer.address(args, i++);
+                if (address == null) {
+                    return;
+                }
+            } else {
+                inputPath = args[i];
+            }
+        }
+
+        byte[] source;
+        if (inputPath != null) {
+            Path input = Path.of(inputPath);
+            if (!Files.isReadable(input)) {
+                System.out.println("Error: could not read [" + input + "]");
+                return;
+            }
+            source = Files.readAllBytes(input);
+        } else {
+            source = System.in.readAllBytes();
+        }
+
+        SocketChannel server = connect(address, source.length);
+        if (server == null) {
+            // No server to ask, or a source too large for it, so do the work here, at the cost of a cold JVM.
+            runHere(mode, source);
+            return;
+        }
+        String outcome;
+        byte[] output;
+        try (server) {
+            DataOutputStream request = new DataOutputStream(Channels.newOutputStream(server));
+            request.writeByte(mode);
+            request.writeInt(source.length);
+            request.write(source);
+            request.flush();
+
+            DataInputStream reply = new DataInputStream(Channels.newInputStream(server));
+            outcome = reply.readUTF();
+            output = reply.readNBytes(reply.readInt());
+        } catch (IOException e) {
+            // The server went away before it replied, which is no different from there being no server.
+            runHere(mode, source);
+            return;
+        }
+        finish(outcome, output);
+    }
+
+    private static void runHere(byte mode, byte[] source) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        PrintStream out = new PrintStream(bytes);
+        String outcome = CompileServer.run(mode, new StringReader(new String(source, StandardCharsets.UTF_8)), out);
+        out.flush();
+        finish(outcome, bytes.toByteArray());
+    }
+
+    /**
+     * Connects to the server, or returns null if none is listening or the source is larger than it takes.
+     */
+    private static SocketChannel connect(SocketAddress address, int length) {
+        if (length > CompileServer.MAX_SOURCE_LENGTH) {
+            return null;
+        }
+        try {
+            return SocketChannel.open(address);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static void finish(String outcome, byte[] output) {
+        System.out.write(output, 0, output.length);
+        System.out.flush();
+        if (!outcome.equals(Compilation.PASSED)) {
+            System.exit(1);
+        }
+    }
+}
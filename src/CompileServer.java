@@ -0,0 +1,203 @@
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Keeps a warmed up parser and type checker resident, so that {@link CompileClient} can have sources parsed or
+ * checked without paying for a JVM each time. Listens on a Unix-domain socket, or on a loopback port with
+ * {@code --port}, and serves up to {@code --jobs} requests at once, each with its own scanner, parser and symbol
+ * tables. Requests are not authenticated, so the default socket is kept in a directory only its user can enter.
+ *
+ * Each connection carries one request: a mode byte, then the length of the UTF-8 source and the source itself. The
+ * reply is the outcome, as reported by {@link Compilation}, then the length of the output and the output itself: what
+ * {@link ParserTest} or {@link TypeCheckerTest} would print for the source, errors included.
+ */
+public final class CompileServer {
+    static final byte PARSE = 1;
+    static final byte CHECK = 2;
+    // Far more than any source needs, while keeping what one request can make the server hold small.
+    static final int MAX_SOURCE_LENGTH = 1 << 24;
+    private static final Set<PosixFilePermission> OWNER_ONLY = PosixFilePermissions.fromString("rwx------");
+
+    private CompileServer() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int jobs = Runtime.getRuntime().availableProcessors();
+        SocketAddress address = null;
+
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--jobs")) {
+                if (i + 1 == args.length || !args[i + 1].matches("[1-9][0-9]*")) {
+                    System.out.println("Error: --jobs expects a positive number of jobs");
+                    return;
+                }
+                jobs = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("--socket") || args[i].equals("--port")) {
+                address = address(args, i++);
+                if (address == null) {
+                    return;
+                }
+            } else {
+                System.out.println("Usage: CompileServer [--jobs N] [--socket PATH | --port N]");
+                return;
+            }
+        }
+
+        if (address == null) {
+            createPrivateDirectory(defaultDirectory());
+            address = defaultAddress();
+        }
+        try (ServerSocketChannel server = open(address)) {
+            System.out.println("Listening on " + server.getLocalAddress());
+            ExecutorService pool = Executors.newFixedThreadPool(jobs);
+            while (true) {
+                SocketChannel client = server.accept();
+                pool.execute(() -> serve(client));
+            }
+        }
+    }
+
+    /**
+     * Where the server listens and the client connects unless told otherwise: a socket in the user's own directory
+     * under the temporary directory.
+     */
+    static SocketAddress defaultAddress() {
+        return UnixDomainSocketAddress.of(defaultDirectory().resolve("server.sock"));
+    }
+
+    private static Path defaultDirectory() {
+        return Path.of(System.getProperty("java.io.tmpdir"), "typechecker-" + System.getProperty("user.name"));
+    }
+
+    /**
+     * Creates the directory for the user alone, or makes sure that one already there is the user's and closes it to
+     * everyone else, so that no other user can connect to a socket in it or put one of their own there.
+     */
+    private static void createPrivateDirectory(Path directory) throws IOException {
+        if (!FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+            // Without POSIX permissions, as on Windows, the temporary directory is the user's own already.
+            Files.createDirectories(directory);
+            return;
+        }
+        if (!Files.exists(directory, LinkOption.NOFOLLOW_LINKS)) {
+            Files.createDirectory(directory, PosixFilePermissions.asFileAttribute(OWNER_ONLY));
+        } else if (!Files.isDirectory(directory, LinkOption.NOFOLLOW_LINKS)
+                || !Files.getOwner(directory, LinkOption.NOFOLLOW_LINKS).getName().equals(System.getProperty("user.name"))) {
+            throw new IOException(directory + " is not a directory of " + System.getProperty("user.name"));
+        }
+        Files.setPosixFilePermissions(directory, OWNER_ONLY);
+    }
+
+    /**
+     * Reads the address given by {@code --socket PATH} or {@code --port N} at {@code args[i]}, or returns null after
+     * saying what is wrong with it.
+     */
+    static SocketAddress address(String[] args, int i) {
+        if (args[i].equals("--socket")) {
+            if (i + 1 == args.length) {
+                System.out.println("Error: --socket expects a path");
+                return null;
+            }
+            return UnixDomainSocketAddress.of(args[i + 1]);
+        }
+        if (i + 1 == args.length || !args[i + 1].matches("[1-9][0-9]{0,4}") || Integer.parseInt(args[i + 1]) > 65535) {
+            System.out.println("Error: --port expects a port number");
+            return null;
+        }
+        return new InetSocketAddress(InetAddress.getLoopbackAddress(), Integer.parseInt(args[i + 1]));
+    }
+
+    /**
+     * Runs one request against the given reader, writing what it prints to {@code out}, and returns its outcome.
+     */
+    static String run(byte mode, Reader reader, PrintStream out) throws IOException {
+        try {
+            return mode == PARSE ? Compilation.parse(reader, out) : Compilation.check(reader, out);
+        } catch (Throwable e) {
+            // A bug in checking one source, or a source nested too deeply to check, should not take the server down
+            // with it, nor leave the client without a reply.
+            e.printStackTrace(out);
+            return "crashed: " + e;
+        }
+    }
+
+    private static ServerSocketChannel open(SocketAddress address) throws IOException {
+        if (!(address instanceof UnixDomainSocketAddress)) {
+            return ServerSocketChannel.open().bind(address);
+        }
+        Path path = ((UnixDomainSocketAddress) address).getPath();
+        // A socket file left behind by a server that is no longer running would keep this one from binding.
+        if (Files.exists(path)) {
+            if (isListening(address)) {
+                throw new IOException("A server is already listening on " + path);
+            }
+            Files.delete(path);
+        }
+        ServerSocketChannel server = ServerSocketChannel.open(StandardProtocolFamily.UNIX).bind(address);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException ignored) {
+                // Nothing to be done about it on the way out; the next server will clear it up.
+            }
+        }));
+        return server;
+    }
+
+    private static boolean isListening(SocketAddress address) {
+        try {
+            SocketChannel.open(address).close();
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static void serve(SocketChannel client) {
+        try (client) {
+            DataInputStream in = new DataInputStream(Channels.newInputStream(client));
+            byte mode = in.readByte();
+            int length = in.readInt();
+            if ((mode != PARSE && mode != CHECK) || length < 0 || length > MAX_SOURCE_LENGTH) {
+                return;
+            }
+            String source = new String(in.readNBytes(length), StandardCharsets.UTF_8);
+
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            PrintStream out = new PrintStream(bytes);
+            String outcome = run(mode, new StringReader(source), out);
+            out.flush();
+
+            DataOutputStream reply = new DataOutputStream(Channels.newOutputStream(client));
+            reply.writeUTF(outcome);
+            reply.writeInt(bytes.size());
+            bytes.writeTo(reply);
+            reply.flush();
+        } catch (IOException e) {
+            // The client went away; there is no one left to tell.
+        }
+    }
+}
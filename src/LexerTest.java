@@ -1,22 +1,79 @@
 import java_cup.runtime.Symbol;
+import utils.CompileStats;
+import utils.MappedInput;
+import utils.SymbolPool;
+import utils.TokenBuffer;
 
 import java.io.FileReader;
+import java.io.IOException;
+import java.nio.file.Path;
 
 public final class LexerTest {
     public static void main(String[] args) {
         Symbol sym;
+        boolean mapped = false;
+        boolean packed = false;
+        CompileStats stats = null;
+        for (int i = 0; i < args.length - 1; i++) {
+            mapped |= args[i].equals("--mmap");
+            packed |= args[i].equals("--packed");
+            if (args[i].equals("--stats")) {
+                stats = CompileStats.collect();
+            }
+        }
+        String path = args.length > 0 ? args[args.length - 1] : null;
         try {
-            Grammar grammar = new Grammar(new FileReader(args[0]));
-            for (sym = grammar.next_token(); sym.sym != 0;
-                    sym = grammar.next_token()) {
-
-                System.out.println("Token " + sym +
-                    ", with value = " + sym.value +
-                    "; at line " + sym.left + ", column " + sym.right);
+            // The tokens are written out as they are lexed, so the phase takes in printing them too.
+            CompileStats.Phase lexing = CompileStats.measure(stats, CompileStats.LEX);
+            try {
+                Grammar grammar = new Grammar(mapped ? MappedInput.open(Path.of(path)) : new FileReader(path));
+                if (packed) {
+                    printPacked(grammar, stats);
+                } else {
+                    long tokens = 0;
+                    for (sym = grammar.next_token(); sym.sym != 0;
+                            sym = grammar.next_token()) {
 
+                        System.out.println("Token " + sym +
+                            ", with value = " + sym.value +
+                            "; at line " + sym.left + ", column " + sym.right);
+                        tokens++;
+                    }
+                    if (stats != null) {
+                        stats.tokens(tokens);
+                    }
+                }
+            } finally {
+                lexing.end();
             }
         }
         catch (Exception e) {
         }
+        if (stats != null) {
+            System.err.println(stats.toJson(path));
+        }
+    }
+
+    /**
+     * Lexes the whole file into a token buffer first, without a symbol per token, and then prints the tokens the same
+     * way as when they are read one symbol at a time. Illegal characters are therefore all reported before any token.
+     */
+    private static void printPacked(Grammar grammar, CompileStats stats) throws IOException {
+        TokenBuffer tokens = TokenBuffer.create();
+        grammar.lexInto(tokens);
+        if (stats != null) {
+            stats.tokens(tokens.size());
+        }
+        SymbolPool symbols = grammar.symbols();
+        for (int token = 0; token < tokens.size(); token++) {
+            int kind = tokens.kind(token);
+            long value = tokens.value(token);
+            Object shown = kind == sym.INTLIT ? (Object) (int) value
+                    : kind == sym.FLOATLIT ? (Object) Double.longBitsToDouble(value)
+                    : symbols.name((int) value);
+            System.out.println("Token #" + kind +
+                ", with value = " + shown +
+                "; at line " + tokens.line(token) + ", column " + tokens.column(token));
+        }
     }
 }
@@ -1,39 +1,87 @@
+import java_cup.runtime.Scanner;
 import tokens.Program;
+import utils.CompileStats;
+import utils.MappedInput;
+import utils.OutputBuffer;
+import utils.PipelinedScanner;
 
 import java.io.File;
 import java.io.FileReader;
 import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
 import java.io.Reader;
 
 public class ParserTest {
 
     public static void main(String[] args) throws Exception {
         Reader reader;
-        if (args.length == 1) {
-            File input = new File(args[0]);
+        String inputPath = null;
+        boolean mapped = false;
+        boolean pipelined = false;
+        CompileStats stats = null;
+
+        for (String arg : args) {
+            if (arg.equals("--mmap")) {
+                mapped = true;
+            } else if (arg.equals("--pipeline")) {
+                pipelined = true;
+            } else if (arg.equals("--stats")) {
+                stats = CompileStats.collect();
+            } else {
+                inputPath = arg;
+            }
+        }
+        if (inputPath != null) {
+            File input = new File(inputPath);
             if (!input.canRead()) {
                 System.out.println("Error: could not read ["+input+"]");
             }
-            reader = new FileReader(input);
+            reader = mapped ? MappedInput.open(input.toPath()) : new FileReader(input);
         } else {
             reader = new InputStreamReader(System.in);
         }
 
-        Grammar grammar = new Grammar(reader);   // create grammar
+        Scanner grammar = new Grammar(reader);   // create grammar
+        if (stats != null) {
+            grammar = stats.lexing(grammar);
+        }
+        if (pipelined) {
+            grammar = PipelinedScanner.start(grammar);
+        }
 
         parser parser = new parser(grammar); // create parser
         Program program = null;
 
         try {
-            program = (Program) parser.parse().value;  // parse
+            CompileStats.Phase parsing = CompileStats.measure(stats, CompileStats.PARSE);
+            try {
+                program = (Program) parser.parse().value;  // parse
+            } finally {
+                parsing.end();
+            }
         } catch (Exception e) {
             e.printStackTrace();
+        } finally {
+            if (grammar instanceof PipelinedScanner) {
+                ((PipelinedScanner) grammar).close();
+            }
         }
 
         if (program != null) {
-            System.out.print(program.asString(0));
+            CompileStats.Phase printing = CompileStats.measure(stats, CompileStats.PRINT);
+            try {
+                OutputBuffer out = OutputBuffer.over(new OutputStreamWriter(System.out));
+                program.appendTo(out, 0);
+                out.flush();
+            } finally {
+                printing.end();
+            }
         } else {
             System.err.println("There was error reading the program.");
         }
+        if (stats != null) {
+            stats.nodes(parser.nodesBuilt());
+            System.err.println(stats.toJson(inputPath != null ? inputPath : "-"));
+        }
     }
 }
@@ -0,0 +1,116 @@
+import utils.TableImage;
+
+import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Builds the sources of the startup-optimized parser and scanner: writes the tables of the generated {@code parser}
+ * and {@code Grammar} into a {@link TableImage}, compiled into a {@code TableImageData} class, and writes copies of
+ * their sources that take those tables from the image instead of unpacking them in their static initializers.
+ *
+ * Run with the ordinary build of both on the class path, since that is where the tables are read from.
+ */
+public final class StartupTables {
+    private static final String IMAGE_CLASS = "TableImageData";
+    // Well within the class file's limit of 65535 bytes of modified UTF-8 per constant, at up to two bytes a char.
+    private static final int CHUNK_BYTES = 30_000;
+    private static final int LINE_CHARS = 100;
+    private static final Pattern PARSER_TABLE = Pattern.compile(
+            "(static final short(?:\\[\\]\\[\\])? (\\w+)(?:\\[\\]\\[\\])? = *\\n) *unpackFromStrings\\(new String\\[\\] \\{.*?\" \\}\\);",
+            Pattern.DOTALL);
+    private static final Pattern SCANNER_TABLE = Pattern.compile("(static final int \\[\\] (ZZ_\\w+) = )zzUnpack\\w+\\(\\);");
+    // What the scanner no longer needs once its tables come from the image: the packed strings and their unpackers.
+    private static final Pattern SCANNER_PACKED = Pattern.compile("  private static final String ZZ_\\w+_PACKED_\\d+ =\\n(?:    \".*\\n)+\\n");
+    private static final Pattern SCANNER_UNPACK = Pattern.compile(
+            "  private static int(?: \\[\\])? zzUnpack\\w+\\([^)]*\\) \\{\\n.*?\\n  \\}\\n\\n", Pattern.DOTALL);
+
+    private StartupTables() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length != 2) {
+            System.out.println("Usage: StartupTables <generated source dir> <output source dir>");
+            return;
+        }
+        Path sources = Path.of(args[0]);
+        Path output = Path.of(args[1]);
+        Files.createDirectories(output);
+        TableImage.Writer image = TableImage.writer();
+
+        String parser = Files.readString(sources.resolve("parser.java"));
+        StringBuilder patched = new StringBuilder();
+        Matcher table = PARSER_TABLE.matcher(parser);
+        while (table.find()) {
+            String name = "parser." + table.group(2);
+            image.shortRows(name, (short[][]) read("parser", table.group(2)));
+            table.appendReplacement(patched, Matcher.quoteReplacement(table.group(1) + "    " + load("shortRows", name)));
+        }
+        table.appendTail(patched);
+        write(output.resolve("parser.java"), parser, patched.toString());
+
+        String scanner = Files.readString(sources.resolve("Grammar.java"));
+        patched = new StringBuilder();
+        table = SCANNER_TABLE.matcher(scanner);
+        while (table.find()) {
+            String name = "Grammar." + table.group(2);
+            image.ints(name, (int[]) read("Grammar", table.group(2)));
+            table.appendReplacement(patched, Matcher.quoteReplacement(table.group(1) + load("ints", name)));
+        }
+        table.appendTail(patched);
+        String stripped = SCANNER_UNPACK.matcher(SCANNER_PACKED.matcher(patched).replaceAll("")).replaceAll("");
+        write(output.resolve("Grammar.java"), scanner, stripped);
+        Files.writeString(output.resolve(IMAGE_CLASS + ".java"), imageClass(image.toByteArray()));
+    }
+
+    private static Object read(String className, String field) throws ReflectiveOperationException {
+        Field table = Class.forName(className).getDeclaredField(field);
+        table.setAccessible(true);
+        return table.get(null);
+    }
+
+    private static String load(String kind, String name) {
+        return IMAGE_CLASS + ".IMAGE." + kind + "(\"" + name + "\");";
+    }
+
+    /**
+     * The source of a class holding the image as Latin-1 string constants, decoded the first time a table is asked for.
+     */
+    private static String imageClass(byte[] image) {
+        StringBuilder source = new StringBuilder()
+                .append("// DO NOT EDIT\n// Generated by StartupTables from the tables of parser and Grammar\n\n")
+                .append("final class ").append(IMAGE_CLASS).append(" {\n")
+                .append("  static final utils.TableImage IMAGE = utils.TableImage.of(\n");
+        for (int start = 0; start < image.length; start += CHUNK_BYTES) {
+            int end = Math.min(image.length, start + CHUNK_BYTES);
+            source.append(start == 0 ? "" : ",\n").append("    \"");
+            int line = 0;
+            for (int i = start; i < end; i++) {
+                int b = image[i] & 0xFF;
+                if (b >= ' ' && b < 0x7F && b != '"' && b != '\\') {
+                    source.append((char) b);
+                    line++;
+                } else {
+                    // Always three digits, so a digit that follows is not taken as part of the escape.
+                    source.append('\\').append((char) ('0' + (b >> 6))).append((char) ('0' + (b >> 3 & 7))).append((char) ('0' + (b & 7)));
+                    line += 4;
+                }
+                if (line >= LINE_CHARS && i + 1 < end) {
+                    source.append("\" +\n    \"");
+                    line = 0;
+                }
+            }
+            source.append('"');
+        }
+        return source.append(");\n\n  private ").append(IMAGE_CLASS).append("() {\n  }\n}\n").toString();
+    }
+
+    private static void write(Path path, String original, String patched) throws Exception {
+        if (patched.equals(original)) {
+            throw new IllegalStateException("Found no tables in " + path.getFileName() + "; has the generator changed?");
+        }
+        Files.writeString(path, patched);
+    }
+}
@@ -0,0 +1,163 @@
+import utils.CompileStats;
+import utils.CompilerEvents;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+/**
+ * Type checks many files in one JVM, so they share its startup, loaded classes and warmed up code. Each file is
+ * parsed and checked on one of a pool of workers with its own scanner, parser and symbol tables, and what
+ * {@link TypeCheckerTest} would print for it, errors included, goes to {@code <file>-output.txt} in the output
+ * directory. Inputs with the same file name in different directories write {@code <file>-2-output.txt} and so on, in
+ * the order they are given. A summary of every file goes to standard output and to {@code summary.txt}.
+ *
+ * Inputs are directories, whose {@code .as} files are checked, files, or {@code @list} files naming one input per
+ * line.
+ *
+ * With {@code --stats}, each file's {@link CompileStats} go to standard error as a line of JSON once it is checked.
+ * Each file is also emitted as a {@link CompilerEvents.FileEvent} for Flight Recorder.
+ */
+public final class TypeCheckerBatch {
+    private static final String SUMMARY_FILE = "summary.txt";
+
+    private TypeCheckerBatch() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int jobs = Runtime.getRuntime().availableProcessors();
+        Path outputDirectory = Path.of(".");
+        boolean stats = false;
+        List<Path> inputs = new ArrayList<>();
+
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--jobs")) {
+                if (i + 1 == args.length || !args[i + 1].matches("[1-9][0-9]*")) {
+                    System.out.println("Error: --jobs expects a positive number of jobs");
+                    return;
+                }
+                jobs = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("--out")) {
+                if (i + 1 == args.length) {
+                    System.out.println("Error: --out expects a directory");
+                    return;
+                }
+                outputDirectory = Path.of(args[++i]);
+            } else if (args[i].equals("--stats")) {
+                stats = true;
+            } else {
+                addInputs(args[i], inputs);
+            }
+        }
+        if (inputs.isEmpty()) {
+            System.out.println("Usage: TypeCheckerBatch [--jobs N] [--out DIR] [--stats] (DIR | FILE | @LIST)...");
+            return;
+        }
+        Files.createDirectories(outputDirectory);
+
+        long start = System.nanoTime();
+        List<Future<String>> outcomes = new ArrayList<>();
+        ExecutorService pool = Executors.newFixedThreadPool(jobs);
+        boolean collectStats = stats;
+        try {
+            Set<String> outputNames = new HashSet<>();
+            for (Path input : inputs) {
+                Path output = outputDirectory.resolve(outputName(input, outputNames));
+                outcomes.add(pool.submit(() -> check(input, output, collectStats)));
+            }
+            int passed = 0;
+            StringBuilder summary = new StringBuilder();
+            for (int i = 0; i < inputs.size(); i++) {
+                String outcome = outcomes.get(i).get();
+                if (outcome.equals(Compilation.PASSED)) {
+                    passed++;
+                }
+                summary.append(inputs.get(i)).append(": ").append(outcome).append('\n');
+            }
+            long millis = (System.nanoTime() - start) / 1_000_000;
+            summary.append(inputs.size()).append(" files, ").append(passed).append(" passed, ")
+                    .append(inputs.size() - passed).append(" failed, in ").append(millis).append(" ms\n");
+            Files.writeString(outputDirectory.resolve(SUMMARY_FILE), summary);
+            System.out.print(summary);
+            if (passed < inputs.size()) {
+                System.exit(1);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static void addInputs(String argument, List<Path> inputs) throws IOException {
+        if (argument.startsWith("@")) {
+            for (String line : Files.readAllLines(Path.of(argument.substring(1)))) {
+                if (!line.isBlank()) {
+                    addInputs(line.strip(), inputs);
+                }
+            }
+            return;
+        }
+        Path path = Path.of(argument);
+        if (Files.isDirectory(path)) {
+            try (Stream<Path> files = Files.list(path)) {
+                files.filter(file -> file.toString().endsWith(".as")).sorted().forEach(inputs::add);
+            }
+        } else {
+            inputs.add(path);
+        }
+    }
+
+    /**
+     * The name of the file the output for the input goes to, numbered when another input already took its name.
+     */
+    private static String outputName(Path input, Set<String> taken) {
+        String name = input.getFileName().toString();
+        String outputName = name + "-output.txt";
+        for (int copy = 2; !taken.add(outputName); copy++) {
+            outputName = name + "-" + copy + "-output.txt";
+        }
+        return outputName;
+    }
+
+    /**
+     * Parses and type checks one file, writes what the type checker would print for it and returns how it went.
+     */
+    private static String check(Path input, Path output, boolean collectStats) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        PrintStream out = new PrintStream(bytes);
+        String outcome;
+        // Started here, on the worker, since that is the thread whose time and allocation it measures.
+        CompileStats stats = collectStats ? CompileStats.collect() : null;
+        CompilerEvents.FileEvent event = CompilerEvents.fileStarted(input.toString());
+        try (Reader reader = new FileReader(input.toFile())) {
+            outcome = Compilation.check(reader, out, stats);
+        } catch (IOException e) {
+            out.println("Error: could not read [" + input + "]");
+            outcome = "could not be read";
+        } catch (Throwable e) {
+            // A bug in checking one file, or running out of stack on it, should not take the rest of the batch down with it.
+            e.printStackTrace(out);
+            outcome = "crashed: " + e;
+        }
+        if (event != null) {
+            event.commit(outcome);
+        }
+        out.flush();
+        Files.write(output, bytes.toByteArray());
+        if (stats != null) {
+            System.err.println(stats.toJson(input.toString()));
+        }
+        return outcome;
+    }
+}
@@ -1,54 +1,239 @@
-import information.FieldInformation;
-import information.MethodInformation;
+import execution.Bytecode;
+import execution.BytecodeImage;
+import execution.Console;
+import execution.ExecutionFault;
+import execution.Interpreter;
+import execution.JvmClass;
+import information.FieldSymbolTable;
+import information.MethodSymbolTable;
+import java_cup.runtime.Scanner;
 import tokens.Program;
+import tokens.StreamingTypeCheck;
+import type_checking.Diagnostic;
 import type_checking.TypeCheckException;
+import utils.CompileStats;
+import utils.MappedInput;
+import utils.OutputBuffer;
+import utils.PipelinedScanner;
 
 import java.io.File;
 import java.io.FileReader;
+import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
 import java.io.Reader;
-import java.util.HashMap;
-import java.util.Map;
+import java.nio.file.Path;
 
 public class TypeCheckerTest {
 
     public static void main(String[] args) throws Exception {
         Reader reader = null;
+        String inputPath = null;
+        int jobs = 1;
+        boolean print = true;
+        boolean mapped = false;
+        boolean pipelined = false;
+        boolean streaming = false;
+        // Which of the interpreter, the virtual machine and the JVM runs the program, if it is to be run.
+        String engine = null;
+        String imagePath = null;
+        long sourceChecksum = 0;
+        CompileStats stats = null;
 
-        if (args.length == 1) {
-            File input = new File(args[0]);
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--jobs")) {
+                if (i + 1 == args.length || !args[i + 1].matches("[1-9][0-9]*")) {
+                    System.out.println("Error: --jobs expects a positive number of jobs");
+                    return;
+                }
+                jobs = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("--no-print")) {
+                print = false;
+            } else if (args[i].equals("--mmap")) {
+                mapped = true;
+            } else if (args[i].equals("--pipeline")) {
+                pipelined = true;
+            } else if (args[i].equals("--stream")) {
+                streaming = true;
+            } else if (args[i].equals("--run") || args[i].equals("--vm") || args[i].equals("--jvm")) {
+                engine = args[i];
+            } else if (args[i].equals("--image")) {
+                if (i + 1 == args.length) {
+                    System.out.println("Error: --image expects the path of the image");
+                    return;
+                }
+                imagePath = args[++i];
+            } else if (args[i].equals("--stats")) {
+                stats = CompileStats.collect();
+            } else {
+                inputPath = args[i];
+            }
+        }
+
+        // The program being run reads its input from standard input, so its source has to come from somewhere else, and
+        // only a whole program can be run.
+        if (engine != null && (inputPath == null || streaming)) {
+            System.out.println("Error: " + engine + " expects the path of the program to run and cannot be combined with --stream");
+            return;
+        }
+        if (imagePath != null && !"--vm".equals(engine)) {
+            System.out.println("Error: --image can only be used with --vm");
+            return;
+        }
+
+        if (inputPath != null) {
+            File input = new File(inputPath);
             if (!input.canRead()) {
                 System.out.println("Error: could not read [" + input + "]");
             }
-            reader = new FileReader(input);
+            // An image is only written for a source that checked, so an image of the same source is run without
+            // lexing, parsing or checking it again. There is no tree to print then, so it is only used without printing.
+            if (imagePath != null) {
+                sourceChecksum = BytecodeImage.checksum(input.toPath());
+                Bytecode image = print ? null : BytecodeImage.load(Path.of(imagePath), sourceChecksum);
+                if (image != null) {
+                    System.out.println("Type checking complete!");
+                    run(image);
+                    return;
+                }
+            }
+            reader = mapped ? MappedInput.open(input.toPath()) : new FileReader(input);
         } else {
             reader = new InputStreamReader(System.in);
         }
 
-        Grammar scanner = new Grammar(reader);   // create scanner
+        Scanner scanner = new Grammar(reader);   // create scanner
+        if (stats != null) {
+            scanner = stats.lexing(scanner);
+        }
+        if (pipelined) {
+            scanner = PipelinedScanner.start(scanner);
+        }
 
         parser parser = new parser(scanner); // create parser
+        StreamingTypeCheck streamingCheck = null;
+        if (streaming) {
+            streamingCheck = stats != null ? StreamingTypeCheck.withJobs(jobs, stats) : StreamingTypeCheck.withJobs(jobs);
+        }
+        parser.streamTo(streamingCheck);
         Program program = null;
 
         try {
-            program = (Program) parser.parse().value;
-            //program = (Program) parser.debug_parse().value;  // parse
-            //The above line of code will output current state and what token is being processed
+            CompileStats.Phase parsing = CompileStats.measure(stats, CompileStats.PARSE);
+            try {
+                program = (Program) parser.parse().value;
+                //program = (Program) parser.debug_parse().value;  // parse
+                //The above line of code will output current state and what token is being processed
+            } finally {
+                parsing.end();
+            }
         } catch (Exception e) {
-            e.printStackTrace();
+            System.err.println(e);
+        } finally {
+            if (scanner instanceof PipelinedScanner) {
+                ((PipelinedScanner) scanner).close();
+            }
+        }
+        if (stats != null) {
+            stats.nodes(parser.nodesBuilt());
+        }
+        // The parser has reported the syntax errors it could not recover from, and there is no program to go on with.
+        if (program == null) {
+            reportStats(stats, inputPath);
+            System.exit(1);
         }
 
-        System.out.print(program.asString(0));
+        // When streaming, the methods were checked and dropped while parsing, so there is no whole program to print.
+        if (print && !streaming) {
+            CompileStats.Phase printing = CompileStats.measure(stats, CompileStats.PRINT);
+            try {
+                OutputBuffer out = OutputBuffer.over(new OutputStreamWriter(System.out));
+                program.appendTo(out, 0);
+                out.flush();
+            } finally {
+                printing.end();
+            }
+        }
+        program.setJobs(jobs);
         //Now test type checking
         try {
-            int scope = 0;
-            Map<String, FieldInformation> fieldSymbolTable = new HashMap<>();
-            Map<String, MethodInformation> methodSymbolTable = new HashMap<>();
+            CompileStats.Phase checking = CompileStats.measure(stats, CompileStats.CHECK);
+            try {
+                int scope = 0;
+                FieldSymbolTable fieldSymbolTable = stats != null ? FieldSymbolTable.counting(stats) : FieldSymbolTable.empty();
+                MethodSymbolTable methodSymbolTable = stats != null ? MethodSymbolTable.empty().countingInto(stats) : MethodSymbolTable.empty();
 
-            program.typeCheck(scope, fieldSymbolTable, methodSymbolTable);
-            System.out.println("Type checking complete!");
+                if (streaming) {
+                    streamingCheck.finish();
+                } else {
+                    program.typeCheck(scope, fieldSymbolTable, methodSymbolTable);
+                }
+                System.out.println("Type checking complete!");
+            } finally {
+                checking.end();
+            }
         } catch (TypeCheckException e) {
-            e.printStackTrace();
+            for (Diagnostic diagnostic : e.getDiagnostics()) {
+                System.err.println(diagnostic);
+            }
+            reportStats(stats, inputPath);
+            System.exit(1);
+        }
+        reportStats(stats, inputPath);
+        if (engine != null) {
+            run(program, engine, imagePath, sourceChecksum);
+        }
+    }
+
+    /**
+     * Runs a checked program with standard input and output on the engine its option names, exiting with an error if
+     * it cannot be run or faults. Bytecode compiled for the virtual machine is saved as an image if a path was given.
+     */
+    private static void run(Program program, String engine, String imagePath, long sourceChecksum) {
+        try {
+            if (engine.equals("--vm")) {
+                Bytecode bytecode = Bytecode.compile(program);
+                if (imagePath != null) {
+                    try {
+                        BytecodeImage.write(Path.of(imagePath), bytecode, sourceChecksum);
+                    } catch (IOException e) {
+                        System.err.println("Warning: could not write the image [" + imagePath + "]: " + e.getMessage());
+                    }
+                }
+                run(bytecode);
+            } else if (engine.equals("--jvm")) {
+                JvmClass.compile(program).run(Console.standard());
+            } else {
+                Interpreter.compile(program).run(Console.standard());
+            }
+        } catch (TypeCheckException e) {
+            System.err.println(e);
+            System.exit(1);
+        } catch (RuntimeException e) {
+            exitOnFault(e);
+        }
+    }
+
+    private static void run(Bytecode bytecode) {
+        try {
+            bytecode.run(Console.standard());
+        } catch (RuntimeException e) {
+            exitOnFault(e);
+        }
+    }
+
+    private static void exitOnFault(RuntimeException e) {
+        // Matched here rather than with its own catch, so that checking without --run never loads the class.
+        if (!(e instanceof ExecutionFault)) {
+            throw e;
+        }
+        System.err.println(e);
+        System.exit(1);
+    }
+
+    private static void reportStats(CompileStats stats, String inputPath) {
+        if (stats != null) {
+            System.err.println(stats.toJson(inputPath != null ? inputPath : "-"));
         }
     }
 
@@ -0,0 +1,421 @@
+package execution;
+
+import tokens.lexeme.Type;
+import tokens.lexeme.Types;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static execution.Opcodes.*;
+
+/**
+ * Writes the code of {@link Bytecode}: one code array for the whole program, the pools of float and string constants
+ * it refers to, and jumps to labels that are patched once the labels are bound.
+ *
+ * Int arithmetic and conditional jumps on int comparisons are fused with the instructions just written before them
+ * where they can be, unless a label is bound in between, since a jump there would skip part of the fused instruction.
+ *
+ * Every load and store of a variable is noted with the type the variable was declared with, which the machine has no
+ * use for but a {@link JvmClass} needs for the locals and fields it declares.
+ *
+ * It also tracks how deep each operand stack can get in the routine being written, by adding up the effect of every
+ * instruction in the order they are written. Code is structured, so the branches that a path skips never take more
+ * off a stack than they put on, and the sum is never below the depth that is really reached.
+ */
+final class Assembler {
+    private static final int INITIAL_CAPACITY = 256;
+    // The comparison that is false exactly when each of ILT, IGT, ILE, IGE, IEQ and INE is true, in that order.
+    private static final int[] NEGATIONS = {IGE - ILT, ILE - ILT, IGT - ILT, ILT - ILT, INE - ILT, IEQ - ILT};
+
+    private final int[] fieldSizes;
+    private int[] code = new int[INITIAL_CAPACITY];
+    private int size;
+    private final List<Double> floats = new ArrayList<>();
+    private final Map<Double, Integer> floatIndexes = new HashMap<>();
+    private final List<String> strings = new ArrayList<>();
+    private final Map<String, Integer> stringIndexes = new HashMap<>();
+    private int[] labels = new int[16];
+    private int labelCount;
+    private final List<int[]> patches = new ArrayList<>();
+    private final Map<Integer, Type> types = new HashMap<>();
+    // Where the last instruction written and the one before it start, or -1 if they are unknown.
+    private int last = -1;
+    private int previous = -1;
+    private int bound = -1;
+    private int[] sizes;
+    private final int[] depths = new int[Bytecode.REGIONS];
+    private final int[] maxDepths = new int[Bytecode.REGIONS];
+
+    Assembler(int[] fieldSizes) {
+        this.fieldSizes = fieldSizes;
+    }
+
+    /**
+     * Starts the code of a routine whose frames have the given number of slots of each kind, or of the class fields
+     * for null, returning where it starts.
+     */
+    int start(int[] sizes) {
+        this.sizes = sizes;
+        Arrays.fill(depths, 0);
+        Arrays.fill(maxDepths, 0);
+        return size;
+    }
+
+    /**
+     * How deep the operand stack of the region got in the code written since the last {@link #start}.
+     */
+    int maxDepth(int region) {
+        return maxDepths[region];
+    }
+
+    void op(int opcode) {
+        if (opcode >= IADD && opcode <= IDIV && followsOperand()) {
+            int operand = code[last + 1];
+            int fused = (code[last] == ILOAD ? IADDL : IADDC) + opcode - IADD;
+            retract();
+            depths[Bytecode.INTS]--;
+            op(fused, operand);
+            return;
+        }
+        instruction(opcode);
+    }
+
+    void op(int opcode, int operand) {
+        op(opcode);
+        append(operand);
+    }
+
+    void op(int opcode, int first, int second) {
+        op(opcode, first);
+        append(second);
+    }
+
+    int label() {
+        if (labelCount == labels.length) {
+            labels = Arrays.copyOf(labels, labelCount << 1);
+        }
+        labels[labelCount] = -1;
+        return labelCount++;
+    }
+
+    void bind(int label) {
+        labels[label] = size;
+        bound = size;
+    }
+
+    /**
+     * Jumps to the label, always for {@link Opcodes#JUMP} or depending on the bool on top of the int stack for
+     * {@link Opcodes#JUMPZ} and {@link Opcodes#JUMPNZ}. A conditional jump on a comparison of two ints that was just
+     * written replaces it with a single instruction that compares and jumps.
+     */
+    void jump(int opcode, int label) {
+        if (opcode != JUMP && last == size - 1 && bound != size && code[last] >= ILT && code[last] <= INE) {
+            int comparison = opcode == JUMPNZ ? code[last] - ILT : NEGATIONS[code[last] - ILT];
+            retract();
+            if (followsOperand()) {
+                int operand = code[last + 1];
+                int fused = (code[last] == ILOAD ? IFLTL : IFLTC) + comparison;
+                retract();
+                op(fused, operand, 0);
+            } else {
+                depths[Bytecode.INTS]++;
+                op(IFLT + comparison, 0);
+            }
+        } else {
+            op(opcode, 0);
+        }
+        patches.add(new int[]{size - 1, label});
+    }
+
+    /**
+     * Invokes the routine with as many arguments as there are on the stacks for it.
+     */
+    void call(Routine routine, int arguments) {
+        previous = last;
+        last = size;
+        append(CALL);
+        append(routine.getIndex());
+        append(arguments);
+        for (int i = 0; i < arguments; i++) {
+            depths[Bytecode.region(routine.getArgumentType(i))]--;
+        }
+        if (routine.getType() != Types.VOID) {
+            push(Bytecode.region(routine.getType()));
+        }
+    }
+
+    /**
+     * Returns from the routine, with the value of the given type on top of its stack, or with nothing for void.
+     */
+    void ret(Type type) {
+        op(RETURN);
+        if (type != Types.VOID) {
+            depths[Bytecode.region(type)]--;
+        }
+    }
+
+    int floatConstant(double value) {
+        return floatIndexes.computeIfAbsent(value, v -> {
+            floats.add(v);
+            return floats.size() - 1;
+        });
+    }
+
+    int stringConstant(String value) {
+        return stringIndexes.computeIfAbsent(value, v -> {
+            strings.add(v);
+            return strings.size() - 1;
+        });
+    }
+
+    void load(Variable variable) {
+        loadInstruction(variable);
+        types.put(last, variable.getType());
+    }
+
+    private void loadInstruction(Variable variable) {
+        switch (Bytecode.region(variable.getKind())) {
+            case Bytecode.INTS:
+                op(variable.isField() ? GILOAD : ILOAD, local(variable));
+                break;
+            case Bytecode.FLOATS:
+                op(variable.isField() ? GFLOAD : FLOAD, local(variable));
+                break;
+            default:
+                op(variable.isField() ? GALOAD : ALOAD, local(variable));
+                break;
+        }
+    }
+
+    void store(Variable variable) {
+        storeInstruction(variable);
+        types.put(last, variable.getType());
+    }
+
+    private void storeInstruction(Variable variable) {
+        switch (Bytecode.region(variable.getKind())) {
+            case Bytecode.INTS:
+                op(variable.isField() ? GISTORE : ISTORE, local(variable));
+                break;
+            case Bytecode.FLOATS:
+                op(variable.isField() ? GFSTORE : FSTORE, local(variable));
+                break;
+            default:
+                op(variable.isField() ? GASTORE : ASTORE, local(variable));
+                break;
+        }
+    }
+
+    /**
+     * Where the variable is among the locals of its region, in the frame of its routine or of the class fields.
+     */
+    int local(Variable variable) {
+        return Bytecode.local(variable.isField() ? fieldSizes : sizes, variable.getKind(), variable.getSlot());
+    }
+
+    double[] floats() {
+        double[] pool = new double[floats.size()];
+        for (int i = 0; i < pool.length; i++) {
+            pool[i] = floats.get(i);
+        }
+        return pool;
+    }
+
+    String[] strings() {
+        return strings.toArray(new String[0]);
+    }
+
+    /**
+     * The declared type of the variable each instruction that loads or stores one refers to, by where the instruction
+     * is in the code, and null everywhere else.
+     */
+    Type[] types() {
+        Type[] table = new Type[size];
+        types.forEach((at, type) -> table[at] = type);
+        return table;
+    }
+
+    /**
+     * The code written, with every jump pointing at its label.
+     */
+    int[] code() {
+        for (int[] patch : patches) {
+            code[patch[0]] = labels[patch[1]];
+        }
+        return Arrays.copyOf(code, size);
+    }
+
+    private void instruction(int opcode) {
+        previous = last;
+        last = size;
+        append(opcode);
+        track(opcode);
+    }
+
+    /**
+     * Whether the last instruction written loads an int local or constant, with no label bound after it starts.
+     */
+    private boolean followsOperand() {
+        return last >= 0 && last == size - 2 && bound <= last && (code[last] == ILOAD || code[last] == ICONST);
+    }
+
+    /**
+     * Takes back the last instruction written, to write one that it is fused into instead.
+     */
+    private void retract() {
+        types.remove(last);
+        size = last;
+        last = previous;
+        previous = -1;
+    }
+
+    private void append(int value) {
+        if (size == code.length) {
+            code = Arrays.copyOf(code, size << 1);
+        }
+        code[size++] = value;
+    }
+
+    private void push(int region) {
+        depths[region]++;
+        maxDepths[region] = Math.max(maxDepths[region], depths[region]);
+    }
+
+    private void track(int opcode) {
+        switch (opcode) {
+            case ICONST:
+            case ILOAD:
+            case GILOAD:
+            case IREAD:
+            case BREAD:
+            case CREAD:
+                push(Bytecode.INTS);
+                break;
+            case FCONST:
+            case FLOAD:
+            case GFLOAD:
+            case FREAD:
+                push(Bytecode.FLOATS);
+                break;
+            case SCONST:
+            case ALOAD:
+            case GALOAD:
+            case NEWARRAY:
+                push(Bytecode.OBJECTS);
+                break;
+            case ISTORE:
+            case GISTORE:
+            case IADD:
+            case ISUB:
+            case IMUL:
+            case IDIV:
+            case ILT:
+            case IGT:
+            case ILE:
+            case IGE:
+            case IEQ:
+            case INE:
+            case JUMPZ:
+            case JUMPNZ:
+            case IPOP:
+            case IPRINT:
+            case BPRINT:
+            case CPRINT:
+                depths[Bytecode.INTS]--;
+                break;
+            case FSTORE:
+            case GFSTORE:
+            case FADD:
+            case FSUB:
+            case FMUL:
+            case FDIV:
+            case FPOP:
+            case FPRINT:
+                depths[Bytecode.FLOATS]--;
+                break;
+            case ASTORE:
+            case GASTORE:
+            case CONCAT:
+            case APOP:
+            case SPRINT:
+                depths[Bytecode.OBJECTS]--;
+                break;
+            case IALOAD:
+            case BALOAD:
+            case CALOAD:
+                depths[Bytecode.OBJECTS]--;
+                break;
+            case FALOAD:
+                depths[Bytecode.OBJECTS]--;
+                depths[Bytecode.INTS]--;
+                push(Bytecode.FLOATS);
+                break;
+            case IASTORE:
+            case BASTORE:
+            case CASTORE:
+                depths[Bytecode.OBJECTS]--;
+                depths[Bytecode.INTS] -= 2;
+                break;
+            case FASTORE:
+                depths[Bytecode.OBJECTS]--;
+                depths[Bytecode.INTS]--;
+                depths[Bytecode.FLOATS]--;
+                break;
+            case IAINC:
+            case FAINC:
+                depths[Bytecode.OBJECTS]--;
+                depths[Bytecode.INTS]--;
+                break;
+            case FLT:
+            case FGT:
+            case FLE:
+            case FGE:
+            case FEQ:
+            case FNE:
+                depths[Bytecode.FLOATS] -= 2;
+                push(Bytecode.INTS);
+                break;
+            case I2F:
+                depths[Bytecode.INTS]--;
+                push(Bytecode.FLOATS);
+                break;
+            case I2S:
+            case B2S:
+            case C2S:
+                depths[Bytecode.INTS]--;
+                push(Bytecode.OBJECTS);
+                break;
+            case F2S:
+                depths[Bytecode.FLOATS]--;
+                push(Bytecode.OBJECTS);
+                break;
+            case IFLT:
+            case IFGT:
+            case IFLE:
+            case IFGE:
+            case IFEQ:
+            case IFNE:
+                depths[Bytecode.INTS] -= 2;
+                break;
+            case IFLTL:
+            case IFGTL:
+            case IFLEL:
+            case IFGEL:
+            case IFEQL:
+            case IFNEL:
+            case IFLTC:
+            case IFGTC:
+            case IFLEC:
+            case IFGEC:
+            case IFEQC:
+            case IFNEC:
+                depths[Bytecode.INTS]--;
+                break;
+            default:
+                break;
+        }
+    }
+}
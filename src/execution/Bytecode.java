@@ -0,0 +1,191 @@
+package execution;
+
+import tokens.Program;
+import tokens.lexeme.Type;
+import tokens.lexeme.Types;
+import type_checking.TypeCheckException;
+
+import java.util.List;
+
+/**
+ * A type checked program compiled to the instructions of {@link Opcodes}, for {@link Machine} to run. The code of the
+ * whole program is one int array: first the initialization of the class fields, which invokes {@code main} and halts,
+ * then each method in the order they are declared. Float and string literals are in constant pools, and a table of
+ * routines has, for each method, where its code starts, how many locals and how deep operand stacks a frame of it
+ * needs in each region, and which local each argument is passed in. The initialization of the fields is the last
+ * routine of the table, and the one the machine starts with.
+ *
+ * The type each variable was declared with is kept by where the instructions that load and store it are, since the
+ * machine has no use for it but a {@link JvmClass} translated from the code does. Bytecode loaded from a
+ * {@link BytecodeImage} has no types.
+ *
+ * Every value lives in one of three regions: {@link #INTS}, which also holds bools and chars, {@link #FLOATS} and
+ * {@link #OBJECTS}, which holds strings and arrays.
+ */
+public final class Bytecode {
+    static final int INTS = 0;
+    static final int FLOATS = 1;
+    static final int OBJECTS = 2;
+    static final int REGIONS = 3;
+
+    /**
+     * Compiles a program that has passed type checking.
+     */
+    public static Bytecode compile(Program program) throws TypeCheckException {
+        return assemble(Interpreter.compile(program));
+    }
+
+    /**
+     * Compiles the tree of a program already compiled for the interpreter.
+     */
+    static Bytecode assemble(Interpreter interpreter) {
+        List<Routine> routines = interpreter.getRoutines();
+        int count = routines.size();
+        int[] fieldSizes = interpreter.getSizes();
+        Assembler assembler = new Assembler(fieldSizes);
+        int[] entries = new int[count + 1];
+        int[] frames = new int[(count + 1) * REGIONS];
+        int[] stacks = new int[(count + 1) * REGIONS];
+        String[] names = new String[count + 1];
+        int[][] argumentRegions = new int[count + 1][];
+        int[][] argumentLocals = new int[count + 1][];
+
+        entries[count] = assembler.start(null);
+        interpreter.getFields().emit(assembler);
+        Routine main = interpreter.getMain();
+        assembler.call(main, 0);
+        if (main.getType() != Types.VOID) {
+            assembler.op(pop(main.getType()));
+        }
+        assembler.op(Opcodes.HALT);
+        finish(assembler, count, new int[Variable.KINDS], stacks, frames);
+        names[count] = "<fields>";
+        argumentRegions[count] = new int[0];
+        argumentLocals[count] = new int[0];
+
+        for (Routine routine : routines) {
+            int index = routine.getIndex();
+            int[] sizes = routine.getSizes();
+            entries[index] = assembler.start(sizes);
+            routine.getBody().emit(assembler);
+            assembler.ret(Types.VOID);
+            finish(assembler, index, sizes, stacks, frames);
+            names[index] = routine.getId();
+            Variable[] arguments = routine.getArguments();
+            argumentRegions[index] = new int[arguments.length];
+            argumentLocals[index] = new int[arguments.length];
+            for (int i = 0; i < arguments.length; i++) {
+                argumentRegions[index][i] = region(arguments[i].getKind());
+                argumentLocals[index][i] = local(sizes, arguments[i].getKind(), arguments[i].getSlot());
+            }
+        }
+        return new Bytecode(assembler.code(), assembler.types(), assembler.floats(), assembler.strings(),
+                regionSizes(fieldSizes), entries, frames, stacks, names, argumentRegions, argumentLocals);
+    }
+
+    private static void finish(Assembler assembler, int routine, int[] sizes, int[] stacks, int[] frames) {
+        int[] locals = regionSizes(sizes);
+        for (int region = 0; region < REGIONS; region++) {
+            frames[routine * REGIONS + region] = locals[region];
+            stacks[routine * REGIONS + region] = assembler.maxDepth(region);
+        }
+    }
+
+    /**
+     * The region of values of a {@link Variable#getKind() kind}.
+     */
+    static int region(int kind) {
+        return kind == Variable.FLOAT ? FLOATS : kind == Variable.ARRAY ? OBJECTS : INTS;
+    }
+
+    /**
+     * The region of values of a type, strings included.
+     */
+    static int region(Type type) {
+        return type == Types.STR || type.isArray() ? OBJECTS : type == Types.FLOATLIT ? FLOATS : INTS;
+    }
+
+    /**
+     * The instruction that drops a value of the type.
+     */
+    static int pop(Type type) {
+        switch (region(type)) {
+            case INTS:
+                return Opcodes.IPOP;
+            case FLOATS:
+                return Opcodes.FPOP;
+            default:
+                return Opcodes.APOP;
+        }
+    }
+
+    /**
+     * Where a slot of a frame with the given slots of each kind is among the locals of its region: the ints of a
+     * frame come first in the int region, then its bools, then its chars.
+     */
+    static int local(int[] sizes, int kind, int slot) {
+        switch (kind) {
+            case Variable.BOOL:
+                return sizes[Variable.INT] + slot;
+            case Variable.CHAR:
+                return sizes[Variable.INT] + sizes[Variable.BOOL] + slot;
+            default:
+                return slot;
+        }
+    }
+
+    private static int[] regionSizes(int[] sizes) {
+        return new int[]{sizes[Variable.INT] + sizes[Variable.BOOL] + sizes[Variable.CHAR], sizes[Variable.FLOAT], sizes[Variable.ARRAY]};
+    }
+
+    final int[] code;
+    final Type[] types;
+    final double[] floats;
+    final String[] strings;
+    final int[] fieldSizes;
+    final int[] entries;
+    final int[] frames;
+    final int[] stacks;
+    final String[] names;
+    final int[][] argumentRegions;
+    final int[][] argumentLocals;
+
+    Bytecode(int[] code, Type[] types, double[] floats, String[] strings, int[] fieldSizes, int[] entries, int[] frames,
+             int[] stacks, String[] names, int[][] argumentRegions, int[][] argumentLocals) {
+        this.code = code;
+        this.types = types;
+        this.floats = floats;
+        this.strings = strings;
+        this.fieldSizes = fieldSizes;
+        this.entries = entries;
+        this.frames = frames;
+        this.stacks = stacks;
+        this.names = names;
+        this.argumentRegions = argumentRegions;
+        this.argumentLocals = argumentLocals;
+    }
+
+    /**
+     * The routine the program starts with, which initializes the class fields and invokes {@code main}.
+     */
+    int start() {
+        return entries.length - 1;
+    }
+
+    /**
+     * Runs the program against the console, flushing its output once it stops, however it stops.
+     */
+    public void run(Console console) throws ExecutionFault {
+        try {
+            new Machine(this, console).run();
+        } catch (RuntimeException e) {
+            ExecutionFault fault = ExecutionFault.of(e);
+            if (fault == null) {
+                throw e;
+            }
+            throw fault;
+        } finally {
+            console.flush();
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package execution;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.zip.CRC32;
+
+/**
+ * Saves {@link Bytecode} to a file and loads it back, so that running the same program again skips lexing, parsing
+ * and type checking it. An image is only written for a program that checked, and records the CRC-32 of the source it
+ * was compiled from, so an image of a source that has changed since is never loaded.
+ *
+ * An image starts with a magic number, the version of its format, the checksum of the source and the checksum of the
+ * rest of the image, followed by the code, the constant pools and the table of routines as big-endian ints, doubles
+ * and length-prefixed UTF-8 strings. It is loaded with a single memory mapping of the file. The version changes
+ * whenever the format or the {@link Opcodes instructions} do, so that images of an older build are compiled again.
+ * The types of variables are not saved, so loaded bytecode runs on the machine but cannot be made a {@link JvmClass}.
+ */
+public final class BytecodeImage {
+    private static final int MAGIC = 0x41534243;
+    private static final int VERSION = 1;
+
+    private BytecodeImage() {
+    }
+
+    /**
+     * The CRC-32 of a source file, which an image of it is checked against.
+     */
+    public static long checksum(Path source) throws IOException {
+        try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+            CRC32 crc = new CRC32();
+            crc.update(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+            return crc.getValue();
+        }
+    }
+
+    /**
+     * Loads the image, or returns null if there is none or it is not an image of the source with the given checksum
+     * in the current format.
+     */
+    public static Bytecode load(Path image, long sourceChecksum) throws IOException {
+        if (!Files.isRegularFile(image)) {
+            return null;
+        }
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(image, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        try {
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION || buffer.getInt() != (int) sourceChecksum) {
+                return null;
+            }
+            int bodyChecksum = buffer.getInt();
+            CRC32 crc = new CRC32();
+            crc.update(buffer.slice());
+            if ((int) crc.getValue() != bodyChecksum) {
+                return null;
+            }
+            return read(buffer);
+        } catch (BufferUnderflowException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Writes the image of bytecode compiled from the source with the given checksum. The image is written next to
+     * where it goes and then moved there, so a run that loads it at the same time never sees half of it. It is created
+     * like any other file rather than as a temporary one, so it gets the permissions the user's umask gives.
+     */
+    public static void write(Path image, Bytecode bytecode, long sourceChecksum) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(body);
+        writeInts(out, bytecode.code);
+        out.writeInt(bytecode.floats.length);
+        for (double value : bytecode.floats) {
+            out.writeDouble(value);
+        }
+        writeStrings(out, bytecode.strings);
+        writeInts(out, bytecode.fieldSizes);
+        writeInts(out, bytecode.entries);
+        writeInts(out, bytecode.frames);
+        writeInts(out, bytecode.stacks);
+        writeStrings(out, bytecode.names);
+        for (int routine = 0; routine < bytecode.entries.length; routine++) {
+            writeInts(out, bytecode.argumentRegions[routine]);
+            writeInts(out, bytecode.argumentLocals[routine]);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(body.toByteArray());
+
+        Path directory = image.toAbsolutePath().getParent();
+        String suffix = Long.toHexString(ThreadLocalRandom.current().nextLong());
+        Path temporary = directory.resolve(image.getFileName() + "." + suffix + ".tmp");
+        try {
+            OutputStream stream = Files.newOutputStream(temporary, StandardOpenOption.CREATE_NEW);
+            try (DataOutputStream file = new DataOutputStream(new BufferedOutputStream(stream))) {
+                file.writeInt(MAGIC);
+                file.writeInt(VERSION);
+                file.writeInt((int) sourceChecksum);
+                file.writeInt((int) crc.getValue());
+                body.writeTo(file);
+            }
+            Files.move(temporary, image, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    private static Bytecode read(ByteBuffer buffer) {
+        int[] code = readInts(buffer);
+        double[] floats = new double[readLength(buffer, Double.BYTES)];
+        buffer.asDoubleBuffer().get(floats);
+        buffer.position(buffer.position() + floats.length * Double.BYTES);
+        String[] strings = readStrings(buffer);
+        int[] fieldSizes = readInts(buffer);
+        int[] entries = readInts(buffer);
+        int[] frames = readInts(buffer);
+        int[] stacks = readInts(buffer);
+        String[] names = readStrings(buffer);
+        int[][] argumentRegions = new int[entries.length][];
+        int[][] argumentLocals = new int[entries.length][];
+        for (int routine = 0; routine < entries.length; routine++) {
+            argumentRegions[routine] = readInts(buffer);
+            argumentLocals[routine] = readInts(buffer);
+        }
+        return new Bytecode(code, null, floats, strings, fieldSizes, entries, frames, stacks, names, argumentRegions,
+                argumentLocals);
+    }
+
+    private static void writeInts(DataOutputStream out, int[] values) throws IOException {
+        out.writeInt(values.length);
+        for (int value : values) {
+            out.writeInt(value);
+        }
+    }
+
+    private static void writeStrings(DataOutputStream out, String[] values) throws IOException {
+        out.writeInt(values.length);
+        for (String value : values) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * Reads the length of an array of elements of the given size, which must fit in what is left of the image.
+     */
+    private static int readLength(ByteBuffer buffer, int elementSize) {
+        int length = buffer.getInt();
+        if (length < 0 || length > buffer.remaining() / elementSize) {
+            throw new BufferUnderflowException();
+        }
+        return length;
+    }
+
+    private static int[] readInts(ByteBuffer buffer) {
+        int[] values = new int[readLength(buffer, Integer.BYTES)];
+        buffer.asIntBuffer().get(values);
+        buffer.position(buffer.position() + values.length * Integer.BYTES);
+        return values;
+    }
+
+    private static String[] readStrings(ByteBuffer buffer) {
+        String[] values = new String[readLength(buffer, Integer.BYTES)];
+        for (int i = 0; i < values.length; i++) {
+            byte[] bytes = new byte[readLength(buffer, 1)];
+            buffer.get(bytes);
+            values[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return values;
+    }
+}
@@ -0,0 +1,385 @@
+package execution;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes a JVM class file: its constant pool, static fields and static methods, and the code of each method. Classes
+ * are written in version 49, the last that is verified by inferring the types of the stack and locals, so no stack
+ * map frames have to be written along with the code.
+ *
+ * The constants are the JVM instructions {@link Translator} writes, named as in the JVM specification.
+ */
+final class ClassFile {
+    static final int ACONST_NULL = 1;
+    static final int ICONST_0 = 3;
+    static final int ICONST_1 = 4;
+    static final int DCONST_0 = 14;
+    static final int DCONST_1 = 15;
+    static final int BIPUSH = 16;
+    static final int SIPUSH = 17;
+    static final int LDC = 18;
+    static final int LDC_W = 19;
+    static final int LDC2_W = 20;
+    static final int ILOAD = 21;
+    static final int DLOAD = 24;
+    static final int ALOAD = 25;
+    static final int IALOAD = 46;
+    static final int DALOAD = 49;
+    static final int BALOAD = 51;
+    static final int CALOAD = 52;
+    static final int ISTORE = 54;
+    static final int DSTORE = 57;
+    static final int ASTORE = 58;
+    static final int IASTORE = 79;
+    static final int DASTORE = 82;
+    static final int BASTORE = 84;
+    static final int CASTORE = 85;
+    static final int POP = 87;
+    static final int POP2 = 88;
+    static final int DUP_X2 = 91;
+    static final int DUP2 = 92;
+    static final int SWAP = 95;
+    static final int IADD = 96;
+    static final int DADD = 99;
+    static final int ISUB = 100;
+    static final int DSUB = 103;
+    static final int IMUL = 104;
+    static final int DMUL = 107;
+    static final int IDIV = 108;
+    static final int DDIV = 111;
+    static final int INEG = 116;
+    static final int DNEG = 119;
+    static final int IXOR = 130;
+    static final int IINC = 132;
+    static final int I2D = 135;
+    static final int DCMPL = 151;
+    static final int DCMPG = 152;
+    static final int IFEQ = 153;
+    static final int IFNE = 154;
+    static final int IFLT = 155;
+    static final int IFGE = 156;
+    static final int IFGT = 157;
+    static final int IFLE = 158;
+    static final int IF_ICMPEQ = 159;
+    static final int IF_ICMPNE = 160;
+    static final int IF_ICMPLT = 161;
+    static final int IF_ICMPGE = 162;
+    static final int IF_ICMPGT = 163;
+    static final int IF_ICMPLE = 164;
+    static final int GOTO = 167;
+    static final int IRETURN = 172;
+    static final int DRETURN = 175;
+    static final int RETURN = 177;
+    static final int GETSTATIC = 178;
+    static final int PUTSTATIC = 179;
+    static final int INVOKEVIRTUAL = 182;
+    static final int INVOKESTATIC = 184;
+    static final int NEWARRAY = 188;
+    static final int WIDE = 196;
+
+    static final int T_BOOLEAN = 4;
+    static final int T_CHAR = 5;
+    static final int T_DOUBLE = 7;
+    static final int T_INT = 10;
+
+    static final int ACC_STATIC = 0x0008;
+    static final int ACC_FINAL = 0x0010;
+    static final int ACC_SUPER = 0x0020;
+
+    private static final int MAGIC = 0xCAFEBABE;
+    private static final int VERSION = 49;
+    private static final int UTF8 = 1;
+    private static final int INTEGER = 3;
+    private static final int DOUBLE = 6;
+    private static final int CLASS = 7;
+    private static final int STRING = 8;
+    private static final int FIELD = 9;
+    private static final int METHOD = 10;
+    private static final int NAME_AND_TYPE = 12;
+
+    private final String name;
+    private final ByteArrayOutputStream pool = new ByteArrayOutputStream();
+    private final Map<String, Integer> constants = new HashMap<>();
+    private int constantCount = 1;
+    private final int thisClass;
+    private final int superClass;
+    private final List<byte[]> fields = new ArrayList<>();
+    private final List<byte[]> methods = new ArrayList<>();
+
+    /**
+     * Starts a class with the given internal name, such as {@code execution/Program}.
+     */
+    ClassFile(String name) {
+        this.name = name;
+        thisClass = classConstant(name);
+        superClass = classConstant("java/lang/Object");
+    }
+
+    String getName() {
+        return name;
+    }
+
+    int classConstant(String className) {
+        return constant("C" + className, 1, out -> {
+            int nameIndex = utf8(className);
+            out.writeByte(CLASS);
+            out.writeShort(nameIndex);
+        });
+    }
+
+    int stringConstant(String value) {
+        return constant("S" + value, 1, out -> {
+            int valueIndex = utf8(value);
+            out.writeByte(STRING);
+            out.writeShort(valueIndex);
+        });
+    }
+
+    int intConstant(int value) {
+        return constant("I" + value, 1, out -> {
+            out.writeByte(INTEGER);
+            out.writeInt(value);
+        });
+    }
+
+    int doubleConstant(double value) {
+        return constant("D" + Double.doubleToRawLongBits(value), 2, out -> {
+            out.writeByte(DOUBLE);
+            out.writeDouble(value);
+        });
+    }
+
+    /**
+     * A field of this class.
+     */
+    int fieldConstant(String fieldName, String descriptor) {
+        return member(FIELD, thisClass, fieldName, descriptor);
+    }
+
+    int methodConstant(String className, String methodName, String descriptor) {
+        return member(METHOD, className.equals(name) ? thisClass : classConstant(className), methodName, descriptor);
+    }
+
+    void addField(int access, String fieldName, String descriptor) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        write(bytes, out -> {
+            out.writeShort(access);
+            out.writeShort(utf8(fieldName));
+            out.writeShort(utf8(descriptor));
+            out.writeShort(0);
+        });
+        fields.add(bytes.toByteArray());
+    }
+
+    void addMethod(int access, String methodName, String descriptor, Code code) {
+        int codeName = utf8("Code");
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        write(bytes, out -> {
+            out.writeShort(access);
+            out.writeShort(utf8(methodName));
+            out.writeShort(utf8(descriptor));
+            out.writeShort(1);
+            out.writeShort(codeName);
+            out.writeInt(12 + code.size());
+            out.writeShort(code.maxStack);
+            out.writeShort(code.maxLocals);
+            out.writeInt(code.size());
+            out.write(code.bytes, 0, code.size());
+            out.writeShort(0);
+            out.writeShort(0);
+        });
+        methods.add(bytes.toByteArray());
+    }
+
+    byte[] toBytes() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        write(bytes, out -> {
+            out.writeInt(MAGIC);
+            out.writeShort(0);
+            out.writeShort(VERSION);
+            out.writeShort(constantCount);
+            pool.writeTo(out);
+            out.writeShort(ACC_FINAL | ACC_SUPER);
+            out.writeShort(thisClass);
+            out.writeShort(superClass);
+            out.writeShort(0);
+            out.writeShort(fields.size());
+            for (byte[] field : fields) {
+                out.write(field);
+            }
+            out.writeShort(methods.size());
+            for (byte[] method : methods) {
+                out.write(method);
+            }
+            out.writeShort(0);
+        });
+        return bytes.toByteArray();
+    }
+
+    private int utf8(String value) {
+        return constant("U" + value, 1, out -> {
+            out.writeByte(UTF8);
+            out.writeUTF(value);
+        });
+    }
+
+    private int member(int tag, int owner, String memberName, String descriptor) {
+        return constant((tag == FIELD ? "F" : "M") + owner + '.' + memberName + descriptor, 1, out -> {
+            int nameAndType = constant("N" + memberName + descriptor, 1, entry -> {
+                int nameIndex = utf8(memberName);
+                int descriptorIndex = utf8(descriptor);
+                entry.writeByte(NAME_AND_TYPE);
+                entry.writeShort(nameIndex);
+                entry.writeShort(descriptorIndex);
+            });
+            out.writeByte(tag);
+            out.writeShort(owner);
+            out.writeShort(nameAndType);
+        });
+    }
+
+    /**
+     * The index of a constant in the pool, adding it the first time it is asked for. A constant that refers to others
+     * adds them before itself, since it can only be written once their indexes are known.
+     */
+    private int constant(String key, int slots, Entry entry) {
+        Integer index = constants.get(key);
+        if (index != null) {
+            return index;
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        write(bytes, entry);
+        if (constantCount + slots > 0xFFFF) {
+            throw new IllegalStateException("The constant pool of " + name + " is full");
+        }
+        index = constantCount;
+        constantCount += slots;
+        pool.writeBytes(bytes.toByteArray());
+        constants.put(key, index);
+        return index;
+    }
+
+    private static void write(ByteArrayOutputStream bytes, Entry entry) {
+        try {
+            entry.write(new DataOutputStream(bytes));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private interface Entry {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    /**
+     * The code of one method, with the stack depth and locals it needs.
+     */
+    static final class Code {
+        private byte[] bytes = new byte[256];
+        private int size;
+        int maxStack;
+        int maxLocals;
+
+        int size() {
+            return size;
+        }
+
+        void op(int opcode) {
+            u1(opcode);
+        }
+
+        /**
+         * An instruction followed by a one byte operand.
+         */
+        void byteOp(int opcode, int operand) {
+            u1(opcode);
+            u1(operand);
+        }
+
+        /**
+         * An instruction followed by a two byte operand, such as an index into the constant pool.
+         */
+        void shortOp(int opcode, int operand) {
+            u1(opcode);
+            u2(operand);
+        }
+
+        /**
+         * An instruction on a local, widened when the local is past the first 256.
+         */
+        void local(int opcode, int slot) {
+            if (slot > 0xFF) {
+                u1(WIDE);
+                u1(opcode);
+                u2(slot);
+            } else {
+                u1(opcode);
+                u1(slot);
+            }
+        }
+
+        void increment(int slot, int step) {
+            if (slot > 0xFF || step != (byte) step) {
+                u1(WIDE);
+                u1(IINC);
+                u2(slot);
+                u2(step);
+            } else {
+                u1(IINC);
+                u1(slot);
+                u1(step);
+            }
+        }
+
+        /**
+         * A jump whose offset is set later with {@link #patch}, returning where the jump is.
+         */
+        int jump(int opcode) {
+            int at = size;
+            u1(opcode);
+            u2(0);
+            return at;
+        }
+
+        /**
+         * A jump by the given offset from where it starts.
+         */
+        void jump(int opcode, int offset) {
+            u1(opcode);
+            u2(offset);
+        }
+
+        /**
+         * Points the jump at the given position, returning false if it is further away than a jump can reach.
+         */
+        boolean patch(int jump, int target) {
+            int offset = target - jump;
+            if (offset != (short) offset) {
+                return false;
+            }
+            bytes[jump + 1] = (byte) (offset >> 8);
+            bytes[jump + 2] = (byte) offset;
+            return true;
+        }
+
+        private void u1(int value) {
+            if (size == bytes.length) {
+                bytes = Arrays.copyOf(bytes, size << 1);
+            }
+            bytes[size++] = (byte) value;
+        }
+
+        private void u2(int value) {
+            u1(value >> 8);
+            u1(value);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package execution;
+
+import type_checking.TypeCheckException;
+
+/**
+ * A part of a checked program that compiles into what {@link Interpreter} runs. It is compiled with the same scopes
+ * it was type checked with, so that every name resolves to the declaration the type checker found for it.
+ */
+public interface Compilable<R> {
+    R compile(int scope, Layout layout) throws TypeCheckException;
+}
@@ -0,0 +1,191 @@
+package execution;
+
+import utils.OutputBuffer;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+
+/**
+ * Where the {@code read}, {@code print} and {@code printline} statements of a running program take their input from
+ * and send their output to. Both sides are buffered: input is read a block at a time and split into words separated
+ * by whitespace, and output is collected until the buffer fills, the program waits for more input, or it ends.
+ */
+public final class Console {
+    private static final int CAPACITY = 1 << 13;
+
+    public static Console over(Reader in, Writer out) {
+        return new Console(in, OutputBuffer.over(out));
+    }
+
+    /**
+     * A console over standard input and output.
+     */
+    public static Console standard() {
+        return over(new InputStreamReader(System.in), new OutputStreamWriter(System.out));
+    }
+
+    private final Reader in;
+    private final OutputBuffer out;
+    private final char[] buffer = new char[CAPACITY];
+    private int position;
+    private int limit;
+
+    private Console(Reader in, OutputBuffer out) {
+        this.in = in;
+        this.out = out;
+    }
+
+    int readInt() {
+        String word = readWord("an int");
+        try {
+            return Integer.parseInt(word);
+        } catch (NumberFormatException e) {
+            throw unexpected("an int", word);
+        }
+    }
+
+    double readFloat() {
+        String word = readWord("a float");
+        try {
+            return Double.parseDouble(word);
+        } catch (NumberFormatException e) {
+            throw unexpected("a float", word);
+        }
+    }
+
+    boolean readBool() {
+        String word = readWord("a bool");
+        if (word.equals("true")) {
+            return true;
+        } else if (word.equals("false")) {
+            return false;
+        }
+        throw unexpected("a bool", word);
+    }
+
+    /**
+     * Reads the next character that is not whitespace.
+     */
+    char readChar() {
+        if (!skipWhitespace()) {
+            throw endOfInput("a char");
+        }
+        return buffer[position++];
+    }
+
+    void print(String text) {
+        try {
+            out.append(text);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    void print(char c) {
+        try {
+            out.append(c);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    void print(int value) {
+        print(String.valueOf(value));
+    }
+
+    void print(double value) {
+        print(String.valueOf(value));
+    }
+
+    void print(boolean value) {
+        print(value ? "true" : "false");
+    }
+
+    /**
+     * Writes out everything printed so far.
+     */
+    public void flush() {
+        try {
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private String readWord(String expected) {
+        if (!skipWhitespace()) {
+            throw endOfInput(expected);
+        }
+        StringBuilder word = null;
+        int start = position;
+        while (true) {
+            while (position < limit && !Character.isWhitespace(buffer[position])) {
+                position++;
+            }
+            if (position < limit) {
+                break;
+            }
+            // The word runs to the end of the buffer, so keep what there is of it before reading more.
+            if (word == null) {
+                word = new StringBuilder();
+            }
+            word.append(buffer, start, position - start);
+            if (!fill()) {
+                return word.toString();
+            }
+            start = position;
+        }
+        if (word == null) {
+            return new String(buffer, start, position - start);
+        }
+        return word.append(buffer, start, position - start).toString();
+    }
+
+    /**
+     * Moves past any whitespace, returning whether there is anything after it.
+     */
+    private boolean skipWhitespace() {
+        while (true) {
+            while (position < limit) {
+                if (!Character.isWhitespace(buffer[position])) {
+                    return true;
+                }
+                position++;
+            }
+            if (!fill()) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Reads the next block of input, returning false at its end. What has been printed is written out first, since
+     * it is likely to be a prompt for the input the program is waiting on.
+     */
+    private boolean fill() {
+        flush();
+        try {
+            int read = in.read(buffer, 0, buffer.length);
+            while (read == 0) {
+                read = in.read(buffer, 0, buffer.length);
+            }
+            position = 0;
+            limit = Math.max(read, 0);
+            return read > 0;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static ExecutionFault endOfInput(String expected) {
+        return ExecutionFault.withFault("Error: read expected " + expected + " but reached the end of the input");
+    }
+
+    private static ExecutionFault unexpected(String expected, String word) {
+        return ExecutionFault.withFault("Error: read expected " + expected + " but found \"" + word + "\"");
+    }
+}
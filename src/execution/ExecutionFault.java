@@ -0,0 +1,47 @@
+package execution;
+
+/**
+ * Stops a running program that went wrong, for instance by indexing past the end of an array or reading input that
+ * is not of the type it asked for. Like a type error it records no stack trace, since the fault is in the program
+ * being run rather than in the runtime.
+ */
+public final class ExecutionFault extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public static ExecutionFault withFault(String fault) {
+        return new ExecutionFault(fault);
+    }
+
+    /**
+     * The fault a program made when running it raised the given JVM exception or error, or null if the throwable does
+     * not come from a fault in the program. Arithmetic and array bounds are left to the JVM to check, and translated
+     * here once the program has stopped.
+     */
+    public static ExecutionFault of(Throwable throwable) {
+        if (throwable instanceof ExecutionFault) {
+            return (ExecutionFault) throwable;
+        } else if (throwable instanceof ArithmeticException) {
+            return withFault("Error: division by zero");
+        } else if (throwable instanceof ArrayIndexOutOfBoundsException) {
+            return withFault("Error: array index out of bounds, " + throwable.getMessage());
+        } else if (throwable instanceof NullPointerException) {
+            return withFault("Error: an array argument was left out of a method invocation");
+        } else if (throwable instanceof StackOverflowError) {
+            return stackOverflow();
+        }
+        return null;
+    }
+
+    static ExecutionFault stackOverflow() {
+        return withFault("Error: stack overflow, the program recursed too deeply");
+    }
+
+    private ExecutionFault(String fault) {
+        super(fault, null, false, false);
+    }
+
+    @Override
+    public String toString() {
+        return getMessage();
+    }
+}
@@ -0,0 +1,48 @@
+package execution;
+
+/**
+ * The variables of one method invocation, or the fields of the class. Each kind of value has an array of its own, so
+ * values are stored as the primitives they are instead of being boxed; arrays of the language are the matching Java
+ * primitive arrays, held in {@link #arrays}. Every frame also carries the frame of the class fields and the console of
+ * the run, and has room for the value its method returns.
+ */
+final class Frame {
+    private static final int[] NO_INTS = {};
+    private static final double[] NO_FLOATS = {};
+    private static final boolean[] NO_BOOLS = {};
+    private static final char[] NO_CHARS = {};
+    private static final Object[] NO_ARRAYS = {};
+
+    static Frame forFields(int[] sizes, Console console) {
+        return new Frame(sizes, null, console);
+    }
+
+    final int[] ints;
+    final double[] floats;
+    final boolean[] bools;
+    final char[] chars;
+    final Object[] arrays;
+    final Frame fields;
+    final Console console;
+    int returnedInt;
+    double returnedFloat;
+    boolean returnedBool;
+    char returnedChar;
+
+    private Frame(int[] sizes, Frame fields, Console console) {
+        this.ints = sizes[Variable.INT] == 0 ? NO_INTS : new int[sizes[Variable.INT]];
+        this.floats = sizes[Variable.FLOAT] == 0 ? NO_FLOATS : new double[sizes[Variable.FLOAT]];
+        this.bools = sizes[Variable.BOOL] == 0 ? NO_BOOLS : new boolean[sizes[Variable.BOOL]];
+        this.chars = sizes[Variable.CHAR] == 0 ? NO_CHARS : new char[sizes[Variable.CHAR]];
+        this.arrays = sizes[Variable.ARRAY] == 0 ? NO_ARRAYS : new Object[sizes[Variable.ARRAY]];
+        this.fields = fields == null ? this : fields;
+        this.console = console;
+    }
+
+    /**
+     * Returns a frame of the given size for a method invoked from this one.
+     */
+    Frame call(int[] sizes) {
+        return new Frame(sizes, fields, console);
+    }
+}
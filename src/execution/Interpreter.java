@@ -0,0 +1,83 @@
+package execution;
+
+import tokens.Program;
+import type_checking.TypeCheckException;
+
+import java.util.List;
+
+/**
+ * Runs a type checked program by walking it. The program is first compiled into a tree of {@link Node expressions}
+ * and {@link Statement statements} in which every variable is a slot in a {@link Frame} and every invocation refers
+ * to its method directly, so running it looks nothing up by name. A run initializes the class fields in the order they
+ * are declared and then invokes {@code main}, which must take no arguments.
+ */
+public final class Interpreter {
+    /**
+     * Compiles a program that has passed type checking.
+     */
+    public static Interpreter compile(Program program) throws TypeCheckException {
+        Layout layout = Layout.forClass();
+        Statement fields = program.compile(0, layout);
+        Routine main = layout.routine("main");
+        if (main == null || main.getArgumentCount() != 0) {
+            throw TypeCheckException.withFault("Error: There is no main method without arguments to run");
+        }
+        return new Interpreter(layout.sizes(), fields, layout.routines(), main);
+    }
+
+    private final int[] sizes;
+    private final Statement fields;
+    private final List<Routine> routines;
+    private final Routine main;
+
+    private Interpreter(int[] sizes, Statement fields, List<Routine> routines, Routine main) {
+        this.sizes = sizes;
+        this.fields = fields;
+        this.routines = routines;
+        this.main = main;
+    }
+
+    /**
+     * How many slots of each kind the frame of the class fields needs.
+     */
+    int[] getSizes() {
+        return sizes;
+    }
+
+    /**
+     * The initialization of the class fields, in the order they are declared.
+     */
+    Statement getFields() {
+        return fields;
+    }
+
+    /**
+     * Every method, in the order they are declared.
+     */
+    List<Routine> getRoutines() {
+        return routines;
+    }
+
+    Routine getMain() {
+        return main;
+    }
+
+    /**
+     * Runs the program against the console, flushing its output once it stops, however it stops.
+     */
+    public void run(Console console) throws ExecutionFault {
+        Frame frame = Frame.forFields(sizes, console);
+        try {
+            fields.execute(frame);
+            main.call(frame, Node.NO_ARGS);
+        } catch (RuntimeException | StackOverflowError e) {
+            ExecutionFault fault = ExecutionFault.of(e);
+            if (fault == null) {
+                throw e;
+            }
+            throw fault;
+        } finally {
+            console.flush();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package execution;
+
+import tokens.Program;
+import type_checking.TypeCheckException;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+/**
+ * A type checked program compiled to a JVM class, so that HotSpot compiles the program itself rather than an
+ * interpreter of it. The class is {@link Translator translated} from the {@link Bytecode} of the program and defined as
+ * a hidden class in this package, which the JVM unloads once it is no longer used, so compiling many programs does not
+ * fill up memory with classes.
+ *
+ * The class fields of the program are static fields of the class, so a compiled program runs once at a time.
+ */
+public final class JvmClass {
+    /**
+     * Compiles a program that has passed type checking.
+     */
+    public static JvmClass compile(Program program) throws TypeCheckException {
+        Interpreter interpreter = Interpreter.compile(program);
+        Bytecode bytecode = Bytecode.assemble(interpreter);
+        return new JvmClass(program.getId(), Translator.translate(program.getId(), interpreter.getRoutines(), bytecode));
+    }
+
+    private final MethodHandle run;
+
+    private JvmClass(String name, byte[] bytes) {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup().defineHiddenClass(bytes, true);
+            run = lookup.findStatic(lookup.lookupClass(), Translator.RUN,
+                    MethodType.methodType(void.class, Console.class));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Could not load the class compiled from " + name, e);
+        }
+    }
+
+    /**
+     * Runs the program against the console, flushing its output once it stops, however it stops.
+     */
+    public void run(Console console) throws ExecutionFault {
+        try {
+            run.invokeExact(console);
+        } catch (Throwable e) {
+            ExecutionFault fault = ExecutionFault.of(e);
+            if (fault != null) {
+                throw fault;
+            } else if (e instanceof RuntimeException) {
+                throw (RuntimeException) e;
+            } else if (e instanceof Error) {
+                throw (Error) e;
+            }
+            throw new IllegalStateException(e);
+        } finally {
+            console.flush();
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package execution;
+
+import tokens.lexeme.Type;
+import type_checking.TypeCheckException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Assigns every variable of a checked program its slot in a {@link Frame} while the program is compiled for
+ * execution, so that nothing is looked up by name once it runs.
+ *
+ * Variables are declared and resolved with the same scopes the type checker used, and shadow each other the same way.
+ * Each kind of value has its own run of slots, and leaving a scope hands the slots of the variables declared in it
+ * back, so a frame only needs room for the variables that are live at the same time. The class has one layout for its
+ * fields, and each method one {@link #forMethod() layered} over it, which resolves the names it does not declare
+ * itself to the class fields. The class layout also numbers the methods, which all layered layouts share.
+ */
+public final class Layout {
+    public static Layout forClass() {
+        return new Layout(null, new LinkedHashMap<>(), true);
+    }
+
+    private final Layout enclosing;
+    private final Map<String, Routine> routines;
+    private final boolean fields;
+    private final Map<String, Declaration> declarations = new HashMap<>();
+    private final List<List<Declaration>> frames = new ArrayList<>();
+    private final int[] next = new int[Variable.KINDS];
+    private final int[] sizes = new int[Variable.KINDS];
+
+    private Layout(Layout enclosing, Map<String, Routine> routines, boolean fields) {
+        this.enclosing = enclosing;
+        this.routines = routines;
+        this.fields = fields;
+    }
+
+    /**
+     * Returns an empty layout for the arguments and locals of a method, whose lookups fall through to this one.
+     */
+    public Layout forMethod() {
+        return new Layout(this, routines, false);
+    }
+
+    /**
+     * Gives the identifier declared in the given scope the next free slot for its type.
+     */
+    public Variable declare(String id, int scope, Type type) {
+        int kind = Variable.kindOf(type);
+        Variable variable = Variable.of(type, next[kind]++, fields, scope);
+        sizes[kind] = Math.max(sizes[kind], next[kind]);
+        Declaration declaration = new Declaration(id, variable, declarations.get(id));
+        declarations.put(id, declaration);
+        while (frames.size() <= scope) {
+            frames.add(new ArrayList<>());
+        }
+        frames.get(scope).add(declaration);
+        return variable;
+    }
+
+    /**
+     * Returns the innermost variable with the identifier visible from the given scope, or null if there is none.
+     */
+    public Variable variable(String id, int scope) {
+        for (Declaration declaration = declarations.get(id); declaration != null; declaration = declaration.shadowed) {
+            if (declaration.variable.getScope() <= scope) {
+                return declaration.variable;
+            }
+        }
+        return enclosing != null ? enclosing.variable(id, scope) : null;
+    }
+
+    /**
+     * Returns the variable a name refers to from the given scope, which must be declared.
+     */
+    public Variable resolve(String id, int scope) throws TypeCheckException {
+        Variable variable = variable(id, scope);
+        if (variable == null) {
+            throw TypeCheckException.undeclaredError(id);
+        }
+        return variable;
+    }
+
+    /**
+     * Returns the array variable an indexed name refers to from the given scope. The type checker lets any variable be
+     * indexed, as if it were an array of its own type, but only arrays can be indexed at run time.
+     */
+    public Variable resolveArray(String id, int scope) throws TypeCheckException {
+        Variable variable = resolve(id, scope);
+        if (!variable.getType().isArray()) {
+            throw TypeCheckException.withFault("Error: " + id + " is not an array, but is being indexed");
+        }
+        return variable;
+    }
+
+    /**
+     * Leaves the given scope and any deeper ones, freeing the slots of every variable declared in them.
+     */
+    public void removeScope(int scope) {
+        for (int current = frames.size() - 1; current >= scope; current--) {
+            List<Declaration> frame = frames.get(current);
+            for (int i = frame.size() - 1; i >= 0; i--) {
+                Declaration declaration = frame.get(i);
+                Variable variable = declaration.variable;
+                next[variable.getKind()] = Math.min(next[variable.getKind()], variable.getSlot());
+                if (declaration.shadowed == null) {
+                    declarations.remove(declaration.id);
+                } else {
+                    declarations.put(declaration.id, declaration.shadowed);
+                }
+            }
+            frame.clear();
+        }
+    }
+
+    /**
+     * Adds a method, numbered after those already declared. Its body is compiled later, so methods can invoke
+     * themselves and each other.
+     */
+    public Routine declareRoutine(String id, Type type, List<Type> argumentTypes) {
+        Routine routine = Routine.of(id, routines.size(), type, argumentTypes);
+        routines.put(id, routine);
+        return routine;
+    }
+
+    /**
+     * Returns the method with the identifier, or null if there is none.
+     */
+    public Routine routine(String id) {
+        return routines.get(id);
+    }
+
+    /**
+     * Every method, in the order they were declared.
+     */
+    public List<Routine> routines() {
+        return new ArrayList<>(routines.values());
+    }
+
+    /**
+     * How many slots of each kind a frame needs to hold every variable declared here.
+     */
+    int[] sizes() {
+        return sizes.clone();
+    }
+
+    private static final class Declaration {
+        private final String id;
+        private final Variable variable;
+        private final Declaration shadowed;
+
+        private Declaration(String id, Variable variable, Declaration shadowed) {
+            this.id = id;
+            this.variable = variable;
+            this.shadowed = shadowed;
+        }
+    }
+}
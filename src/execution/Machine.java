@@ -0,0 +1,537 @@
+package execution;
+
+import java.util.Arrays;
+
+import static execution.Opcodes.*;
+
+/**
+ * Runs {@link Bytecode} in one loop that dispatches on each instruction in turn. Invocations do not recurse in Java:
+ * the frames of the running methods are consecutive runs of the locals of each region, and the return address and
+ * bases of each caller are kept in an array of their own. The locals and the operand stacks only grow when an
+ * invocation needs more room than they have, which the table of routines says up front, so no other instruction
+ * checks for room. Invocations nest at most {@value #MAX_CALLS} deep.
+ */
+final class Machine {
+    private static final int INITIAL_CAPACITY = 1 << 10;
+    private static final int MAX_CALLS = 1 << 16;
+    // Return address, routine, and the base of the int, float and object locals of each caller.
+    private static final int CALL_SIZE = 5;
+
+    private final Bytecode bytecode;
+    private final Console console;
+    private int[] ints = new int[INITIAL_CAPACITY];
+    private double[] floats = new double[INITIAL_CAPACITY];
+    private Object[] objects = new Object[INITIAL_CAPACITY];
+    private int[] intStack = new int[INITIAL_CAPACITY];
+    private double[] floatStack = new double[INITIAL_CAPACITY];
+    private Object[] objectStack = new Object[INITIAL_CAPACITY];
+
+    Machine(Bytecode bytecode, Console console) {
+        this.bytecode = bytecode;
+        this.console = console;
+    }
+
+    void run() {
+        final int[] code = bytecode.code;
+        final double[] floatPool = bytecode.floats;
+        final String[] stringPool = bytecode.strings;
+        final int[] frames = bytecode.frames;
+        final int[] fieldInts = new int[bytecode.fieldSizes[Bytecode.INTS]];
+        final double[] fieldFloats = new double[bytecode.fieldSizes[Bytecode.FLOATS]];
+        final Object[] fieldObjects = new Object[bytecode.fieldSizes[Bytecode.OBJECTS]];
+
+        int routine = bytecode.start();
+        ensureCapacity(routine, 0, 0, 0, 0, 0, 0);
+        int[] ints = this.ints;
+        double[] floats = this.floats;
+        Object[] objects = this.objects;
+        int[] intStack = this.intStack;
+        double[] floatStack = this.floatStack;
+        Object[] objectStack = this.objectStack;
+        int intBase = 0;
+        int floatBase = 0;
+        int objectBase = 0;
+        int intTop = 0;
+        int floatTop = 0;
+        int objectTop = 0;
+        int[] calls = new int[INITIAL_CAPACITY * CALL_SIZE];
+        int depth = 0;
+        int pc = bytecode.entries[routine];
+
+        while (true) {
+            switch (code[pc++]) {
+                case ICONST:
+                    intStack[intTop++] = code[pc++];
+                    break;
+                case FCONST:
+                    floatStack[floatTop++] = floatPool[code[pc++]];
+                    break;
+                case SCONST:
+                    objectStack[objectTop++] = stringPool[code[pc++]];
+                    break;
+                case ILOAD:
+                    intStack[intTop++] = ints[intBase + code[pc++]];
+                    break;
+                case FLOAD:
+                    floatStack[floatTop++] = floats[floatBase + code[pc++]];
+                    break;
+                case ALOAD:
+                    objectStack[objectTop++] = objects[objectBase + code[pc++]];
+                    break;
+                case GILOAD:
+                    intStack[intTop++] = fieldInts[code[pc++]];
+                    break;
+                case GFLOAD:
+                    floatStack[floatTop++] = fieldFloats[code[pc++]];
+                    break;
+                case GALOAD:
+                    objectStack[objectTop++] = fieldObjects[code[pc++]];
+                    break;
+                case ISTORE:
+                    ints[intBase + code[pc++]] = intStack[--intTop];
+                    break;
+                case FSTORE:
+                    floats[floatBase + code[pc++]] = floatStack[--floatTop];
+                    break;
+                case ASTORE:
+                    objects[objectBase + code[pc++]] = objectStack[--objectTop];
+                    break;
+                case GISTORE:
+                    fieldInts[code[pc++]] = intStack[--intTop];
+                    break;
+                case GFSTORE:
+                    fieldFloats[code[pc++]] = floatStack[--floatTop];
+                    break;
+                case GASTORE:
+                    fieldObjects[code[pc++]] = objectStack[--objectTop];
+                    break;
+                case IINC:
+                    ints[intBase + code[pc]] += code[pc + 1];
+                    pc += 2;
+                    break;
+                case FINC:
+                    floats[floatBase + code[pc]] += code[pc + 1];
+                    pc += 2;
+                    break;
+                case GIINC:
+                    fieldInts[code[pc]] += code[pc + 1];
+                    pc += 2;
+                    break;
+                case GFINC:
+                    fieldFloats[code[pc]] += code[pc + 1];
+                    pc += 2;
+                    break;
+                case IALOAD: {
+                    int index = intStack[--intTop];
+                    intStack[intTop++] = ((int[]) objectStack[--objectTop])[index];
+                    break;
+                }
+                case FALOAD: {
+                    int index = intStack[--intTop];
+                    floatStack[floatTop++] = ((double[]) objectStack[--objectTop])[index];
+                    break;
+                }
+                case BALOAD: {
+                    int index = intStack[--intTop];
+                    intStack[intTop++] = ((boolean[]) objectStack[--objectTop])[index] ? 1 : 0;
+                    break;
+                }
+                case CALOAD: {
+                    int index = intStack[--intTop];
+                    intStack[intTop++] = ((char[]) objectStack[--objectTop])[index];
+                    break;
+                }
+                case IASTORE: {
+                    int value = intStack[--intTop];
+                    int index = intStack[--intTop];
+                    ((int[]) objectStack[--objectTop])[index] = value;
+                    break;
+                }
+                case FASTORE: {
+                    int index = intStack[--intTop];
+                    ((double[]) objectStack[--objectTop])[index] = floatStack[--floatTop];
+                    break;
+                }
+                case BASTORE: {
+                    int value = intStack[--intTop];
+                    int index = intStack[--intTop];
+                    ((boolean[]) objectStack[--objectTop])[index] = value != 0;
+                    break;
+                }
+                case CASTORE: {
+                    int value = intStack[--intTop];
+                    int index = intStack[--intTop];
+                    ((char[]) objectStack[--objectTop])[index] = (char) value;
+                    break;
+                }
+                case IAINC: {
+                    int index = intStack[--intTop];
+                    ((int[]) objectStack[--objectTop])[index] += code[pc++];
+                    break;
+                }
+                case FAINC: {
+                    int index = intStack[--intTop];
+                    ((double[]) objectStack[--objectTop])[index] += code[pc++];
+                    break;
+                }
+                case NEWARRAY:
+                    objectStack[objectTop++] = newArray(code[pc], code[pc + 1]);
+                    pc += 2;
+                    break;
+                case IADD:
+                    intTop--;
+                    intStack[intTop - 1] += intStack[intTop];
+                    break;
+                case ISUB:
+                    intTop--;
+                    intStack[intTop - 1] -= intStack[intTop];
+                    break;
+                case IMUL:
+                    intTop--;
+                    intStack[intTop - 1] *= intStack[intTop];
+                    break;
+                case IDIV:
+                    intTop--;
+                    intStack[intTop - 1] /= intStack[intTop];
+                    break;
+                case INEG:
+                    intStack[intTop - 1] = -intStack[intTop - 1];
+                    break;
+                case FADD:
+                    floatTop--;
+                    floatStack[floatTop - 1] += floatStack[floatTop];
+                    break;
+                case FSUB:
+                    floatTop--;
+                    floatStack[floatTop - 1] -= floatStack[floatTop];
+                    break;
+                case FMUL:
+                    floatTop--;
+                    floatStack[floatTop - 1] *= floatStack[floatTop];
+                    break;
+                case FDIV:
+                    floatTop--;
+                    floatStack[floatTop - 1] /= floatStack[floatTop];
+                    break;
+                case FNEG:
+                    floatStack[floatTop - 1] = -floatStack[floatTop - 1];
+                    break;
+                case ILT:
+                    intTop--;
+                    intStack[intTop - 1] = intStack[intTop - 1] < intStack[intTop] ? 1 : 0;
+                    break;
+                case IGT:
+                    intTop--;
+                    intStack[intTop - 1] = intStack[intTop - 1] > intStack[intTop] ? 1 : 0;
+                    break;
+                case ILE:
+                    intTop--;
+                    intStack[intTop - 1] = intStack[intTop - 1] <= intStack[intTop] ? 1 : 0;
+                    break;
+                case IGE:
+                    intTop--;
+                    intStack[intTop - 1] = intStack[intTop - 1] >= intStack[intTop] ? 1 : 0;
+                    break;
+                case IEQ:
+                    intTop--;
+                    intStack[intTop - 1] = intStack[intTop - 1] == intStack[intTop] ? 1 : 0;
+                    break;
+                case INE:
+                    intTop--;
+                    intStack[intTop - 1] = intStack[intTop - 1] != intStack[intTop] ? 1 : 0;
+                    break;
+                case FLT:
+                    floatTop -= 2;
+                    intStack[intTop++] = floatStack[floatTop] < floatStack[floatTop + 1] ? 1 : 0;
+                    break;
+                case FGT:
+                    floatTop -= 2;
+                    intStack[intTop++] = floatStack[floatTop] > floatStack[floatTop + 1] ? 1 : 0;
+                    break;
+                case FLE:
+                    floatTop -= 2;
+                    intStack[intTop++] = floatStack[floatTop] <= floatStack[floatTop + 1] ? 1 : 0;
+                    break;
+                case FGE:
+                    floatTop -= 2;
+                    intStack[intTop++] = floatStack[floatTop] >= floatStack[floatTop + 1] ? 1 : 0;
+                    break;
+                case FEQ:
+                    floatTop -= 2;
+                    intStack[intTop++] = floatStack[floatTop] == floatStack[floatTop + 1] ? 1 : 0;
+                    break;
+                case FNE:
+                    floatTop -= 2;
+                    intStack[intTop++] = floatStack[floatTop] != floatStack[floatTop + 1] ? 1 : 0;
+                    break;
+                case I2F:
+                    floatStack[floatTop++] = intStack[--intTop];
+                    break;
+                case I2B:
+                    intStack[intTop - 1] = intStack[intTop - 1] != 0 ? 1 : 0;
+                    break;
+                case BNOT:
+                    intStack[intTop - 1] ^= 1;
+                    break;
+                case I2S:
+                    objectStack[objectTop++] = String.valueOf(intStack[--intTop]);
+                    break;
+                case F2S:
+                    objectStack[objectTop++] = String.valueOf(floatStack[--floatTop]);
+                    break;
+                case B2S:
+                    objectStack[objectTop++] = intStack[--intTop] != 0 ? "true" : "false";
+                    break;
+                case C2S:
+                    objectStack[objectTop++] = String.valueOf((char) intStack[--intTop]);
+                    break;
+                case CONCAT:
+                    objectTop--;
+                    objectStack[objectTop - 1] = ((String) objectStack[objectTop - 1]).concat((String) objectStack[objectTop]);
+                    objectStack[objectTop] = null;
+                    break;
+                case JUMP:
+                    pc = code[pc];
+                    break;
+                case JUMPZ:
+                    pc = intStack[--intTop] == 0 ? code[pc] : pc + 1;
+                    break;
+                case JUMPNZ:
+                    pc = intStack[--intTop] != 0 ? code[pc] : pc + 1;
+                    break;
+                case IFLT:
+                    intTop -= 2;
+                    pc = intStack[intTop] < intStack[intTop + 1] ? code[pc] : pc + 1;
+                    break;
+                case IFGT:
+                    intTop -= 2;
+                    pc = intStack[intTop] > intStack[intTop + 1] ? code[pc] : pc + 1;
+                    break;
+                case IFLE:
+                    intTop -= 2;
+                    pc = intStack[intTop] <= intStack[intTop + 1] ? code[pc] : pc + 1;
+                    break;
+                case IFGE:
+                    intTop -= 2;
+                    pc = intStack[intTop] >= intStack[intTop + 1] ? code[pc] : pc + 1;
+                    break;
+                case IFEQ:
+                    intTop -= 2;
+                    pc = intStack[intTop] == intStack[intTop + 1] ? code[pc] : pc + 1;
+                    break;
+                case IFNE:
+                    intTop -= 2;
+                    pc = intStack[intTop] != intStack[intTop + 1] ? code[pc] : pc + 1;
+                    break;
+                case IADDL:
+                    intStack[intTop - 1] += ints[intBase + code[pc++]];
+                    break;
+                case ISUBL:
+                    intStack[intTop - 1] -= ints[intBase + code[pc++]];
+                    break;
+                case IMULL:
+                    intStack[intTop - 1] *= ints[intBase + code[pc++]];
+                    break;
+                case IDIVL:
+                    intStack[intTop - 1] /= ints[intBase + code[pc++]];
+                    break;
+                case IADDC:
+                    intStack[intTop - 1] += code[pc++];
+                    break;
+                case ISUBC:
+                    intStack[intTop - 1] -= code[pc++];
+                    break;
+                case IMULC:
+                    intStack[intTop - 1] *= code[pc++];
+                    break;
+                case IDIVC:
+                    intStack[intTop - 1] /= code[pc++];
+                    break;
+                case IFLTL:
+                    pc = intStack[--intTop] < ints[intBase + code[pc]] ? code[pc + 1] : pc + 2;
+                    break;
+                case IFGTL:
+                    pc = intStack[--intTop] > ints[intBase + code[pc]] ? code[pc + 1] : pc + 2;
+                    break;
+                case IFLEL:
+                    pc = intStack[--intTop] <= ints[intBase + code[pc]] ? code[pc + 1] : pc + 2;
+                    break;
+                case IFGEL:
+                    pc = intStack[--intTop] >= ints[intBase + code[pc]] ? code[pc + 1] : pc + 2;
+                    break;
+                case IFEQL:
+                    pc = intStack[--intTop] == ints[intBase + code[pc]] ? code[pc + 1] : pc + 2;
+                    break;
+                case IFNEL:
+                    pc = intStack[--intTop] != ints[intBase + code[pc]] ? code[pc + 1] : pc + 2;
+                    break;
+                case IFLTC:
+                    pc = intStack[--intTop] < code[pc] ? code[pc + 1] : pc + 2;
+                    break;
+                case IFGTC:
+                    pc = intStack[--intTop] > code[pc] ? code[pc + 1] : pc + 2;
+                    break;
+                case IFLEC:
+                    pc = intStack[--intTop] <= code[pc] ? code[pc + 1] : pc + 2;
+                    break;
+                case IFGEC:
+                    pc = intStack[--intTop] >= code[pc] ? code[pc + 1] : pc + 2;
+                    break;
+                case IFEQC:
+                    pc = intStack[--intTop] == code[pc] ? code[pc + 1] : pc + 2;
+                    break;
+                case IFNEC:
+                    pc = intStack[--intTop] != code[pc] ? code[pc + 1] : pc + 2;
+                    break;
+                case CALL: {
+                    int callee = code[pc];
+                    int arguments = code[pc + 1];
+                    int call = depth++ * CALL_SIZE;
+                    if (call == calls.length) {
+                        if (depth > MAX_CALLS) {
+                            throw ExecutionFault.stackOverflow();
+                        }
+                        calls = Arrays.copyOf(calls, call << 1);
+                    }
+                    calls[call] = pc + 2;
+                    calls[call + 1] = routine;
+                    calls[call + 2] = intBase;
+                    calls[call + 3] = floatBase;
+                    calls[call + 4] = objectBase;
+                    intBase += frames[routine * Bytecode.REGIONS + Bytecode.INTS];
+                    floatBase += frames[routine * Bytecode.REGIONS + Bytecode.FLOATS];
+                    objectBase += frames[routine * Bytecode.REGIONS + Bytecode.OBJECTS];
+                    routine = callee;
+                    if (ensureCapacity(routine, intBase, floatBase, objectBase, intTop, floatTop, objectTop)) {
+                        ints = this.ints;
+                        floats = this.floats;
+                        objects = this.objects;
+                        intStack = this.intStack;
+                        floatStack = this.floatStack;
+                        objectStack = this.objectStack;
+                    }
+                    int[] regions = bytecode.argumentRegions[routine];
+                    int[] locals = bytecode.argumentLocals[routine];
+                    for (int i = regions.length - 1; i >= 0; i--) {
+                        switch (regions[i]) {
+                            case Bytecode.INTS:
+                                ints[intBase + locals[i]] = i < arguments ? intStack[--intTop] : 0;
+                                break;
+                            case Bytecode.FLOATS:
+                                floats[floatBase + locals[i]] = i < arguments ? floatStack[--floatTop] : 0;
+                                break;
+                            default:
+                                objects[objectBase + locals[i]] = i < arguments ? objectStack[--objectTop] : null;
+                                break;
+                        }
+                    }
+                    pc = bytecode.entries[routine];
+                    break;
+                }
+                case RETURN: {
+                    int call = --depth * CALL_SIZE;
+                    pc = calls[call];
+                    routine = calls[call + 1];
+                    intBase = calls[call + 2];
+                    floatBase = calls[call + 3];
+                    objectBase = calls[call + 4];
+                    break;
+                }
+                case IPOP:
+                    intTop--;
+                    break;
+                case FPOP:
+                    floatTop--;
+                    break;
+                case APOP:
+                    objectStack[--objectTop] = null;
+                    break;
+                case IREAD:
+                    intStack[intTop++] = console.readInt();
+                    break;
+                case FREAD:
+                    floatStack[floatTop++] = console.readFloat();
+                    break;
+                case BREAD:
+                    intStack[intTop++] = console.readBool() ? 1 : 0;
+                    break;
+                case CREAD:
+                    intStack[intTop++] = console.readChar();
+                    break;
+                case IPRINT:
+                    console.print(intStack[--intTop]);
+                    break;
+                case FPRINT:
+                    console.print(floatStack[--floatTop]);
+                    break;
+                case BPRINT:
+                    console.print(intStack[--intTop] != 0);
+                    break;
+                case CPRINT:
+                    console.print((char) intStack[--intTop]);
+                    break;
+                case SPRINT:
+                    console.print((String) objectStack[objectTop - 1]);
+                    objectStack[--objectTop] = null;
+                    break;
+                case HALT:
+                    return;
+                default:
+                    throw new IllegalStateException("Unknown instruction " + code[pc - 1] + " at " + (pc - 1));
+            }
+        }
+    }
+
+    private static Object newArray(int kind, int length) {
+        switch (kind) {
+            case Variable.INT:
+                return new int[length];
+            case Variable.FLOAT:
+                return new double[length];
+            case Variable.BOOL:
+                return new boolean[length];
+            default:
+                return new char[length];
+        }
+    }
+
+    /**
+     * Makes sure the locals have room for a frame of the routine at the given bases and the operand stacks have room
+     * for it on top of the given depths, returning whether any of them had to grow.
+     */
+    private boolean ensureCapacity(int routine, int intBase, int floatBase, int objectBase, int intTop, int floatTop, int objectTop) {
+        int[] frames = bytecode.frames;
+        int[] stacks = bytecode.stacks;
+        int at = routine * Bytecode.REGIONS;
+        boolean grew = false;
+        if (intBase + frames[at + Bytecode.INTS] > ints.length) {
+            ints = Arrays.copyOf(ints, capacity(intBase + frames[at + Bytecode.INTS]));
+            grew = true;
+        }
+        if (floatBase + frames[at + Bytecode.FLOATS] > floats.length) {
+            floats = Arrays.copyOf(floats, capacity(floatBase + frames[at + Bytecode.FLOATS]));
+            grew = true;
+        }
+        if (objectBase + frames[at + Bytecode.OBJECTS] > objects.length) {
+            objects = Arrays.copyOf(objects, capacity(objectBase + frames[at + Bytecode.OBJECTS]));
+            grew = true;
+        }
+        if (intTop + stacks[at + Bytecode.INTS] > intStack.length) {
+            intStack = Arrays.copyOf(intStack, capacity(intTop + stacks[at + Bytecode.INTS]));
+            grew = true;
+        }
+        if (floatTop + stacks[at + Bytecode.FLOATS] > floatStack.length) {
+            floatStack = Arrays.copyOf(floatStack, capacity(floatTop + stacks[at + Bytecode.FLOATS]));
+            grew = true;
+        }
+        if (objectTop + stacks[at + Bytecode.OBJECTS] > objectStack.length) {
+            objectStack = Arrays.copyOf(objectStack, capacity(objectTop + stacks[at + Bytecode.OBJECTS]));
+            grew = true;
+        }
+        return grew;
+    }
+
+    private static int capacity(int needed) {
+        return Math.max(needed, Integer.highestOneBit(needed) << 1);
+    }
+}
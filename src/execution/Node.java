@@ -0,0 +1,782 @@
+package execution;
+
+import tokens.expr.Operator;
+import tokens.lexeme.Type;
+import tokens.lexeme.Types;
+import type_checking.TypeCheckException;
+import type_checking.TypeRules;
+
+/**
+ * An expression of a checked program, compiled for execution. Every node has the static type the type checker gave
+ * its expression and only evaluates to that type, through the method for it, so values never have to be boxed:
+ * {@link #evaluateInt} for int, {@link #evaluateObject} for strings and arrays, and so on. Implicit coercions are
+ * nodes of their own, put in by {@link #coerce}, and the operators are chosen from the types of their operands when
+ * the node is built, so evaluating one never looks at a type.
+ *
+ * Nodes also {@link #emit} themselves as {@link Bytecode}, with the instructions for their types.
+ */
+public abstract class Node {
+    /**
+     * The arguments of an invocation that passes none. It lives here, rather than with the tokens that invoke, so that
+     * nothing of the interpreter is loaded by a program that is only checked.
+     */
+    public static final Node[] NO_ARGS = {};
+
+    private final Type type;
+    private final int opcode;
+    private final Node[] operands;
+
+    /**
+     * A node that writes its own bytecode, by overriding {@link #emit}.
+     */
+    Node(Type type) {
+        this(type, -1);
+    }
+
+    /**
+     * A node whose bytecode is that of each of its operands in turn, followed by the instruction.
+     */
+    Node(Type type, int opcode, Node... operands) {
+        this.type = type;
+        this.opcode = opcode;
+        this.operands = operands;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    int evaluateInt(Frame frame) {
+        throw mismatch(Types.INTLIT);
+    }
+
+    double evaluateFloat(Frame frame) {
+        throw mismatch(Types.FLOATLIT);
+    }
+
+    boolean evaluateBool(Frame frame) {
+        throw mismatch(Types.BOOLLIT);
+    }
+
+    char evaluateChar(Frame frame) {
+        throw mismatch(Types.CHARLIT);
+    }
+
+    /**
+     * Evaluates a string or an array.
+     */
+    Object evaluateObject(Frame frame) {
+        throw mismatch(Types.STR);
+    }
+
+    /**
+     * Evaluates an invocation of a method that returns nothing.
+     */
+    void evaluateVoid(Frame frame) {
+        throw mismatch(Types.VOID);
+    }
+
+    /**
+     * Writes the instructions that leave the value of this node on top of the stack of its region.
+     */
+    void emit(Assembler assembler) {
+        if (opcode < 0) {
+            throw new IllegalStateException("A " + type.getType() + " node has no bytecode");
+        }
+        for (Node operand : operands) {
+            operand.emit(assembler);
+        }
+        assembler.op(opcode);
+    }
+
+    private IllegalStateException mismatch(Type asked) {
+        return new IllegalStateException("A " + type.getType() + (type.isArray() ? "[]" : "") + " node was evaluated as " + asked.getType());
+    }
+
+    public static Node intConstant(int value) {
+        return new Node(Types.INTLIT) {
+            @Override
+            int evaluateInt(Frame frame) {
+                return value;
+            }
+
+            @Override
+            void emit(Assembler assembler) {
+                assembler.op(Opcodes.ICONST, value);
+            }
+        };
+    }
+
+    public static Node floatConstant(double value) {
+        return new Node(Types.FLOATLIT) {
+            @Override
+            double evaluateFloat(Frame frame) {
+                return value;
+            }
+
+            @Override
+            void emit(Assembler assembler) {
+                assembler.op(Opcodes.FCONST, assembler.floatConstant(value));
+            }
+        };
+    }
+
+    public static Node boolConstant(boolean value) {
+        return new Node(Types.BOOLLIT) {
+            @Override
+            boolean evaluateBool(Frame frame) {
+                return value;
+            }
+
+            @Override
+            void emit(Assembler assembler) {
+                assembler.op(Opcodes.ICONST, value ? 1 : 0);
+            }
+        };
+    }
+
+    public static Node charConstant(char value) {
+        return new Node(Types.CHARLIT) {
+            @Override
+            char evaluateChar(Frame frame) {
+                return value;
+            }
+
+            @Override
+            void emit(Assembler assembler) {
+                assembler.op(Opcodes.ICONST, value);
+            }
+        };
+    }
+
+    public static Node stringConstant(String value) {
+        return new Node(Types.STR) {
+            @Override
+            Object evaluateObject(Frame frame) {
+                return value;
+            }
+
+            @Override
+            void emit(Assembler assembler) {
+                assembler.op(Opcodes.SCONST, assembler.stringConstant(value));
+            }
+        };
+    }
+
+    /**
+     * The zero value of a type that a variable holds, which is what variables declared without a value start with.
+     */
+    static Node zero(Type type) {
+        switch (Variable.kindOf(type)) {
+            case Variable.INT:
+                return intConstant(0);
+            case Variable.FLOAT:
+                return floatConstant(0);
+            case Variable.BOOL:
+                return boolConstant(false);
+            default:
+                return charConstant('\0');
+        }
+    }
+
+    public static Node variable(Variable variable) {
+        int slot = variable.getSlot();
+        boolean field = variable.isField();
+        switch (variable.getKind()) {
+            case Variable.INT:
+                return new Load(variable) {
+                    @Override
+                    int evaluateInt(Frame frame) {
+                        return (field ? frame.fields : frame).ints[slot];
+                    }
+                };
+            case Variable.FLOAT:
+                return new Load(variable) {
+                    @Override
+                    double evaluateFloat(Frame frame) {
+                        return (field ? frame.fields : frame).floats[slot];
+                    }
+                };
+            case Variable.BOOL:
+                return new Load(variable) {
+                    @Override
+                    boolean evaluateBool(Frame frame) {
+                        return (field ? frame.fields : frame).bools[slot];
+                    }
+                };
+            case Variable.CHAR:
+                return new Load(variable) {
+                    @Override
+                    char evaluateChar(Frame frame) {
+                        return (field ? frame.fields : frame).chars[slot];
+                    }
+                };
+            default:
+                return new Load(variable) {
+                    @Override
+                    Object evaluateObject(Frame frame) {
+                        return (field ? frame.fields : frame).arrays[slot];
+                    }
+                };
+        }
+    }
+
+    /**
+     * An element of an array variable. Indexes are never type checked, so this is where they are made sure to be ints.
+     */
+    public static Node element(Variable array, Node index) throws TypeCheckException {
+        Place.checkIndex(index);
+        int slot = array.getSlot();
+        boolean field = array.isField();
+        Type elementType = array.getType().getElementType();
+        Node load = variable(array);
+        switch (Variable.kindOf(elementType)) {
+            case Variable.INT:
+                return new Node(elementType, Opcodes.IALOAD, load, index) {
+                    @Override
+                    int evaluateInt(Frame frame) {
+                        return ((int[]) (field ? frame.fields : frame).arrays[slot])[index.evaluateInt(frame)];
+                    }
+                };
+            case Variable.FLOAT:
+                return new Node(elementType, Opcodes.FALOAD, load, index) {
+                    @Override
+                    double evaluateFloat(Frame frame) {
+                        return ((double[]) (field ? frame.fields : frame).arrays[slot])[index.evaluateInt(frame)];
+                    }
+                };
+            case Variable.BOOL:
+                return new Node(elementType, Opcodes.BALOAD, load, index) {
+                    @Override
+                    boolean evaluateBool(Frame frame) {
+                        return ((boolean[]) (field ? frame.fields : frame).arrays[slot])[index.evaluateInt(frame)];
+                    }
+                };
+            default:
+                return new Node(elementType, Opcodes.CALOAD, load, index) {
+                    @Override
+                    char evaluateChar(Frame frame) {
+                        return ((char[]) (field ? frame.fields : frame).arrays[slot])[index.evaluateInt(frame)];
+                    }
+                };
+        }
+    }
+
+    /**
+     * An invocation of the method with the given arguments, each coerced to the type of its parameter.
+     */
+    public static Node invocation(Routine routine, Node[] args) {
+        Node[] coerced = new Node[args.length];
+        for (int i = 0; i < args.length; i++) {
+            coerced[i] = coerce(args[i], routine.getArgumentType(i));
+        }
+        return new Node(routine.getType()) {
+            @Override
+            int evaluateInt(Frame frame) {
+                return routine.call(frame, coerced).returnedInt;
+            }
+
+            @Override
+            double evaluateFloat(Frame frame) {
+                return routine.call(frame, coerced).returnedFloat;
+            }
+
+            @Override
+            boolean evaluateBool(Frame frame) {
+                return routine.call(frame, coerced).returnedBool;
+            }
+
+            @Override
+            char evaluateChar(Frame frame) {
+                return routine.call(frame, coerced).returnedChar;
+            }
+
+            @Override
+            void evaluateVoid(Frame frame) {
+                routine.call(frame, coerced);
+            }
+
+            @Override
+            void emit(Assembler assembler) {
+                for (Node argument : coerced) {
+                    argument.emit(assembler);
+                }
+                assembler.call(routine, coerced.length);
+            }
+        };
+    }
+
+    /**
+     * The next value of the given type read from the console, for a read statement to store.
+     */
+    static Node input(Type type) {
+        switch (Variable.kindOf(type)) {
+            case Variable.INT:
+                return new Node(type, Opcodes.IREAD) {
+                    @Override
+                    int evaluateInt(Frame frame) {
+                        return frame.console.readInt();
+                    }
+                };
+            case Variable.FLOAT:
+                return new Node(type, Opcodes.FREAD) {
+                    @Override
+                    double evaluateFloat(Frame frame) {
+                        return frame.console.readFloat();
+                    }
+                };
+            case Variable.BOOL:
+                return new Node(type, Opcodes.BREAD) {
+                    @Override
+                    boolean evaluateBool(Frame frame) {
+                        return frame.console.readBool();
+                    }
+                };
+            default:
+                return new Node(type, Opcodes.CREAD) {
+                    @Override
+                    char evaluateChar(Frame frame) {
+                        return frame.console.readChar();
+                    }
+                };
+        }
+    }
+
+    /**
+     * Converts the node to the given type, which its own type must be assignable to: an int to a float, or an int to
+     * a bool that is true when it is not zero.
+     */
+    public static Node coerce(Node node, Type type) {
+        if (node.type == type) {
+            return node;
+        } else if (node.type == Types.INTLIT && type == Types.FLOATLIT) {
+            return new Node(type, Opcodes.I2F, node) {
+                @Override
+                double evaluateFloat(Frame frame) {
+                    return node.evaluateInt(frame);
+                }
+            };
+        } else if (node.type == Types.INTLIT && type == Types.BOOLLIT) {
+            return new Node(type, Opcodes.I2B, node) {
+                @Override
+                boolean evaluateBool(Frame frame) {
+                    return node.evaluateInt(frame) != 0;
+                }
+            };
+        }
+        throw new IllegalArgumentException("Cannot coerce " + node.type.getType() + " to " + type.getType());
+    }
+
+    public static Node not(Node operand) {
+        Node bool = coerce(operand, Types.BOOLLIT);
+        return new Node(Types.BOOLLIT, Opcodes.BNOT, bool) {
+            @Override
+            boolean evaluateBool(Frame frame) {
+                return !bool.evaluateBool(frame);
+            }
+        };
+    }
+
+    public static Node negate(Node operand) {
+        if (operand.type == Types.INTLIT) {
+            return new Node(Types.INTLIT, Opcodes.INEG, operand) {
+                @Override
+                int evaluateInt(Frame frame) {
+                    return -operand.evaluateInt(frame);
+                }
+            };
+        }
+        return new Node(Types.FLOATLIT, Opcodes.FNEG, operand) {
+            @Override
+            double evaluateFloat(Frame frame) {
+                return -operand.evaluateFloat(frame);
+            }
+        };
+    }
+
+    /**
+     * An explicit cast. Casts the type checker allows but that have no meaning at run time, such as from a string,
+     * are rejected here.
+     */
+    public static Node cast(Type type, Node operand) throws TypeCheckException {
+        if (operand.type == type) {
+            return operand;
+        } else if (operand.type == Types.INTLIT && (type == Types.FLOATLIT || type == Types.BOOLLIT)) {
+            return coerce(operand, type);
+        }
+        throw TypeCheckException.withFault("Error: Can't run a cast of type " + operand.type.getType() + " to type " + type.getType());
+    }
+
+    /**
+     * A binary operation, evaluated on ints when both operands are ints and on floats when either is a float, or a
+     * string concatenation when either operand is a string. The logical operators do not evaluate their right operand
+     * when the left one decides the result.
+     */
+    public static Node binary(Operator operator, Node left, Node right) throws TypeCheckException {
+        Type type = TypeRules.getBinaryResult(operator, left.type, right.type);
+        if (type == Types.STR) {
+            return concatenation(text(left), text(right));
+        } else if (operator.isLogical()) {
+            return logical(operator, coerce(left, Types.BOOLLIT), coerce(right, Types.BOOLLIT));
+        } else if (left.type == Types.INTLIT && right.type == Types.INTLIT) {
+            return operator.isArithmetic() ? intArithmetic(operator, left, right) : intComparison(operator, left, right);
+        }
+        Node floatLeft = coerce(left, Types.FLOATLIT);
+        Node floatRight = coerce(right, Types.FLOATLIT);
+        return operator.isArithmetic() ? floatArithmetic(operator, floatLeft, floatRight) : floatComparison(operator, floatLeft, floatRight);
+    }
+
+    /**
+     * A ternary whose branches have the same type, which is the type of the whole.
+     */
+    public static Node ternary(Node condition, Node whenTrue, Node whenFalse) {
+        switch (whenTrue.type == Types.STR || whenTrue.type == Types.VOID ? Variable.ARRAY : Variable.kindOf(whenTrue.type)) {
+            case Variable.INT:
+                return new Ternary(condition, whenTrue, whenFalse) {
+                    @Override
+                    int evaluateInt(Frame frame) {
+                        return condition.evaluateBool(frame) ? whenTrue.evaluateInt(frame) : whenFalse.evaluateInt(frame);
+                    }
+                };
+            case Variable.FLOAT:
+                return new Ternary(condition, whenTrue, whenFalse) {
+                    @Override
+                    double evaluateFloat(Frame frame) {
+                        return condition.evaluateBool(frame) ? whenTrue.evaluateFloat(frame) : whenFalse.evaluateFloat(frame);
+                    }
+                };
+            case Variable.BOOL:
+                return new Ternary(condition, whenTrue, whenFalse) {
+                    @Override
+                    boolean evaluateBool(Frame frame) {
+                        return condition.evaluateBool(frame) ? whenTrue.evaluateBool(frame) : whenFalse.evaluateBool(frame);
+                    }
+                };
+            case Variable.CHAR:
+                return new Ternary(condition, whenTrue, whenFalse) {
+                    @Override
+                    char evaluateChar(Frame frame) {
+                        return condition.evaluateBool(frame) ? whenTrue.evaluateChar(frame) : whenFalse.evaluateChar(frame);
+                    }
+                };
+            default:
+                if (whenTrue.type == Types.VOID) {
+                    return new Ternary(condition, whenTrue, whenFalse) {
+                        @Override
+                        void evaluateVoid(Frame frame) {
+                            if (condition.evaluateBool(frame)) {
+                                whenTrue.evaluateVoid(frame);
+                            } else {
+                                whenFalse.evaluateVoid(frame);
+                            }
+                        }
+                    };
+                }
+                return new Ternary(condition, whenTrue, whenFalse) {
+                    @Override
+                    Object evaluateObject(Frame frame) {
+                        return condition.evaluateBool(frame) ? whenTrue.evaluateObject(frame) : whenFalse.evaluateObject(frame);
+                    }
+                };
+        }
+    }
+
+    /**
+     * The node as a string, the way print shows it.
+     */
+    private static Node text(Node node) throws TypeCheckException {
+        if (node.type == Types.STR) {
+            return node;
+        } else if (node.type.isArray() || node.type == Types.VOID) {
+            throw TypeCheckException.withFault("Error: Can't run a concatenation of a string and type " + node.type.getType() + (node.type.isArray() ? "[]" : ""));
+        }
+        switch (Variable.kindOf(node.type)) {
+            case Variable.INT:
+                return new Node(Types.STR, Opcodes.I2S, node) {
+                    @Override
+                    Object evaluateObject(Frame frame) {
+                        return String.valueOf(node.evaluateInt(frame));
+                    }
+                };
+            case Variable.FLOAT:
+                return new Node(Types.STR, Opcodes.F2S, node) {
+                    @Override
+                    Object evaluateObject(Frame frame) {
+                        return String.valueOf(node.evaluateFloat(frame));
+                    }
+                };
+            case Variable.BOOL:
+                return new Node(Types.STR, Opcodes.B2S, node) {
+                    @Override
+                    Object evaluateObject(Frame frame) {
+                        return String.valueOf(node.evaluateBool(frame));
+                    }
+                };
+            default:
+                return new Node(Types.STR, Opcodes.C2S, node) {
+                    @Override
+                    Object evaluateObject(Frame frame) {
+                        return String.valueOf(node.evaluateChar(frame));
+                    }
+                };
+        }
+    }
+
+    private static Node concatenation(Node left, Node right) {
+        return new Node(Types.STR, Opcodes.CONCAT, left, right) {
+            @Override
+            Object evaluateObject(Frame frame) {
+                return ((String) left.evaluateObject(frame)).concat((String) right.evaluateObject(frame));
+            }
+        };
+    }
+
+    private static Node logical(Operator operator, Node left, Node right) {
+        if (operator == Operator.DOUBLE_AND) {
+            return new Node(Types.BOOLLIT) {
+                @Override
+                boolean evaluateBool(Frame frame) {
+                    return left.evaluateBool(frame) && right.evaluateBool(frame);
+                }
+
+                @Override
+                void emit(Assembler assembler) {
+                    emitShortCircuit(assembler, left, right, Opcodes.JUMPZ, 0);
+                }
+            };
+        }
+        return new Node(Types.BOOLLIT) {
+            @Override
+            boolean evaluateBool(Frame frame) {
+                return left.evaluateBool(frame) || right.evaluateBool(frame);
+            }
+
+            @Override
+            void emit(Assembler assembler) {
+                emitShortCircuit(assembler, left, right, Opcodes.JUMPNZ, 1);
+            }
+        };
+    }
+
+    private static Node intArithmetic(Operator operator, Node left, Node right) {
+        switch (operator) {
+            case TIMES:
+                return new Node(Types.INTLIT, Opcodes.IMUL, left, right) {
+                    @Override
+                    int evaluateInt(Frame frame) {
+                        return left.evaluateInt(frame) * right.evaluateInt(frame);
+                    }
+                };
+            case DIVIDE:
+                return new Node(Types.INTLIT, Opcodes.IDIV, left, right) {
+                    @Override
+                    int evaluateInt(Frame frame) {
+                        return left.evaluateInt(frame) / right.evaluateInt(frame);
+                    }
+                };
+            case PLUS:
+                return new Node(Types.INTLIT, Opcodes.IADD, left, right) {
+                    @Override
+                    int evaluateInt(Frame frame) {
+                        return left.evaluateInt(frame) + right.evaluateInt(frame);
+                    }
+                };
+            default:
+                return new Node(Types.INTLIT, Opcodes.ISUB, left, right) {
+                    @Override
+                    int evaluateInt(Frame frame) {
+                        return left.evaluateInt(frame) - right.evaluateInt(frame);
+                    }
+                };
+        }
+    }
+
+    private static Node floatArithmetic(Operator operator, Node left, Node right) {
+        switch (operator) {
+            case TIMES:
+                return new Node(Types.FLOATLIT, Opcodes.FMUL, left, right) {
+                    @Override
+                    double evaluateFloat(Frame frame) {
+                        return left.evaluateFloat(frame) * right.evaluateFloat(frame);
+                    }
+                };
+            case DIVIDE:
+                return new Node(Types.FLOATLIT, Opcodes.FDIV, left, right) {
+                    @Override
+                    double evaluateFloat(Frame frame) {
+                        return left.evaluateFloat(frame) / right.evaluateFloat(frame);
+                    }
+                };
+            case PLUS:
+                return new Node(Types.FLOATLIT, Opcodes.FADD, left, right) {
+                    @Override
+                    double evaluateFloat(Frame frame) {
+                        return left.evaluateFloat(frame) + right.evaluateFloat(frame);
+                    }
+                };
+            default:
+                return new Node(Types.FLOATLIT, Opcodes.FSUB, left, right) {
+                    @Override
+                    double evaluateFloat(Frame frame) {
+                        return left.evaluateFloat(frame) - right.evaluateFloat(frame);
+                    }
+                };
+        }
+    }
+
+    private static Node intComparison(Operator operator, Node left, Node right) {
+        switch (operator) {
+            case LESS_THAN:
+                return new Node(Types.BOOLLIT, Opcodes.ILT, left, right) {
+                    @Override
+                    boolean evaluateBool(Frame frame) {
+                        return left.evaluateInt(frame) < right.evaluateInt(frame);
+                    }
+                };
+            case GREATER_THAN:
+                return new Node(Types.BOOLLIT, Opcodes.IGT, left, right) {
+                    @Override
+                    boolean evaluateBool(Frame frame) {
+                        return left.evaluateInt(frame) > right.evaluateInt(frame);
+                    }
+                };
+            case LESS_THAN_OR_EQUAL_TO:
+                return new Node(Types.BOOLLIT, Opcodes.ILE, left, right) {
+                    @Override
+                    boolean evaluateBool(Frame frame) {
+                        return left.evaluateInt(frame) <= right.evaluateInt(frame);
+                    }
+                };
+            case GREATER_THAN_OR_EQUAL_TO:
+                return new Node(Types.BOOLLIT, Opcodes.IGE, left, right) {
+                    @Override
+                    boolean evaluateBool(Frame frame) {
+                        return left.evaluateInt(frame) >= right.evaluateInt(frame);
+                    }
+                };
+            case EQUAL_TO:
+                return new Node(Types.BOOLLIT, Opcodes.IEQ, left, right) {
+                    @Override
+                    boolean evaluateBool(Frame frame) {
+                        return left.evaluateInt(frame) == right.evaluateInt(frame);
+                    }
+                };
+            default:
+                return new Node(Types.BOOLLIT, Opcodes.INE, left, right) {
+                    @Override
+                    boolean evaluateBool(Frame frame) {
+                        return left.evaluateInt(frame) != right.evaluateInt(frame);
+                    }
+                };
+        }
+    }
+
+    private static Node floatComparison(Operator operator, Node left, Node right) {
+        switch (operator) {
+            case LESS_THAN:
+                return new Node(Types.BOOLLIT, Opcodes.FLT, left, right) {
+                    @Override
+                    boolean evaluateBool(Frame frame) {
+                        return left.evaluateFloat(frame) < right.evaluateFloat(frame);
+                    }
+                };
+            case GREATER_THAN:
+                return new Node(Types.BOOLLIT, Opcodes.FGT, left, right) {
+                    @Override
+                    boolean evaluateBool(Frame frame) {
+                        return left.evaluateFloat(frame) > right.evaluateFloat(frame);
+                    }
+                };
+            case LESS_THAN_OR_EQUAL_TO:
+                return new Node(Types.BOOLLIT, Opcodes.FLE, left, right) {
+                    @Override
+                    boolean evaluateBool(Frame frame) {
+                        return left.evaluateFloat(frame) <= right.evaluateFloat(frame);
+                    }
+                };
+            case GREATER_THAN_OR_EQUAL_TO:
+                return new Node(Types.BOOLLIT, Opcodes.FGE, left, right) {
+                    @Override
+                    boolean evaluateBool(Frame frame) {
+                        return left.evaluateFloat(frame) >= right.evaluateFloat(frame);
+                    }
+                };
+            case EQUAL_TO:
+                return new Node(Types.BOOLLIT, Opcodes.FEQ, left, right) {
+                    @Override
+                    boolean evaluateBool(Frame frame) {
+                        return left.evaluateFloat(frame) == right.evaluateFloat(frame);
+                    }
+                };
+            default:
+                return new Node(Types.BOOLLIT, Opcodes.FNE, left, right) {
+                    @Override
+                    boolean evaluateBool(Frame frame) {
+                        return left.evaluateFloat(frame) != right.evaluateFloat(frame);
+                    }
+                };
+        }
+    }
+
+    /**
+     * Writes a logical operator that jumps past its right operand with the given result when its left operand
+     * decides it: when the left operand is false for {@link Opcodes#JUMPZ}, or true for {@link Opcodes#JUMPNZ}.
+     */
+    private static void emitShortCircuit(Assembler assembler, Node left, Node right, int jump, int decided) {
+        int shortCircuit = assembler.label();
+        int end = assembler.label();
+        left.emit(assembler);
+        assembler.jump(jump, shortCircuit);
+        right.emit(assembler);
+        assembler.jump(Opcodes.JUMP, end);
+        assembler.bind(shortCircuit);
+        assembler.op(Opcodes.ICONST, decided);
+        assembler.bind(end);
+    }
+
+    /**
+     * A variable, loaded from its slot.
+     */
+    private abstract static class Load extends Node {
+        private final Variable variable;
+
+        private Load(Variable variable) {
+            super(variable.getType());
+            this.variable = variable;
+        }
+
+        @Override
+        void emit(Assembler assembler) {
+            assembler.load(variable);
+        }
+    }
+
+    /**
+     * A ternary, which only evaluates the branch its condition picks.
+     */
+    private abstract static class Ternary extends Node {
+        private final Node condition;
+        private final Node whenTrue;
+        private final Node whenFalse;
+
+        private Ternary(Node condition, Node whenTrue, Node whenFalse) {
+            super(whenTrue.type);
+            this.condition = condition;
+            this.whenTrue = whenTrue;
+            this.whenFalse = whenFalse;
+        }
+
+        @Override
+        void emit(Assembler assembler) {
+            int otherwise = assembler.label();
+            int end = assembler.label();
+            condition.emit(assembler);
+            assembler.jump(Opcodes.JUMPZ, otherwise);
+            whenTrue.emit(assembler);
+            assembler.jump(Opcodes.JUMP, end);
+            assembler.bind(otherwise);
+            whenFalse.emit(assembler);
+            assembler.bind(end);
+        }
+    }
+}
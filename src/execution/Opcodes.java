@@ -0,0 +1,190 @@
+package execution;
+
+/**
+ * The instructions of {@link Bytecode}. Each is one int in the code array, followed by its operands, if it has any,
+ * as further ints. Instructions are typed: the type checker already knows the type of every expression, so the
+ * compiler picks the instruction for it and the machine never looks at a value to decide what to do with it.
+ *
+ * The machine has an operand stack for each kind of value: ints, which also hold bools as 0 or 1 and chars; floats;
+ * and objects, which are strings and arrays. Locals are numbered the same way, with a method's ints first, then its
+ * bools, then its chars. Instructions starting with G work on the class fields instead of the locals.
+ *
+ * Any change to the instructions is a change to the format of {@link BytecodeImage images} as well.
+ *
+ * The instructions ending in L and C are an int instruction fused with the load of its right operand from a local or
+ * with its constant, which saves a dispatch in the arithmetic and loop conditions where most of the time goes.
+ */
+final class Opcodes {
+    static final int ICONST = 0;      // value: push the int
+    static final int FCONST = 1;      // constant: push the float from the pool
+    static final int SCONST = 2;      // constant: push the string from the pool
+    static final int ILOAD = 3;       // local
+    static final int FLOAD = 4;
+    static final int ALOAD = 5;
+    static final int GILOAD = 6;      // field
+    static final int GFLOAD = 7;
+    static final int GALOAD = 8;
+    static final int ISTORE = 9;      // local
+    static final int FSTORE = 10;
+    static final int ASTORE = 11;
+    static final int GISTORE = 12;    // field
+    static final int GFSTORE = 13;
+    static final int GASTORE = 14;
+    static final int IINC = 15;       // local, step
+    static final int FINC = 16;
+    static final int GIINC = 17;      // field, step
+    static final int GFINC = 18;
+    static final int IALOAD = 19;     // array and index to element
+    static final int FALOAD = 20;
+    static final int BALOAD = 21;
+    static final int CALOAD = 22;
+    static final int IASTORE = 23;    // array, index and value to nothing
+    static final int FASTORE = 24;
+    static final int BASTORE = 25;
+    static final int CASTORE = 26;
+    static final int IAINC = 27;      // step: array and index to nothing
+    static final int FAINC = 28;
+    static final int NEWARRAY = 29;   // kind, length: push a new array of the kind of element
+    static final int IADD = 30;
+    static final int ISUB = 31;
+    static final int IMUL = 32;
+    static final int IDIV = 33;
+    static final int INEG = 34;
+    static final int FADD = 35;
+    static final int FSUB = 36;
+    static final int FMUL = 37;
+    static final int FDIV = 38;
+    static final int FNEG = 39;
+    static final int ILT = 40;        // two ints to a bool
+    static final int IGT = 41;
+    static final int ILE = 42;
+    static final int IGE = 43;
+    static final int IEQ = 44;
+    static final int INE = 45;
+    static final int FLT = 46;        // two floats to a bool
+    static final int FGT = 47;
+    static final int FLE = 48;
+    static final int FGE = 49;
+    static final int FEQ = 50;
+    static final int FNE = 51;
+    static final int I2F = 52;
+    static final int I2B = 53;        // true unless zero
+    static final int BNOT = 54;
+    static final int I2S = 55;        // a value to its string, the way print shows it
+    static final int F2S = 56;
+    static final int B2S = 57;
+    static final int C2S = 58;
+    static final int CONCAT = 59;
+    static final int JUMP = 60;       // target
+    static final int JUMPZ = 61;      // target: jump if the int popped is zero
+    static final int JUMPNZ = 62;     // target: jump unless the int popped is zero
+    static final int CALL = 63;       // method, arguments: the arguments are popped into the locals of the method
+    static final int RETURN = 64;     // a returned value is left on its stack
+    static final int IPOP = 65;
+    static final int FPOP = 66;
+    static final int APOP = 67;
+    static final int IREAD = 68;
+    static final int FREAD = 69;
+    static final int BREAD = 70;
+    static final int CREAD = 71;
+    static final int IPRINT = 72;
+    static final int FPRINT = 73;
+    static final int BPRINT = 74;
+    static final int CPRINT = 75;
+    static final int SPRINT = 76;
+    static final int HALT = 77;
+    static final int IFLT = 78;       // target: jump if the first of the two ints popped is less than the second
+    static final int IFGT = 79;
+    static final int IFLE = 80;
+    static final int IFGE = 81;
+    static final int IFEQ = 82;
+    static final int IFNE = 83;
+    static final int IADDL = 84;      // local: the int on top and the int local to their result
+    static final int ISUBL = 85;
+    static final int IMULL = 86;
+    static final int IDIVL = 87;
+    static final int IADDC = 88;      // value: the int on top and the int to their result
+    static final int ISUBC = 89;
+    static final int IMULC = 90;
+    static final int IDIVC = 91;
+    static final int IFLTL = 92;      // local, target: jump if the int popped is less than the int local
+    static final int IFGTL = 93;
+    static final int IFLEL = 94;
+    static final int IFGEL = 95;
+    static final int IFEQL = 96;
+    static final int IFNEL = 97;
+    static final int IFLTC = 98;      // value, target: jump if the int popped is less than the int
+    static final int IFGTC = 99;
+    static final int IFLEC = 100;
+    static final int IFGEC = 101;
+    static final int IFEQC = 102;
+    static final int IFNEC = 103;
+    static final int COUNT = 104;
+
+    private Opcodes() {
+    }
+
+    /**
+     * How many operands follow each instruction in the code.
+     */
+    static int operands(int opcode) {
+        switch (opcode) {
+            case ICONST:
+            case FCONST:
+            case SCONST:
+            case ILOAD:
+            case FLOAD:
+            case ALOAD:
+            case GILOAD:
+            case GFLOAD:
+            case GALOAD:
+            case ISTORE:
+            case FSTORE:
+            case ASTORE:
+            case GISTORE:
+            case GFSTORE:
+            case GASTORE:
+            case IAINC:
+            case FAINC:
+            case JUMP:
+            case JUMPZ:
+            case JUMPNZ:
+            case IFLT:
+            case IFGT:
+            case IFLE:
+            case IFGE:
+            case IFEQ:
+            case IFNE:
+            case IADDL:
+            case ISUBL:
+            case IMULL:
+            case IDIVL:
+            case IADDC:
+            case ISUBC:
+            case IMULC:
+            case IDIVC:
+                return 1;
+            case IINC:
+            case FINC:
+            case GIINC:
+            case GFINC:
+            case NEWARRAY:
+            case CALL:
+            case IFLTL:
+            case IFGTL:
+            case IFLEL:
+            case IFGEL:
+            case IFEQL:
+            case IFNEL:
+            case IFLTC:
+            case IFGTC:
+            case IFLEC:
+            case IFGEC:
+            case IFEQC:
+            case IFNEC:
+                return 2;
+            default:
+                return 0;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package execution;
+
+import tokens.lexeme.Type;
+import tokens.lexeme.Types;
+import type_checking.TypeCheckException;
+
+/**
+ * Somewhere a statement can store a value: a variable, or an element of an array variable.
+ */
+public final class Place {
+    public static Place of(Variable variable) {
+        return new Place(variable, null);
+    }
+
+    public static Place element(Variable array, Node index) throws TypeCheckException {
+        checkIndex(index);
+        return new Place(array, index);
+    }
+
+    static void checkIndex(Node index) throws TypeCheckException {
+        if (index.getType() != Types.INTLIT) {
+            throw TypeCheckException.withFault("Error: Array index must be an int, but is " + index.getType().getType());
+        }
+    }
+
+    private final Variable variable;
+    private final Node index;
+
+    private Place(Variable variable, Node index) {
+        this.variable = variable;
+        this.index = index;
+    }
+
+    /**
+     * The type of the values stored here.
+     */
+    public Type getType() {
+        return index == null ? variable.getType() : variable.getType().getElementType();
+    }
+
+    Variable getVariable() {
+        return variable;
+    }
+
+    /**
+     * The index of the element, or null if this is a whole variable.
+     */
+    Node getIndex() {
+        return index;
+    }
+
+    /**
+     * The value stored here, as an expression.
+     */
+    public Node load() throws TypeCheckException {
+        return index == null ? Node.variable(variable) : Node.element(variable, index);
+    }
+}
@@ -0,0 +1,110 @@
+package execution;
+
+import tokens.lexeme.Type;
+
+import java.util.List;
+
+/**
+ * A method of a program compiled for execution. It is {@link Layout#declareRoutine declared} with its signature
+ * before any body is compiled, so invocations can refer to it directly, and {@link #define defined} once its own body
+ * has been compiled.
+ */
+public final class Routine {
+    static Routine of(String id, int index, Type type, List<Type> argumentTypes) {
+        return new Routine(id, index, type, argumentTypes.toArray(new Type[0]));
+    }
+
+    private final String id;
+    private final int index;
+    private final Type type;
+    private final Type[] argumentTypes;
+    private Variable[] arguments;
+    private int[] sizes;
+    private Statement body;
+
+    private Routine(String id, int index, Type type, Type[] argumentTypes) {
+        this.id = id;
+        this.index = index;
+        this.type = type;
+        this.argumentTypes = argumentTypes;
+    }
+
+    /**
+     * Sets the slots the arguments are passed in and the body to run, along with how many slots of each kind a frame
+     * of this method needs.
+     */
+    public void define(List<Variable> arguments, Layout layout, Statement body) {
+        this.arguments = arguments.toArray(new Variable[0]);
+        this.sizes = layout.sizes();
+        this.body = body;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * The position of the method among the methods of the class, in declaration order.
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Type getArgumentType(int argument) {
+        return argumentTypes[argument];
+    }
+
+    public int getArgumentCount() {
+        return argumentTypes.length;
+    }
+
+    Variable[] getArguments() {
+        return arguments;
+    }
+
+    /**
+     * How many slots of each kind a frame of this method needs.
+     */
+    int[] getSizes() {
+        return sizes;
+    }
+
+    Statement getBody() {
+        return body;
+    }
+
+    /**
+     * Runs the method in a new frame with the given arguments, evaluated in the caller's frame, and returns the new
+     * frame to read the returned value from. Arguments left out keep the zero value of their type.
+     */
+    Frame call(Frame caller, Node[] args) {
+        Frame frame = caller.call(sizes);
+        for (int i = 0; i < args.length; i++) {
+            Variable argument = arguments[i];
+            int slot = argument.getSlot();
+            switch (argument.getKind()) {
+                case Variable.INT:
+                    frame.ints[slot] = args[i].evaluateInt(caller);
+                    break;
+                case Variable.FLOAT:
+                    frame.floats[slot] = args[i].evaluateFloat(caller);
+                    break;
+                case Variable.BOOL:
+                    frame.bools[slot] = args[i].evaluateBool(caller);
+                    break;
+                case Variable.CHAR:
+                    frame.chars[slot] = args[i].evaluateChar(caller);
+                    break;
+                default:
+                    frame.arrays[slot] = args[i].evaluateObject(caller);
+                    break;
+            }
+        }
+        body.execute(frame);
+        return frame;
+    }
+}
@@ -0,0 +1,581 @@
+package execution;
+
+import tokens.lexeme.Type;
+import tokens.lexeme.Types;
+
+import java.util.List;
+
+/**
+ * A statement of a checked program, compiled for execution. Running one reports whether it ran a return statement,
+ * which is how a return leaves the loops and blocks around it without an exception. Statements also {@link #emit}
+ * themselves as {@link Bytecode}.
+ */
+public abstract class Statement {
+    private static final Statement EMPTY = new Statement() {
+        @Override
+        boolean execute(Frame frame) {
+            return false;
+        }
+
+        @Override
+        void emit(Assembler assembler) {
+        }
+    };
+
+    Statement() {
+    }
+
+    /**
+     * Runs the statement, returning true if it returned from its method.
+     */
+    abstract boolean execute(Frame frame);
+
+    /**
+     * Writes the instructions of the statement, which leave every operand stack as deep as they found it.
+     */
+    abstract void emit(Assembler assembler);
+
+    public static Statement empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Runs the statements in order, up to the first one that returns.
+     */
+    public static Statement sequence(List<Statement> statements) {
+        if (statements.isEmpty()) {
+            return EMPTY;
+        } else if (statements.size() == 1) {
+            return statements.get(0);
+        }
+        Statement[] sequence = statements.toArray(new Statement[0]);
+        return new Statement() {
+            @Override
+            boolean execute(Frame frame) {
+                for (Statement statement : sequence) {
+                    if (statement.execute(frame)) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+
+            @Override
+            void emit(Assembler assembler) {
+                for (Statement statement : sequence) {
+                    statement.emit(assembler);
+                }
+            }
+        };
+    }
+
+    /**
+     * Gives a variable its initial value each time its declaration is reached, or the zero value of its type if it is
+     * declared without one.
+     */
+    public static Statement declare(Variable variable, Node value) {
+        return assign(Place.of(variable), value != null ? value : Node.zero(variable.getType()));
+    }
+
+    /**
+     * Gives an array variable a new array of the given length each time its declaration is reached.
+     */
+    public static Statement declareArray(Variable array, int length) {
+        int slot = array.getSlot();
+        boolean field = array.isField();
+        switch (Variable.kindOf(array.getType().getElementType())) {
+            case Variable.INT:
+                return new NewArray(array, length) {
+                    @Override
+                    boolean execute(Frame frame) {
+                        (field ? frame.fields : frame).arrays[slot] = new int[length];
+                        return false;
+                    }
+                };
+            case Variable.FLOAT:
+                return new NewArray(array, length) {
+                    @Override
+                    boolean execute(Frame frame) {
+                        (field ? frame.fields : frame).arrays[slot] = new double[length];
+                        return false;
+                    }
+                };
+            case Variable.BOOL:
+                return new NewArray(array, length) {
+                    @Override
+                    boolean execute(Frame frame) {
+                        (field ? frame.fields : frame).arrays[slot] = new boolean[length];
+                        return false;
+                    }
+                };
+            default:
+                return new NewArray(array, length) {
+                    @Override
+                    boolean execute(Frame frame) {
+                        (field ? frame.fields : frame).arrays[slot] = new char[length];
+                        return false;
+                    }
+                };
+        }
+    }
+
+    /**
+     * Stores the value, coerced to the type of the place, in the place.
+     */
+    public static Statement assign(Place place, Node value) {
+        Node coerced = Node.coerce(value, place.getType());
+        Variable variable = place.getVariable();
+        int slot = variable.getSlot();
+        boolean field = variable.isField();
+        Node index = place.getIndex();
+        if (index == null) {
+            switch (variable.getKind()) {
+                case Variable.INT:
+                    return new Store(variable, index, coerced) {
+                        @Override
+                        boolean execute(Frame frame) {
+                            (field ? frame.fields : frame).ints[slot] = coerced.evaluateInt(frame);
+                            return false;
+                        }
+                    };
+                case Variable.FLOAT:
+                    return new Store(variable, index, coerced) {
+                        @Override
+                        boolean execute(Frame frame) {
+                            (field ? frame.fields : frame).floats[slot] = coerced.evaluateFloat(frame);
+                            return false;
+                        }
+                    };
+                case Variable.BOOL:
+                    return new Store(variable, index, coerced) {
+                        @Override
+                        boolean execute(Frame frame) {
+                            (field ? frame.fields : frame).bools[slot] = coerced.evaluateBool(frame);
+                            return false;
+                        }
+                    };
+                default:
+                    return new Store(variable, index, coerced) {
+                        @Override
+                        boolean execute(Frame frame) {
+                            (field ? frame.fields : frame).chars[slot] = coerced.evaluateChar(frame);
+                            return false;
+                        }
+                    };
+            }
+        }
+        switch (Variable.kindOf(place.getType())) {
+            case Variable.INT:
+                return new Store(variable, index, coerced) {
+                    @Override
+                    boolean execute(Frame frame) {
+                        int[] array = (int[]) (field ? frame.fields : frame).arrays[slot];
+                        array[index.evaluateInt(frame)] = coerced.evaluateInt(frame);
+                        return false;
+                    }
+                };
+            case Variable.FLOAT:
+                return new Store(variable, index, coerced) {
+                    @Override
+                    boolean execute(Frame frame) {
+                        double[] array = (double[]) (field ? frame.fields : frame).arrays[slot];
+                        array[index.evaluateInt(frame)] = coerced.evaluateFloat(frame);
+                        return false;
+                    }
+                };
+            case Variable.BOOL:
+                return new Store(variable, index, coerced) {
+                    @Override
+                    boolean execute(Frame frame) {
+                        boolean[] array = (boolean[]) (field ? frame.fields : frame).arrays[slot];
+                        array[index.evaluateInt(frame)] = coerced.evaluateBool(frame);
+                        return false;
+                    }
+                };
+            default:
+                return new Store(variable, index, coerced) {
+                    @Override
+                    boolean execute(Frame frame) {
+                        char[] array = (char[]) (field ? frame.fields : frame).arrays[slot];
+                        array[index.evaluateInt(frame)] = coerced.evaluateChar(frame);
+                        return false;
+                    }
+                };
+        }
+    }
+
+    /**
+     * Adds one to, or with a negative step takes one from, the int or float in the place.
+     */
+    public static Statement increment(Place place, int step) {
+        Variable variable = place.getVariable();
+        int slot = variable.getSlot();
+        boolean field = variable.isField();
+        Node index = place.getIndex();
+        boolean isInt = place.getType() == Types.INTLIT;
+        if (index == null) {
+            if (isInt) {
+                return new Increment(variable, index, step) {
+                    @Override
+                    boolean execute(Frame frame) {
+                        (field ? frame.fields : frame).ints[slot] += step;
+                        return false;
+                    }
+                };
+            }
+            return new Increment(variable, index, step) {
+                @Override
+                boolean execute(Frame frame) {
+                    (field ? frame.fields : frame).floats[slot] += step;
+                    return false;
+                }
+            };
+        }
+        if (isInt) {
+            return new Increment(variable, index, step) {
+                @Override
+                boolean execute(Frame frame) {
+                    ((int[]) (field ? frame.fields : frame).arrays[slot])[index.evaluateInt(frame)] += step;
+                    return false;
+                }
+            };
+        }
+        return new Increment(variable, index, step) {
+            @Override
+            boolean execute(Frame frame) {
+                ((double[]) (field ? frame.fields : frame).arrays[slot])[index.evaluateInt(frame)] += step;
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Reads a value of the type of each place from the console into it, in order.
+     */
+    public static Statement read(List<Place> places) {
+        Statement[] reads = new Statement[places.size()];
+        for (int i = 0; i < reads.length; i++) {
+            reads[i] = assign(places.get(i), Node.input(places.get(i).getType()));
+        }
+        return sequence(List.of(reads));
+    }
+
+    /**
+     * Prints the values one after the other, followed by a line break for a printline statement.
+     */
+    public static Statement print(List<Node> values, boolean line) {
+        Node[] printed = values.toArray(new Node[0]);
+        return new Statement() {
+            @Override
+            boolean execute(Frame frame) {
+                for (Node value : printed) {
+                    printValue(frame, value);
+                }
+                if (line) {
+                    frame.console.print('\n');
+                }
+                return false;
+            }
+
+            @Override
+            void emit(Assembler assembler) {
+                for (Node value : printed) {
+                    value.emit(assembler);
+                    assembler.op(printOpcode(value.getType()));
+                }
+                if (line) {
+                    assembler.op(Opcodes.ICONST, '\n');
+                    assembler.op(Opcodes.CPRINT);
+                }
+            }
+        };
+    }
+
+    private static void printValue(Frame frame, Node value) {
+        Type type = value.getType();
+        if (type == Types.INTLIT) {
+            frame.console.print(value.evaluateInt(frame));
+        } else if (type == Types.FLOATLIT) {
+            frame.console.print(value.evaluateFloat(frame));
+        } else if (type == Types.BOOLLIT) {
+            frame.console.print(value.evaluateBool(frame));
+        } else if (type == Types.CHARLIT) {
+            frame.console.print(value.evaluateChar(frame));
+        } else {
+            frame.console.print((String) value.evaluateObject(frame));
+        }
+    }
+
+    private static int printOpcode(Type type) {
+        if (type == Types.INTLIT) {
+            return Opcodes.IPRINT;
+        } else if (type == Types.FLOATLIT) {
+            return Opcodes.FPRINT;
+        } else if (type == Types.BOOLLIT) {
+            return Opcodes.BPRINT;
+        } else if (type == Types.CHARLIT) {
+            return Opcodes.CPRINT;
+        }
+        return Opcodes.SPRINT;
+    }
+
+    /**
+     * Invokes a method for its effects, ignoring anything it returns.
+     */
+    public static Statement invoke(Node invocation) {
+        return new Statement() {
+            @Override
+            boolean execute(Frame frame) {
+                invocation.evaluateVoid(frame);
+                return false;
+            }
+
+            @Override
+            void emit(Assembler assembler) {
+                invocation.emit(assembler);
+                if (invocation.getType() != Types.VOID) {
+                    assembler.op(Bytecode.pop(invocation.getType()));
+                }
+            }
+        };
+    }
+
+    /**
+     * Returns from the method, with the value if there is one.
+     */
+    public static Statement returning(Node value) {
+        if (value == null) {
+            return new Statement() {
+                @Override
+                boolean execute(Frame frame) {
+                    return true;
+                }
+
+                @Override
+                void emit(Assembler assembler) {
+                    assembler.ret(Types.VOID);
+                }
+            };
+        }
+        switch (Variable.kindOf(value.getType())) {
+            case Variable.INT:
+                return new Return(value) {
+                    @Override
+                    boolean execute(Frame frame) {
+                        frame.returnedInt = value.evaluateInt(frame);
+                        return true;
+                    }
+                };
+            case Variable.FLOAT:
+                return new Return(value) {
+                    @Override
+                    boolean execute(Frame frame) {
+                        frame.returnedFloat = value.evaluateFloat(frame);
+                        return true;
+                    }
+                };
+            case Variable.BOOL:
+                return new Return(value) {
+                    @Override
+                    boolean execute(Frame frame) {
+                        frame.returnedBool = value.evaluateBool(frame);
+                        return true;
+                    }
+                };
+            case Variable.CHAR:
+                return new Return(value) {
+                    @Override
+                    boolean execute(Frame frame) {
+                        frame.returnedChar = value.evaluateChar(frame);
+                        return true;
+                    }
+                };
+            default:
+                throw new IllegalArgumentException("Methods cannot return " + value.getType().getType() + "[]");
+        }
+    }
+
+    /**
+     * Runs one statement or the other, or nothing when there is no other, depending on the condition.
+     */
+    public static Statement ifElse(Node condition, Statement then, Statement otherwise) {
+        Node bool = Node.coerce(condition, Types.BOOLLIT);
+        if (otherwise == null) {
+            return new Statement() {
+                @Override
+                boolean execute(Frame frame) {
+                    return bool.evaluateBool(frame) && then.execute(frame);
+                }
+
+                @Override
+                void emit(Assembler assembler) {
+                    int end = assembler.label();
+                    bool.emit(assembler);
+                    assembler.jump(Opcodes.JUMPZ, end);
+                    then.emit(assembler);
+                    assembler.bind(end);
+                }
+            };
+        }
+        return new Statement() {
+            @Override
+            boolean execute(Frame frame) {
+                return bool.evaluateBool(frame) ? then.execute(frame) : otherwise.execute(frame);
+            }
+
+            @Override
+            void emit(Assembler assembler) {
+                int other = assembler.label();
+                int end = assembler.label();
+                bool.emit(assembler);
+                assembler.jump(Opcodes.JUMPZ, other);
+                then.emit(assembler);
+                assembler.jump(Opcodes.JUMP, end);
+                assembler.bind(other);
+                otherwise.emit(assembler);
+                assembler.bind(end);
+            }
+        };
+    }
+
+    /**
+     * Runs the body for as long as the condition holds.
+     */
+    public static Statement loop(Node condition, Statement body) {
+        Node bool = Node.coerce(condition, Types.BOOLLIT);
+        return new Statement() {
+            @Override
+            boolean execute(Frame frame) {
+                while (bool.evaluateBool(frame)) {
+                    if (body.execute(frame)) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+
+            /**
+             * Tests the condition after the body, so that each iteration takes one conditional jump.
+             */
+            @Override
+            void emit(Assembler assembler) {
+                int start = assembler.label();
+                int test = assembler.label();
+                assembler.jump(Opcodes.JUMP, test);
+                assembler.bind(start);
+                body.emit(assembler);
+                assembler.bind(test);
+                bool.emit(assembler);
+                assembler.jump(Opcodes.JUMPNZ, start);
+            }
+        };
+    }
+
+    /**
+     * Stores a new array in a variable.
+     */
+    private abstract static class NewArray extends Statement {
+        private final Variable array;
+        private final int length;
+
+        private NewArray(Variable array, int length) {
+            this.array = array;
+            this.length = length;
+        }
+
+        @Override
+        void emit(Assembler assembler) {
+            assembler.op(Opcodes.NEWARRAY, Variable.kindOf(array.getType().getElementType()), length);
+            assembler.store(array);
+        }
+    }
+
+    /**
+     * Stores a value in a variable, or in an element of an array variable if there is an index.
+     */
+    private abstract static class Store extends Statement {
+        private final Variable variable;
+        private final Node index;
+        private final Node value;
+
+        private Store(Variable variable, Node index, Node value) {
+            this.variable = variable;
+            this.index = index;
+            this.value = value;
+        }
+
+        @Override
+        void emit(Assembler assembler) {
+            if (index == null) {
+                value.emit(assembler);
+                assembler.store(variable);
+                return;
+            }
+            assembler.load(variable);
+            index.emit(assembler);
+            value.emit(assembler);
+            switch (Variable.kindOf(value.getType())) {
+                case Variable.INT:
+                    assembler.op(Opcodes.IASTORE);
+                    break;
+                case Variable.FLOAT:
+                    assembler.op(Opcodes.FASTORE);
+                    break;
+                case Variable.BOOL:
+                    assembler.op(Opcodes.BASTORE);
+                    break;
+                default:
+                    assembler.op(Opcodes.CASTORE);
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Adds a step to an int or float variable, or to an element of an array variable if there is an index.
+     */
+    private abstract static class Increment extends Statement {
+        private final Variable variable;
+        private final Node index;
+        private final int step;
+
+        private Increment(Variable variable, Node index, int step) {
+            this.variable = variable;
+            this.index = index;
+            this.step = step;
+        }
+
+        @Override
+        void emit(Assembler assembler) {
+            if (index == null) {
+                boolean isInt = variable.getKind() == Variable.INT;
+                if (variable.isField()) {
+                    assembler.op(isInt ? Opcodes.GIINC : Opcodes.GFINC, assembler.local(variable), step);
+                } else {
+                    assembler.op(isInt ? Opcodes.IINC : Opcodes.FINC, assembler.local(variable), step);
+                }
+                return;
+            }
+            assembler.load(variable);
+            index.emit(assembler);
+            assembler.op(variable.getType().getElementType() == Types.INTLIT ? Opcodes.IAINC : Opcodes.FAINC, step);
+        }
+    }
+
+    /**
+     * Returns from the method with a value.
+     */
+    private abstract static class Return extends Statement {
+        private final Node value;
+
+        private Return(Node value) {
+            this.value = value;
+        }
+
+        @Override
+        void emit(Assembler assembler) {
+            value.emit(assembler);
+            assembler.ret(value.getType());
+        }
+    }
+}
@@ -0,0 +1,686 @@
+package execution;
+
+import tokens.lexeme.Type;
+import tokens.lexeme.Types;
+import type_checking.TypeCheckException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static execution.ClassFile.*;
+
+/**
+ * Translates {@link Bytecode} into a JVM class, instruction by instruction. Every value the machine keeps on one of
+ * its operand stacks is on the single JVM stack in the same order, since the code is written in the order it
+ * evaluates things, so each instruction becomes a few JVM instructions on the top of the stack.
+ *
+ * Each method becomes a static method of the same name and signature, with bools, chars, ints and floats as {@code
+ * boolean}, {@code char}, {@code int} and {@code double} and arrays as arrays of them. The class fields become static
+ * fields, along with the console the program runs against, and the initialization of the fields becomes a static
+ * method that takes the console, clears the fields, initializes them and invokes {@code main}.
+ *
+ * The locals of a method are numbered as the machine numbers them, except that an array local gets a JVM local for
+ * each type of array it holds over the method, so that the verifier always knows which type of array it loads.
+ */
+final class Translator {
+    static final String RUN = "$run";
+    static final String RUN_DESCRIPTOR = "(Lexecution/Console;)V";
+
+    private static final String CONSOLE = "execution/Console";
+    private static final String CONSOLE_FIELD = "$console";
+    private static final String STRING = "java/lang/String";
+    private static final int ELEMENT_KINDS = 4;
+    // Room on the JVM stack for what instructions push on top of the values of the operand stacks while they work.
+    private static final int SCRATCH = 4;
+    // The JVM instructions for IADD, ISUB, IMUL and IDIV, and for comparisons in the order of ILT, IGT, ILE, IGE, IEQ
+    // and INE, with the comparison of floats that is false when either is not a number.
+    private static final int[] ARITHMETIC = {IADD, ISUB, IMUL, IDIV};
+    private static final int[] INT_BRANCHES = {IF_ICMPLT, IF_ICMPGT, IF_ICMPLE, IF_ICMPGE, IF_ICMPEQ, IF_ICMPNE};
+    private static final int[] FLOAT_COMPARISONS = {DCMPG, DCMPL, DCMPG, DCMPL, DCMPL, DCMPL};
+    private static final int[] FLOAT_BRANCHES = {IFLT, IFGT, IFLE, IFGE, IFEQ, IFNE};
+    private static final char[] REGION_NAMES = {'i', 'f', 'a'};
+
+    /**
+     * Translates the code of a program into the class file of a class with the given name, in the package of the
+     * machine, whose methods are the given routines.
+     */
+    static byte[] translate(String name, List<Routine> routines, Bytecode bytecode) throws TypeCheckException {
+        return new Translator(name, routines, bytecode).translate();
+    }
+
+    private final List<Routine> routines;
+    private final Bytecode bytecode;
+    private final ClassFile file;
+    private final String[][] fieldDescriptors = new String[Bytecode.REGIONS][];
+    private final int scratch;
+
+    private int start;
+    private int end;
+    private ClassFile.Code code;
+    private int[] offsets;
+    private final List<int[]> patches = new ArrayList<>();
+    private int[] intSlots;
+    private int[] floatSlots;
+    private int[] arraySlots;
+    private Type returnType;
+
+    private Translator(String name, List<Routine> routines, Bytecode bytecode) {
+        this.routines = routines;
+        this.bytecode = bytecode;
+        file = new ClassFile("execution/" + name);
+        for (int region = 0; region < Bytecode.REGIONS; region++) {
+            fieldDescriptors[region] = new String[bytecode.fieldSizes[region]];
+        }
+        int arguments = 0;
+        for (Routine routine : routines) {
+            arguments = Math.max(arguments, routine.getArgumentCount());
+        }
+        // Arguments left out of an invocation are pushed as zeroes, which take two slots for a float.
+        scratch = SCRATCH + 2 * arguments;
+    }
+
+    private byte[] translate() throws TypeCheckException {
+        declareFields();
+        int[] starts = bytecode.entries.clone();
+        Arrays.sort(starts);
+        for (Routine routine : routines) {
+            method(routine.getIndex(), starts, routine.getId(), descriptor(routine), routine.getType());
+        }
+        method(bytecode.start(), starts, RUN, RUN_DESCRIPTOR, Types.VOID);
+        return file.toBytes();
+    }
+
+    /**
+     * Declares a static field for each class field the code uses, with the type it was declared with.
+     */
+    private void declareFields() {
+        int[] vm = bytecode.code;
+        for (int pc = 0; pc < vm.length; pc += 1 + Opcodes.operands(vm[pc])) {
+            switch (vm[pc]) {
+                case Opcodes.GILOAD:
+                case Opcodes.GISTORE:
+                    declareField(Bytecode.INTS, vm[pc + 1], descriptor(bytecode.types[pc]));
+                    break;
+                case Opcodes.GFLOAD:
+                case Opcodes.GFSTORE:
+                    declareField(Bytecode.FLOATS, vm[pc + 1], descriptor(bytecode.types[pc]));
+                    break;
+                case Opcodes.GALOAD:
+                case Opcodes.GASTORE:
+                    declareField(Bytecode.OBJECTS, vm[pc + 1], descriptor(bytecode.types[pc]));
+                    break;
+                case Opcodes.GIINC:
+                    declareField(Bytecode.INTS, vm[pc + 1], "I");
+                    break;
+                case Opcodes.GFINC:
+                    declareField(Bytecode.FLOATS, vm[pc + 1], "D");
+                    break;
+                default:
+                    break;
+            }
+        }
+        file.addField(ACC_STATIC, CONSOLE_FIELD, "L" + CONSOLE + ";");
+        for (int region = 0; region < Bytecode.REGIONS; region++) {
+            for (int index = 0; index < fieldDescriptors[region].length; index++) {
+                if (fieldDescriptors[region][index] != null) {
+                    file.addField(ACC_STATIC, fieldName(region, index), fieldDescriptors[region][index]);
+                }
+            }
+        }
+    }
+
+    private void declareField(int region, int index, String descriptor) {
+        if (fieldDescriptors[region][index] == null) {
+            fieldDescriptors[region][index] = descriptor;
+        }
+    }
+
+    private static String fieldName(int region, int index) {
+        return REGION_NAMES[region] + Integer.toString(index);
+    }
+
+    private int field(int region, int index) {
+        return file.fieldConstant(fieldName(region, index), fieldDescriptors[region][index]);
+    }
+
+    /**
+     * Translates the code of a routine, which runs up to where the next routine starts, into a static method.
+     */
+    private void method(int routine, int[] starts, String name, String descriptor, Type type) throws TypeCheckException {
+        start = bytecode.entries[routine];
+        int next = Arrays.binarySearch(starts, start) + 1;
+        end = next < starts.length ? starts[next] : bytecode.code.length;
+        returnType = type;
+        code = new ClassFile.Code();
+        offsets = new int[end - start + 1];
+        patches.clear();
+        allocateLocals(routine);
+        if (routine == bytecode.start()) {
+            clearFields();
+        }
+
+        int[] vm = bytecode.code;
+        for (int pc = start; pc < end; pc += 1 + Opcodes.operands(vm[pc])) {
+            offsets[pc - start] = code.size();
+            instruction(vm, pc);
+        }
+        offsets[end - start] = code.size();
+        for (int[] patch : patches) {
+            if (!code.patch(patch[0], offsets[patch[1] - start])) {
+                throw tooLong(name);
+            }
+        }
+        if (code.size() > 0xFFFF) {
+            throw tooLong(name);
+        }
+
+        int at = routine * Bytecode.REGIONS;
+        code.maxStack = bytecode.stacks[at + Bytecode.INTS] + 2 * bytecode.stacks[at + Bytecode.FLOATS]
+                + bytecode.stacks[at + Bytecode.OBJECTS] + scratch;
+        file.addMethod(ACC_STATIC, name, descriptor, code);
+    }
+
+    private static TypeCheckException tooLong(String method) {
+        return TypeCheckException.withFault("Error: " + method + " is too long to compile to a JVM method");
+    }
+
+    /**
+     * Numbers the JVM locals of a routine: its arguments first, in the order they are declared, then its other locals,
+     * which are set to zero first thing, as the machine does for a new frame.
+     */
+    private void allocateLocals(int routine) {
+        int at = routine * Bytecode.REGIONS;
+        intSlots = new int[bytecode.frames[at + Bytecode.INTS]];
+        floatSlots = new int[bytecode.frames[at + Bytecode.FLOATS]];
+        arraySlots = new int[bytecode.frames[at + Bytecode.OBJECTS] * ELEMENT_KINDS];
+        Arrays.fill(intSlots, -1);
+        Arrays.fill(floatSlots, -1);
+        Arrays.fill(arraySlots, -1);
+
+        int next = 0;
+        if (routine == bytecode.start()) {
+            next++;
+        } else {
+            Routine method = routines.get(routine);
+            int[] regions = bytecode.argumentRegions[routine];
+            int[] locals = bytecode.argumentLocals[routine];
+            for (int i = 0; i < regions.length; i++) {
+                switch (regions[i]) {
+                    case Bytecode.INTS:
+                        intSlots[locals[i]] = next++;
+                        break;
+                    case Bytecode.FLOATS:
+                        floatSlots[locals[i]] = next;
+                        next += 2;
+                        break;
+                    default:
+                        arraySlots[arraySlot(locals[i], method.getArgumentType(i))] = next++;
+                        break;
+                }
+            }
+        }
+
+        for (int local = 0; local < intSlots.length; local++) {
+            if (intSlots[local] < 0) {
+                intSlots[local] = next;
+                code.op(ICONST_0);
+                code.local(ISTORE, next++);
+            }
+        }
+        for (int local = 0; local < floatSlots.length; local++) {
+            if (floatSlots[local] < 0) {
+                floatSlots[local] = next;
+                code.op(DCONST_0);
+                code.local(DSTORE, next);
+                next += 2;
+            }
+        }
+        int[] vm = bytecode.code;
+        for (int pc = start; pc < end; pc += 1 + Opcodes.operands(vm[pc])) {
+            if (vm[pc] == Opcodes.ALOAD || vm[pc] == Opcodes.ASTORE) {
+                int slot = arraySlot(vm[pc + 1], bytecode.types[pc]);
+                if (arraySlots[slot] < 0) {
+                    arraySlots[slot] = next;
+                    code.op(ACONST_NULL);
+                    code.local(ASTORE, next++);
+                }
+            }
+        }
+        code.maxLocals = next;
+    }
+
+    private static int arraySlot(int local, Type type) {
+        return local * ELEMENT_KINDS + Variable.kindOf(type.getElementType());
+    }
+
+    /**
+     * Sets the console the program runs against and clears every class field, which keep their values from the last
+     * run of the class otherwise.
+     */
+    private void clearFields() {
+        code.local(ALOAD, 0);
+        code.shortOp(PUTSTATIC, file.fieldConstant(CONSOLE_FIELD, "L" + CONSOLE + ";"));
+        for (int region = 0; region < Bytecode.REGIONS; region++) {
+            for (int index = 0; index < fieldDescriptors[region].length; index++) {
+                if (fieldDescriptors[region][index] != null) {
+                    code.op(region == Bytecode.INTS ? ICONST_0 : region == Bytecode.FLOATS ? DCONST_0 : ACONST_NULL);
+                    code.shortOp(PUTSTATIC, field(region, index));
+                }
+            }
+        }
+    }
+
+    private void instruction(int[] vm, int pc) {
+        int opcode = vm[pc];
+        switch (opcode) {
+            case Opcodes.ICONST:
+                pushInt(vm[pc + 1]);
+                break;
+            case Opcodes.FCONST:
+                code.shortOp(LDC2_W, file.doubleConstant(bytecode.floats[vm[pc + 1]]));
+                break;
+            case Opcodes.SCONST:
+                loadConstant(file.stringConstant(bytecode.strings[vm[pc + 1]]));
+                break;
+            case Opcodes.ILOAD:
+                code.local(ILOAD, intSlots[vm[pc + 1]]);
+                break;
+            case Opcodes.FLOAD:
+                code.local(DLOAD, floatSlots[vm[pc + 1]]);
+                break;
+            case Opcodes.ALOAD:
+                code.local(ALOAD, arraySlots[arraySlot(vm[pc + 1], bytecode.types[pc])]);
+                break;
+            case Opcodes.GILOAD:
+                code.shortOp(GETSTATIC, field(Bytecode.INTS, vm[pc + 1]));
+                break;
+            case Opcodes.GFLOAD:
+                code.shortOp(GETSTATIC, field(Bytecode.FLOATS, vm[pc + 1]));
+                break;
+            case Opcodes.GALOAD:
+                code.shortOp(GETSTATIC, field(Bytecode.OBJECTS, vm[pc + 1]));
+                break;
+            case Opcodes.ISTORE:
+                code.local(ISTORE, intSlots[vm[pc + 1]]);
+                break;
+            case Opcodes.FSTORE:
+                code.local(DSTORE, floatSlots[vm[pc + 1]]);
+                break;
+            case Opcodes.ASTORE:
+                code.local(ASTORE, arraySlots[arraySlot(vm[pc + 1], bytecode.types[pc])]);
+                break;
+            case Opcodes.GISTORE:
+                code.shortOp(PUTSTATIC, field(Bytecode.INTS, vm[pc + 1]));
+                break;
+            case Opcodes.GFSTORE:
+                code.shortOp(PUTSTATIC, field(Bytecode.FLOATS, vm[pc + 1]));
+                break;
+            case Opcodes.GASTORE:
+                code.shortOp(PUTSTATIC, field(Bytecode.OBJECTS, vm[pc + 1]));
+                break;
+            case Opcodes.IINC:
+                code.increment(intSlots[vm[pc + 1]], vm[pc + 2]);
+                break;
+            case Opcodes.FINC:
+                code.local(DLOAD, floatSlots[vm[pc + 1]]);
+                addFloat(vm[pc + 2]);
+                code.local(DSTORE, floatSlots[vm[pc + 1]]);
+                break;
+            case Opcodes.GIINC:
+                code.shortOp(GETSTATIC, field(Bytecode.INTS, vm[pc + 1]));
+                pushInt(vm[pc + 2]);
+                code.op(IADD);
+                code.shortOp(PUTSTATIC, field(Bytecode.INTS, vm[pc + 1]));
+                break;
+            case Opcodes.GFINC:
+                code.shortOp(GETSTATIC, field(Bytecode.FLOATS, vm[pc + 1]));
+                addFloat(vm[pc + 2]);
+                code.shortOp(PUTSTATIC, field(Bytecode.FLOATS, vm[pc + 1]));
+                break;
+            case Opcodes.IALOAD:
+                code.op(IALOAD);
+                break;
+            case Opcodes.FALOAD:
+                code.op(DALOAD);
+                break;
+            case Opcodes.BALOAD:
+                code.op(BALOAD);
+                break;
+            case Opcodes.CALOAD:
+                code.op(CALOAD);
+                break;
+            case Opcodes.IASTORE:
+                code.op(IASTORE);
+                break;
+            case Opcodes.FASTORE:
+                code.op(DASTORE);
+                break;
+            case Opcodes.BASTORE:
+                code.op(BASTORE);
+                break;
+            case Opcodes.CASTORE:
+                code.op(CASTORE);
+                break;
+            case Opcodes.IAINC:
+                code.op(DUP2);
+                code.op(IALOAD);
+                pushInt(vm[pc + 1]);
+                code.op(IADD);
+                code.op(IASTORE);
+                break;
+            case Opcodes.FAINC:
+                code.op(DUP2);
+                code.op(DALOAD);
+                addFloat(vm[pc + 1]);
+                code.op(DASTORE);
+                break;
+            case Opcodes.NEWARRAY:
+                pushInt(vm[pc + 2]);
+                code.byteOp(NEWARRAY, arrayType(vm[pc + 1]));
+                break;
+            case Opcodes.IADD:
+            case Opcodes.ISUB:
+            case Opcodes.IMUL:
+            case Opcodes.IDIV:
+                code.op(ARITHMETIC[opcode - Opcodes.IADD]);
+                break;
+            case Opcodes.INEG:
+                code.op(INEG);
+                break;
+            case Opcodes.FADD:
+                code.op(DADD);
+                break;
+            case Opcodes.FSUB:
+                code.op(DSUB);
+                break;
+            case Opcodes.FMUL:
+                code.op(DMUL);
+                break;
+            case Opcodes.FDIV:
+                code.op(DDIV);
+                break;
+            case Opcodes.FNEG:
+                code.op(DNEG);
+                break;
+            case Opcodes.ILT:
+            case Opcodes.IGT:
+            case Opcodes.ILE:
+            case Opcodes.IGE:
+            case Opcodes.IEQ:
+            case Opcodes.INE:
+                pushBool(INT_BRANCHES[opcode - Opcodes.ILT]);
+                break;
+            case Opcodes.FLT:
+            case Opcodes.FGT:
+            case Opcodes.FLE:
+            case Opcodes.FGE:
+            case Opcodes.FEQ:
+            case Opcodes.FNE:
+                code.op(FLOAT_COMPARISONS[opcode - Opcodes.FLT]);
+                pushBool(FLOAT_BRANCHES[opcode - Opcodes.FLT]);
+                break;
+            case Opcodes.I2F:
+                code.op(I2D);
+                break;
+            case Opcodes.I2B:
+                pushBool(IFNE);
+                break;
+            case Opcodes.BNOT:
+                code.op(ICONST_1);
+                code.op(IXOR);
+                break;
+            case Opcodes.I2S:
+                invoke(INVOKESTATIC, STRING, "valueOf", "(I)L" + STRING + ";");
+                break;
+            case Opcodes.F2S:
+                invoke(INVOKESTATIC, STRING, "valueOf", "(D)L" + STRING + ";");
+                break;
+            case Opcodes.B2S:
+                invoke(INVOKESTATIC, STRING, "valueOf", "(Z)L" + STRING + ";");
+                break;
+            case Opcodes.C2S:
+                invoke(INVOKESTATIC, STRING, "valueOf", "(C)L" + STRING + ";");
+                break;
+            case Opcodes.CONCAT:
+                invoke(INVOKEVIRTUAL, STRING, "concat", "(L" + STRING + ";)L" + STRING + ";");
+                break;
+            case Opcodes.JUMP:
+                jump(GOTO, vm[pc + 1]);
+                break;
+            case Opcodes.JUMPZ:
+                jump(IFEQ, vm[pc + 1]);
+                break;
+            case Opcodes.JUMPNZ:
+                jump(IFNE, vm[pc + 1]);
+                break;
+            case Opcodes.IFLT:
+            case Opcodes.IFGT:
+            case Opcodes.IFLE:
+            case Opcodes.IFGE:
+            case Opcodes.IFEQ:
+            case Opcodes.IFNE:
+                jump(INT_BRANCHES[opcode - Opcodes.IFLT], vm[pc + 1]);
+                break;
+            case Opcodes.IADDL:
+            case Opcodes.ISUBL:
+            case Opcodes.IMULL:
+            case Opcodes.IDIVL:
+                code.local(ILOAD, intSlots[vm[pc + 1]]);
+                code.op(ARITHMETIC[opcode - Opcodes.IADDL]);
+                break;
+            case Opcodes.IADDC:
+            case Opcodes.ISUBC:
+            case Opcodes.IMULC:
+            case Opcodes.IDIVC:
+                pushInt(vm[pc + 1]);
+                code.op(ARITHMETIC[opcode - Opcodes.IADDC]);
+                break;
+            case Opcodes.IFLTL:
+            case Opcodes.IFGTL:
+            case Opcodes.IFLEL:
+            case Opcodes.IFGEL:
+            case Opcodes.IFEQL:
+            case Opcodes.IFNEL:
+                code.local(ILOAD, intSlots[vm[pc + 1]]);
+                jump(INT_BRANCHES[opcode - Opcodes.IFLTL], vm[pc + 2]);
+                break;
+            case Opcodes.IFLTC:
+            case Opcodes.IFGTC:
+            case Opcodes.IFLEC:
+            case Opcodes.IFGEC:
+            case Opcodes.IFEQC:
+            case Opcodes.IFNEC:
+                pushInt(vm[pc + 1]);
+                jump(INT_BRANCHES[opcode - Opcodes.IFLTC], vm[pc + 2]);
+                break;
+            case Opcodes.CALL:
+                call(routines.get(vm[pc + 1]), vm[pc + 2]);
+                break;
+            case Opcodes.RETURN:
+                ret(pc == end - 1);
+                break;
+            case Opcodes.IPOP:
+            case Opcodes.APOP:
+                code.op(POP);
+                break;
+            case Opcodes.FPOP:
+                code.op(POP2);
+                break;
+            case Opcodes.IREAD:
+                read("readInt", "()I");
+                break;
+            case Opcodes.FREAD:
+                read("readFloat", "()D");
+                break;
+            case Opcodes.BREAD:
+                read("readBool", "()Z");
+                break;
+            case Opcodes.CREAD:
+                read("readChar", "()C");
+                break;
+            case Opcodes.IPRINT:
+                print("I");
+                break;
+            case Opcodes.FPRINT:
+                console();
+                code.op(DUP_X2);
+                code.op(POP);
+                invoke(INVOKEVIRTUAL, CONSOLE, "print", "(D)V");
+                break;
+            case Opcodes.BPRINT:
+                print("Z");
+                break;
+            case Opcodes.CPRINT:
+                print("C");
+                break;
+            case Opcodes.SPRINT:
+                print("L" + STRING + ";");
+                break;
+            case Opcodes.HALT:
+                code.op(RETURN);
+                break;
+            default:
+                throw new IllegalStateException("Unknown instruction " + opcode + " at " + pc);
+        }
+    }
+
+    private void pushInt(int value) {
+        if (value >= -1 && value <= 5) {
+            code.op(ICONST_0 + value);
+        } else if (value == (byte) value) {
+            code.byteOp(BIPUSH, value);
+        } else if (value == (short) value) {
+            code.shortOp(SIPUSH, value);
+        } else {
+            loadConstant(file.intConstant(value));
+        }
+    }
+
+    private void loadConstant(int index) {
+        if (index > 0xFF) {
+            code.shortOp(LDC_W, index);
+        } else {
+            code.byteOp(LDC, index);
+        }
+    }
+
+    /**
+     * Adds a step to the float on top of the stack.
+     */
+    private void addFloat(int step) {
+        if (step == 1 || step == -1) {
+            code.op(DCONST_1);
+            code.op(step == 1 ? DADD : DSUB);
+        } else {
+            code.shortOp(LDC2_W, file.doubleConstant(step));
+            code.op(DADD);
+        }
+    }
+
+    /**
+     * Replaces the operands of a conditional jump with 1 if it would jump, and with 0 otherwise.
+     */
+    private void pushBool(int branch) {
+        code.jump(branch, 7);
+        code.op(ICONST_0);
+        code.jump(GOTO, 4);
+        code.op(ICONST_1);
+    }
+
+    private void jump(int opcode, int target) {
+        patches.add(new int[]{code.jump(opcode), target});
+    }
+
+    private void invoke(int opcode, String owner, String name, String descriptor) {
+        code.shortOp(opcode, file.methodConstant(owner, name, descriptor));
+    }
+
+    /**
+     * Invokes a method, with the zero value of each argument left out.
+     */
+    private void call(Routine routine, int arguments) {
+        for (int i = arguments; i < routine.getArgumentCount(); i++) {
+            Type type = routine.getArgumentType(i);
+            code.op(type.isArray() ? ACONST_NULL : type == Types.FLOATLIT ? DCONST_0 : ICONST_0);
+        }
+        invoke(INVOKESTATIC, file.getName(), routine.getId(), descriptor(routine));
+    }
+
+    /**
+     * Returns from the method. The return the machine adds after the body of every method can only be reached in a
+     * void method, since the type checker makes sure the others return on every path, but it has to return a value of
+     * the right type all the same to be valid code.
+     */
+    private void ret(boolean last) {
+        if (returnType == Types.VOID) {
+            code.op(RETURN);
+        } else if (returnType == Types.FLOATLIT) {
+            if (last) {
+                code.op(DCONST_0);
+            }
+            code.op(DRETURN);
+        } else {
+            if (last) {
+                code.op(ICONST_0);
+            }
+            code.op(IRETURN);
+        }
+    }
+
+    private void console() {
+        code.shortOp(GETSTATIC, file.fieldConstant(CONSOLE_FIELD, "L" + CONSOLE + ";"));
+    }
+
+    private void read(String name, String descriptor) {
+        console();
+        invoke(INVOKEVIRTUAL, CONSOLE, name, descriptor);
+    }
+
+    /**
+     * Prints the value on top of the stack, which takes one slot.
+     */
+    private void print(String descriptor) {
+        console();
+        code.op(SWAP);
+        invoke(INVOKEVIRTUAL, CONSOLE, "print", "(" + descriptor + ")V");
+    }
+
+    private static int arrayType(int kind) {
+        switch (kind) {
+            case Variable.INT:
+                return T_INT;
+            case Variable.FLOAT:
+                return T_DOUBLE;
+            case Variable.BOOL:
+                return T_BOOLEAN;
+            default:
+                return T_CHAR;
+        }
+    }
+
+    private static String descriptor(Routine routine) {
+        StringBuilder descriptor = new StringBuilder("(");
+        for (int i = 0; i < routine.getArgumentCount(); i++) {
+            descriptor.append(descriptor(routine.getArgumentType(i)));
+        }
+        return descriptor.append(')').append(descriptor(routine.getType())).toString();
+    }
+
+    private static String descriptor(Type type) {
+        if (type.isArray()) {
+            return "[" + descriptor(type.getElementType());
+        } else if (type == Types.INTLIT) {
+            return "I";
+        } else if (type == Types.FLOATLIT) {
+            return "D";
+        } else if (type == Types.BOOLLIT) {
+            return "Z";
+        } else if (type == Types.CHARLIT) {
+            return "C";
+        } else if (type == Types.VOID) {
+            return "V";
+        }
+        return "L" + STRING + ";";
+    }
+}
@@ -0,0 +1,76 @@
+package execution;
+
+import tokens.lexeme.Type;
+import tokens.lexeme.Types;
+
+/**
+ * A variable resolved to its slot: which of a frame's arrays holds it, its index there, and whether that is the frame
+ * of the class fields rather than the frame of the running method.
+ */
+public final class Variable {
+    static final int INT = 0;
+    static final int FLOAT = 1;
+    static final int BOOL = 2;
+    static final int CHAR = 3;
+    static final int ARRAY = 4;
+    static final int KINDS = 5;
+
+    static Variable of(Type type, int slot, boolean field, int scope) {
+        return new Variable(type, slot, field, scope);
+    }
+
+    /**
+     * Which of a frame's arrays holds a value of the given type. Strings are never stored, so they have no kind.
+     */
+    static int kindOf(Type type) {
+        if (type.isArray()) {
+            return ARRAY;
+        } else if (type == Types.INTLIT) {
+            return INT;
+        } else if (type == Types.FLOATLIT) {
+            return FLOAT;
+        } else if (type == Types.BOOLLIT) {
+            return BOOL;
+        } else if (type == Types.CHARLIT) {
+            return CHAR;
+        }
+        throw new IllegalArgumentException("No slot holds a " + type.getType());
+    }
+
+    private final Type type;
+    private final int kind;
+    private final int slot;
+    private final boolean field;
+    private final int scope;
+
+    private Variable(Type type, int slot, boolean field, int scope) {
+        this.type = type;
+        this.kind = kindOf(type);
+        this.slot = slot;
+        this.field = field;
+        this.scope = scope;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    int getKind() {
+        return kind;
+    }
+
+    int getSlot() {
+        return slot;
+    }
+
+    /**
+     * Whether this is a class field, held in the frame of the class rather than in that of each invocation.
+     */
+    boolean isField() {
+        return field;
+    }
+
+    int getScope() {
+        return scope;
+    }
+}
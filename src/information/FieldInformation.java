@@ -1,77 +1,61 @@
 package information;
 
 import tokens.lexeme.Type;
-import utils.Pair;
-
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Optional;
 
 public final class FieldInformation {
-    public static FieldInformation empty() {
-        return new FieldInformation(new HashMap<>(), new HashMap<>());
+    public static FieldInformation of(int scope, Type type, boolean isFinal, FieldInformation shadowed) {
+        return new FieldInformation(scope, type, isFinal, shadowed);
     }
 
-    private final Map<Integer, Boolean> finals;
-    private final Map<Integer, Type> scopes;
+    private final int scope;
+    private final Type type;
+    private final boolean isFinal;
+    private final FieldInformation shadowed;
+    private final int resolution;
 
-    private FieldInformation(Map<Integer, Boolean> finals, Map<Integer, Type> scopes) {
-        this.finals = finals;
-        this.scopes = scopes;
+    private FieldInformation(int scope, Type type, boolean isFinal, FieldInformation shadowed) {
+        this.scope = scope;
+        this.type = type;
+        this.isFinal = isFinal;
+        this.shadowed = shadowed;
+        this.resolution = Resolution.of(type, isFinal);
     }
 
-    public boolean isFinalAt(int scope) {
-        return finals.get(scope);
+    public int getScope() {
+        return scope;
     }
 
-    public Type getTypeAt(int scope) {
-        return scopes.get(scope);
+    public Type getType() {
+        return type;
     }
 
-    public void put(int scope, Type type, boolean isFinal) {
-        finals.put(scope, isFinal);
-        scopes.put(scope, type);
+    public boolean isFinal() {
+        return isFinal;
     }
 
-    public Type getClosestScopeType(int scope) {
-        return getClosestScopeInfo(scope).getFirst();
+    /**
+     * The type and finality of this declaration, packed as described by {@link Resolution}.
+     */
+    public int getResolution() {
+        return resolution;
     }
 
-    public boolean isClosestScopeFinal(int scope) {
-        return getClosestScopeInfo(scope).getSecond();
+    /**
+     * The declaration of the same identifier in an enclosing scope that this one hides, or null if there is none.
+     */
+    public FieldInformation getShadowed() {
+        return shadowed;
     }
 
-    public Pair<Type, Boolean> getClosestScopeInfo(int scope) {
-        int highestScope = Integer.min(scope, getHighestScope(scopes).orElse(scope));
-        if (scopes.containsKey(highestScope)) {
-            return Pair.of(scopes.get(highestScope), finals.get(highestScope));
+    /**
+     * Returns the innermost declaration in this chain that is visible from the given scope, or null if the
+     * identifier is only declared in scopes deeper than it.
+     */
+    public FieldInformation visibleFrom(int scope) {
+        FieldInformation current = this;
+        while (current != null && current.scope > scope) {
+            current = current.shadowed;
         }
-        return null;
-    }
-
-    public boolean isScopeTooHigh(int scope) {
-        int lowestScope = getLowestScope(scopes).orElse(Integer.MAX_VALUE);
-        return lowestScope > scope;
-    }
-
-    public boolean isAlreadyDeclaredAtScope(int scope) {
-        return scopes.containsKey(scope);
-    }
-
-    public void removeScope(int scope) {
-        finals.remove(scope);
-        scopes.remove(scope);
-    }
-
-    public boolean isEmpty() {
-        return scopes.isEmpty();
-    }
-
-    private static Optional<Integer> getLowestScope(Map<Integer, Type> scopes) {
-        return scopes.keySet().stream().min(Integer::compareTo);
-    }
-
-    private static Optional<Integer> getHighestScope(Map<Integer, Type> scopes) {
-        return scopes.keySet().stream().max(Integer::compareTo);
+        return current;
     }
 }
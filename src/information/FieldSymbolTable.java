@@ -0,0 +1,158 @@
+package information;
+
+import tokens.lexeme.Type;
+import utils.CompileStats;
+import utils.CompilerEvents;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A scoped symbol table for fields, arguments and local variables.
+ *
+ * Every identifier maps to its innermost declaration, which links to the declarations it shadows. Alongside that,
+ * the table keeps a stack of scope frames (indexed by scope depth) recording which identifiers were declared in each
+ * scope, so leaving a scope only has to touch the identifiers declared there instead of the whole table.
+ *
+ * A table can be {@link #layeredOver(FieldSymbolTable) layered over} an enclosing one: declarations go into the layer,
+ * and lookups that the layer cannot answer fall through to the enclosing table, which is only ever read. This is how
+ * each method body gets its own table for its arguments and locals on top of the shared class fields.
+ */
+public final class FieldSymbolTable {
+    public static FieldSymbolTable empty() {
+        return new FieldSymbolTable(null, null);
+    }
+
+    /**
+     * Returns an empty table that counts its lookups, scope removals and size into the given stats, as do the tables
+     * layered over it.
+     */
+    public static FieldSymbolTable counting(CompileStats stats) {
+        return new FieldSymbolTable(null, stats);
+    }
+
+    /**
+     * Returns an empty table whose lookups fall through to the given table, which must not be modified while the new
+     * one is in use. Declarations in the new table must be in deeper scopes than any in the enclosing one.
+     */
+    public static FieldSymbolTable layeredOver(FieldSymbolTable enclosing) {
+        return new FieldSymbolTable(enclosing, enclosing.stats);
+    }
+
+    private final FieldSymbolTable enclosing;
+    private final CompileStats stats;
+    // How many identifiers the enclosing table holds, which cannot change while this one is in use.
+    private final int enclosingSize;
+    private final Map<String, FieldInformation> declarations = new HashMap<>();
+    private final List<List<String>> frames = new ArrayList<>();
+    private int innermostScope = -1;
+
+    private FieldSymbolTable(FieldSymbolTable enclosing, CompileStats stats) {
+        this.enclosing = enclosing;
+        this.stats = stats;
+        this.enclosingSize = enclosing != null && stats != null ? enclosing.size() : 0;
+    }
+
+    /**
+     * Returns the innermost declaration of the identifier visible from the given scope, or null if there is none.
+     */
+    public FieldInformation get(String id, int scope) {
+        if (stats != null) {
+            stats.lookup();
+        }
+        return find(id, scope);
+    }
+
+    private FieldInformation find(String id, int scope) {
+        FieldInformation fieldInformation = declarations.get(id);
+        if (fieldInformation != null) {
+            fieldInformation = fieldInformation.visibleFrom(scope);
+        }
+        if (fieldInformation == null && enclosing != null) {
+            return enclosing.find(id, scope);
+        }
+        return fieldInformation;
+    }
+
+    /**
+     * Resolves the identifier from the given scope with a single table lookup, returning the packed
+     * {@link Resolution} of its innermost visible declaration, or {@link Resolution#UNRESOLVED} if there is none.
+     */
+    public int resolve(String id, int scope) {
+        FieldInformation fieldInformation = get(id, scope);
+        return fieldInformation == null ? Resolution.UNRESOLVED : fieldInformation.getResolution();
+    }
+
+    public boolean containsKey(String id) {
+        if (stats != null) {
+            stats.lookup();
+        }
+        return contains(id);
+    }
+
+    private boolean contains(String id) {
+        return declarations.containsKey(id) || enclosing != null && enclosing.contains(id);
+    }
+
+    public boolean isAlreadyDeclaredAtScope(String id, int scope) {
+        FieldInformation fieldInformation = get(id, scope);
+        return fieldInformation != null && fieldInformation.getScope() == scope;
+    }
+
+    public void put(String id, int scope, Type type, boolean isFinal) {
+        declarations.put(id, FieldInformation.of(scope, type, isFinal, declarations.get(id)));
+        while (frames.size() <= scope) {
+            frames.add(new ArrayList<>());
+        }
+        frames.get(scope).add(id);
+        if (scope > innermostScope) {
+            CompilerEvents.scopeChanged(CompilerEvents.PUSH, scope, declarations.size());
+            innermostScope = scope;
+        }
+        if (stats != null) {
+            stats.fieldSymbols(enclosingSize + declarations.size());
+        }
+    }
+
+    /**
+     * Leaves the given scope, along with any deeper scopes that are still open, forgetting every identifier that
+     * was declared in them.
+     */
+    public void removeScope(int scope) {
+        if (stats != null) {
+            stats.scopeRemoved();
+        }
+        if (innermostScope >= scope) {
+            CompilerEvents.scopeChanged(CompilerEvents.POP, scope, declarations.size());
+        }
+        for (int current = innermostScope; current >= scope; current--) {
+            List<String> frame = frames.get(current);
+            for (int i = frame.size() - 1; i >= 0; i--) {
+                String id = frame.get(i);
+                FieldInformation shadowed = declarations.get(id).getShadowed();
+                if (shadowed == null) {
+                    declarations.remove(id);
+                } else {
+                    declarations.put(id, shadowed);
+                }
+            }
+            frame.clear();
+        }
+        innermostScope = Integer.min(innermostScope, scope - 1);
+    }
+
+    public int size() {
+        if (enclosing == null) {
+            return declarations.size();
+        }
+        int size = enclosing.size();
+        for (String id : declarations.keySet()) {
+            if (!enclosing.contains(id)) {
+                size++;
+            }
+        }
+        return size;
+    }
+}
@@ -1,60 +1,50 @@
 package information;
 
 import tokens.lexeme.Type;
-import tokens.lexeme.Types;
 import tokens.methods.args.Args;
 import type_checking.TypeCheckException;
+import type_checking.TypeRules;
 
-import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 
 public final class MethodInformation {
-    public static MethodInformation of(Type type) {
-        return new MethodInformation(type, new ArrayList<>());
+    public static MethodInformation of(int index, Type type, List<Type> argumentTypes) {
+        return new MethodInformation(index, type, List.copyOf(argumentTypes));
     }
 
+    private final int index;
     private final Type type;
     private final List<Type> argumentTypes;
 
-    private MethodInformation(Type type, List<Type> argumentTypes) {
+    private MethodInformation(int index, Type type, List<Type> argumentTypes) {
+        this.index = index;
         this.type = type;
         this.argumentTypes = argumentTypes;
     }
 
-    public Type getType() {
-        return type;
+    /**
+     * The position of the method among the methods of the class, in declaration order.
+     */
+    public int getIndex() {
+        return index;
     }
 
-    public void addArgumentType(Type type) {
-        argumentTypes.add(type);
+    public Type getType() {
+        return type;
     }
 
-    public boolean isArgsNotValid(Args args, int scope, Map<String, FieldInformation> fieldSymbolTable, Map<String, MethodInformation> methodSymbolTable) throws TypeCheckException {
+    public boolean isArgsNotValid(Args args, int scope, FieldSymbolTable fieldSymbolTable, MethodSymbolTable methodSymbolTable) throws TypeCheckException {
         if (args == null) {
             return !argumentTypes.isEmpty();
         }
-        int currentIndex = 0;
-        Args currentArg = args;
-        while (currentArg != null) {
-            if (currentIndex == argumentTypes.size()) {
+        for (int i = 0; i < args.size(); i++) {
+            if (i == argumentTypes.size()) {
                 return true;
             }
-            Type currentType = argumentTypes.get(currentIndex);
-            Type argType = currentArg.getExpr().typeCheck(scope, fieldSymbolTable, methodSymbolTable);
-            if (currentType == Types.BOOLLIT) {
-                if (argType != Types.BOOLLIT && argType != Types.INTLIT) {
-                    return true;
-                }
-            } else if (currentType == Types.FLOATLIT) {
-                if (argType != Types.FLOATLIT && argType != Types.INTLIT) {
-                    return true;
-                }
-            } else if (currentType != Types.STR && !currentType.equals(argType)) {
+            Type argType = args.getExpr(i).typeCheck(scope, fieldSymbolTable, methodSymbolTable);
+            if (!TypeRules.isAssignable(argumentTypes.get(i), argType)) {
                 return true;
             }
-            currentIndex++;
-            currentArg = currentArg.getArgs();
         }
         return false;
     }
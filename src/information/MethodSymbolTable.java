@@ -0,0 +1,87 @@
+package information;
+
+import utils.CompileStats;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The symbol table for method signatures.
+ *
+ * Methods are numbered in the order they are declared. A method may only invoke itself and the methods declared
+ * before it, so the body of each method is checked against a {@link #visibleTo(int) view} that hides every method
+ * declared after it. Views share the underlying table and are read-only, which lets several method bodies be checked
+ * against the same table at once.
+ */
+public final class MethodSymbolTable {
+    public static MethodSymbolTable empty() {
+        return new MethodSymbolTable(new HashMap<>(), Integer.MAX_VALUE, false, null);
+    }
+
+    /**
+     * An empty table that methods may be declared into while views of it are being read on other threads.
+     */
+    public static MethodSymbolTable concurrent() {
+        return new MethodSymbolTable(new ConcurrentHashMap<>(), Integer.MAX_VALUE, false, null);
+    }
+
+    private final Map<String, MethodInformation> methods;
+    private final int lastVisibleIndex;
+    private final boolean isReadOnly;
+    private final CompileStats stats;
+
+    private MethodSymbolTable(Map<String, MethodInformation> methods, int lastVisibleIndex, boolean isReadOnly, CompileStats stats) {
+        this.methods = methods;
+        this.lastVisibleIndex = lastVisibleIndex;
+        this.isReadOnly = isReadOnly;
+        this.stats = stats;
+    }
+
+    /**
+     * Returns this table counting its lookups and size, and those of its views, into the given stats.
+     */
+    public MethodSymbolTable countingInto(CompileStats stats) {
+        return new MethodSymbolTable(methods, lastVisibleIndex, isReadOnly, stats);
+    }
+
+    /**
+     * Returns the signature of the method, or null if it is not declared or not visible from this view.
+     */
+    public MethodInformation get(String id) {
+        if (stats != null) {
+            stats.lookup();
+        }
+        MethodInformation methodInformation = methods.get(id);
+        return methodInformation == null || methodInformation.getIndex() > lastVisibleIndex ? null : methodInformation;
+    }
+
+    public boolean containsKey(String id) {
+        return get(id) != null;
+    }
+
+    public void put(String id, MethodInformation methodInformation) {
+        if (isReadOnly) {
+            throw new UnsupportedOperationException("Cannot declare method " + id + " in a read-only view");
+        }
+        methods.put(id, methodInformation);
+        if (stats != null) {
+            stats.methodSymbols(methods.size());
+        }
+    }
+
+    /**
+     * The number of methods declared so far.
+     */
+    public int size() {
+        return methods.size();
+    }
+
+    /**
+     * Returns a read-only view of this table in which only the methods with an index up to and including the given
+     * one are visible.
+     */
+    public MethodSymbolTable visibleTo(int index) {
+        return new MethodSymbolTable(methods, index, true, stats);
+    }
+}
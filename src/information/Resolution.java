@@ -0,0 +1,41 @@
+package information;
+
+import tokens.lexeme.Type;
+import tokens.lexeme.Types;
+
+/**
+ * Packs the result of resolving a name (the declared type's id and whether it is final) into a single int, so that
+ * resolving a variable reference allocates nothing.
+ */
+public final class Resolution {
+    /**
+     * The resolution of a name that is not declared in any visible scope.
+     */
+    public static final int UNRESOLVED = -1;
+
+    private Resolution() {
+    }
+
+    public static int of(Type type, boolean isFinal) {
+        return type.getId() << 1 | (isFinal ? 1 : 0);
+    }
+
+    public static int typeId(int resolution) {
+        return resolution >>> 1;
+    }
+
+    public static Type type(int resolution) {
+        return Types.byId(typeId(resolution));
+    }
+
+    public static boolean isFinal(int resolution) {
+        return (resolution & 1) != 0;
+    }
+
+    /**
+     * Replaces the resolved type with its element type, as when a declared array is indexed.
+     */
+    public static int element(int resolution) {
+        return resolution & ~0b10;
+    }
+}
@@ -1,15 +1,19 @@
 package tokens;
 
-import information.FieldInformation;
-import information.MethodInformation;
+import execution.Compilable;
+import execution.Layout;
+import execution.Statement;
+import information.FieldSymbolTable;
+import information.MethodSymbolTable;
 import tokens.fields.FieldDecls;
 import tokens.methods.MethodDecls;
+import type_checking.Diagnostics;
 import type_checking.TypeCheckException;
 import type_checking.TypeCheckable;
 
-import java.util.Map;
+import java.io.IOException;
 
-public final class MemberDecls implements NonTerminalToken, TypeCheckable<Void> {
+public final class MemberDecls implements NonTerminalToken, TypeCheckable<Void>, Compilable<Statement> {
     public static final class Builder {
         private FieldDecls fieldDecls;
         private MethodDecls methodDecls;
@@ -44,20 +48,55 @@ public final class MemberDecls implements NonTerminalToken, TypeCheckable<Void>
         this.methodDecls = methodDecls;
     }
 
+    /**
+     * Sets how many method bodies may be type checked at the same time.
+     */
+    public void setJobs(int jobs) {
+        if (methodDecls != null) {
+            methodDecls.setJobs(jobs);
+        }
+    }
+
     @Override
-    public String asString(int tabs) {
-        return (fieldDecls == null ? "" : fieldDecls.asString(tabs))
-                + (methodDecls == null ? "" : (fieldDecls == null ? "" : "\n") + methodDecls.asString(tabs));
+    public void appendTo(Appendable out, int tabs) throws IOException {
+        if (fieldDecls != null) {
+            fieldDecls.appendTo(out, tabs);
+        }
+        if (methodDecls != null) {
+            if (fieldDecls != null) {
+                out.append('\n');
+            }
+            methodDecls.appendTo(out, tabs);
+        }
     }
 
     @Override
-    public Void typeCheck(int scope, Map<String, FieldInformation> fieldSymbolTable, Map<String, MethodInformation> methodSymbolTable) throws TypeCheckException {
+    public Void typeCheck(int scope, FieldSymbolTable fieldSymbolTable, MethodSymbolTable methodSymbolTable) throws TypeCheckException {
+        Diagnostics diagnostics = Diagnostics.empty();
         if (fieldDecls != null) {
-            fieldDecls.typeCheck(scope, fieldSymbolTable, methodSymbolTable);
+            try {
+                fieldDecls.typeCheck(scope, fieldSymbolTable, methodSymbolTable);
+            } catch (TypeCheckException e) {
+                diagnostics.add(e);
+            }
         }
         if (methodDecls != null) {
-            methodDecls.typeCheck(scope, fieldSymbolTable, methodSymbolTable);
+            try {
+                methodDecls.typeCheck(scope, fieldSymbolTable, methodSymbolTable);
+            } catch (TypeCheckException e) {
+                diagnostics.add(e);
+            }
         }
+        diagnostics.throwIfAny();
         return null;
     }
+
+    @Override
+    public Statement compile(int scope, Layout layout) throws TypeCheckException {
+        Statement fields = fieldDecls != null ? fieldDecls.compile(scope, layout) : Statement.empty();
+        if (methodDecls != null) {
+            methodDecls.compile(scope, layout);
+        }
+        return fields;
+    }
 }
@@ -1,5 +1,20 @@
 package tokens;
 
+import utils.StringHelper;
+
+import java.io.IOException;
+
 public interface NonTerminalToken {
-    String asString(int tabs);
+    /**
+     * Writes the source form of this token to the output, indenting the lines it starts by the given number of tabs.
+     */
+    void appendTo(Appendable out, int tabs) throws IOException;
+
+    /**
+     * The source form of this token, collected into a string. Printing a whole tree should go through
+     * {@link #appendTo(Appendable, int)} instead, which writes straight to the output.
+     */
+    default String asString(int tabs) {
+        return StringHelper.collect(out -> appendTo(out, tabs));
+    }
 }
@@ -1,14 +1,17 @@
 package tokens;
 
-import information.FieldInformation;
-import information.MethodInformation;
+import execution.Compilable;
+import execution.Layout;
+import execution.Statement;
+import information.FieldSymbolTable;
+import information.MethodSymbolTable;
 import type_checking.TypeCheckException;
 import type_checking.TypeCheckable;
 import utils.StringHelper;
 
-import java.util.Map;
+import java.io.IOException;
 
-public final class Program implements NonTerminalToken, TypeCheckable<Void> {
+public final class Program implements NonTerminalToken, TypeCheckable<Void>, Compilable<Statement> {
     public static final class Builder {
         private String id;
         private MemberDecls memberDecls;
@@ -43,14 +46,35 @@ public final class Program implements NonTerminalToken, TypeCheckable<Void> {
         this.memberDecls = memberDecls;
     }
 
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Sets how many method bodies may be type checked at the same time.
+     */
+    public void setJobs(int jobs) {
+        memberDecls.setJobs(jobs);
+    }
+
     @Override
-    public String asString(int tabs) {
-        return StringHelper.withTabs(tabs, "class " + id + " {\n" + memberDecls.asString(tabs + 1) + "}");
+    public void appendTo(Appendable out, int tabs) throws IOException {
+        out.append(StringHelper.tabs(tabs)).append("class ").append(id).append(" {\n");
+        memberDecls.appendTo(out, tabs + 1);
+        out.append('}');
     }
 
     @Override
-    public Void typeCheck(int scope, Map<String, FieldInformation> fieldSymbolTable, Map<String, MethodInformation> methodSymbolTable) throws TypeCheckException {
+    public Void typeCheck(int scope, FieldSymbolTable fieldSymbolTable, MethodSymbolTable methodSymbolTable) throws TypeCheckException {
         memberDecls.typeCheck(scope + 1, fieldSymbolTable, methodSymbolTable);
         return null;
     }
+
+    /**
+     * Compiles the methods into the layout and returns the statement that initializes the class fields.
+     */
+    @Override
+    public Statement compile(int scope, Layout layout) throws TypeCheckException {
+        return memberDecls.compile(scope + 1, layout);
+    }
 }
@@ -0,0 +1,127 @@
+package tokens;
+
+import information.FieldSymbolTable;
+import information.MethodSymbolTable;
+import tokens.fields.FieldDecl;
+import tokens.methods.MethodDecl;
+import type_checking.Diagnostics;
+import type_checking.TypeCheckException;
+import utils.CompileStats;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Type checks the members of a class while it is still being parsed, so the parser hands each member over instead of
+ * keeping it in the tree. Class fields come before any method, so each is checked as soon as it is parsed. Each method
+ * is declared as soon as it is parsed, then its body is checked on a worker against the methods declared up to it,
+ * exactly as {@link tokens.methods.MethodDecls} would check it. Only a few methods per worker may wait to be checked
+ * at once, so the parser waits rather than letting parsed methods pile up.
+ *
+ * Faults are reported by {@link #finish()} in the same order as when checking the whole program after parsing it.
+ */
+public final class StreamingTypeCheck {
+    // Program checks its members one scope in from its own.
+    private static final int SCOPE = 1;
+    private static final int METHODS_IN_FLIGHT_PER_JOB = 2;
+
+    public static StreamingTypeCheck withJobs(int jobs) {
+        return new StreamingTypeCheck(jobs, FieldSymbolTable.empty(), MethodSymbolTable.concurrent());
+    }
+
+    /**
+     * Returns a check whose symbol tables count their lookups and sizes into the given stats.
+     */
+    public static StreamingTypeCheck withJobs(int jobs, CompileStats stats) {
+        return new StreamingTypeCheck(jobs, FieldSymbolTable.counting(stats), MethodSymbolTable.concurrent().countingInto(stats));
+    }
+
+    private final FieldSymbolTable fieldSymbolTable;
+    private final MethodSymbolTable methodSymbolTable;
+    // Fields are checked before any method, so their faults come first.
+    private final Diagnostics diagnostics = Diagnostics.empty();
+    private final List<Method> methods = new ArrayList<>();
+    private final ForkJoinPool pool;
+    private final Semaphore inFlight;
+
+    private StreamingTypeCheck(int jobs, FieldSymbolTable fieldSymbolTable, MethodSymbolTable methodSymbolTable) {
+        this.fieldSymbolTable = fieldSymbolTable;
+        this.methodSymbolTable = methodSymbolTable;
+        this.pool = new ForkJoinPool(jobs);
+        this.inFlight = new Semaphore(jobs * METHODS_IN_FLIGHT_PER_JOB);
+    }
+
+    /**
+     * Checks a class field, which must come before every method.
+     */
+    public void field(FieldDecl fieldDecl, int line, int column) {
+        try {
+            fieldDecl.typeCheck(SCOPE, fieldSymbolTable, methodSymbolTable);
+        } catch (TypeCheckException e) {
+            diagnostics.add(e, line, column);
+        }
+    }
+
+    /**
+     * Declares the next method and queues its body to be checked, waiting while too many are queued already.
+     */
+    public void method(MethodDecl methodDecl, int line, int column) throws InterruptedException {
+        int index = methods.size();
+        Method method = new Method(line, column);
+        methods.add(method);
+        try {
+            methodDecl.declare(SCOPE, methodSymbolTable, index);
+        } catch (TypeCheckException e) {
+            method.fault = e;
+            return;
+        }
+        inFlight.acquire();
+        pool.execute(() -> {
+            try {
+                methodDecl.checkBody(SCOPE, FieldSymbolTable.layeredOver(fieldSymbolTable), methodSymbolTable.visibleTo(index));
+            } catch (Throwable e) {
+                // Kept for finish() to rethrow, as an error on a worker, such as running out of stack on a deeply
+                // nested body, would otherwise be lost.
+                method.fault = e;
+            } finally {
+                inFlight.release();
+            }
+        });
+    }
+
+    /**
+     * Waits for every queued method to be checked, then reports the faults of the fields and methods in source order.
+     * An exception or error that stopped a worker checking a method is rethrown instead.
+     */
+    public void finish() throws TypeCheckException, InterruptedException {
+        pool.shutdown();
+        pool.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        for (Method method : methods) {
+            if (method.fault instanceof TypeCheckException) {
+                diagnostics.add((TypeCheckException) method.fault, method.line, method.column);
+            } else if (method.fault instanceof RuntimeException) {
+                throw (RuntimeException) method.fault;
+            } else if (method.fault != null) {
+                throw (Error) method.fault;
+            }
+        }
+        diagnostics.throwIfAny();
+    }
+
+    /**
+     * What is left of a method once it has been handed over: where it is, and what was wrong with it.
+     */
+    private static final class Method {
+        private final int line;
+        private final int column;
+        private volatile Throwable fault;
+
+        Method(int line, int column) {
+            this.line = line;
+            this.column = column;
+        }
+    }
+}
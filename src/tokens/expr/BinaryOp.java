@@ -1,71 +1,65 @@
 package tokens.expr;
 
-import information.FieldInformation;
-import information.MethodInformation;
+import execution.Compilable;
+import execution.Layout;
+import execution.Node;
+import information.FieldSymbolTable;
+import information.MethodSymbolTable;
 import tokens.NonTerminalToken;
 import tokens.lexeme.Type;
-import tokens.lexeme.Types;
 import type_checking.TypeCheckException;
 import type_checking.TypeCheckable;
 
-import java.util.Map;
+import java.io.IOException;
 
-public final class BinaryOp implements NonTerminalToken, TypeCheckable<Type> {
-    public static BinaryOp of(Expr expr1, String operation, Expr expr2) {
-        return new BinaryOp(expr1, operation, expr2);
+public final class BinaryOp implements NonTerminalToken, TypeCheckable<Type>, Compilable<Node> {
+    public static BinaryOp of(Expr expr1, Operator operator, Expr expr2) {
+        return new BinaryOp(expr1, operator, expr2);
     }
 
     private final Expr expr1;
-    private final String operation;
+    private final Operator operator;
     private final Expr expr2;
+    private Type type;
 
-    private BinaryOp(Expr expr1, String operation, Expr expr2) {
+    private BinaryOp(Expr expr1, Operator operator, Expr expr2) {
         this.expr1 = expr1;
-        this.operation = operation;
+        this.operator = operator;
         this.expr2 = expr2;
     }
 
+    /**
+     * The type of this operation once it has been successfully type checked, or null if it has not been.
+     */
+    public Type getType() {
+        return type;
+    }
+
     @Override
-    public String asString(int tabs) {
-        return "(" + expr1.asString(tabs) + " " + operation + " " + expr2.asString(tabs) + ")";
+    public void appendTo(Appendable out, int tabs) throws IOException {
+        out.append('(');
+        expr1.appendTo(out, tabs);
+        out.append(' ').append(operator.getSymbol()).append(' ');
+        expr2.appendTo(out, tabs);
+        out.append(')');
     }
 
     @Override
-    public Type typeCheck(int scope, Map<String, FieldInformation> fieldSymbolTable, Map<String, MethodInformation> methodSymbolTable) throws TypeCheckException {
+    public Type typeCheck(int scope, FieldSymbolTable fieldSymbolTable, MethodSymbolTable methodSymbolTable) throws TypeCheckException {
+        if (type != null) {
+            return type;
+        }
         Type expr1Type = expr1.typeCheck(scope, fieldSymbolTable, methodSymbolTable);
         Type expr2Type = expr2.typeCheck(scope, fieldSymbolTable, methodSymbolTable);
-        if (operation.equals("+") && (expr1Type == Types.STR || expr2Type == Types.STR)) {
-            return Types.STR;
-        } else if (operation.equals("+") || operation.equals("-") || operation.equals("*") || operation.equals("/")) {
-            if (expr1Type != Types.INTLIT && expr1Type != Types.FLOATLIT) {
-                throw TypeCheckException.withFault("Error: Binary operation " + operation + " can only be performed on ints and floats");
-            }
-            if (expr2Type != Types.INTLIT && expr2Type != Types.FLOATLIT) {
-                throw TypeCheckException.withFault("Error: Binary operation " + operation + " can only be performed on ints and floats");
-            }
-            if (expr1Type == Types.FLOATLIT) {
-                return expr1Type;
-            }
-            if (expr2Type == Types.FLOATLIT) {
-                return expr2Type;
-            }
-            return expr1Type;
-        } else if (operation.equals(">") || operation.equals("<") || operation.equals(">=") || operation.equals("<=") || operation.equals("==") || operation.equals("<>")) {
-            if (expr1Type != Types.INTLIT && expr1Type != Types.FLOATLIT) {
-                throw TypeCheckException.withFault("Error: Binary operation " + operation + " can only be performed on ints and floats");
-            }
-            if (expr2Type != Types.INTLIT && expr2Type != Types.FLOATLIT) {
-                throw TypeCheckException.withFault("Error: Binary operation " + operation + " can only be performed on ints and floats");
-            }
-            return Types.BOOLLIT;
-        } else {
-            if (expr1Type != Types.BOOLLIT && expr1Type != Types.INTLIT) {
-                throw TypeCheckException.withFault("Error: Binary operation " + operation + " can only be performed on bools (or implicitly coerced)");
-            }
-            if (expr2Type != Types.BOOLLIT && expr2Type != Types.INTLIT) {
-                throw TypeCheckException.withFault("Error: Binary operation " + operation + " can only be performed on bools (or implicitly coerced)");
-            }
-            return Types.BOOLLIT;
-        }
+        type = ExprRules.binary(operator, expr1Type, expr2Type);
+        return type;
+    }
+
+    @Override
+    public Node compile(int scope, Layout layout) throws TypeCheckException {
+        Node left = expr1.compile(scope, layout);
+        Node right = expr2.compile(scope, layout);
+        ExprRules.binary(operator, left.getType(), right.getType());
+        return Node.binary(operator, left, right);
     }
 }
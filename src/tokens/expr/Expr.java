@@ -1,7 +1,12 @@
 package tokens.expr;
 
-import information.FieldInformation;
+import execution.Compilable;
+import execution.Layout;
+import execution.Node;
+import execution.Routine;
+import information.FieldSymbolTable;
 import information.MethodInformation;
+import information.MethodSymbolTable;
 import tokens.NonTerminalToken;
 import tokens.id.Name;
 import tokens.lexeme.Type;
@@ -9,264 +14,337 @@ import tokens.lexeme.Types;
 import tokens.methods.args.Args;
 import type_checking.TypeCheckException;
 import type_checking.TypeCheckable;
+import utils.Literals;
 
-import java.util.Map;
+import java.io.IOException;
 
-import static type_checking.TypeCheckException.undeclaredError;
-
-public interface Expr extends NonTerminalToken, TypeCheckable<Type> {
+public interface Expr extends NonTerminalToken, TypeCheckable<Type>, Compilable<Node> {
     static Expr simple(Name name) {
-        return new Expr() {
+        return new TypedExpr() {
+            @Override
+            public void appendTo(Appendable out, int tabs) throws IOException {
+                name.appendTo(out, tabs);
+            }
+
             @Override
-            public String asString(int tabs) {
-                return name.asString(tabs);
+            protected Type computeType(int scope, FieldSymbolTable fieldSymbolTable, MethodSymbolTable methodSymbolTable) throws TypeCheckException {
+                return name.typeCheck(scope, fieldSymbolTable, methodSymbolTable);
             }
 
             @Override
-            public Type typeCheck(int scope, Map<String, FieldInformation> fieldSymbolTable, Map<String, MethodInformation> methodSymbolTable) throws TypeCheckException {
-                return name.typeCheck(scope, fieldSymbolTable, methodSymbolTable).getFirst();
+            public Node compile(int scope, Layout layout) throws TypeCheckException {
+                return name.compile(scope, layout).load();
             }
         };
     }
 
     static Expr simpleInvocation(String id) {
-        return new Expr() {
+        return new TypedExpr() {
             @Override
-            public String asString(int tabs) {
-                return id + "()";
+            public void appendTo(Appendable out, int tabs) throws IOException {
+                out.append(id).append("()");
             }
 
             @Override
-            public Type typeCheck(int scope, Map<String, FieldInformation> fieldSymbolTable, Map<String, MethodInformation> methodSymbolTable) throws TypeCheckException {
-                if (!methodSymbolTable.containsKey(id)) {
-                    throw undeclaredError(id);
+            protected Type computeType(int scope, FieldSymbolTable fieldSymbolTable, MethodSymbolTable methodSymbolTable) throws TypeCheckException {
+                MethodInformation methodInformation = ExprRules.invoked(id, methodSymbolTable);
+                if (methodInformation.isArgsNotValid(null, scope, fieldSymbolTable, methodSymbolTable)) {
+                    throw ExprRules.invalidArguments(asString(0));
                 }
-                if (methodSymbolTable.get(id).isArgsNotValid(null, scope, fieldSymbolTable, methodSymbolTable)) {
-                    throw TypeCheckException.withFault("Error: Method invocation arguments are invalid for " + asString(0));
-                }
-                return methodSymbolTable.get(id).getType();
+                return methodInformation.getType();
+            }
+
+            @Override
+            public Node compile(int scope, Layout layout) throws TypeCheckException {
+                return ExprRules.invocation(ExprRules.routine(id, layout), Node.NO_ARGS, this);
             }
         };
     }
 
     static Expr invocation(String id, Args args) {
-        return new Expr() {
+        return new TypedExpr() {
             @Override
-            public String asString(int tabs) {
-                return id + "(" + args.asString(tabs) + ")";
+            public void appendTo(Appendable out, int tabs) throws IOException {
+                out.append(id).append('(');
+                args.appendTo(out, tabs);
+                out.append(')');
             }
 
             @Override
-            public Type typeCheck(int scope, Map<String, FieldInformation> fieldSymbolTable, Map<String, MethodInformation> methodSymbolTable) throws TypeCheckException {
-                if (!methodSymbolTable.containsKey(id)) {
-                    throw undeclaredError(id);
+            protected Type computeType(int scope, FieldSymbolTable fieldSymbolTable, MethodSymbolTable methodSymbolTable) throws TypeCheckException {
+                MethodInformation methodInformation = ExprRules.invoked(id, methodSymbolTable);
+                if (methodInformation.isArgsNotValid(args, scope, fieldSymbolTable, methodSymbolTable)) {
+                    throw ExprRules.invalidArguments(asString(0));
                 }
-                if (methodSymbolTable.get(id).isArgsNotValid(args, scope, fieldSymbolTable, methodSymbolTable)) {
-                    throw TypeCheckException.withFault("Error: Method invocation arguments are invalid for " + asString(0));
-                }
-                return methodSymbolTable.get(id).getType();
+                return methodInformation.getType();
+            }
+
+            @Override
+            public Node compile(int scope, Layout layout) throws TypeCheckException {
+                Routine routine = ExprRules.routine(id, layout);
+                return ExprRules.invocation(routine, args.compile(scope, layout), this);
             }
         };
     }
 
     static Expr intlit(int integer) {
-        return new Expr() {
+        return new TypedExpr() {
             @Override
-            public String asString(int tabs) {
-                return integer + "";
+            public void appendTo(Appendable out, int tabs) throws IOException {
+                out.append(String.valueOf(integer));
             }
 
             @Override
-            public Type typeCheck(int scope, Map<String, FieldInformation> fieldSymbolTable, Map<String, MethodInformation> methodSymbolTable) throws TypeCheckException {
+            protected Type computeType(int scope, FieldSymbolTable fieldSymbolTable, MethodSymbolTable methodSymbolTable) throws TypeCheckException {
                 return Types.INTLIT;
             }
+
+            @Override
+            public Node compile(int scope, Layout layout) {
+                return Node.intConstant(integer);
+            }
         };
     }
 
     static Expr charlit(String character) {
-        return new Expr() {
+        return new TypedExpr() {
             @Override
-            public String asString(int tabs) {
-                return character;
+            public void appendTo(Appendable out, int tabs) throws IOException {
+                out.append(character);
             }
 
             @Override
-            public Type typeCheck(int scope, Map<String, FieldInformation> fieldSymbolTable, Map<String, MethodInformation> methodSymbolTable) throws TypeCheckException {
+            protected Type computeType(int scope, FieldSymbolTable fieldSymbolTable, MethodSymbolTable methodSymbolTable) throws TypeCheckException {
                 return Types.CHARLIT;
             }
+
+            @Override
+            public Node compile(int scope, Layout layout) {
+                return Node.charConstant(Literals.charValue(character));
+            }
         };
     }
 
     static Expr strlit(String string) {
-        return new Expr() {
+        return new TypedExpr() {
             @Override
-            public String asString(int tabs) {
-                return string;
+            public void appendTo(Appendable out, int tabs) throws IOException {
+                out.append(string);
             }
 
             @Override
-            public Type typeCheck(int scope, Map<String, FieldInformation> fieldSymbolTable, Map<String, MethodInformation> methodSymbolTable) throws TypeCheckException {
+            protected Type computeType(int scope, FieldSymbolTable fieldSymbolTable, MethodSymbolTable methodSymbolTable) throws TypeCheckException {
                 return Types.STR;
             }
+
+            @Override
+            public Node compile(int scope, Layout layout) {
+                return Node.stringConstant(Literals.stringValue(string));
+            }
         };
     }
 
     static Expr floatlit(double floatingPoint) {
-        return new Expr() {
+        return new TypedExpr() {
             @Override
-            public String asString(int tabs) {
-                return floatingPoint + "";
+            public void appendTo(Appendable out, int tabs) throws IOException {
+                out.append(String.valueOf(floatingPoint));
             }
 
             @Override
-            public Type typeCheck(int scope, Map<String, FieldInformation> fieldSymbolTable, Map<String, MethodInformation> methodSymbolTable) throws TypeCheckException {
+            protected Type computeType(int scope, FieldSymbolTable fieldSymbolTable, MethodSymbolTable methodSymbolTable) throws TypeCheckException {
                 return Types.FLOATLIT;
             }
+
+            @Override
+            public Node compile(int scope, Layout layout) {
+                return Node.floatConstant(floatingPoint);
+            }
         };
     }
 
     static Expr boollit(boolean value) {
-        return new Expr() {
+        return new TypedExpr() {
             @Override
-            public String asString(int tabs) {
-                return value + "";
+            public void appendTo(Appendable out, int tabs) throws IOException {
+                out.append(String.valueOf(value));
             }
 
             @Override
-            public Type typeCheck(int scope, Map<String, FieldInformation> fieldSymbolTable, Map<String, MethodInformation> methodSymbolTable) throws TypeCheckException {
+            protected Type computeType(int scope, FieldSymbolTable fieldSymbolTable, MethodSymbolTable methodSymbolTable) throws TypeCheckException {
                 return Types.BOOLLIT;
             }
+
+            @Override
+            public Node compile(int scope, Layout layout) {
+                return Node.boolConstant(value);
+            }
         };
     }
 
     static Expr parenthesized(Expr expr) {
-        return new Expr() {
+        return new TypedExpr() {
             @Override
-            public String asString(int tabs) {
-                return "(" + expr.asString(tabs) + ")";
+            public void appendTo(Appendable out, int tabs) throws IOException {
+                out.append('(');
+                expr.appendTo(out, tabs);
+                out.append(')');
             }
 
             @Override
-            public Type typeCheck(int scope, Map<String, FieldInformation> fieldSymbolTable, Map<String, MethodInformation> methodSymbolTable) throws TypeCheckException {
+            protected Type computeType(int scope, FieldSymbolTable fieldSymbolTable, MethodSymbolTable methodSymbolTable) throws TypeCheckException {
                 return expr.typeCheck(scope, fieldSymbolTable, methodSymbolTable);
             }
+
+            @Override
+            public Node compile(int scope, Layout layout) throws TypeCheckException {
+                return expr.compile(scope, layout);
+            }
         };
     }
 
     static Expr not(Expr expr) {
-        return new Expr() {
+        return new TypedExpr() {
             @Override
-            public String asString(int tabs) {
-                return "~" + expr.asString(tabs);
+            public void appendTo(Appendable out, int tabs) throws IOException {
+                out.append('~');
+                expr.appendTo(out, tabs);
             }
 
             @Override
-            public Type typeCheck(int scope, Map<String, FieldInformation> fieldSymbolTable, Map<String, MethodInformation> methodSymbolTable) throws TypeCheckException {
-                Type exprType = expr.typeCheck(scope, fieldSymbolTable, methodSymbolTable);
-                if (exprType != Types.BOOLLIT && exprType != Types.INTLIT) {
-                    throw TypeCheckException.withFault("Error: Not operation only applicable on bool (or coerced to bool)");
-                }
-                return Types.BOOLLIT;
+            protected Type computeType(int scope, FieldSymbolTable fieldSymbolTable, MethodSymbolTable methodSymbolTable) throws TypeCheckException {
+                return ExprRules.not(expr.typeCheck(scope, fieldSymbolTable, methodSymbolTable));
+            }
+
+            @Override
+            public Node compile(int scope, Layout layout) throws TypeCheckException {
+                Node operand = expr.compile(scope, layout);
+                ExprRules.not(operand.getType());
+                return Node.not(operand);
             }
         };
     }
 
     static Expr minus(Expr expr) {
-        return new Expr() {
+        return new TypedExpr() {
             @Override
-            public String asString(int tabs) {
-                return "-" + expr.asString(tabs);
+            public void appendTo(Appendable out, int tabs) throws IOException {
+                out.append('-');
+                expr.appendTo(out, tabs);
             }
 
             @Override
-            public Type typeCheck(int scope, Map<String, FieldInformation> fieldSymbolTable, Map<String, MethodInformation> methodSymbolTable) throws TypeCheckException {
-                Type exprType = expr.typeCheck(scope, fieldSymbolTable, methodSymbolTable);
-                if (exprType != Types.INTLIT && exprType != Types.FLOATLIT) {
-                    throw TypeCheckException.withFault("Error: Negative operation only applicable on int or float");
-                }
-                return exprType;
+            protected Type computeType(int scope, FieldSymbolTable fieldSymbolTable, MethodSymbolTable methodSymbolTable) throws TypeCheckException {
+                return ExprRules.minus(expr.typeCheck(scope, fieldSymbolTable, methodSymbolTable));
+            }
+
+            @Override
+            public Node compile(int scope, Layout layout) throws TypeCheckException {
+                Node operand = expr.compile(scope, layout);
+                ExprRules.minus(operand.getType());
+                return Node.negate(operand);
             }
         };
     }
 
     static Expr plus(Expr expr) {
-        return new Expr() {
+        return new TypedExpr() {
             @Override
-            public String asString(int tabs) {
-                return "+" + expr.asString(tabs);
+            public void appendTo(Appendable out, int tabs) throws IOException {
+                out.append('+');
+                expr.appendTo(out, tabs);
             }
 
             @Override
-            public Type typeCheck(int scope, Map<String, FieldInformation> fieldSymbolTable, Map<String, MethodInformation> methodSymbolTable) throws TypeCheckException {
-                Type exprType = expr.typeCheck(scope, fieldSymbolTable, methodSymbolTable);
-                if (exprType != Types.INTLIT && exprType != Types.FLOATLIT) {
-                    throw TypeCheckException.withFault("Error: Positive operation only applicable on int or float");
-                }
-                return exprType;
+            protected Type computeType(int scope, FieldSymbolTable fieldSymbolTable, MethodSymbolTable methodSymbolTable) throws TypeCheckException {
+                return ExprRules.plus(expr.typeCheck(scope, fieldSymbolTable, methodSymbolTable));
+            }
+
+            @Override
+            public Node compile(int scope, Layout layout) throws TypeCheckException {
+                Node operand = expr.compile(scope, layout);
+                ExprRules.plus(operand.getType());
+                return operand;
             }
         };
     }
 
     static Expr casting(Type type, Expr expr) {
-        return new Expr() {
+        return new TypedExpr() {
             @Override
-            public String asString(int tabs) {
-                return "(" + type.asString(tabs) + ") " + expr.asString(tabs);
+            public void appendTo(Appendable out, int tabs) throws IOException {
+                out.append('(');
+                type.appendTo(out, tabs);
+                out.append(") ");
+                expr.appendTo(out, tabs);
             }
 
             @Override
-            public Type typeCheck(int scope, Map<String, FieldInformation> fieldSymbolTable, Map<String, MethodInformation> methodSymbolTable) throws TypeCheckException {
-                Type exprType = expr.typeCheck(scope, fieldSymbolTable, methodSymbolTable);
-                if (exprType == Types.INTLIT && type != Types.INTLIT && type != Types.BOOLLIT && type != Types.FLOATLIT) {
-                    throw TypeCheckException.withFault("Error: Can't cast type " + type.getType() + " to type int");
-                } else if (exprType == Types.FLOATLIT && type != Types.FLOATLIT) {
-                    throw TypeCheckException.withFault("Error: Can't cast type " + type.getType() + " to type float");
-                } else if (exprType == Types.BOOLLIT && type != Types.BOOLLIT) {
-                    throw TypeCheckException.withFault("Error: Can't cast type " + type.getType() + " to type bool");
-                } else if (exprType == Types.CHARLIT && type != Types.CHARLIT) {
-                    throw TypeCheckException.withFault("Error: Can't cast type " + type.getType() + " to type char");
-                } else if (!exprType.isArray() && type == Types.STR) {
-                    throw TypeCheckException.withFault("Error: Can't cast array to type String");
-                }
-                return type;
+            protected Type computeType(int scope, FieldSymbolTable fieldSymbolTable, MethodSymbolTable methodSymbolTable) throws TypeCheckException {
+                return ExprRules.casting(type, expr.typeCheck(scope, fieldSymbolTable, methodSymbolTable));
+            }
+
+            @Override
+            public Node compile(int scope, Layout layout) throws TypeCheckException {
+                Node operand = expr.compile(scope, layout);
+                return Node.cast(ExprRules.casting(type, operand.getType()), operand);
             }
         };
     }
 
     static Expr binaryOp(BinaryOp binaryOp) {
-        return new Expr() {
+        return new TypedExpr() {
             @Override
-            public String asString(int tabs) {
-                return binaryOp.asString(tabs);
+            public void appendTo(Appendable out, int tabs) throws IOException {
+                binaryOp.appendTo(out, tabs);
             }
 
             @Override
-            public Type typeCheck(int scope, Map<String, FieldInformation> fieldSymbolTable, Map<String, MethodInformation> methodSymbolTable) throws TypeCheckException {
+            protected Type computeType(int scope, FieldSymbolTable fieldSymbolTable, MethodSymbolTable methodSymbolTable) throws TypeCheckException {
                 return binaryOp.typeCheck(scope, fieldSymbolTable, methodSymbolTable);
             }
+
+            @Override
+            public Node compile(int scope, Layout layout) throws TypeCheckException {
+                return binaryOp.compile(scope, layout);
+            }
         };
     }
 
     static Expr ternary(Expr expr, Expr exprTrue, Expr exprFalse) {
-        return new Expr() {
+        return new TypedExpr() {
             @Override
-            public String asString(int tabs) {
-                return "(" + expr.asString(tabs) + ") ? " + exprTrue.asString(tabs) + " : " + exprFalse.asString(tabs) + ")";
+            public void appendTo(Appendable out, int tabs) throws IOException {
+                out.append('(');
+                expr.appendTo(out, tabs);
+                out.append(") ? ");
+                exprTrue.appendTo(out, tabs);
+                out.append(" : ");
+                exprFalse.appendTo(out, tabs);
+                out.append(')');
             }
 
             @Override
-            public Type typeCheck(int scope, Map<String, FieldInformation> fieldSymbolTable, Map<String, MethodInformation> methodSymbolTable) throws TypeCheckException {
+            protected Type computeType(int scope, FieldSymbolTable fieldSymbolTable, MethodSymbolTable methodSymbolTable) throws TypeCheckException {
                 Type exprType = expr.typeCheck(scope, fieldSymbolTable, methodSymbolTable);
                 Type exprTrueType = exprTrue.typeCheck(scope, fieldSymbolTable, methodSymbolTable);
                 Type exprFalseType = exprFalse.typeCheck(scope, fieldSymbolTable, methodSymbolTable);
-                if (exprType != Types.BOOLLIT) {
-                    throw TypeCheckException.withFault("Error: Ternary can only be performed on bool expr");
-                }
-                if (!exprTrueType.equals(exprFalseType)) {
-                    throw TypeCheckException.withFault("Error: Ternary must have each conditional be the same type");
-                }
-                return exprTrueType;
+                return ExprRules.ternary(exprType, exprTrueType, exprFalseType);
+            }
+
+            @Override
+            public Node compile(int scope, Layout layout) throws TypeCheckException {
+                Node condition = expr.compile(scope, layout);
+                Node whenTrue = exprTrue.compile(scope, layout);
+                Node whenFalse = exprFalse.compile(scope, layout);
+                ExprRules.ternary(condition.getType(), whenTrue.getType(), whenFalse.getType());
+                return Node.ternary(condition, whenTrue, whenFalse);
             }
         };
     }
+
+    /**
+     * The type this expression resolved to when it was last successfully type checked, or null if it has not been.
+     */
+    Type getType();
 }
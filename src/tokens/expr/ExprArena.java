@@ -0,0 +1,440 @@
+package tokens.expr;
+
+import execution.Layout;
+import execution.Node;
+import execution.Routine;
+import information.FieldSymbolTable;
+import information.MethodInformation;
+import information.MethodSymbolTable;
+import information.Resolution;
+import tokens.lexeme.Type;
+import tokens.lexeme.Types;
+import tokens.methods.args.Args;
+import type_checking.TypeCheckException;
+import utils.Literals;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import static type_checking.TypeCheckException.undeclaredError;
+
+/**
+ * A compact store for the expressions of one program. Instead of an object per node, every node is a slot in a few
+ * parallel primitive arrays: its kind, up to three int operands and its cached type. Operands hold child node
+ * indices or literal bits directly; identifiers, strings and argument lists live in a shared constant pool and are
+ * referred to by index. Nodes are built bottom-up with the factory methods below, which mirror those on
+ * {@link Expr} but return node indices, and a node is handed to the rest of the tree through a {@link #view(int) view},
+ * which is only needed for the root of each expression.
+ *
+ * Building is single threaded. Once built, views over the same arena may be type checked from several threads at
+ * once as long as they do not share nodes.
+ */
+public final class ExprArena {
+    private static final byte SIMPLE = 0;
+    private static final byte ELEMENT = 1;
+    private static final byte SIMPLE_INVOCATION = 2;
+    private static final byte INVOCATION = 3;
+    private static final byte INTLIT = 4;
+    private static final byte CHARLIT = 5;
+    private static final byte STRLIT = 6;
+    private static final byte FLOATLIT = 7;
+    private static final byte BOOLLIT = 8;
+    private static final byte PARENTHESIZED = 9;
+    private static final byte NOT = 10;
+    private static final byte MINUS = 11;
+    private static final byte PLUS = 12;
+    private static final byte CASTING = 13;
+    private static final byte BINARY_OP = 14;
+    private static final byte TERNARY = 15;
+
+    private static final int INITIAL_CAPACITY = 256;
+    private static final int MIN_CAPACITY = 16;
+    private static final Operator[] OPERATORS = Operator.values();
+
+    public static ExprArena create() {
+        return new ExprArena(INITIAL_CAPACITY);
+    }
+
+    /**
+     * An arena with room for about the given number of nodes before it has to grow, for one that only holds a small
+     * part of a program.
+     */
+    public static ExprArena withCapacity(int nodes) {
+        return new ExprArena(Math.max(MIN_CAPACITY, nodes));
+    }
+
+    private byte[] kinds;
+    private int[] first;
+    private int[] second;
+    private int[] third;
+    // The id of each node's type plus one once it has been checked, so that zero means unchecked.
+    private byte[] types;
+    private int size;
+    private Object[] constants;
+    private int constantCount;
+
+    private ExprArena(int capacity) {
+        this.kinds = new byte[capacity];
+        this.first = new int[capacity];
+        this.second = new int[capacity];
+        this.third = new int[capacity];
+        this.types = new byte[capacity];
+        this.constants = new Object[capacity];
+    }
+
+    /**
+     * A variable, equivalent to {@code Expr.simple(Name.simple(id))}.
+     */
+    public int simple(String id) {
+        return add(SIMPLE, constant(id), 0, 0);
+    }
+
+    /**
+     * An array element, equivalent to {@code Expr.simple(Name.array(id, index))}.
+     */
+    public int element(String id, int index) {
+        return add(ELEMENT, constant(id), index, 0);
+    }
+
+    public int simpleInvocation(String id) {
+        return add(SIMPLE_INVOCATION, constant(id), 0, 0);
+    }
+
+    public int invocation(String id, Args args) {
+        return add(INVOCATION, constant(id), constant(args), 0);
+    }
+
+    public int intlit(int integer) {
+        return add(INTLIT, integer, 0, 0);
+    }
+
+    public int charlit(String character) {
+        return add(CHARLIT, constant(character), 0, 0);
+    }
+
+    public int strlit(String string) {
+        return add(STRLIT, constant(string), 0, 0);
+    }
+
+    public int floatlit(double floatingPoint) {
+        long bits = Double.doubleToRawLongBits(floatingPoint);
+        return add(FLOATLIT, (int) (bits >>> 32), (int) bits, 0);
+    }
+
+    public int boollit(boolean value) {
+        return add(BOOLLIT, value ? 1 : 0, 0, 0);
+    }
+
+    public int parenthesized(int expr) {
+        return add(PARENTHESIZED, expr, 0, 0);
+    }
+
+    public int not(int expr) {
+        return add(NOT, expr, 0, 0);
+    }
+
+    public int minus(int expr) {
+        return add(MINUS, expr, 0, 0);
+    }
+
+    public int plus(int expr) {
+        return add(PLUS, expr, 0, 0);
+    }
+
+    public int casting(Type type, int expr) {
+        return add(CASTING, type.getId(), expr, 0);
+    }
+
+    public int binaryOp(int expr1, Operator operator, int expr2) {
+        return add(BINARY_OP, expr1, expr2, operator.ordinal());
+    }
+
+    public int ternary(int expr, int exprTrue, int exprFalse) {
+        return add(TERNARY, expr, exprTrue, exprFalse);
+    }
+
+    /**
+     * Returns an {@link Expr} backed by the given node, for handing an expression to the rest of the tree.
+     */
+    public Expr view(int node) {
+        return new View(this, node);
+    }
+
+    /**
+     * The number of nodes stored.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Releases the spare capacity left over from building, once no more nodes will be added.
+     */
+    public void trim() {
+        kinds = Arrays.copyOf(kinds, size);
+        first = Arrays.copyOf(first, size);
+        second = Arrays.copyOf(second, size);
+        third = Arrays.copyOf(third, size);
+        types = Arrays.copyOf(types, size);
+        constants = Arrays.copyOf(constants, constantCount);
+    }
+
+    private int add(byte kind, int firstOperand, int secondOperand, int thirdOperand) {
+        if (size == kinds.length) {
+            int capacity = Math.max(MIN_CAPACITY, size << 1);
+            kinds = Arrays.copyOf(kinds, capacity);
+            first = Arrays.copyOf(first, capacity);
+            second = Arrays.copyOf(second, capacity);
+            third = Arrays.copyOf(third, capacity);
+            types = Arrays.copyOf(types, capacity);
+        }
+        kinds[size] = kind;
+        first[size] = firstOperand;
+        second[size] = secondOperand;
+        third[size] = thirdOperand;
+        return size++;
+    }
+
+    private int constant(Object value) {
+        if (constantCount == constants.length) {
+            constants = Arrays.copyOf(constants, Math.max(MIN_CAPACITY, constantCount << 1));
+        }
+        constants[constantCount] = value;
+        return constantCount++;
+    }
+
+    private void appendTo(Appendable out, int node, int tabs) throws IOException {
+        switch (kinds[node]) {
+            case SIMPLE:
+                out.append((String) constants[first[node]]);
+                break;
+            case ELEMENT:
+                out.append((String) constants[first[node]]).append('[');
+                appendTo(out, second[node], tabs);
+                out.append(']');
+                break;
+            case SIMPLE_INVOCATION:
+                out.append((String) constants[first[node]]).append("()");
+                break;
+            case INVOCATION:
+                out.append((String) constants[first[node]]).append('(');
+                ((Args) constants[second[node]]).appendTo(out, tabs);
+                out.append(')');
+                break;
+            case INTLIT:
+                out.append(String.valueOf(first[node]));
+                break;
+            case CHARLIT:
+            case STRLIT:
+                out.append((String) constants[first[node]]);
+                break;
+            case FLOATLIT:
+                out.append(String.valueOf(Double.longBitsToDouble((long) first[node] << 32 | second[node] & 0xFFFFFFFFL)));
+                break;
+            case BOOLLIT:
+                out.append(String.valueOf(first[node] != 0));
+                break;
+            case PARENTHESIZED:
+                out.append('(');
+                appendTo(out, first[node], tabs);
+                out.append(')');
+                break;
+            case NOT:
+                out.append('~');
+                appendTo(out, first[node], tabs);
+                break;
+            case MINUS:
+                out.append('-');
+                appendTo(out, first[node], tabs);
+                break;
+            case PLUS:
+                out.append('+');
+                appendTo(out, first[node], tabs);
+                break;
+            case CASTING:
+                out.append('(');
+                Types.byId(first[node]).appendTo(out, tabs);
+                out.append(") ");
+                appendTo(out, second[node], tabs);
+                break;
+            case BINARY_OP:
+                out.append('(');
+                appendTo(out, first[node], tabs);
+                out.append(' ').append(OPERATORS[third[node]].getSymbol()).append(' ');
+                appendTo(out, second[node], tabs);
+                out.append(')');
+                break;
+            default:
+                out.append('(');
+                appendTo(out, first[node], tabs);
+                out.append(") ? ");
+                appendTo(out, second[node], tabs);
+                out.append(" : ");
+                appendTo(out, third[node], tabs);
+                out.append(')');
+                break;
+        }
+    }
+
+    private Type getType(int node) {
+        int type = types[node];
+        return type == 0 ? null : Types.byId(type - 1);
+    }
+
+    private Type typeCheck(int node, int scope, FieldSymbolTable fieldSymbolTable, MethodSymbolTable methodSymbolTable) throws TypeCheckException {
+        Type type = getType(node);
+        if (type == null) {
+            type = computeType(node, scope, fieldSymbolTable, methodSymbolTable);
+            types[node] = (byte) (type.getId() + 1);
+        }
+        return type;
+    }
+
+    private Type computeType(int node, int scope, FieldSymbolTable fieldSymbolTable, MethodSymbolTable methodSymbolTable) throws TypeCheckException {
+        switch (kinds[node]) {
+            case SIMPLE:
+                return Resolution.type(resolve(node, scope, fieldSymbolTable));
+            case ELEMENT:
+                return Resolution.type(Resolution.element(resolve(node, scope, fieldSymbolTable)));
+            case SIMPLE_INVOCATION:
+            case INVOCATION: {
+                MethodInformation methodInformation = ExprRules.invoked((String) constants[first[node]], methodSymbolTable);
+                Args args = kinds[node] == INVOCATION ? (Args) constants[second[node]] : null;
+                if (methodInformation.isArgsNotValid(args, scope, fieldSymbolTable, methodSymbolTable)) {
+                    throw ExprRules.invalidArguments(view(node).asString(0));
+                }
+                return methodInformation.getType();
+            }
+            case INTLIT:
+                return Types.INTLIT;
+            case CHARLIT:
+                return Types.CHARLIT;
+            case STRLIT:
+                return Types.STR;
+            case FLOATLIT:
+                return Types.FLOATLIT;
+            case BOOLLIT:
+                return Types.BOOLLIT;
+            case PARENTHESIZED:
+                return typeCheck(first[node], scope, fieldSymbolTable, methodSymbolTable);
+            case NOT:
+                return ExprRules.not(typeCheck(first[node], scope, fieldSymbolTable, methodSymbolTable));
+            case MINUS:
+                return ExprRules.minus(typeCheck(first[node], scope, fieldSymbolTable, methodSymbolTable));
+            case PLUS:
+                return ExprRules.plus(typeCheck(first[node], scope, fieldSymbolTable, methodSymbolTable));
+            case CASTING:
+                return ExprRules.casting(Types.byId(first[node]), typeCheck(second[node], scope, fieldSymbolTable, methodSymbolTable));
+            case BINARY_OP: {
+                Type expr1Type = typeCheck(first[node], scope, fieldSymbolTable, methodSymbolTable);
+                Type expr2Type = typeCheck(second[node], scope, fieldSymbolTable, methodSymbolTable);
+                return ExprRules.binary(OPERATORS[third[node]], expr1Type, expr2Type);
+            }
+            default: {
+                Type exprType = typeCheck(first[node], scope, fieldSymbolTable, methodSymbolTable);
+                Type exprTrueType = typeCheck(second[node], scope, fieldSymbolTable, methodSymbolTable);
+                Type exprFalseType = typeCheck(third[node], scope, fieldSymbolTable, methodSymbolTable);
+                return ExprRules.ternary(exprType, exprTrueType, exprFalseType);
+            }
+        }
+    }
+
+    private Node compile(int node, int scope, Layout layout) throws TypeCheckException {
+        switch (kinds[node]) {
+            case SIMPLE:
+                return Node.variable(layout.resolve((String) constants[first[node]], scope));
+            case ELEMENT:
+                return Node.element(layout.resolveArray((String) constants[first[node]], scope), compile(second[node], scope, layout));
+            case SIMPLE_INVOCATION:
+            case INVOCATION: {
+                Routine routine = ExprRules.routine((String) constants[first[node]], layout);
+                Node[] args = kinds[node] == INVOCATION ? ((Args) constants[second[node]]).compile(scope, layout) : Node.NO_ARGS;
+                return ExprRules.invocation(routine, args, view(node));
+            }
+            case INTLIT:
+                return Node.intConstant(first[node]);
+            case CHARLIT:
+                return Node.charConstant(Literals.charValue((String) constants[first[node]]));
+            case STRLIT:
+                return Node.stringConstant(Literals.stringValue((String) constants[first[node]]));
+            case FLOATLIT:
+                return Node.floatConstant(Double.longBitsToDouble((long) first[node] << 32 | second[node] & 0xFFFFFFFFL));
+            case BOOLLIT:
+                return Node.boolConstant(first[node] != 0);
+            case PARENTHESIZED:
+                return compile(first[node], scope, layout);
+            case NOT: {
+                Node operand = compile(first[node], scope, layout);
+                ExprRules.not(operand.getType());
+                return Node.not(operand);
+            }
+            case MINUS: {
+                Node operand = compile(first[node], scope, layout);
+                ExprRules.minus(operand.getType());
+                return Node.negate(operand);
+            }
+            case PLUS: {
+                Node operand = compile(first[node], scope, layout);
+                ExprRules.plus(operand.getType());
+                return operand;
+            }
+            case CASTING: {
+                Node operand = compile(second[node], scope, layout);
+                Type type = ExprRules.casting(Types.byId(first[node]), operand.getType());
+                return Node.cast(type, operand);
+            }
+            case BINARY_OP: {
+                Node left = compile(first[node], scope, layout);
+                Node right = compile(second[node], scope, layout);
+                ExprRules.binary(OPERATORS[third[node]], left.getType(), right.getType());
+                return Node.binary(OPERATORS[third[node]], left, right);
+            }
+            default: {
+                Node condition = compile(first[node], scope, layout);
+                Node whenTrue = compile(second[node], scope, layout);
+                Node whenFalse = compile(third[node], scope, layout);
+                ExprRules.ternary(condition.getType(), whenTrue.getType(), whenFalse.getType());
+                return Node.ternary(condition, whenTrue, whenFalse);
+            }
+        }
+    }
+
+    private int resolve(int node, int scope, FieldSymbolTable fieldSymbolTable) throws TypeCheckException {
+        String id = (String) constants[first[node]];
+        int resolution = fieldSymbolTable.resolve(id, scope);
+        if (resolution == Resolution.UNRESOLVED) {
+            throw undeclaredError(id);
+        }
+        return resolution;
+    }
+
+    private static final class View implements Expr {
+        private final ExprArena arena;
+        private final int node;
+
+        private View(ExprArena arena, int node) {
+            this.arena = arena;
+            this.node = node;
+        }
+
+        @Override
+        public Type getType() {
+            return arena.getType(node);
+        }
+
+        @Override
+        public void appendTo(Appendable out, int tabs) throws IOException {
+            arena.appendTo(out, node, tabs);
+        }
+
+        @Override
+        public Type typeCheck(int scope, FieldSymbolTable fieldSymbolTable, MethodSymbolTable methodSymbolTable) throws TypeCheckException {
+            return arena.typeCheck(node, scope, fieldSymbolTable, methodSymbolTable);
+        }
+
+        @Override
+        public Node compile(int scope, Layout layout) throws TypeCheckException {
+            return arena.compile(node, scope, layout);
+        }
+    }
+}
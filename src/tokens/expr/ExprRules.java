@@ -0,0 +1,111 @@
+package tokens.expr;
+
+import execution.Layout;
+import execution.Node;
+import execution.Routine;
+import information.MethodInformation;
+import information.MethodSymbolTable;
+import tokens.lexeme.Type;
+import tokens.lexeme.Types;
+import type_checking.TypeCheckException;
+import type_checking.TypeRules;
+
+import static type_checking.TypeCheckException.undeclaredError;
+
+/**
+ * How each kind of expression is typed from the types of its operands, shared by the object expressions built by the
+ * factories on {@link Expr} and the compact ones stored in an {@link ExprArena}, so both report the same faults. The
+ * same rules are applied again when an expression is compiled for execution, to the types of its compiled operands,
+ * since array indexes are compiled without ever having been type checked.
+ */
+final class ExprRules {
+    private ExprRules() {
+    }
+
+    static MethodInformation invoked(String id, MethodSymbolTable methodSymbolTable) throws TypeCheckException {
+        MethodInformation methodInformation = methodSymbolTable.get(id);
+        if (methodInformation == null) {
+            throw undeclaredError(id);
+        }
+        return methodInformation;
+    }
+
+    static Routine routine(String id, Layout layout) throws TypeCheckException {
+        Routine routine = layout.routine(id);
+        if (routine == null) {
+            throw undeclaredError(id);
+        }
+        return routine;
+    }
+
+    /**
+     * The invocation of a compiled method, with arguments that must be assignable to its parameters.
+     */
+    static Node invocation(Routine routine, Node[] args, Expr invocation) throws TypeCheckException {
+        if (args.length > routine.getArgumentCount()) {
+            throw invalidArguments(invocation.asString(0));
+        }
+        for (int i = 0; i < args.length; i++) {
+            if (!TypeRules.isAssignable(routine.getArgumentType(i), args[i].getType())) {
+                throw invalidArguments(invocation.asString(0));
+            }
+        }
+        return Node.invocation(routine, args);
+    }
+
+    static TypeCheckException invalidArguments(String invocation) {
+        return TypeCheckException.withFault("Error: Method invocation arguments are invalid for " + invocation);
+    }
+
+    static Type not(Type exprType) throws TypeCheckException {
+        if (!TypeRules.isConditional(exprType)) {
+            throw TypeCheckException.withFault("Error: Not operation only applicable on bool (or coerced to bool)");
+        }
+        return Types.BOOLLIT;
+    }
+
+    static Type minus(Type exprType) throws TypeCheckException {
+        if (!TypeRules.isNumeric(exprType)) {
+            throw TypeCheckException.withFault("Error: Negative operation only applicable on int or float");
+        }
+        return exprType;
+    }
+
+    static Type plus(Type exprType) throws TypeCheckException {
+        if (!TypeRules.isNumeric(exprType)) {
+            throw TypeCheckException.withFault("Error: Positive operation only applicable on int or float");
+        }
+        return exprType;
+    }
+
+    static Type casting(Type type, Type exprType) throws TypeCheckException {
+        if (!TypeRules.isCastable(type, exprType)) {
+            if (exprType == Types.STR || exprType == Types.VOID) {
+                throw TypeCheckException.withFault("Error: Can't cast array to type String");
+            }
+            throw TypeCheckException.withFault("Error: Can't cast type " + type.getType() + " to type " + exprType.getType());
+        }
+        return type;
+    }
+
+    static Type binary(Operator operator, Type expr1Type, Type expr2Type) throws TypeCheckException {
+        Type resultType = TypeRules.getBinaryResult(operator, expr1Type, expr2Type);
+        if (resultType == null) {
+            if (operator.isLogical()) {
+                throw TypeCheckException.withFault("Error: Binary operation " + operator.getSymbol() + " can only be performed on bools (or implicitly coerced)");
+            }
+            throw TypeCheckException.withFault("Error: Binary operation " + operator.getSymbol() + " can only be performed on ints and floats");
+        }
+        return resultType;
+    }
+
+    static Type ternary(Type exprType, Type exprTrueType, Type exprFalseType) throws TypeCheckException {
+        if (exprType != Types.BOOLLIT) {
+            throw TypeCheckException.withFault("Error: Ternary can only be performed on bool expr");
+        }
+        if (exprTrueType != exprFalseType) {
+            throw TypeCheckException.withFault("Error: Ternary must have each conditional be the same type");
+        }
+        return exprTrueType;
+    }
+}
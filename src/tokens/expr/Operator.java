@@ -0,0 +1,38 @@
+package tokens.expr;
+
+public enum Operator {
+    TIMES("*"),
+    DIVIDE("/"),
+    PLUS("+"),
+    MINUS("-"),
+    LESS_THAN("<"),
+    GREATER_THAN(">"),
+    LESS_THAN_OR_EQUAL_TO("<="),
+    GREATER_THAN_OR_EQUAL_TO(">="),
+    EQUAL_TO("=="),
+    NOT_EQUAL_TO("<>"),
+    DOUBLE_OR("||"),
+    DOUBLE_AND("&&");
+
+    private final String symbol;
+
+    Operator(String symbol) {
+        this.symbol = symbol;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public boolean isArithmetic() {
+        return this == TIMES || this == DIVIDE || this == PLUS || this == MINUS;
+    }
+
+    public boolean isRelational() {
+        return !isArithmetic() && !isLogical();
+    }
+
+    public boolean isLogical() {
+        return this == DOUBLE_OR || this == DOUBLE_AND;
+    }
+}
@@ -1,15 +1,18 @@
 package tokens.expr;
 
-import information.FieldInformation;
-import information.MethodInformation;
+import execution.Compilable;
+import execution.Layout;
+import execution.Node;
+import information.FieldSymbolTable;
+import information.MethodSymbolTable;
 import tokens.NonTerminalToken;
 import tokens.lexeme.Type;
 import type_checking.TypeCheckException;
 import type_checking.TypeCheckable;
 
-import java.util.Map;
+import java.io.IOException;
 
-public final class OptionalExpr implements NonTerminalToken, TypeCheckable<Type> {
+public final class OptionalExpr implements NonTerminalToken, TypeCheckable<Type>, Compilable<Node> {
     public static OptionalExpr shownExpr(Expr expr) {
         return new OptionalExpr(expr, true);
     }
@@ -31,18 +34,23 @@ public final class OptionalExpr implements NonTerminalToken, TypeCheckable<Type>
     }
 
     @Override
-    public String asString(int tabs) {
-        if (!show) {
-            return "";
+    public void appendTo(Appendable out, int tabs) throws IOException {
+        if (show) {
+            out.append(" = ");
+            expr.appendTo(out, tabs);
         }
-        return " = " + expr.asString(tabs);
     }
 
     @Override
-    public Type typeCheck(int scope, Map<String, FieldInformation> fieldSymbolTable, Map<String, MethodInformation> methodSymbolTable) throws TypeCheckException {
+    public Type typeCheck(int scope, FieldSymbolTable fieldSymbolTable, MethodSymbolTable methodSymbolTable) throws TypeCheckException {
         if (expr != null) {
             return expr.typeCheck(scope, fieldSymbolTable, methodSymbolTable);
         }
         return null;
     }
+
+    @Override
+    public Node compile(int scope, Layout layout) throws TypeCheckException {
+        return expr != null ? expr.compile(scope, layout) : null;
+    }
 }
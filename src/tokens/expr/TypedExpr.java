@@ -0,0 +1,29 @@
+package tokens.expr;
+
+import information.FieldSymbolTable;
+import information.MethodSymbolTable;
+import tokens.lexeme.Type;
+import type_checking.TypeCheckException;
+
+/**
+ * The base of every {@link Expr}: it computes its type on the first successful check and keeps it, so checking the
+ * same expression again, or reading its type afterwards, does not walk its subtree again.
+ */
+abstract class TypedExpr implements Expr {
+    private Type type;
+
+    @Override
+    public final Type getType() {
+        return type;
+    }
+
+    @Override
+    public final Type typeCheck(int scope, FieldSymbolTable fieldSymbolTable, MethodSymbolTable methodSymbolTable) throws TypeCheckException {
+        if (type == null) {
+            type = computeType(scope, fieldSymbolTable, methodSymbolTable);
+        }
+        return type;
+    }
+
+    protected abstract Type computeType(int scope, FieldSymbolTable fieldSymbolTable, MethodSymbolTable methodSymbolTable) throws TypeCheckException;
+}
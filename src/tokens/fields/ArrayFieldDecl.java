@@ -1,11 +1,13 @@
 package tokens.fields;
 
-import information.FieldInformation;
-import information.MethodInformation;
+import execution.Layout;
+import execution.Statement;
+import information.FieldSymbolTable;
+import information.MethodSymbolTable;
 import tokens.lexeme.Type;
 import type_checking.TypeCheckException;
 
-import java.util.Map;
+import java.io.IOException;
 
 import static type_checking.TypeCheckException.redeclarationError;
 
@@ -50,19 +52,22 @@ public final class ArrayFieldDecl implements FieldDecl {
     }
 
     @Override
-    public String asString(int tabs) {
-        return type.asString(tabs) + " " + id + "[" + size + "];";
+    public void appendTo(Appendable out, int tabs) throws IOException {
+        type.appendTo(out, tabs);
+        out.append(' ').append(id).append('[').append(String.valueOf(size)).append("];");
     }
 
     @Override
-    public Void typeCheck(int scope, Map<String, FieldInformation> fieldSymbolTable, Map<String, MethodInformation> methodSymbolTable) throws TypeCheckException {
-        if (!fieldSymbolTable.containsKey(id)) {
-            fieldSymbolTable.put(id, FieldInformation.empty());
-        }
-        if (fieldSymbolTable.get(id).isAlreadyDeclaredAtScope(scope)) {
+    public Void typeCheck(int scope, FieldSymbolTable fieldSymbolTable, MethodSymbolTable methodSymbolTable) throws TypeCheckException {
+        if (fieldSymbolTable.isAlreadyDeclaredAtScope(id, scope)) {
             throw redeclarationError(id, scope);
         }
-        fieldSymbolTable.get(id).put(scope, type.asArray(), false);
+        fieldSymbolTable.put(id, scope, type.asArray(), false);
         return null;
     }
+
+    @Override
+    public Statement compile(int scope, Layout layout) {
+        return Statement.declareArray(layout.declare(id, scope, type.asArray()), size);
+    }
 }
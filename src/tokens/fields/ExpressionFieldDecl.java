@@ -1,14 +1,17 @@
 package tokens.fields;
 
-import information.FieldInformation;
-import information.MethodInformation;
+import execution.Layout;
+import execution.Statement;
+import execution.Variable;
+import information.FieldSymbolTable;
+import information.MethodSymbolTable;
 import tokens.expr.OptionalExpr;
 import tokens.lexeme.OptionalLexeme;
 import tokens.lexeme.Type;
-import tokens.lexeme.Types;
 import type_checking.TypeCheckException;
+import type_checking.TypeRules;
 
-import java.util.Map;
+import java.io.IOException;
 
 import static type_checking.TypeCheckException.conversionError;
 import static type_checking.TypeCheckException.redeclarationError;
@@ -62,41 +65,36 @@ public final class ExpressionFieldDecl implements FieldDecl {
     }
 
     @Override
-    public String asString(int tabs) {
-        return optionalFinal.asString(tabs) + (optionalFinal.isShow() ? " " : "")
-                + type.asString(tabs) + " " + id + optionalExpr.asString(tabs) + ";";
+    public void appendTo(Appendable out, int tabs) throws IOException {
+        if (optionalFinal.isShow()) {
+            optionalFinal.appendTo(out, tabs);
+            out.append(' ');
+        }
+        type.appendTo(out, tabs);
+        out.append(' ').append(id);
+        optionalExpr.appendTo(out, tabs);
+        out.append(';');
     }
 
     @Override
-    public Void typeCheck(int scope, Map<String, FieldInformation> fieldSymbolTable, Map<String, MethodInformation> methodSymbolTable) throws TypeCheckException {
-        if (!fieldSymbolTable.containsKey(id)) {
-            fieldSymbolTable.put(id, FieldInformation.empty());
-        }
-        if (fieldSymbolTable.get(id).isAlreadyDeclaredAtScope(scope)) {
+    public Void typeCheck(int scope, FieldSymbolTable fieldSymbolTable, MethodSymbolTable methodSymbolTable) throws TypeCheckException {
+        if (fieldSymbolTable.isAlreadyDeclaredAtScope(id, scope)) {
             throw redeclarationError(id, scope);
         }
-        fieldSymbolTable.get(id).put(scope, type, optionalFinal.isShow());
+        fieldSymbolTable.put(id, scope, type, optionalFinal.isShow());
 
         if (optionalExpr.isShow()) {
             Type exprType = optionalExpr.typeCheck(scope, fieldSymbolTable, methodSymbolTable);
-            if (type == Types.INTLIT) {
-                if (exprType != Types.INTLIT) {
-                    throw conversionError(exprType, "int");
-                }
-            } else if (type == Types.FLOATLIT) {
-                if (exprType != Types.FLOATLIT && exprType != Types.INTLIT) {
-                    throw conversionError(exprType, "float");
-                }
-            } else if (type == Types.BOOLLIT) {
-                if (exprType != Types.BOOLLIT && exprType != Types.INTLIT) {
-                    throw conversionError(exprType, "bool");
-                }
-            } else if (type == Types.CHARLIT) {
-                if (exprType != Types.CHARLIT) {
-                    throw conversionError(exprType, "char");
-                }
+            if (!TypeRules.isAssignable(type, exprType)) {
+                throw conversionError(exprType, type.getType());
             }
         }
         return null;
     }
+
+    @Override
+    public Statement compile(int scope, Layout layout) throws TypeCheckException {
+        Variable variable = layout.declare(id, scope, type);
+        return Statement.declare(variable, optionalExpr.isShow() ? optionalExpr.compile(scope, layout) : null);
+    }
 }
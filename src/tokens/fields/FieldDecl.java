@@ -1,7 +1,9 @@
 package tokens.fields;
 
+import execution.Compilable;
+import execution.Statement;
 import tokens.NonTerminalToken;
 import type_checking.TypeCheckable;
 
-public interface FieldDecl extends NonTerminalToken, TypeCheckable<Void> {
+public interface FieldDecl extends NonTerminalToken, TypeCheckable<Void>, Compilable<Statement> {
 }
@@ -1,18 +1,27 @@
 package tokens.fields;
 
-import information.FieldInformation;
-import information.MethodInformation;
+import execution.Compilable;
+import execution.Layout;
+import execution.Statement;
+import information.FieldSymbolTable;
+import information.MethodSymbolTable;
 import tokens.NonTerminalToken;
+import type_checking.Diagnostics;
 import type_checking.TypeCheckException;
 import type_checking.TypeCheckable;
 import utils.StringHelper;
 
-import java.util.Map;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
-public final class FieldDecls implements NonTerminalToken, TypeCheckable<Void> {
+public final class FieldDecls implements NonTerminalToken, TypeCheckable<Void>, Compilable<Statement> {
     public static final class Builder {
         private FieldDecl fieldDecl = null;
         private FieldDecls fieldDecls = null;
+        private int line;
+        private int column;
 
         public Builder fieldDecl(FieldDecl fieldDecl) {
             this.fieldDecl = fieldDecl;
@@ -24,8 +33,14 @@ public final class FieldDecls implements NonTerminalToken, TypeCheckable<Void> {
             return this;
         }
 
+        public Builder position(int line, int column) {
+            this.line = line;
+            this.column = column;
+            return this;
+        }
+
         public FieldDecls build() {
-            return new FieldDecls(fieldDecl, fieldDecls);
+            return new FieldDecls(fieldDecl, fieldDecls, line, column);
         }
     }
 
@@ -35,23 +50,64 @@ public final class FieldDecls implements NonTerminalToken, TypeCheckable<Void> {
 
     private final FieldDecl fieldDecl;
     private final FieldDecls fieldDecls;
+    private final int line;
+    private final int column;
 
-    private FieldDecls(FieldDecl fieldDecl, FieldDecls fieldDecls) {
+    private FieldDecls(FieldDecl fieldDecl, FieldDecls fieldDecls, int line, int column) {
         this.fieldDecl = fieldDecl;
         this.fieldDecls = fieldDecls;
+        this.line = line;
+        this.column = column;
     }
 
     @Override
-    public String asString(int tabs) {
-        return (fieldDecls == null ? "" : fieldDecls.asString(tabs)) + StringHelper.withTabs(tabs, fieldDecl.asString(tabs) + "\n");
+    public void appendTo(Appendable out, int tabs) throws IOException {
+        for (FieldDecls current : inSourceOrder()) {
+            out.append(StringHelper.tabs(tabs));
+            current.fieldDecl.appendTo(out, tabs);
+            out.append('\n');
+        }
     }
 
     @Override
-    public Void typeCheck(int scope, Map<String, FieldInformation> fieldSymbolTable, Map<String, MethodInformation> methodSymbolTable) throws TypeCheckException {
+    public Void typeCheck(int scope, FieldSymbolTable fieldSymbolTable, MethodSymbolTable methodSymbolTable) throws TypeCheckException {
+        Diagnostics diagnostics = Diagnostics.empty();
         if (fieldDecls != null) {
-            fieldDecls.typeCheck(scope, fieldSymbolTable, methodSymbolTable);
+            try {
+                fieldDecls.typeCheck(scope, fieldSymbolTable, methodSymbolTable);
+            } catch (TypeCheckException e) {
+                diagnostics.add(e);
+            }
+        }
+        try {
+            fieldDecl.typeCheck(scope, fieldSymbolTable, methodSymbolTable);
+        } catch (TypeCheckException e) {
+            diagnostics.add(e, line, column);
         }
-        fieldDecl.typeCheck(scope, fieldSymbolTable, methodSymbolTable);
+        diagnostics.throwIfAny();
         return null;
     }
+
+    /**
+     * Declares the fields in source order, returning the statement that gives each its initial value.
+     */
+    @Override
+    public Statement compile(int scope, Layout layout) throws TypeCheckException {
+        List<Statement> declarations = new ArrayList<>();
+        for (FieldDecls current : inSourceOrder()) {
+            declarations.add(current.fieldDecl.compile(scope, layout));
+        }
+        return Statement.sequence(declarations);
+    }
+
+    private List<FieldDecls> inSourceOrder() {
+        List<FieldDecls> fields = new ArrayList<>();
+        FieldDecls current = this;
+        while (current != null) {
+            fields.add(current);
+            current = current.fieldDecls;
+        }
+        Collections.reverse(fields);
+        return fields;
+    }
 }
@@ -1,25 +1,27 @@
 package tokens.id;
 
-import information.FieldInformation;
-import information.MethodInformation;
+import execution.Compilable;
+import execution.Layout;
+import execution.Place;
+import information.FieldSymbolTable;
+import information.MethodSymbolTable;
+import information.Resolution;
 import tokens.NonTerminalToken;
 import tokens.expr.Expr;
 import tokens.lexeme.Type;
-import tokens.lexeme.Types;
 import type_checking.TypeCheckException;
 import type_checking.TypeCheckable;
-import utils.Pair;
 
-import java.util.Map;
+import java.io.IOException;
 
 import static type_checking.TypeCheckException.undeclaredError;
 
-public interface Name extends NonTerminalToken, TypeCheckable<Pair<Type, Boolean>> {
+public interface Name extends NonTerminalToken, TypeCheckable<Type>, Compilable<Place> {
     static Name simple(String id) {
         return new Name() {
             @Override
-            public String asString(int tabs) {
-                return id;
+            public void appendTo(Appendable out, int tabs) throws IOException {
+                out.append(id);
             }
 
             @Override
@@ -28,12 +30,17 @@ public interface Name extends NonTerminalToken, TypeCheckable<Pair<Type, Boolean
             }
 
             @Override
-            public Pair<Type, Boolean> typeCheck(int scope, Map<String, FieldInformation> fieldSymbolTable, Map<String, MethodInformation> methodSymbolTable) throws TypeCheckException {
-                if (!fieldSymbolTable.containsKey(id) || fieldSymbolTable.get(id).isScopeTooHigh(scope)) {
+            public int resolve(int scope, FieldSymbolTable fieldSymbolTable, MethodSymbolTable methodSymbolTable) throws TypeCheckException {
+                int resolution = fieldSymbolTable.resolve(id, scope);
+                if (resolution == Resolution.UNRESOLVED) {
                     throw undeclaredError(id);
                 }
+                return resolution;
+            }
 
-                return fieldSymbolTable.get(id).getClosestScopeInfo(scope);
+            @Override
+            public Place compile(int scope, Layout layout) throws TypeCheckException {
+                return Place.of(layout.resolve(id, scope));
             }
         };
     }
@@ -41,8 +48,10 @@ public interface Name extends NonTerminalToken, TypeCheckable<Pair<Type, Boolean
     static Name array(String id, Expr expr) {
         return new Name() {
             @Override
-            public String asString(int tabs) {
-                return id + "[" + expr.asString(tabs) + "]";
+            public void appendTo(Appendable out, int tabs) throws IOException {
+                out.append(id).append('[');
+                expr.appendTo(out, tabs);
+                out.append(']');
             }
 
             @Override
@@ -51,27 +60,31 @@ public interface Name extends NonTerminalToken, TypeCheckable<Pair<Type, Boolean
             }
 
             @Override
-            public Pair<Type, Boolean> typeCheck(int scope, Map<String, FieldInformation> fieldSymbolTable, Map<String, MethodInformation> methodSymbolTable) throws TypeCheckException {
-                if (!fieldSymbolTable.containsKey(id) || fieldSymbolTable.get(id).isScopeTooHigh(scope)) {
+            public int resolve(int scope, FieldSymbolTable fieldSymbolTable, MethodSymbolTable methodSymbolTable) throws TypeCheckException {
+                int resolution = fieldSymbolTable.resolve(id, scope);
+                if (resolution == Resolution.UNRESOLVED) {
                     throw undeclaredError(id);
                 }
+                return Resolution.element(resolution);
+            }
 
-                Type type = fieldSymbolTable.get(id).getClosestScopeType(scope);
-                if (type.getType().equals(Types.BOOLLIT.getType())) {
-                    type = Types.BOOLLIT;
-                } else if (type.getType().equals(Types.FLOATLIT.getType())) {
-                    type = Types.FLOATLIT;
-                } else if (type.getType().equals(Types.CHARLIT.getType())) {
-                    type = Types.CHARLIT;
-                } else if (type.getType().equals(Types.INTLIT.getType())) {
-                    type = Types.INTLIT;
-                } else if (type.getType().equals(Types.STR.getType())) {
-                    type = Types.STR;
-                }
-                return Pair.of(type, fieldSymbolTable.get(id).isClosestScopeFinal(scope));
+            @Override
+            public Place compile(int scope, Layout layout) throws TypeCheckException {
+                return Place.element(layout.resolveArray(id, scope), expr.compile(scope, layout));
             }
         };
     }
 
     String getId();
+
+    /**
+     * Resolves this name from the given scope, returning the type it refers to and whether it is final packed as
+     * described by {@link Resolution}.
+     */
+    int resolve(int scope, FieldSymbolTable fieldSymbolTable, MethodSymbolTable methodSymbolTable) throws TypeCheckException;
+
+    @Override
+    default Type typeCheck(int scope, FieldSymbolTable fieldSymbolTable, MethodSymbolTable methodSymbolTable) throws TypeCheckException {
+        return Resolution.type(resolve(scope, fieldSymbolTable, methodSymbolTable));
+    }
 }
@@ -2,6 +2,8 @@ package tokens.lexeme;
 
 import tokens.NonTerminalToken;
 
+import java.io.IOException;
+
 public final class Lexeme implements NonTerminalToken {
     public static Lexeme of(String lexeme) {
         return new Lexeme(lexeme);
@@ -18,7 +20,7 @@ public final class Lexeme implements NonTerminalToken {
     }
 
     @Override
-    public String asString(int tabs) {
-        return lexeme;
+    public void appendTo(Appendable out, int tabs) throws IOException {
+        out.append(lexeme);
     }
 }
@@ -2,6 +2,8 @@ package tokens.lexeme;
 
 import tokens.NonTerminalToken;
 
+import java.io.IOException;
+
 public final class OptionalLexeme implements NonTerminalToken {
     public static OptionalLexeme shown(Lexeme lexeme) {
         return new OptionalLexeme(lexeme, true);
@@ -24,7 +26,9 @@ public final class OptionalLexeme implements NonTerminalToken {
     }
 
     @Override
-    public String asString(int tabs) {
-        return show ? lexeme.asString(tabs) : "";
+    public void appendTo(Appendable out, int tabs) throws IOException {
+        if (show) {
+            lexeme.appendTo(out, tabs);
+        }
     }
 }
@@ -2,49 +2,66 @@ package tokens.lexeme;
 
 import tokens.NonTerminalToken;
 
-import java.util.Objects;
+import java.io.IOException;
 
+/**
+ * A type in the language. Types are interned: {@link Types} holds the only instance of each base type, and each of
+ * those holds the only instance of its array variant, so types can be compared by identity or by id.
+ */
 public final class Type implements NonTerminalToken {
-    public static Type of(String type) {
-        return new Type(type, false);
+    static Type of(String type, int index) {
+        return new Type(type, index);
     }
 
     private final String type;
     private final boolean array;
+    private final int id;
+    private final Type elementType;
+    private final Type arrayType;
 
-    private Type(String type, boolean array) {
+    private Type(String type, int index) {
         this.type = type;
-        this.array = array;
+        this.array = false;
+        this.id = index << 1;
+        this.elementType = this;
+        this.arrayType = new Type(this);
+    }
+
+    private Type(Type elementType) {
+        this.type = elementType.type;
+        this.array = true;
+        this.id = elementType.id | 1;
+        this.elementType = elementType;
+        this.arrayType = this;
     }
 
     public String getType() {
         return type;
     }
 
-    public Type asArray() {
-        return new Type(type, true);
+    /**
+     * A small integer that uniquely identifies this type. The low bit is set for array types, so the id of an
+     * array's element type is the array's id with that bit cleared.
+     */
+    public int getId() {
+        return id;
     }
 
-    public boolean isArray() {
-        return array;
+    public Type asArray() {
+        return arrayType;
     }
 
-    @Override
-    public String asString(int tabs) {
-        return type;
+    public Type getElementType() {
+        return elementType;
     }
 
-    @Override
-    public boolean equals(Object o) {
-        if (this == o) return true;
-        if (o == null || getClass() != o.getClass()) return false;
-        Type type1 = (Type) o;
-        return array == type1.array && Objects.equals(type, type1.type);
+    public boolean isArray() {
+        return array;
     }
 
     @Override
-    public int hashCode() {
-        return Objects.hash(type, array);
+    public void appendTo(Appendable out, int tabs) throws IOException {
+        out.append(type);
     }
 
     @Override
@@ -4,11 +4,26 @@ public final class Types {
     private Types() {
     }
 
-    public static Type INTLIT = Type.of("int");
-    public static Type CHARLIT = Type.of("char");
-    public static Type BOOLLIT = Type.of("bool");
-    public static Type FLOATLIT = Type.of("float");
-    public static Type STR = Type.of("String");
+    public static final Type INTLIT = Type.of("int", 0);
+    public static final Type CHARLIT = Type.of("char", 1);
+    public static final Type BOOLLIT = Type.of("bool", 2);
+    public static final Type FLOATLIT = Type.of("float", 3);
+    public static final Type STR = Type.of("String", 4);
 
-    public static Type VOID = Type.of("void");
+    public static final Type VOID = Type.of("void", 5);
+
+    private static final Type[] BASE_TYPES = {INTLIT, CHARLIT, BOOLLIT, FLOATLIT, STR, VOID};
+
+    /**
+     * The number of distinct type ids, array variants included. Every {@link Type#getId() id} is below this.
+     */
+    public static final int ID_COUNT = BASE_TYPES.length << 1;
+
+    /**
+     * Returns the type with the given {@link Type#getId() id}.
+     */
+    public static Type byId(int id) {
+        Type baseType = BASE_TYPES[id >> 1];
+        return (id & 1) == 0 ? baseType : baseType.asArray();
+    }
 }
@@ -1,18 +1,28 @@
 package tokens.methods;
 
-import information.FieldInformation;
+import execution.Layout;
+import execution.Routine;
+import execution.Statement;
+import execution.Variable;
+import information.FieldSymbolTable;
 import information.MethodInformation;
+import information.MethodSymbolTable;
 import tokens.NonTerminalToken;
 import tokens.fields.FieldDecls;
 import tokens.lexeme.OptionalLexeme;
+import tokens.lexeme.Type;
 import tokens.lexeme.Types;
 import tokens.methods.args.argdecls.ArgDeclList;
 import tokens.stmts.Stmts;
+import type_checking.Diagnostics;
 import type_checking.TypeCheckException;
 import type_checking.TypeCheckable;
+import utils.CompilerEvents;
 import utils.StringHelper;
 
-import java.util.Map;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 import static type_checking.TypeCheckException.redeclarationError;
 
@@ -35,12 +45,8 @@ public final class MethodDecl implements NonTerminalToken, TypeCheckable<Void> {
             return this;
         }
 
-        public Builder argDeclList(ArgDeclList argDeclList) throws Exception {
-            if (id == null) {
-                throw new Exception("ID must be set before setting an arg decl list");
-            }
+        public Builder argDeclList(ArgDeclList argDeclList) {
             this.argDeclList = argDeclList;
-            argDeclList.setMethodId(id);
             return this;
         }
 
@@ -89,34 +95,116 @@ public final class MethodDecl implements NonTerminalToken, TypeCheckable<Void> {
     }
 
     @Override
-    public String asString(int tabs) {
-        return StringHelper.withTabs(tabs, returnType.asString(tabs) + " " + id + "(" + (argDeclList == null ? "" : argDeclList.asString(tabs)) + ") {\n")
-                + (fieldDecls == null ? "" : fieldDecls.asString(tabs + 1))
-                + (stmts != null && fieldDecls != null ? "\n" : "") + (stmts != null ? stmts.asString(tabs + 1) : "")
-                + StringHelper.withTabs(tabs, "}" + optionalSemi.asString(tabs));
+    public void appendTo(Appendable out, int tabs) throws IOException {
+        out.append(StringHelper.tabs(tabs));
+        returnType.appendTo(out, tabs);
+        out.append(' ').append(id).append('(');
+        if (argDeclList != null) {
+            argDeclList.appendTo(out, tabs);
+        }
+        out.append(") {\n");
+        if (fieldDecls != null) {
+            fieldDecls.appendTo(out, tabs + 1);
+        }
+        if (stmts != null) {
+            if (fieldDecls != null) {
+                out.append('\n');
+            }
+            stmts.appendTo(out, tabs + 1);
+        }
+        out.append(StringHelper.tabs(tabs)).append('}');
+        optionalSemi.appendTo(out, tabs);
     }
 
     @Override
-    public Void typeCheck(int scope, Map<String, FieldInformation> fieldSymbolTable, Map<String, MethodInformation> methodSymbolTable) throws TypeCheckException {
+    public Void typeCheck(int scope, FieldSymbolTable fieldSymbolTable, MethodSymbolTable methodSymbolTable) throws TypeCheckException {
+        declare(scope, methodSymbolTable, methodSymbolTable.size());
+        checkBody(scope, fieldSymbolTable, methodSymbolTable);
+        return null;
+    }
+
+    /**
+     * Adds the signature of this method to the method symbol table as the method at the given index, which must come
+     * after every method declared before it.
+     */
+    public void declare(int scope, MethodSymbolTable methodSymbolTable, int index) throws TypeCheckException {
         if (methodSymbolTable.containsKey(id)) {
             throw redeclarationError(id, scope);
         }
-        methodSymbolTable.put(id, MethodInformation.of(returnType.getType() == null ? Types.VOID : returnType.getType()));
+        Type type = returnType.getType() == null ? Types.VOID : returnType.getType();
+        List<Type> argumentTypes = argDeclList == null ? List.of() : argDeclList.getArgumentTypes();
+        methodSymbolTable.put(id, MethodInformation.of(index, type, argumentTypes));
+    }
+
+    /**
+     * Adds the signature of this method to the layout, after every method declared before it.
+     */
+    public void declare(Layout layout) {
+        Type type = returnType.getType() == null ? Types.VOID : returnType.getType();
+        List<Type> argumentTypes = argDeclList == null ? List.of() : argDeclList.getArgumentTypes();
+        layout.declareRoutine(id, type, argumentTypes);
+    }
+
+    /**
+     * Compiles the body of this method, whose signature must already be declared, with its own layout over the
+     * class fields.
+     */
+    public void compile(int scope, Layout layout) throws TypeCheckException {
+        Routine routine = layout.routine(id);
+        Layout methodLayout = layout.forMethod();
+        List<Variable> arguments = argDeclList == null ? List.of() : argDeclList.compile(scope + 1, methodLayout);
+        List<Statement> body = new ArrayList<>();
+        if (fieldDecls != null) {
+            body.add(fieldDecls.compile(scope + 1, methodLayout));
+        }
+        if (stmts != null) {
+            body.add(stmts.compile(scope + 1, methodLayout));
+        }
+        routine.define(arguments, methodLayout, Statement.sequence(body));
+    }
 
+    /**
+     * Checks the arguments, local fields and statements of this method, whose signature must already be declared.
+     */
+    public void checkBody(int scope, FieldSymbolTable fieldSymbolTable, MethodSymbolTable methodSymbolTable) throws TypeCheckException {
+        CompilerEvents.MethodCheckEvent event = CompilerEvents.methodCheckStarted();
+        try {
+            checkMembers(scope, fieldSymbolTable, methodSymbolTable);
+        } finally {
+            if (event != null) {
+                event.commit(id, stmts == null ? 0 : stmts.size());
+            }
+        }
+    }
+
+    private void checkMembers(int scope, FieldSymbolTable fieldSymbolTable, MethodSymbolTable methodSymbolTable) throws TypeCheckException {
+        Diagnostics diagnostics = Diagnostics.empty();
         if (argDeclList != null) {
-            argDeclList.typeCheck(scope + 1, fieldSymbolTable, methodSymbolTable);
+            try {
+                argDeclList.typeCheck(scope + 1, fieldSymbolTable, methodSymbolTable);
+            } catch (TypeCheckException e) {
+                diagnostics.add(e);
+            }
         }
         if (fieldDecls != null) {
-            fieldDecls.typeCheck(scope + 1, fieldSymbolTable, methodSymbolTable);
+            try {
+                fieldDecls.typeCheck(scope + 1, fieldSymbolTable, methodSymbolTable);
+            } catch (TypeCheckException e) {
+                diagnostics.add(e);
+            }
         }
         if (stmts != null) {
-            stmts.typeCheck(scope + 1, fieldSymbolTable, methodSymbolTable);
+            try {
+                stmts.typeCheck(scope + 1, fieldSymbolTable, methodSymbolTable);
+            } catch (TypeCheckException e) {
+                diagnostics.add(e);
+            }
         }
         if (returnType.getType() != null) {
-            if (stmts == null || !stmts.hasReturnStmt()) {
-                throw TypeCheckException.withFault("Error: No return stmt in method " + id + " with expected return type " + returnType.getType().getType());
+            if (stmts == null || !stmts.alwaysReturns()) {
+                diagnostics.add(TypeCheckException.withFault("Error: No return stmt in method " + id + " with expected return type " + returnType.getType().getType()));
             }
         }
-        return null;
+        diagnostics.throwIfAny();
     }
 }
@@ -1,19 +1,34 @@
 package tokens.methods;
 
-import information.FieldInformation;
-import information.MethodInformation;
+import execution.Layout;
+import information.FieldSymbolTable;
+import information.MethodSymbolTable;
 import tokens.NonTerminalToken;
+import type_checking.Diagnostics;
 import type_checking.TypeCheckException;
 import type_checking.TypeCheckable;
 
-import java.util.Map;
-
-import static utils.SymbolTableHelper.removeScopeFromSymbolTable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
+/**
+ * The methods of the class, checked in two phases. The first declares every signature, in source order. The second
+ * checks each method body against its own field table layered over the class fields, and a view of the method table
+ * limited to the methods declared up to it, so bodies are independent of each other and can be checked in parallel
+ * when more than one {@link #setJobs(int) job} is allowed. Whatever the number of jobs, faults are reported in source
+ * order: a method whose signature cannot be declared reports that fault and its body is not checked, otherwise it
+ * reports the faults in its body.
+ */
 public final class MethodDecls implements NonTerminalToken, TypeCheckable<Void> {
     public static final class Builder {
         private MethodDecl methodDecl = null;
         private MethodDecls methodDecls = null;
+        private int line;
+        private int column;
 
         public Builder methodDecl(MethodDecl methodDecl) {
             this.methodDecl = methodDecl;
@@ -25,8 +40,14 @@ public final class MethodDecls implements NonTerminalToken, TypeCheckable<Void>
             return this;
         }
 
+        public Builder position(int line, int column) {
+            this.line = line;
+            this.column = column;
+            return this;
+        }
+
         public MethodDecls build() {
-            return new MethodDecls(methodDecl, methodDecls);
+            return new MethodDecls(methodDecl, methodDecls, line, column);
         }
     }
 
@@ -34,26 +55,148 @@ public final class MethodDecls implements NonTerminalToken, TypeCheckable<Void>
         return new Builder();
     }
 
+    private static final int METHODS_PER_TASK = 8;
+
     private final MethodDecl methodDecl;
     private final MethodDecls methodDecls;
+    private final int line;
+    private final int column;
+    private int jobs = 1;
 
-    private MethodDecls(MethodDecl methodDecl, MethodDecls methodDecls) {
+    private MethodDecls(MethodDecl methodDecl, MethodDecls methodDecls, int line, int column) {
         this.methodDecl = methodDecl;
         this.methodDecls = methodDecls;
+        this.line = line;
+        this.column = column;
+    }
+
+    /**
+     * Sets how many method bodies may be checked at the same time.
+     */
+    public void setJobs(int jobs) {
+        this.jobs = jobs;
     }
 
     @Override
-    public String asString(int tabs) {
-        return (methodDecls == null ? "" : methodDecls.asString(tabs) + "\n") + methodDecl.asString(tabs) + "\n";
+    public void appendTo(Appendable out, int tabs) throws IOException {
+        List<MethodDecls> methods = inSourceOrder();
+        for (int index = 0; index < methods.size(); index++) {
+            if (index > 0) {
+                out.append('\n');
+            }
+            methods.get(index).methodDecl.appendTo(out, tabs);
+            out.append('\n');
+        }
     }
 
     @Override
-    public Void typeCheck(int scope, Map<String, FieldInformation> fieldSymbolTable, Map<String, MethodInformation> methodSymbolTable) throws TypeCheckException {
-        if (methodDecls != null) {
-            methodDecls.typeCheck(scope, fieldSymbolTable, methodSymbolTable);
+    public Void typeCheck(int scope, FieldSymbolTable fieldSymbolTable, MethodSymbolTable methodSymbolTable) throws TypeCheckException {
+        List<MethodDecls> methods = inSourceOrder();
+        Exception[] faults = new Exception[methods.size()];
+
+        for (int index = 0; index < methods.size(); index++) {
+            try {
+                methods.get(index).methodDecl.declare(scope, methodSymbolTable, index);
+            } catch (TypeCheckException e) {
+                faults[index] = e;
+            }
+        }
+
+        BodyCheck bodyCheck = new BodyCheck(scope, fieldSymbolTable, methodSymbolTable, methods, faults, 0, methods.size());
+        if (jobs > 1 && methods.size() > METHODS_PER_TASK) {
+            ForkJoinPool pool = new ForkJoinPool(jobs);
+            try {
+                pool.invoke(bodyCheck);
+            } finally {
+                pool.shutdown();
+            }
+        } else {
+            bodyCheck.checkRange();
         }
-        methodDecl.typeCheck(scope, fieldSymbolTable, methodSymbolTable);
-        removeScopeFromSymbolTable(scope + 1, fieldSymbolTable);
+
+        Diagnostics diagnostics = Diagnostics.empty();
+        for (int index = 0; index < methods.size(); index++) {
+            if (faults[index] instanceof TypeCheckException) {
+                diagnostics.add((TypeCheckException) faults[index], methods.get(index).line, methods.get(index).column);
+            } else if (faults[index] != null) {
+                throw (RuntimeException) faults[index];
+            }
+        }
+        diagnostics.throwIfAny();
         return null;
     }
+
+    /**
+     * Declares every method in the layout, in source order, and then compiles their bodies.
+     */
+    public void compile(int scope, Layout layout) throws TypeCheckException {
+        List<MethodDecls> methods = inSourceOrder();
+        for (MethodDecls method : methods) {
+            method.methodDecl.declare(layout);
+        }
+        for (MethodDecls method : methods) {
+            method.methodDecl.compile(scope, layout);
+        }
+    }
+
+    private List<MethodDecls> inSourceOrder() {
+        List<MethodDecls> methods = new ArrayList<>();
+        MethodDecls current = this;
+        while (current != null) {
+            methods.add(current);
+            current = current.methodDecls;
+        }
+        Collections.reverse(methods);
+        return methods;
+    }
+
+    /**
+     * Checks the bodies of a range of methods, splitting it between workers when it is large. Methods that already
+     * have a fault from being declared are skipped, and the fault of every other method is recorded at its index.
+     */
+    private static final class BodyCheck extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int scope;
+        private final FieldSymbolTable fieldSymbolTable;
+        private final MethodSymbolTable methodSymbolTable;
+        private final List<MethodDecls> methods;
+        private final Exception[] faults;
+        private final int from;
+        private final int to;
+
+        BodyCheck(int scope, FieldSymbolTable fieldSymbolTable, MethodSymbolTable methodSymbolTable, List<MethodDecls> methods, Exception[] faults, int from, int to) {
+            this.scope = scope;
+            this.fieldSymbolTable = fieldSymbolTable;
+            this.methodSymbolTable = methodSymbolTable;
+            this.methods = methods;
+            this.faults = faults;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > METHODS_PER_TASK) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new BodyCheck(scope, fieldSymbolTable, methodSymbolTable, methods, faults, from, middle),
+                        new BodyCheck(scope, fieldSymbolTable, methodSymbolTable, methods, faults, middle, to));
+            } else {
+                checkRange();
+            }
+        }
+
+        void checkRange() {
+            for (int index = from; index < to; index++) {
+                if (faults[index] != null) {
+                    continue;
+                }
+                try {
+                    methods.get(index).methodDecl.checkBody(scope, FieldSymbolTable.layeredOver(fieldSymbolTable), methodSymbolTable.visibleTo(index));
+                } catch (TypeCheckException | RuntimeException e) {
+                    faults[index] = e;
+                }
+            }
+        }
+    }
 }
@@ -3,6 +3,8 @@ package tokens.methods;
 import tokens.NonTerminalToken;
 import tokens.lexeme.Type;
 
+import java.io.IOException;
+
 public final class ReturnType implements NonTerminalToken {
     public static ReturnType withType(Type type) {
         return new ReturnType(type);
@@ -23,10 +25,11 @@ public final class ReturnType implements NonTerminalToken {
     }
 
     @Override
-    public String asString(int tabs) {
+    public void appendTo(Appendable out, int tabs) throws IOException {
         if (type == null) {
-            return "void";
+            out.append("void");
+        } else {
+            type.appendTo(out, tabs);
         }
-        return type.asString(tabs);
     }
 }
@@ -1,25 +1,33 @@
 package tokens.methods.args;
 
+import execution.Compilable;
+import execution.Layout;
+import execution.Node;
 import tokens.NonTerminalToken;
 import tokens.expr.Expr;
+import type_checking.TypeCheckException;
 
-public final class Args implements NonTerminalToken {
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The arguments of a method invocation, in order.
+ */
+public final class Args implements NonTerminalToken, Compilable<Node[]> {
     public static class Builder {
-        private Expr expr;
-        private Args args = null;
+        private final List<Expr> exprs = new ArrayList<>();
 
+        /**
+         * Appends an argument.
+         */
         public Builder expr(Expr expr) {
-            this.expr = expr;
-            return this;
-        }
-
-        public Builder args(Args args) {
-            this.args = args;
+            exprs.add(expr);
             return this;
         }
 
         public Args build() {
-            return new Args(expr, args);
+            return new Args(exprs.toArray(new Expr[0]));
         }
     }
 
@@ -27,24 +35,36 @@ public final class Args implements NonTerminalToken {
         return new Builder();
     }
 
-    private final Expr expr;
-    private final Args args;
+    private final Expr[] exprs;
 
-    private Args(Expr expr, Args args) {
-        this.expr = expr;
-        this.args = args;
+    private Args(Expr[] exprs) {
+        this.exprs = exprs;
     }
 
-    public Expr getExpr() {
-        return expr;
+    public int size() {
+        return exprs.length;
     }
 
-    public Args getArgs() {
-        return args;
+    public Expr getExpr(int index) {
+        return exprs[index];
     }
 
     @Override
-    public String asString(int tabs) {
-        return expr.asString(tabs) + (args == null ? "" : ", " + args.asString(tabs));
+    public void appendTo(Appendable out, int tabs) throws IOException {
+        for (int i = 0; i < exprs.length; i++) {
+            if (i > 0) {
+                out.append(", ");
+            }
+            exprs[i].appendTo(out, tabs);
+        }
+    }
+
+    @Override
+    public Node[] compile(int scope, Layout layout) throws TypeCheckException {
+        Node[] nodes = new Node[exprs.length];
+        for (int i = 0; i < exprs.length; i++) {
+            nodes[i] = exprs[i].compile(scope, layout);
+        }
+        return nodes;
     }
 }
@@ -1,14 +1,18 @@
 package tokens.methods.args;
 
-import information.FieldInformation;
-import information.MethodInformation;
+import execution.Compilable;
+import execution.Layout;
+import execution.Node;
+import information.FieldSymbolTable;
+import information.MethodSymbolTable;
 import tokens.NonTerminalToken;
 import type_checking.TypeCheckException;
 import type_checking.TypeCheckable;
 
-import java.util.Map;
+import java.io.IOException;
+import java.util.List;
 
-public final class PrintLineList implements NonTerminalToken, TypeCheckable<Void> {
+public final class PrintLineList implements NonTerminalToken, TypeCheckable<Void>, Compilable<List<Node>> {
     public static PrintLineList withPrintList(PrintList printList) {
         return new PrintLineList(printList);
     }
@@ -24,18 +28,22 @@ public final class PrintLineList implements NonTerminalToken, TypeCheckable<Void
     }
 
     @Override
-    public String asString(int tabs) {
-        if (printList == null) {
-            return "";
+    public void appendTo(Appendable out, int tabs) throws IOException {
+        if (printList != null) {
+            printList.appendTo(out, tabs);
         }
-        return printList.asString(tabs);
     }
 
     @Override
-    public Void typeCheck(int scope, Map<String, FieldInformation> fieldSymbolTable, Map<String, MethodInformation> methodSymbolTable) throws TypeCheckException {
+    public Void typeCheck(int scope, FieldSymbolTable fieldSymbolTable, MethodSymbolTable methodSymbolTable) throws TypeCheckException {
         if (printList != null) {
             printList.typeCheck(scope, fieldSymbolTable, methodSymbolTable);
         }
         return null;
     }
+
+    @Override
+    public List<Node> compile(int scope, Layout layout) throws TypeCheckException {
+        return printList != null ? printList.compile(scope, layout) : List.of();
+    }
 }
@@ -1,7 +1,10 @@
 package tokens.methods.args;
 
-import information.FieldInformation;
-import information.MethodInformation;
+import execution.Compilable;
+import execution.Layout;
+import execution.Node;
+import information.FieldSymbolTable;
+import information.MethodSymbolTable;
 import tokens.NonTerminalToken;
 import tokens.expr.Expr;
 import tokens.lexeme.Type;
@@ -9,25 +12,27 @@ import tokens.lexeme.Types;
 import type_checking.TypeCheckException;
 import type_checking.TypeCheckable;
 
-import java.util.Map;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
-public final class PrintList implements NonTerminalToken, TypeCheckable<Void> {
+/**
+ * The expressions a print statement prints, in order.
+ */
+public final class PrintList implements NonTerminalToken, TypeCheckable<Void>, Compilable<List<Node>> {
     public static class Builder {
-        private Expr expr;
-        private PrintList printList = null;
+        private final List<Expr> exprs = new ArrayList<>();
 
+        /**
+         * Appends an expression.
+         */
         public Builder expr(Expr expr) {
-            this.expr = expr;
-            return this;
-        }
-
-        public Builder printList(PrintList printList) {
-            this.printList = printList;
+            exprs.add(expr);
             return this;
         }
 
         public PrintList build() {
-            return new PrintList(expr, printList);
+            return new PrintList(exprs.toArray(new Expr[0]));
         }
     }
 
@@ -35,31 +40,42 @@ public final class PrintList implements NonTerminalToken, TypeCheckable<Void> {
         return new Builder();
     }
 
-    private final Expr expr;
-    private final PrintList printList;
+    private final Expr[] exprs;
 
-    private PrintList(Expr expr, PrintList printList) {
-        this.expr = expr;
-        this.printList = printList;
+    private PrintList(Expr[] exprs) {
+        this.exprs = exprs;
     }
 
     @Override
-    public String asString(int tabs) {
-        return expr.asString(tabs) + (printList == null ? "" : ", " + printList.asString(tabs));
+    public void appendTo(Appendable out, int tabs) throws IOException {
+        for (int i = 0; i < exprs.length; i++) {
+            if (i > 0) {
+                out.append(", ");
+            }
+            exprs[i].appendTo(out, tabs);
+        }
     }
 
     @Override
-    public Void typeCheck(int scope, Map<String, FieldInformation> fieldSymbolTable, Map<String, MethodInformation> methodSymbolTable) throws TypeCheckException {
-        Type exprType = expr.typeCheck(scope, fieldSymbolTable, methodSymbolTable);
-        if (exprType.isArray()) {
-            throw TypeCheckException.withFault("Cannot call print stmt on expr with array type");
-        }
-        if (exprType == Types.VOID) {
-            throw TypeCheckException.withFault("Cannot call print stmt on expr with void type");
-        }
-        if (printList != null) {
-            printList.typeCheck(scope, fieldSymbolTable, methodSymbolTable);
+    public Void typeCheck(int scope, FieldSymbolTable fieldSymbolTable, MethodSymbolTable methodSymbolTable) throws TypeCheckException {
+        for (Expr expr : exprs) {
+            Type exprType = expr.typeCheck(scope, fieldSymbolTable, methodSymbolTable);
+            if (exprType.isArray()) {
+                throw TypeCheckException.withFault("Cannot call print stmt on expr with array type");
+            }
+            if (exprType == Types.VOID) {
+                throw TypeCheckException.withFault("Cannot call print stmt on expr with void type");
+            }
         }
         return null;
     }
+
+    @Override
+    public List<Node> compile(int scope, Layout layout) throws TypeCheckException {
+        List<Node> nodes = new ArrayList<>(exprs.length);
+        for (Expr expr : exprs) {
+            nodes.add(expr.compile(scope, layout));
+        }
+        return nodes;
+    }
 }
@@ -1,33 +1,38 @@
 package tokens.methods.args;
 
-import information.FieldInformation;
-import information.MethodInformation;
+import execution.Compilable;
+import execution.Layout;
+import execution.Place;
+import information.FieldSymbolTable;
+import information.MethodSymbolTable;
+import information.Resolution;
 import tokens.NonTerminalToken;
 import tokens.id.Name;
 import tokens.lexeme.Type;
 import type_checking.TypeCheckException;
 import type_checking.TypeCheckable;
-import utils.Pair;
 
-import java.util.Map;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
-public final class ReadList implements NonTerminalToken, TypeCheckable<Void> {
+/**
+ * The names a read statement reads into, in order.
+ */
+public final class ReadList implements NonTerminalToken, TypeCheckable<Void>, Compilable<List<Place>> {
     public static class Builder {
-        private Name name;
-        private ReadList readList = null;
+        private final List<Name> names = new ArrayList<>();
 
+        /**
+         * Appends a name.
+         */
         public Builder name(Name name) {
-            this.name = name;
-            return this;
-        }
-
-        public Builder readList(ReadList readList) {
-            this.readList = readList;
+            names.add(name);
             return this;
         }
 
         public ReadList build() {
-            return new ReadList(name, readList);
+            return new ReadList(names.toArray(new Name[0]));
         }
     }
 
@@ -35,36 +40,47 @@ public final class ReadList implements NonTerminalToken, TypeCheckable<Void> {
         return new Builder();
     }
 
-    private final Name name;
-    private final ReadList readList;
+    private final Name[] names;
 
-    ReadList(Name name, ReadList readList) {
-        this.name = name;
-        this.readList = readList;
+    private ReadList(Name[] names) {
+        this.names = names;
     }
 
     @Override
-    public String asString(int tabs) {
-        return name.asString(tabs) + (readList == null ? "" : ", " + readList.asString(tabs));
+    public void appendTo(Appendable out, int tabs) throws IOException {
+        for (int i = 0; i < names.length; i++) {
+            if (i > 0) {
+                out.append(", ");
+            }
+            names[i].appendTo(out, tabs);
+        }
     }
 
     @Override
-    public Void typeCheck(int scope, Map<String, FieldInformation> fieldSymbolTable, Map<String, MethodInformation> methodSymbolTable) throws TypeCheckException {
-        if (fieldSymbolTable.containsKey(name.getId())) {
-            Pair<Type, Boolean> info = name.typeCheck(scope, fieldSymbolTable, methodSymbolTable);
-            Type type = info.getFirst();
-            boolean isFinal = info.getSecond();
-            if (type.isArray()) {
-                throw TypeCheckException.withFault("Error: Cannot call read stmt on array type");
-            } else if (isFinal) {
-                throw TypeCheckException.withFault("Error: Cannot call read stmt on final variable");
+    public Void typeCheck(int scope, FieldSymbolTable fieldSymbolTable, MethodSymbolTable methodSymbolTable) throws TypeCheckException {
+        for (Name name : names) {
+            if (fieldSymbolTable.containsKey(name.getId())) {
+                int resolution = name.resolve(scope, fieldSymbolTable, methodSymbolTable);
+                Type type = Resolution.type(resolution);
+                boolean isFinal = Resolution.isFinal(resolution);
+                if (type.isArray()) {
+                    throw TypeCheckException.withFault("Error: Cannot call read stmt on array type");
+                } else if (isFinal) {
+                    throw TypeCheckException.withFault("Error: Cannot call read stmt on final variable");
+                }
+            } else if (methodSymbolTable.containsKey(name.getId())) {
+                throw TypeCheckException.withFault("Error: Cannot call read stmt on a method");
             }
-        } else if (methodSymbolTable.containsKey(name.getId())) {
-            throw TypeCheckException.withFault("Error: Cannot call read stmt on a method");
-        }
-        if (readList != null) {
-            readList.typeCheck(scope, fieldSymbolTable, methodSymbolTable);
         }
         return null;
     }
+
+    @Override
+    public List<Place> compile(int scope, Layout layout) throws TypeCheckException {
+        List<Place> places = new ArrayList<>(names.length);
+        for (Name name : names) {
+            places.add(name.compile(scope, layout));
+        }
+        return places;
+    }
 }
@@ -1,9 +1,11 @@
 package tokens.methods.args.argdecls;
 
+import execution.Compilable;
+import execution.Variable;
 import tokens.NonTerminalToken;
 import tokens.lexeme.Type;
 import type_checking.TypeCheckable;
 
-public interface ArgDecl extends NonTerminalToken, TypeCheckable<Void> {
+public interface ArgDecl extends NonTerminalToken, TypeCheckable<Void>, Compilable<Variable> {
     Type getType();
 }
@@ -1,31 +1,37 @@
 package tokens.methods.args.argdecls;
 
-import information.FieldInformation;
-import information.MethodInformation;
+import execution.Compilable;
+import execution.Layout;
+import execution.Variable;
+import information.FieldSymbolTable;
+import information.MethodSymbolTable;
 import tokens.NonTerminalToken;
+import tokens.lexeme.Type;
+import type_checking.Diagnostics;
 import type_checking.TypeCheckException;
 import type_checking.TypeCheckable;
 
-import java.util.Map;
-import java.util.Objects;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
-public final class ArgDeclList implements NonTerminalToken, TypeCheckable<Void> {
+/**
+ * The declared arguments of a method, in order.
+ */
+public final class ArgDeclList implements NonTerminalToken, TypeCheckable<Void>, Compilable<List<Variable>> {
     public static class Builder {
-        private ArgDecl argDecl = null;
-        private ArgDeclList argDeclList = null;
+        private final List<ArgDecl> argDecls = new ArrayList<>();
 
+        /**
+         * Appends an argument declaration.
+         */
         public Builder argDecl(ArgDecl argDecl) {
-            this.argDecl = argDecl;
-            return this;
-        }
-
-        public Builder argDeclList(ArgDeclList argDeclList) {
-            this.argDeclList = argDeclList;
+            argDecls.add(argDecl);
             return this;
         }
 
         public ArgDeclList build() {
-            return new ArgDeclList(argDecl, argDeclList);
+            return new ArgDeclList(argDecls.toArray(new ArgDecl[0]));
         }
     }
 
@@ -33,36 +39,56 @@ public final class ArgDeclList implements NonTerminalToken, TypeCheckable<Void>
         return new Builder();
     }
 
-    private String methodId;
-    private final ArgDecl argDecl;
-    private final ArgDeclList argDeclList;
+    private final ArgDecl[] argDecls;
 
-    public ArgDeclList(ArgDecl argDecl, ArgDeclList argDeclList) {
-        this.argDecl = argDecl;
-        this.argDeclList = argDeclList;
+    private ArgDeclList(ArgDecl[] argDecls) {
+        this.argDecls = argDecls;
     }
 
-    public void setMethodId(String methodId) {
-        this.methodId = methodId;
+    /**
+     * The declared types of the arguments, in order.
+     */
+    public List<Type> getArgumentTypes() {
+        List<Type> argumentTypes = new ArrayList<>(argDecls.length);
+        for (ArgDecl argDecl : argDecls) {
+            argumentTypes.add(argDecl.getType());
+        }
+        return argumentTypes;
     }
 
     @Override
-    public String asString(int tabs) {
-        return argDecl.asString(tabs) + (argDeclList == null ? "" : ", " + argDeclList.asString(tabs));
+    public void appendTo(Appendable out, int tabs) throws IOException {
+        for (int i = 0; i < argDecls.length; i++) {
+            if (i > 0) {
+                out.append(", ");
+            }
+            argDecls[i].appendTo(out, tabs);
+        }
     }
 
     @Override
-    public Void typeCheck(int scope, Map<String, FieldInformation> fieldSymbolTable, Map<String, MethodInformation> methodSymbolTable) throws TypeCheckException {
-        Objects.requireNonNull(methodId);
-        Objects.requireNonNull(methodSymbolTable.get(methodId));
-
-        argDecl.typeCheck(scope, fieldSymbolTable, methodSymbolTable);
-        methodSymbolTable.get(methodId).addArgumentType(argDecl.getType());
-
-        if (argDeclList != null) {
-            argDeclList.setMethodId(methodId);
-            argDeclList.typeCheck(scope, fieldSymbolTable, methodSymbolTable);
+    public Void typeCheck(int scope, FieldSymbolTable fieldSymbolTable, MethodSymbolTable methodSymbolTable) throws TypeCheckException {
+        Diagnostics diagnostics = Diagnostics.empty();
+        for (ArgDecl argDecl : argDecls) {
+            try {
+                argDecl.typeCheck(scope, fieldSymbolTable, methodSymbolTable);
+            } catch (TypeCheckException e) {
+                diagnostics.add(e);
+            }
         }
+        diagnostics.throwIfAny();
         return null;
     }
+
+    /**
+     * Declares the arguments in order, returning the variables they are passed in.
+     */
+    @Override
+    public List<Variable> compile(int scope, Layout layout) throws TypeCheckException {
+        List<Variable> arguments = new ArrayList<>(argDecls.length);
+        for (ArgDecl argDecl : argDecls) {
+            arguments.add(argDecl.compile(scope, layout));
+        }
+        return arguments;
+    }
 }
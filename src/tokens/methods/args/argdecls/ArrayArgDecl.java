@@ -1,11 +1,13 @@
 package tokens.methods.args.argdecls;
 
-import information.FieldInformation;
-import information.MethodInformation;
+import execution.Layout;
+import execution.Variable;
+import information.FieldSymbolTable;
+import information.MethodSymbolTable;
 import tokens.lexeme.Type;
 import type_checking.TypeCheckException;
 
-import java.util.Map;
+import java.io.IOException;
 
 import static type_checking.TypeCheckException.redeclarationError;
 
@@ -47,19 +49,22 @@ public final class ArrayArgDecl implements ArgDecl {
     }
 
     @Override
-    public String asString(int tabs) {
-        return type.asString(tabs) + " " + id + "[]";
+    public void appendTo(Appendable out, int tabs) throws IOException {
+        type.appendTo(out, tabs);
+        out.append(' ').append(id).append("[]");
     }
 
     @Override
-    public Void typeCheck(int scope, Map<String, FieldInformation> fieldSymbolTable, Map<String, MethodInformation> methodSymbolTable) throws TypeCheckException {
-        if (!fieldSymbolTable.containsKey(id)) {
-            fieldSymbolTable.put(id, FieldInformation.empty());
-        }
-        if (fieldSymbolTable.get(id).isAlreadyDeclaredAtScope(scope)) {
+    public Void typeCheck(int scope, FieldSymbolTable fieldSymbolTable, MethodSymbolTable methodSymbolTable) throws TypeCheckException {
+        if (fieldSymbolTable.isAlreadyDeclaredAtScope(id, scope)) {
             throw redeclarationError(id, scope);
         }
-        fieldSymbolTable.get(id).put(scope, type, false);
+        fieldSymbolTable.put(id, scope, type, false);
         return null;
     }
+
+    @Override
+    public Variable compile(int scope, Layout layout) {
+        return layout.declare(id, scope, type);
+    }
 }
@@ -1,13 +1,17 @@
 package tokens.stmts;
 
-import information.FieldInformation;
-import information.MethodInformation;
+import execution.Layout;
+import execution.Statement;
+import information.FieldSymbolTable;
+import information.MethodSymbolTable;
 import tokens.fields.FieldDecls;
 import tokens.lexeme.OptionalLexeme;
+import type_checking.Diagnostics;
 import type_checking.TypeCheckException;
 import utils.StringHelper;
 
-import java.util.Map;
+import java.io.IOException;
+import java.util.List;
 
 public final class BodyStmt implements Stmt, Nestable {
     public static class Builder {
@@ -51,8 +55,8 @@ public final class BodyStmt implements Stmt, Nestable {
     }
 
     @Override
-    public boolean hasReturnStmt() {
-        return stmts.hasReturnStmt();
+    public boolean alwaysReturns() {
+        return stmts != null && stmts.alwaysReturns();
     }
 
     @Override
@@ -61,22 +65,44 @@ public final class BodyStmt implements Stmt, Nestable {
     }
 
     @Override
-    public String asString(String prefix, int tabs) {
-        return prefix + "{\n"
-                + (fieldDecls == null ? "" : fieldDecls.asString(tabs + 1))
-                + (stmts == null ? "" : stmts.asString(tabs + 1))
-                + StringHelper.withTabs(tabs, "}" + optionalSemi.asString(tabs));
+    public void appendTo(Appendable out, String prefix, int tabs) throws IOException {
+        out.append(prefix).append("{\n");
+        if (fieldDecls != null) {
+            fieldDecls.appendTo(out, tabs + 1);
+        }
+        if (stmts != null) {
+            stmts.appendTo(out, tabs + 1);
+        }
+        out.append(StringHelper.tabs(tabs)).append('}');
+        optionalSemi.appendTo(out, tabs);
     }
 
     @Override
-    public Void typeCheck(int scope, Map<String, FieldInformation> fieldSymbolTable, Map<String, MethodInformation> methodSymbolTable) throws TypeCheckException {
+    public Void typeCheck(int scope, FieldSymbolTable fieldSymbolTable, MethodSymbolTable methodSymbolTable) throws TypeCheckException {
+        Diagnostics diagnostics = Diagnostics.empty();
         if (fieldDecls != null) {
-            fieldDecls.typeCheck(scope + 1, fieldSymbolTable, methodSymbolTable);
+            try {
+                fieldDecls.typeCheck(scope + 1, fieldSymbolTable, methodSymbolTable);
+            } catch (TypeCheckException e) {
+                diagnostics.add(e);
+            }
         }
         if (stmts != null) {
             stmts.setMethodId(methodId);
-            stmts.typeCheck(scope + 1, fieldSymbolTable, methodSymbolTable);
+            try {
+                stmts.typeCheck(scope + 1, fieldSymbolTable, methodSymbolTable);
+            } catch (TypeCheckException e) {
+                diagnostics.add(e);
+            }
         }
+        diagnostics.throwIfAny();
         return null;
     }
+
+    @Override
+    public Statement compile(int scope, Layout layout) throws TypeCheckException {
+        Statement decls = fieldDecls != null ? fieldDecls.compile(scope + 1, layout) : Statement.empty();
+        Statement body = stmts != null ? stmts.compile(scope + 1, layout) : Statement.empty();
+        return Statement.sequence(List.of(decls, body));
+    }
 }
@@ -1,14 +1,16 @@
 package tokens.stmts;
 
-import information.FieldInformation;
-import information.MethodInformation;
+import execution.Layout;
+import execution.Statement;
+import information.FieldSymbolTable;
+import information.MethodSymbolTable;
+import information.Resolution;
 import tokens.id.Name;
 import tokens.lexeme.Type;
-import tokens.lexeme.Types;
 import type_checking.TypeCheckException;
-import utils.Pair;
+import type_checking.TypeRules;
 
-import java.util.Map;
+import java.io.IOException;
 
 public final class DecrementStmt implements Stmt {
     public static DecrementStmt withName(Name name) {
@@ -22,21 +24,28 @@ public final class DecrementStmt implements Stmt {
     }
 
     @Override
-    public String asString(String prefix, int tabs) {
-        return prefix + name.asString(tabs) + "--;";
+    public void appendTo(Appendable out, String prefix, int tabs) throws IOException {
+        out.append(prefix);
+        name.appendTo(out, tabs);
+        out.append("--;");
     }
 
     @Override
-    public Void typeCheck(int scope, Map<String, FieldInformation> fieldSymbolTable, Map<String, MethodInformation> methodSymbolTable) throws TypeCheckException {
-        Pair<Type, Boolean> varInfo = name.typeCheck(scope, fieldSymbolTable, methodSymbolTable);
-        Type varType = varInfo.getFirst();
-        boolean varIsFinal = varInfo.getSecond();
+    public Void typeCheck(int scope, FieldSymbolTable fieldSymbolTable, MethodSymbolTable methodSymbolTable) throws TypeCheckException {
+        int varResolution = name.resolve(scope, fieldSymbolTable, methodSymbolTable);
+        Type varType = Resolution.type(varResolution);
+        boolean varIsFinal = Resolution.isFinal(varResolution);
 
         if (varIsFinal) {
             throw TypeCheckException.withFault("Error: Final variables cannot be decremented.");
-        } else if (varType != Types.INTLIT && varType != Types.FLOATLIT) {
+        } else if (!TypeRules.isNumeric(varType)) {
             throw TypeCheckException.withFault("Error: Only ints or floats can be decremented, but " + name.getId() + " is not of those types.");
         }
         return null;
     }
+
+    @Override
+    public Statement compile(int scope, Layout layout) throws TypeCheckException {
+        return Statement.increment(name.compile(scope, layout), -1);
+    }
 }
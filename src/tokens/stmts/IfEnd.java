@@ -1,33 +1,44 @@
 package tokens.stmts;
 
-import information.FieldInformation;
-import information.MethodInformation;
+import execution.Compilable;
+import execution.Layout;
+import execution.Statement;
+import information.FieldSymbolTable;
+import information.MethodSymbolTable;
 import tokens.NonTerminalToken;
+import type_checking.Diagnostics;
 import type_checking.TypeCheckException;
 import type_checking.TypeCheckable;
 import utils.StringHelper;
 
-import java.util.Map;
+import java.io.IOException;
 
-public final class IfEnd implements NonTerminalToken, TypeCheckable<Void>, Nestable {
-    public static IfEnd withStmt(Stmt stmt) {
-        return new IfEnd(stmt);
+public final class IfEnd implements NonTerminalToken, TypeCheckable<Void>, Nestable, Compilable<Statement> {
+    /**
+     * An else branch with the statement at the given position, where its faults are reported.
+     */
+    public static IfEnd withStmt(Stmt stmt, int line, int column) {
+        return new IfEnd(stmt, line, column);
     }
 
     public static IfEnd end() {
-        return new IfEnd(null);
+        return new IfEnd(null, 0, 0);
     }
 
     private String methodId;
     private final Stmt stmt;
+    private final int line;
+    private final int column;
 
-    private IfEnd(Stmt stmt) {
+    private IfEnd(Stmt stmt, int line, int column) {
         this.stmt = stmt;
+        this.line = line;
+        this.column = column;
     }
 
     @Override
-    public boolean hasReturnStmt() {
-        return stmt instanceof ReturnStmt;
+    public boolean alwaysReturns() {
+        return stmt != null && stmt.alwaysReturns();
     }
 
     @Override
@@ -40,25 +51,41 @@ public final class IfEnd implements NonTerminalToken, TypeCheckable<Void>, Nesta
     }
 
     @Override
-    public String asString(int tabs) {
+    public void appendTo(Appendable out, int tabs) throws IOException {
         if (stmt == null) {
-            return "";
+            return;
         }
         if (stmt instanceof BodyStmt || stmt instanceof IfStmt) {
-            return "else " + stmt.asString("", tabs);
+            out.append("else ");
+            stmt.appendTo(out, "", tabs);
         } else {
-            return "else\n" + stmt.asString(StringHelper.tabs(tabs + 1), tabs + 1);
+            out.append("else\n");
+            stmt.appendTo(out, StringHelper.tabs(tabs + 1), tabs + 1);
         }
     }
 
     @Override
-    public Void typeCheck(int scope, Map<String, FieldInformation> fieldSymbolTable, Map<String, MethodInformation> methodSymbolTable) throws TypeCheckException {
+    public Void typeCheck(int scope, FieldSymbolTable fieldSymbolTable, MethodSymbolTable methodSymbolTable) throws TypeCheckException {
         if (stmt != null) {
             if (stmt instanceof Contextualized) {
                 ((Contextualized) stmt).setMethodId(methodId);
             }
-            stmt.typeCheck(scope + 1, fieldSymbolTable, methodSymbolTable);
+            try {
+                stmt.typeCheck(scope + 1, fieldSymbolTable, methodSymbolTable);
+            } catch (TypeCheckException e) {
+                Diagnostics diagnostics = Diagnostics.empty();
+                diagnostics.add(e, line, column);
+                diagnostics.throwIfAny();
+            }
         }
         return null;
     }
+
+    /**
+     * Compiles the else branch, or gives null if there is none.
+     */
+    @Override
+    public Statement compile(int scope, Layout layout) throws TypeCheckException {
+        return stmt != null ? stmt.compile(scope + 1, layout) : null;
+    }
 }
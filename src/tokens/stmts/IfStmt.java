@@ -1,19 +1,25 @@
 package tokens.stmts;
 
-import information.FieldInformation;
-import information.MethodInformation;
+import execution.Layout;
+import execution.Node;
+import execution.Statement;
+import information.FieldSymbolTable;
+import information.MethodSymbolTable;
 import tokens.expr.Expr;
 import tokens.lexeme.Type;
-import tokens.lexeme.Types;
+import type_checking.Diagnostics;
 import type_checking.TypeCheckException;
+import type_checking.TypeRules;
 import utils.StringHelper;
 
-import java.util.Map;
+import java.io.IOException;
 
 public final class IfStmt implements Stmt, Nestable {
     public static class Builder {
         private Expr expr;
         private Stmt stmt;
+        private int line;
+        private int column;
         private IfEnd ifEnd;
 
         public Builder expr(Expr expr) {
@@ -26,13 +32,22 @@ public final class IfStmt implements Stmt, Nestable {
             return this;
         }
 
+        /**
+         * Sets the position of the statement, so that its faults are reported there rather than at this one.
+         */
+        public Builder stmtPosition(int line, int column) {
+            this.line = line;
+            this.column = column;
+            return this;
+        }
+
         public Builder ifEnd(IfEnd ifEnd) {
             this.ifEnd = ifEnd;
             return this;
         }
 
         public IfStmt build() {
-            return new IfStmt(expr, stmt, ifEnd);
+            return new IfStmt(expr, stmt, line, column, ifEnd);
         }
     }
 
@@ -43,17 +58,21 @@ public final class IfStmt implements Stmt, Nestable {
     private String methodId;
     private final Expr expr;
     private final Stmt stmt;
+    private final int line;
+    private final int column;
     private final IfEnd ifEnd;
 
-    private IfStmt(Expr expr, Stmt stmt, IfEnd ifEnd) {
+    private IfStmt(Expr expr, Stmt stmt, int line, int column, IfEnd ifEnd) {
         this.expr = expr;
         this.stmt = stmt;
+        this.line = line;
+        this.column = column;
         this.ifEnd = ifEnd;
     }
 
     @Override
-    public boolean hasReturnStmt() {
-        return stmt instanceof ReturnStmt;
+    public boolean alwaysReturns() {
+        return stmt.alwaysReturns() && ifEnd.alwaysReturns();
     }
 
     @Override
@@ -62,28 +81,59 @@ public final class IfStmt implements Stmt, Nestable {
     }
 
     @Override
-    public String asString(String prefix, int tabs) {
+    public void appendTo(Appendable out, String prefix, int tabs) throws IOException {
+        out.append(prefix).append("if (");
+        expr.appendTo(out, tabs);
         if (stmt instanceof BodyStmt) {
-            return prefix + "if (" + expr.asString(tabs) + ") " + stmt.asString("", tabs) + (ifEnd.isShow() ? "\n" + StringHelper.withTabs(tabs, ifEnd.asString(tabs)) : "");
+            out.append(") ");
+            stmt.appendTo(out, "", tabs);
         } else {
-            return prefix + "if (" + expr.asString(tabs) + ")\n" + stmt.asString(StringHelper.tabs(tabs + 1), tabs + 1) + (ifEnd.isShow() ? "\n" + StringHelper.withTabs(tabs, ifEnd.asString(tabs)) : "");
+            out.append(")\n");
+            stmt.appendTo(out, StringHelper.tabs(tabs + 1), tabs + 1);
+        }
+        if (ifEnd.isShow()) {
+            out.append('\n').append(StringHelper.tabs(tabs));
+            ifEnd.appendTo(out, tabs);
         }
     }
 
     @Override
-    public Void typeCheck(int scope, Map<String, FieldInformation> fieldSymbolTable, Map<String, MethodInformation> methodSymbolTable) throws TypeCheckException {
-        Type exprType = expr.typeCheck(scope, fieldSymbolTable, methodSymbolTable);
-        if (exprType != Types.BOOLLIT && exprType != Types.INTLIT) {
-            throw TypeCheckException.withFault("Error: If statement cannot be determined with expression that is not boolean (or implicitly coerced)");
+    public Void typeCheck(int scope, FieldSymbolTable fieldSymbolTable, MethodSymbolTable methodSymbolTable) throws TypeCheckException {
+        Diagnostics diagnostics = Diagnostics.empty();
+        try {
+            Type exprType = expr.typeCheck(scope, fieldSymbolTable, methodSymbolTable);
+            if (!TypeRules.isConditional(exprType)) {
+                diagnostics.add(TypeCheckException.withFault("Error: If statement cannot be determined with expression that is not boolean (or implicitly coerced)"));
+            }
+        } catch (TypeCheckException e) {
+            diagnostics.add(e);
         }
         if (stmt instanceof Contextualized) {
             ((Contextualized) stmt).setMethodId(methodId);
         }
-        stmt.typeCheck(scope + 1, fieldSymbolTable, methodSymbolTable);
+        try {
+            stmt.typeCheck(scope + 1, fieldSymbolTable, methodSymbolTable);
+        } catch (TypeCheckException e) {
+            diagnostics.add(e, line, column);
+        }
+        fieldSymbolTable.removeScope(scope + 1);
         if (ifEnd.isShow()) {
             ifEnd.setMethodId(methodId);
-            ifEnd.typeCheck(scope, fieldSymbolTable, methodSymbolTable);
+            try {
+                ifEnd.typeCheck(scope, fieldSymbolTable, methodSymbolTable);
+            } catch (TypeCheckException e) {
+                diagnostics.add(e);
+            }
         }
+        diagnostics.throwIfAny();
         return null;
     }
+
+    @Override
+    public Statement compile(int scope, Layout layout) throws TypeCheckException {
+        Node condition = expr.compile(scope, layout);
+        Statement then = stmt.compile(scope + 1, layout);
+        layout.removeScope(scope + 1);
+        return Statement.ifElse(condition, then, ifEnd.compile(scope, layout));
+    }
 }
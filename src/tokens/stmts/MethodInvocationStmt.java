@@ -1,11 +1,15 @@
 package tokens.stmts;
 
-import information.FieldInformation;
-import information.MethodInformation;
+import execution.Layout;
+import execution.Node;
+import execution.Routine;
+import execution.Statement;
+import information.FieldSymbolTable;
+import information.MethodSymbolTable;
 import tokens.methods.args.Args;
 import type_checking.TypeCheckException;
 
-import java.util.Map;
+import java.io.IOException;
 
 import static type_checking.TypeCheckException.undeclaredError;
 
@@ -27,12 +31,16 @@ public final class MethodInvocationStmt implements Stmt {
     }
 
     @Override
-    public String asString(String prefix, int tabs) {
-        return prefix + id + "(" + (args == null ? "" : args.asString(tabs)) + ");";
+    public void appendTo(Appendable out, String prefix, int tabs) throws IOException {
+        out.append(prefix).append(id).append('(');
+        if (args != null) {
+            args.appendTo(out, tabs);
+        }
+        out.append(");");
     }
 
     @Override
-    public Void typeCheck(int scope, Map<String, FieldInformation> fieldSymbolTable, Map<String, MethodInformation> methodSymbolTable) throws TypeCheckException {
+    public Void typeCheck(int scope, FieldSymbolTable fieldSymbolTable, MethodSymbolTable methodSymbolTable) throws TypeCheckException {
         if (!methodSymbolTable.containsKey(id)) {
             throw undeclaredError(id);
         }
@@ -41,4 +49,13 @@ public final class MethodInvocationStmt implements Stmt {
         }
         return null;
     }
+
+    @Override
+    public Statement compile(int scope, Layout layout) throws TypeCheckException {
+        Routine routine = layout.routine(id);
+        if (routine == null) {
+            throw undeclaredError(id);
+        }
+        return Statement.invoke(Node.invocation(routine, args != null ? args.compile(scope, layout) : Node.NO_ARGS));
+    }
 }
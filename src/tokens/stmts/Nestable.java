@@ -1,5 +1,8 @@
 package tokens.stmts;
 
 public interface Nestable extends Contextualized {
-    boolean hasReturnStmt();
+    /**
+     * Whether every path through these statements ends in a return, so that control can never run off their end.
+     */
+    boolean alwaysReturns();
 }
@@ -1,11 +1,13 @@
 package tokens.stmts;
 
-import information.FieldInformation;
-import information.MethodInformation;
+import execution.Layout;
+import execution.Statement;
+import information.FieldSymbolTable;
+import information.MethodSymbolTable;
 import tokens.methods.args.PrintLineList;
 import type_checking.TypeCheckException;
 
-import java.util.Map;
+import java.io.IOException;
 
 public final class PrintLineStmt implements Stmt {
     public static PrintLineStmt of(PrintLineList printLineList) {
@@ -19,13 +21,20 @@ public final class PrintLineStmt implements Stmt {
     }
 
     @Override
-    public String asString(String prefix, int tabs) {
-        return prefix + "printline(" + printLineList.asString(tabs) + ");";
+    public void appendTo(Appendable out, String prefix, int tabs) throws IOException {
+        out.append(prefix).append("printline(");
+        printLineList.appendTo(out, tabs);
+        out.append(");");
     }
 
     @Override
-    public Void typeCheck(int scope, Map<String, FieldInformation> fieldSymbolTable, Map<String, MethodInformation> methodSymbolTable) throws TypeCheckException {
+    public Void typeCheck(int scope, FieldSymbolTable fieldSymbolTable, MethodSymbolTable methodSymbolTable) throws TypeCheckException {
         printLineList.typeCheck(scope, fieldSymbolTable, methodSymbolTable);
         return null;
     }
+
+    @Override
+    public Statement compile(int scope, Layout layout) throws TypeCheckException {
+        return Statement.print(printLineList.compile(scope, layout), true);
+    }
 }
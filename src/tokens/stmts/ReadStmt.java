@@ -1,11 +1,13 @@
 package tokens.stmts;
 
-import information.FieldInformation;
-import information.MethodInformation;
+import execution.Layout;
+import execution.Statement;
+import information.FieldSymbolTable;
+import information.MethodSymbolTable;
 import tokens.methods.args.ReadList;
 import type_checking.TypeCheckException;
 
-import java.util.Map;
+import java.io.IOException;
 
 public final class ReadStmt implements Stmt {
     public static ReadStmt of(ReadList readList) {
@@ -19,13 +21,20 @@ public final class ReadStmt implements Stmt {
     }
 
     @Override
-    public String asString(String prefix, int tabs) {
-        return prefix + "read(" + readList.asString(tabs) + ");";
+    public void appendTo(Appendable out, String prefix, int tabs) throws IOException {
+        out.append(prefix).append("read(");
+        readList.appendTo(out, tabs);
+        out.append(");");
     }
 
     @Override
-    public Void typeCheck(int scope, Map<String, FieldInformation> fieldSymbolTable, Map<String, MethodInformation> methodSymbolTable) throws TypeCheckException {
+    public Void typeCheck(int scope, FieldSymbolTable fieldSymbolTable, MethodSymbolTable methodSymbolTable) throws TypeCheckException {
         readList.typeCheck(scope, fieldSymbolTable, methodSymbolTable);
         return null;
     }
+
+    @Override
+    public Statement compile(int scope, Layout layout) throws TypeCheckException {
+        return Statement.read(readList.compile(scope, layout));
+    }
 }
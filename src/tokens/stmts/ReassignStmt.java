@@ -1,15 +1,18 @@
 package tokens.stmts;
 
-import information.FieldInformation;
-import information.MethodInformation;
+import execution.Layout;
+import execution.Statement;
+import information.FieldSymbolTable;
+import information.MethodSymbolTable;
+import information.Resolution;
 import tokens.expr.Expr;
 import tokens.id.Name;
 import tokens.lexeme.Type;
 import tokens.lexeme.Types;
 import type_checking.TypeCheckException;
-import utils.Pair;
+import type_checking.TypeRules;
 
-import java.util.Map;
+import java.io.IOException;
 
 import static type_checking.TypeCheckException.conversionError;
 
@@ -46,38 +49,33 @@ public final class ReassignStmt implements Stmt {
     }
 
     @Override
-    public String asString(String prefix, int tabs) {
-        return prefix + name.asString(tabs) + " = " + expr.asString(tabs) + ";";
+    public void appendTo(Appendable out, String prefix, int tabs) throws IOException {
+        out.append(prefix);
+        name.appendTo(out, tabs);
+        out.append(" = ");
+        expr.appendTo(out, tabs);
+        out.append(';');
     }
 
     @Override
-    public Void typeCheck(int scope, Map<String, FieldInformation> fieldSymbolTable, Map<String, MethodInformation> methodSymbolTable) throws TypeCheckException {
-        Pair<Type, Boolean> closestScopeInfo = name.typeCheck(scope, fieldSymbolTable, methodSymbolTable);
-        Type closestScopeType = closestScopeInfo.getFirst();
-        boolean closestScopeIsFinal = closestScopeInfo.getSecond();
+    public Void typeCheck(int scope, FieldSymbolTable fieldSymbolTable, MethodSymbolTable methodSymbolTable) throws TypeCheckException {
+        int closestScopeResolution = name.resolve(scope, fieldSymbolTable, methodSymbolTable);
+        Type closestScopeType = Resolution.type(closestScopeResolution);
+        boolean closestScopeIsFinal = Resolution.isFinal(closestScopeResolution);
         Type exprType = expr.typeCheck(scope, fieldSymbolTable, methodSymbolTable);
 
         if (closestScopeIsFinal) {
             throw TypeCheckException.withFault("Error: Final variables cannot be reassigned.");
-        } else if (closestScopeType == Types.INTLIT) {
-            if (exprType != Types.INTLIT) {
-                throw conversionError(exprType, "int");
-            }
-        } else if (closestScopeType == Types.FLOATLIT) {
-            if (exprType != Types.FLOATLIT && exprType != Types.INTLIT) {
-                throw conversionError(exprType, "float");
-            }
-        } else if (closestScopeType == Types.BOOLLIT) {
-            if (exprType != Types.BOOLLIT && exprType != Types.INTLIT) {
-                throw conversionError(exprType, "bool");
-            }
-        } else if (closestScopeType == Types.CHARLIT) {
-            if (exprType != Types.CHARLIT) {
-                throw conversionError(exprType, "char");
-            }
-        } else {
+        } else if (closestScopeType.isArray() || closestScopeType == Types.STR || closestScopeType == Types.VOID) {
             throw TypeCheckException.withFault("Error: incompatible types");
+        } else if (!TypeRules.isAssignable(closestScopeType, exprType)) {
+            throw conversionError(exprType, closestScopeType.getType());
         }
         return null;
     }
+
+    @Override
+    public Statement compile(int scope, Layout layout) throws TypeCheckException {
+        return Statement.assign(name.compile(scope, layout), expr.compile(scope, layout));
+    }
 }
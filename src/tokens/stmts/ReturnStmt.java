@@ -1,13 +1,15 @@
 package tokens.stmts;
 
-import information.FieldInformation;
-import information.MethodInformation;
+import execution.Layout;
+import execution.Statement;
+import information.FieldSymbolTable;
+import information.MethodSymbolTable;
 import tokens.expr.Expr;
 import tokens.lexeme.Type;
 import tokens.lexeme.Types;
 import type_checking.TypeCheckException;
 
-import java.util.Map;
+import java.io.IOException;
 import java.util.Objects;
 
 public final class ReturnStmt implements Stmt, Contextualized {
@@ -26,18 +28,28 @@ public final class ReturnStmt implements Stmt, Contextualized {
         this.expr = expr;
     }
 
+    @Override
+    public boolean alwaysReturns() {
+        return true;
+    }
+
     @Override
     public void setMethodId(String methodId) {
         this.methodId = methodId;
     }
 
     @Override
-    public String asString(String prefix, int tabs) {
-        return prefix + "return" + (expr == null ? "" : " " + expr.asString(tabs)) + ";";
+    public void appendTo(Appendable out, String prefix, int tabs) throws IOException {
+        out.append(prefix).append("return");
+        if (expr != null) {
+            out.append(' ');
+            expr.appendTo(out, tabs);
+        }
+        out.append(';');
     }
 
     @Override
-    public Void typeCheck(int scope, Map<String, FieldInformation> fieldSymbolTable, Map<String, MethodInformation> methodSymbolTable) throws TypeCheckException {
+    public Void typeCheck(int scope, FieldSymbolTable fieldSymbolTable, MethodSymbolTable methodSymbolTable) throws TypeCheckException {
         Objects.requireNonNull(methodId);
 
         Type methodType = methodSymbolTable.get(methodId).getType();
@@ -48,10 +60,15 @@ public final class ReturnStmt implements Stmt, Contextualized {
             }
         } else {
             Type exprType = expr.typeCheck(scope, fieldSymbolTable, methodSymbolTable);
-            if (!methodType.equals(exprType)) {
+            if (methodType != exprType) {
                 throw TypeCheckException.withFault("Error: Method " + methodId + " expects return type " + methodType.getType() + ", but received return type " + exprType.getType());
             }
         }
         return null;
     }
+
+    @Override
+    public Statement compile(int scope, Layout layout) throws TypeCheckException {
+        return Statement.returning(expr != null ? expr.compile(scope, layout) : null);
+    }
 }
@@ -1,7 +1,27 @@
 package tokens.stmts;
 
+import execution.Compilable;
+import execution.Statement;
 import type_checking.TypeCheckable;
+import utils.StringHelper;
 
-public interface Stmt extends TypeCheckable<Void> {
-    String asString(String prefix, int tabs);
+import java.io.IOException;
+
+public interface Stmt extends TypeCheckable<Void>, Compilable<Statement> {
+    /**
+     * Writes the source form of this statement to the output, starting with the given prefix and indenting any
+     * further lines it starts by the given number of tabs.
+     */
+    void appendTo(Appendable out, String prefix, int tabs) throws IOException;
+
+    default String asString(String prefix, int tabs) {
+        return StringHelper.collect(out -> appendTo(out, prefix, tabs));
+    }
+
+    /**
+     * Whether every path through this statement ends in a return, so that control can never run past it.
+     */
+    default boolean alwaysReturns() {
+        return false;
+    }
 }
@@ -1,60 +1,93 @@
 package tokens.stmts;
 
-import information.FieldInformation;
-import information.MethodInformation;
+import execution.Compilable;
+import execution.Layout;
+import execution.Statement;
+import information.FieldSymbolTable;
+import information.MethodSymbolTable;
 import tokens.NonTerminalToken;
+import type_checking.Diagnostics;
 import type_checking.TypeCheckException;
 import type_checking.TypeCheckable;
 import utils.StringHelper;
 
-import java.util.Map;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
-import static utils.SymbolTableHelper.removeScopeFromSymbolTable;
-
-public final class Stmts implements NonTerminalToken, TypeCheckable<Void>, Nestable {
+/**
+ * A sequence of statements, stored contiguously in source order so that it can be walked with a loop however long it
+ * is.
+ */
+public final class Stmts implements NonTerminalToken, TypeCheckable<Void>, Nestable, Compilable<Statement> {
+    /**
+     * Collects statements in source order. The parser keeps one builder per sequence and appends to it on every
+     * reduction.
+     */
     public static final class Builder {
-        private Stmt stmt = null;
-        private Stmts stmts = null;
+        private Stmt[] stmts = new Stmt[INITIAL_CAPACITY];
+        private int[] lines = new int[INITIAL_CAPACITY];
+        private int[] columns = new int[INITIAL_CAPACITY];
+        private int size;
 
+        /**
+         * Appends a statement, at an unknown position until {@link #position(int, int)} says otherwise.
+         */
         public Builder stmt(Stmt stmt) {
-            this.stmt = stmt;
+            if (size == stmts.length) {
+                stmts = Arrays.copyOf(stmts, size << 1);
+                lines = Arrays.copyOf(lines, size << 1);
+                columns = Arrays.copyOf(columns, size << 1);
+            }
+            stmts[size] = stmt;
+            lines[size] = 0;
+            columns[size] = 0;
+            size++;
             return this;
         }
 
-        public Builder stmts(Stmts stmts) {
-            this.stmts = stmts;
+        /**
+         * Sets the position of the statement appended last.
+         */
+        public Builder position(int line, int column) {
+            lines[size - 1] = line;
+            columns[size - 1] = column;
             return this;
         }
 
         public Stmts build() {
-            return new Stmts(stmt, stmts);
+            return new Stmts(Arrays.copyOf(stmts, size), Arrays.copyOf(lines, size), Arrays.copyOf(columns, size));
         }
     }
 
+    private static final int INITIAL_CAPACITY = 8;
+
     public static Builder builder() {
         return new Builder();
     }
 
     private String methodId;
-    private final Stmt stmt;
-    private final Stmts stmts;
+    private final Stmt[] stmts;
+    private final int[] lines;
+    private final int[] columns;
 
-    private Stmts(Stmt stmt, Stmts stmts) {
-        this.stmt = stmt;
+    private Stmts(Stmt[] stmts, int[] lines, int[] columns) {
         this.stmts = stmts;
+        this.lines = lines;
+        this.columns = columns;
+    }
+
+    public int size() {
+        return stmts.length;
     }
 
     @Override
-    public boolean hasReturnStmt() {
-        if (stmt instanceof ReturnStmt) {
-            return true;
-        }
-        Stmts currentStmts = stmts;
-        while (currentStmts != null) {
-            if (currentStmts.stmt instanceof ReturnStmt) {
+    public boolean alwaysReturns() {
+        for (Stmt stmt : stmts) {
+            if (stmt.alwaysReturns()) {
                 return true;
             }
-            currentStmts = stmts.stmts;
         }
         return false;
     }
@@ -65,21 +98,40 @@ public final class Stmts implements NonTerminalToken, TypeCheckable<Void>, Nesta
     }
 
     @Override
-    public String asString(int tabs) {
-        return (stmts == null ? "" : stmts.asString(tabs)) + stmt.asString(StringHelper.tabs(tabs), tabs) + "\n";
+    public void appendTo(Appendable out, int tabs) throws IOException {
+        String prefix = StringHelper.tabs(tabs);
+        for (Stmt stmt : stmts) {
+            stmt.appendTo(out, prefix, tabs);
+            out.append('\n');
+        }
     }
 
     @Override
-    public Void typeCheck(int scope, Map<String, FieldInformation> fieldSymbolTable, Map<String, MethodInformation> methodSymbolTable) throws TypeCheckException {
-        if (stmts != null) {
-            stmts.setMethodId(methodId);
-            stmts.typeCheck(scope, fieldSymbolTable, methodSymbolTable);
-        }
-        if (stmt instanceof Contextualized) {
-            ((Contextualized) stmt).setMethodId(methodId);
+    public Void typeCheck(int scope, FieldSymbolTable fieldSymbolTable, MethodSymbolTable methodSymbolTable) throws TypeCheckException {
+        Diagnostics diagnostics = Diagnostics.empty();
+        for (int i = 0; i < stmts.length; i++) {
+            Stmt stmt = stmts[i];
+            if (stmt instanceof Contextualized) {
+                ((Contextualized) stmt).setMethodId(methodId);
+            }
+            try {
+                stmt.typeCheck(scope, fieldSymbolTable, methodSymbolTable);
+            } catch (TypeCheckException e) {
+                diagnostics.add(e, lines[i], columns[i]);
+            }
+            fieldSymbolTable.removeScope(scope + 1);
         }
-        stmt.typeCheck(scope, fieldSymbolTable, methodSymbolTable);
-        removeScopeFromSymbolTable(scope + 1, fieldSymbolTable);
+        diagnostics.throwIfAny();
         return null;
     }
+
+    @Override
+    public Statement compile(int scope, Layout layout) throws TypeCheckException {
+        List<Statement> statements = new ArrayList<>(stmts.length);
+        for (Stmt stmt : stmts) {
+            statements.add(stmt.compile(scope, layout));
+            layout.removeScope(scope + 1);
+        }
+        return Statement.sequence(statements);
+    }
 }
@@ -1,19 +1,24 @@
 package tokens.stmts;
 
-import information.FieldInformation;
-import information.MethodInformation;
+import execution.Layout;
+import execution.Statement;
+import information.FieldSymbolTable;
+import information.MethodSymbolTable;
 import tokens.expr.Expr;
 import tokens.lexeme.Type;
-import tokens.lexeme.Types;
+import type_checking.Diagnostics;
 import type_checking.TypeCheckException;
+import type_checking.TypeRules;
 import utils.StringHelper;
 
-import java.util.Map;
+import java.io.IOException;
 
 public final class WhileStmt implements Stmt, Nestable {
     public static class Builder {
         private Expr expr;
         private Stmt stmt;
+        private int line;
+        private int column;
 
         public Builder expr(Expr expr) {
             this.expr = expr;
@@ -25,8 +30,17 @@ public final class WhileStmt implements Stmt, Nestable {
             return this;
         }
 
+        /**
+         * Sets the position of the statement, so that its faults are reported there rather than at this one.
+         */
+        public Builder stmtPosition(int line, int column) {
+            this.line = line;
+            this.column = column;
+            return this;
+        }
+
         public WhileStmt build() {
-            return new WhileStmt(expr, stmt);
+            return new WhileStmt(expr, stmt, line, column);
         }
     }
 
@@ -37,15 +51,20 @@ public final class WhileStmt implements Stmt, Nestable {
     private String methodId;
     private final Expr expr;
     private final Stmt stmt;
+    private final int line;
+    private final int column;
 
-    private WhileStmt(Expr expr, Stmt stmt) {
+    private WhileStmt(Expr expr, Stmt stmt, int line, int column) {
         this.expr = expr;
         this.stmt = stmt;
+        this.line = line;
+        this.column = column;
     }
 
     @Override
-    public boolean hasReturnStmt() {
-        return stmt instanceof ReturnStmt;
+    public boolean alwaysReturns() {
+        // The condition may be false on entry, so the body may never run.
+        return false;
     }
 
     @Override
@@ -54,24 +73,43 @@ public final class WhileStmt implements Stmt, Nestable {
     }
 
     @Override
-    public String asString(String prefix, int tabs) {
+    public void appendTo(Appendable out, String prefix, int tabs) throws IOException {
+        out.append(prefix).append("while (");
+        expr.appendTo(out, tabs);
         if (stmt instanceof BodyStmt) {
-            return prefix + "while (" + expr.asString(tabs) + ") " + stmt.asString("", tabs);
+            out.append(") ");
+            stmt.appendTo(out, "", tabs);
         } else {
-            return prefix + "while (" + expr.asString(tabs) + ")\n" + stmt.asString(StringHelper.tabs(tabs + 1), tabs + 1);
+            out.append(")\n");
+            stmt.appendTo(out, StringHelper.tabs(tabs + 1), tabs + 1);
         }
     }
 
     @Override
-    public Void typeCheck(int scope, Map<String, FieldInformation> fieldSymbolTable, Map<String, MethodInformation> methodSymbolTable) throws TypeCheckException {
-        Type exprType = expr.typeCheck(scope, fieldSymbolTable, methodSymbolTable);
-        if (exprType != Types.BOOLLIT && exprType != Types.INTLIT) {
-            throw TypeCheckException.withFault("Error: While statement cannot be determined with expression that is not boolean (or implicitly coerced)");
+    public Void typeCheck(int scope, FieldSymbolTable fieldSymbolTable, MethodSymbolTable methodSymbolTable) throws TypeCheckException {
+        Diagnostics diagnostics = Diagnostics.empty();
+        try {
+            Type exprType = expr.typeCheck(scope, fieldSymbolTable, methodSymbolTable);
+            if (!TypeRules.isConditional(exprType)) {
+                diagnostics.add(TypeCheckException.withFault("Error: While statement cannot be determined with expression that is not boolean (or implicitly coerced)"));
+            }
+        } catch (TypeCheckException e) {
+            diagnostics.add(e);
         }
         if (stmt instanceof Contextualized) {
             ((Contextualized) stmt).setMethodId(methodId);
         }
-        stmt.typeCheck(scope + 1, fieldSymbolTable, methodSymbolTable);
+        try {
+            stmt.typeCheck(scope + 1, fieldSymbolTable, methodSymbolTable);
+        } catch (TypeCheckException e) {
+            diagnostics.add(e, line, column);
+        }
+        diagnostics.throwIfAny();
         return null;
     }
+
+    @Override
+    public Statement compile(int scope, Layout layout) throws TypeCheckException {
+        return Statement.loop(expr.compile(scope, layout), stmt.compile(scope + 1, layout));
+    }
 }
@@ -0,0 +1,57 @@
+package type_checking;
+
+/**
+ * A single type error. Faults are raised without a position; the enclosing statement or declaration fills in its
+ * line and column on the way out, so a fault is reported at the innermost statement or declaration containing it.
+ */
+public final class Diagnostic {
+    private static final int UNKNOWN = 0;
+
+    public static Diagnostic of(String fault) {
+        return new Diagnostic(fault, UNKNOWN, UNKNOWN);
+    }
+
+    private final String fault;
+    private final int line;
+    private final int column;
+
+    private Diagnostic(String fault, int line, int column) {
+        this.fault = fault;
+        this.line = line;
+        this.column = column;
+    }
+
+    public String getFault() {
+        return fault;
+    }
+
+    /**
+     * The line the fault was found on, counting from 1, or 0 if it is not known.
+     */
+    public int getLine() {
+        return line;
+    }
+
+    /**
+     * The column the fault was found on, counting from 1, or 0 if it is not known.
+     */
+    public int getColumn() {
+        return column;
+    }
+
+    public boolean hasPosition() {
+        return line != UNKNOWN;
+    }
+
+    /**
+     * Returns this diagnostic positioned at the given line and column, unless it already has a position.
+     */
+    public Diagnostic at(int line, int column) {
+        return hasPosition() || line == UNKNOWN ? this : new Diagnostic(fault, line, column);
+    }
+
+    @Override
+    public String toString() {
+        return hasPosition() ? line + ":" + column + ": " + fault : fault;
+    }
+}
@@ -0,0 +1,55 @@
+package type_checking;
+
+import java.util.List;
+import java.util.ListIterator;
+
+/**
+ * Collects the faults found while checking a sequence of declarations or statements, so checking can carry on past a
+ * fault and every fault is reported at the end, in source order.
+ */
+public final class Diagnostics {
+    public static Diagnostics empty() {
+        return new Diagnostics();
+    }
+
+    private List<Diagnostic> diagnostics = null;
+
+    private Diagnostics() {
+    }
+
+    /**
+     * Records every fault carried by the exception.
+     */
+    public void add(TypeCheckException exception) {
+        if (diagnostics == null) {
+            diagnostics = exception.diagnostics();
+        } else {
+            diagnostics.addAll(exception.diagnostics());
+        }
+    }
+
+    /**
+     * Records every fault carried by the exception, placing the ones that do not have a position yet at the given
+     * line and column.
+     */
+    public void add(TypeCheckException exception, int line, int column) {
+        ListIterator<Diagnostic> iterator = exception.diagnostics().listIterator();
+        while (iterator.hasNext()) {
+            iterator.set(iterator.next().at(line, column));
+        }
+        add(exception);
+    }
+
+    public boolean isEmpty() {
+        return diagnostics == null;
+    }
+
+    /**
+     * Throws a single exception carrying every recorded fault, if there were any.
+     */
+    public void throwIfAny() throws TypeCheckException {
+        if (diagnostics != null) {
+            throw TypeCheckException.withDiagnostics(diagnostics);
+        }
+    }
+}
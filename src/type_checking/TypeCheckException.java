@@ -2,11 +2,32 @@ package type_checking;
 
 import tokens.lexeme.Type;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Carries one or more type errors out of the checker. It records no stack trace, since it reports faults in the
+ * program being checked rather than in the checker, so raising one costs about as much as any other allocation.
+ *
+ * Faults are collected in the order they are found, which is not always the order of their positions: a missing
+ * return is found after the body of its method but reported at the method. They are sorted by position when read.
+ */
 public final class TypeCheckException extends Exception {
+    private static final long serialVersionUID = 1L;
+    private static final Comparator<Diagnostic> SOURCE_ORDER =
+            Comparator.comparingInt(Diagnostic::getLine).thenComparingInt(Diagnostic::getColumn);
+
     public static TypeCheckException withFault(String fault) {
         return new TypeCheckException(fault);
     }
 
+    static TypeCheckException withDiagnostics(List<Diagnostic> diagnostics) {
+        return new TypeCheckException(diagnostics);
+    }
+
     public static TypeCheckException conversionError(Type type, String original) {
         return TypeCheckException.withFault("Error: cannot convert " + type.getType() + " to " + original);
     }
@@ -19,14 +40,32 @@ public final class TypeCheckException extends Exception {
         return TypeCheckException.withFault("Error: " + id + " is undeclared, but is attempting to be used");
     }
 
-    private final String fault;
+    private final List<Diagnostic> diagnostics;
 
     public TypeCheckException(String fault) {
-        this.fault = fault;
+        this(new ArrayList<>(List.of(Diagnostic.of(fault))));
+    }
+
+    private TypeCheckException(List<Diagnostic> diagnostics) {
+        super(null, null, false, false);
+        this.diagnostics = diagnostics;
+    }
+
+    /**
+     * Every fault carried by this exception, in source order.
+     */
+    public List<Diagnostic> getDiagnostics() {
+        List<Diagnostic> sorted = new ArrayList<>(diagnostics);
+        sorted.sort(SOURCE_ORDER);
+        return Collections.unmodifiableList(sorted);
+    }
+
+    List<Diagnostic> diagnostics() {
+        return diagnostics;
     }
 
     @Override
     public String toString() {
-        return fault;
+        return getDiagnostics().stream().map(Diagnostic::toString).collect(Collectors.joining("\n"));
     }
 }
@@ -1,10 +1,8 @@
 package type_checking;
 
-import information.FieldInformation;
-import information.MethodInformation;
-
-import java.util.Map;
+import information.FieldSymbolTable;
+import information.MethodSymbolTable;
 
 public interface TypeCheckable<R> {
-    R typeCheck(int scope, Map<String, FieldInformation> fieldSymbolTable, Map<String, MethodInformation> methodSymbolTable) throws TypeCheckException;
+    R typeCheck(int scope, FieldSymbolTable fieldSymbolTable, MethodSymbolTable methodSymbolTable) throws TypeCheckException;
 }
@@ -0,0 +1,121 @@
+package type_checking;
+
+import tokens.expr.Operator;
+import tokens.lexeme.Type;
+import tokens.lexeme.Types;
+
+/**
+ * The typing rules of the language, precomputed into flat tables indexed by {@link Type#getId() type id} so that
+ * every check is a single array load. This is the single place that defines implicit coercions (int to float, int to
+ * bool), which casts are legal and what each binary operation evaluates to.
+ */
+public final class TypeRules {
+    private TypeRules() {
+    }
+
+    private static final boolean[] NUMERIC = new boolean[Types.ID_COUNT];
+    private static final boolean[] CONDITIONAL = new boolean[Types.ID_COUNT];
+    private static final boolean[] ASSIGNABLE = new boolean[Types.ID_COUNT * Types.ID_COUNT];
+    private static final boolean[] CASTABLE = new boolean[Types.ID_COUNT * Types.ID_COUNT];
+    private static final Type[] BINARY_RESULTS = new Type[Operator.values().length * Types.ID_COUNT * Types.ID_COUNT];
+
+    static {
+        NUMERIC[Types.INTLIT.getId()] = true;
+        NUMERIC[Types.FLOATLIT.getId()] = true;
+        CONDITIONAL[Types.BOOLLIT.getId()] = true;
+        CONDITIONAL[Types.INTLIT.getId()] = true;
+
+        for (int id = 0; id < Types.ID_COUNT; id++) {
+            ASSIGNABLE[pair(id, id)] = true;
+        }
+        ASSIGNABLE[pair(Types.FLOATLIT.getId(), Types.INTLIT.getId())] = true;
+        ASSIGNABLE[pair(Types.BOOLLIT.getId(), Types.INTLIT.getId())] = true;
+        // A string takes a value of any type, which is converted to its text.
+        for (int id = 0; id < Types.ID_COUNT; id++) {
+            ASSIGNABLE[pair(Types.STR.getId(), id)] = true;
+        }
+
+        for (int target = 0; target < Types.ID_COUNT; target++) {
+            for (int source = 0; source < Types.ID_COUNT; source++) {
+                CASTABLE[pair(target, source)] = computeCastable(Types.byId(target), Types.byId(source));
+            }
+        }
+
+        for (Operator operator : Operator.values()) {
+            for (int left = 0; left < Types.ID_COUNT; left++) {
+                for (int right = 0; right < Types.ID_COUNT; right++) {
+                    BINARY_RESULTS[operation(operator, left, right)] = computeBinaryResult(operator, Types.byId(left), Types.byId(right));
+                }
+            }
+        }
+    }
+
+    /**
+     * Whether the type can be used in arithmetic: int or float.
+     */
+    public static boolean isNumeric(Type type) {
+        return NUMERIC[type.getId()];
+    }
+
+    /**
+     * Whether the type can be used as a condition: bool, or int implicitly coerced to bool.
+     */
+    public static boolean isConditional(Type type) {
+        return CONDITIONAL[type.getId()];
+    }
+
+    /**
+     * Whether a value of the source type can be stored in a variable or argument of the target type. A string
+     * argument takes a value of any type.
+     */
+    public static boolean isAssignable(Type target, Type source) {
+        return ASSIGNABLE[pair(target.getId(), source.getId())];
+    }
+
+    /**
+     * Whether a value of the source type can be explicitly cast to the target type.
+     */
+    public static boolean isCastable(Type target, Type source) {
+        return CASTABLE[pair(target.getId(), source.getId())];
+    }
+
+    /**
+     * The type of applying the operator to operands of the given types, or null if the operation is not allowed.
+     */
+    public static Type getBinaryResult(Operator operator, Type left, Type right) {
+        return BINARY_RESULTS[operation(operator, left.getId(), right.getId())];
+    }
+
+    private static int pair(int first, int second) {
+        return first * Types.ID_COUNT + second;
+    }
+
+    private static int operation(Operator operator, int left, int right) {
+        return operator.ordinal() * Types.ID_COUNT * Types.ID_COUNT + pair(left, right);
+    }
+
+    private static boolean computeCastable(Type target, Type source) {
+        if (source == Types.INTLIT) {
+            return target == Types.INTLIT || target == Types.BOOLLIT || target == Types.FLOATLIT;
+        } else if (source == Types.FLOATLIT || source == Types.BOOLLIT || source == Types.CHARLIT) {
+            return target == source;
+        }
+        // Of the other types, only arrays can be cast to a string.
+        return source.isArray() || target != Types.STR;
+    }
+
+    private static Type computeBinaryResult(Operator operator, Type left, Type right) {
+        if (operator == Operator.PLUS && (left == Types.STR || right == Types.STR)) {
+            return Types.STR;
+        } else if (operator.isArithmetic()) {
+            if (!NUMERIC[left.getId()] || !NUMERIC[right.getId()]) {
+                return null;
+            }
+            return left == Types.FLOATLIT || right == Types.FLOATLIT ? Types.FLOATLIT : Types.INTLIT;
+        } else if (operator.isRelational()) {
+            return NUMERIC[left.getId()] && NUMERIC[right.getId()] ? Types.BOOLLIT : null;
+        } else {
+            return CONDITIONAL[left.getId()] && CONDITIONAL[right.getId()] ? Types.BOOLLIT : null;
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package utils;
+
+import java_cup.runtime.Scanner;
+import java_cup.runtime.Symbol;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Where the time goes when compiling one file: the wall time, CPU time and bytes allocated by each phase, and counts
+ * of what the phases worked through, reported as one JSON line.
+ *
+ * CPU time and allocation are those of the thread running each phase, so work a phase hands to other threads (more
+ * than one job, a pipelined lexer, a streaming check) shows up in its wall time only. Lexing is timed token by token,
+ * which makes it somewhat slower than without stats, and is taken out of the phase that pulled the tokens.
+ *
+ * Every phase measured is also emitted as a {@link CompilerEvents.PhaseEvent} while Flight Recorder is running, with
+ * or without stats.
+ */
+public final class CompileStats {
+    /**
+     * A phase being measured, which lasts until it is ended.
+     */
+    public interface Phase {
+        void end();
+    }
+
+    // Not a lambda, so that running without stats does not pay for bootstrapping one at startup.
+    private static final Phase NOT_MEASURED = new Phase() {
+        @Override
+        public void end() {
+        }
+    };
+
+    public static final String LEX = "lex";
+    public static final String PARSE = "parse";
+    public static final String PRINT = "print";
+    public static final String CHECK = "check";
+
+    public static CompileStats collect() {
+        return new CompileStats();
+    }
+
+    /**
+     * Starts measuring a phase into the given stats, if there are any, and into a Flight Recorder event, if it is
+     * running.
+     */
+    public static Phase measure(CompileStats stats, String phase) {
+        CompilerEvents.PhaseEvent event = CompilerEvents.phaseStarted(phase);
+        if (event == null) {
+            return stats == null ? NOT_MEASURED : stats.start(phase);
+        }
+        return new RecordedPhase(event, stats == null ? NOT_MEASURED : stats.start(phase));
+    }
+
+    // Looked up only once stats are asked for, since the management classes take a while to load.
+    private final com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private final Thread owner = Thread.currentThread();
+    // Lexing may happen on a thread of its own, so it is kept apart from the phases the owner measures.
+    private final Measure lexed = new Measure();
+    private final Map<String, Measure> phases = new LinkedHashMap<>();
+    // Lexing done on the owner's thread, and so inside whichever phase was pulling the tokens.
+    private final Measure lexedInline = new Measure();
+    private long tokens;
+    private long nodes;
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder scopeRemovals = new LongAdder();
+    private final AtomicInteger peakFieldSymbols = new AtomicInteger();
+    private final AtomicInteger peakMethodSymbols = new AtomicInteger();
+
+    private CompileStats() {
+    }
+
+    /**
+     * Starts measuring one phase of the compile on this thread; what it costs until ended is added to the phase's
+     * totals.
+     */
+    public Phase start(String phase) {
+        long wall = System.nanoTime();
+        long cpu = threads.getCurrentThreadCpuTime();
+        long allocated = threads.getCurrentThreadAllocatedBytes();
+        Measure lexedBefore = lexedInline.copy();
+        return () -> {
+            Measure measure = phases.computeIfAbsent(phase, name -> new Measure());
+            measure.add(System.nanoTime() - wall, threads.getCurrentThreadCpuTime() - cpu, threads.getCurrentThreadAllocatedBytes() - allocated);
+            measure.subtract(lexedInline, lexedBefore);
+        };
+    }
+
+    /**
+     * Wraps the scanner so that the tokens it returns are counted and the time spent lexing them is reported as its
+     * own phase.
+     */
+    public Scanner lexing(Scanner scanner) {
+        return () -> {
+            long wall = System.nanoTime();
+            long cpu = threads.getCurrentThreadCpuTime();
+            long allocated = threads.getCurrentThreadAllocatedBytes();
+            Symbol token = scanner.next_token();
+            wall = System.nanoTime() - wall;
+            cpu = threads.getCurrentThreadCpuTime() - cpu;
+            allocated = threads.getCurrentThreadAllocatedBytes() - allocated;
+            lexed.add(wall, cpu, allocated);
+            if (Thread.currentThread() == owner) {
+                lexedInline.add(wall, cpu, allocated);
+            }
+            // The parser may ask for the end of input more than once, so only the tokens of the source are counted.
+            if (token.sym != 0) {
+                tokens++;
+            }
+            return token;
+        };
+    }
+
+    /**
+     * Counts tokens lexed without going through {@link #lexing(Scanner)}.
+     */
+    public void tokens(long tokens) {
+        this.tokens += tokens;
+    }
+
+    public void nodes(long nodes) {
+        this.nodes += nodes;
+    }
+
+    public void lookup() {
+        lookups.increment();
+    }
+
+    public void scopeRemoved() {
+        scopeRemovals.increment();
+    }
+
+    public void fieldSymbols(int size) {
+        peakFieldSymbols.accumulateAndGet(size, Math::max);
+    }
+
+    public void methodSymbols(int size) {
+        peakMethodSymbols.accumulateAndGet(size, Math::max);
+    }
+
+    /**
+     * The stats as one line of JSON, with durations in nanoseconds.
+     */
+    public String toJson(String file) {
+        StringBuilder json = new StringBuilder("{\"file\":");
+        appendString(json, file);
+        json.append(",\"phases\":{");
+        String separator = "";
+        if (!lexed.isEmpty()) {
+            json.append('"').append(LEX).append("\":");
+            lexed.appendTo(json);
+            separator = ",";
+        }
+        for (Map.Entry<String, Measure> phase : phases.entrySet()) {
+            if (phase.getValue().isEmpty()) {
+                continue;
+            }
+            json.append(separator).append('"').append(phase.getKey()).append("\":");
+            phase.getValue().appendTo(json);
+            separator = ",";
+        }
+        return json.append("},\"tokens\":").append(tokens)
+                .append(",\"ast_nodes\":").append(nodes)
+                .append(",\"symbol_lookups\":").append(lookups.sum())
+                .append(",\"scope_removals\":").append(scopeRemovals.sum())
+                .append(",\"peak_field_symbols\":").append(peakFieldSymbols.get())
+                .append(",\"peak_method_symbols\":").append(peakMethodSymbols.get())
+                .append('}').toString();
+    }
+
+    private static void appendString(StringBuilder json, String value) {
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                json.append('\\').append(c);
+            } else if (c < ' ') {
+                json.append(String.format("\\u%04x", (int) c));
+            } else {
+                json.append(c);
+            }
+        }
+        json.append('"');
+    }
+
+    private static final class RecordedPhase implements Phase {
+        private final CompilerEvents.PhaseEvent event;
+        private final Phase measured;
+
+        RecordedPhase(CompilerEvents.PhaseEvent event, Phase measured) {
+            this.event = event;
+            this.measured = measured;
+        }
+
+        @Override
+        public void end() {
+            measured.end();
+            event.commit();
+        }
+    }
+
+    private static final class Measure {
+        private long wallNanos;
+        private long cpuNanos;
+        private long allocatedBytes;
+        private boolean measured;
+
+        void add(long wallNanos, long cpuNanos, long allocatedBytes) {
+            this.wallNanos += wallNanos;
+            this.cpuNanos += cpuNanos;
+            this.allocatedBytes += allocatedBytes;
+            this.measured = true;
+        }
+
+        /**
+         * Takes out what was added to {@code total} since it was {@code before}.
+         */
+        void subtract(Measure total, Measure before) {
+            wallNanos -= total.wallNanos - before.wallNanos;
+            cpuNanos -= total.cpuNanos - before.cpuNanos;
+            allocatedBytes -= total.allocatedBytes - before.allocatedBytes;
+        }
+
+        Measure copy() {
+            Measure copy = new Measure();
+            copy.add(wallNanos, cpuNanos, allocatedBytes);
+            return copy;
+        }
+
+        boolean isEmpty() {
+            return !measured;
+        }
+
+        void appendTo(StringBuilder json) {
+            json.append("{\"wall_ns\":").append(wallNanos)
+                    .append(",\"cpu_ns\":").append(cpuNanos)
+                    .append(",\"allocated_bytes\":").append(allocatedBytes)
+                    .append('}');
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package utils;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The Flight Recorder events the compiler emits, for finding which files, phases and methods a slow run spent its time
+ * on. Record them with {@code -XX:StartFlightRecording}, or start a recording with {@code jcmd <pid> JFR.start}.
+ *
+ * Loading an event class starts up much of Flight Recorder, which costs a JVM that is not recording a few hundred
+ * milliseconds, so the events are only ever touched through the methods here, which return null or do nothing until
+ * Flight Recorder has been started.
+ */
+public final class CompilerEvents {
+    public static final String PUSH = "push";
+    public static final String POP = "pop";
+    private static final String CATEGORY = "Type Checker";
+
+    private CompilerEvents() {
+    }
+
+    /**
+     * Starts timing the phase, which ends when the event is committed, or returns null if Flight Recorder is not
+     * running.
+     */
+    public static PhaseEvent phaseStarted(String phase) {
+        return FlightRecorder.isInitialized() ? PhaseEvent.start(phase) : null;
+    }
+
+    /**
+     * Starts timing the type check of a method, or returns null if Flight Recorder is not running.
+     */
+    public static MethodCheckEvent methodCheckStarted() {
+        return FlightRecorder.isInitialized() ? MethodCheckEvent.start() : null;
+    }
+
+    /**
+     * Starts timing the compile of one file, or returns null if Flight Recorder is not running.
+     */
+    public static FileEvent fileStarted(String file) {
+        return FlightRecorder.isInitialized() ? FileEvent.start(file) : null;
+    }
+
+    /**
+     * Records a {@link #PUSH} or {@link #POP} of a symbol table scope, if this one is among those sampled.
+     */
+    public static void scopeChanged(String change, int scope, int symbols) {
+        if (FlightRecorder.isInitialized()) {
+            ScopeEvent.sample(change, scope, symbols);
+        }
+    }
+
+    @Name("typechecker.Phase")
+    @Label("Compiler Phase")
+    @Description("Lexing, parsing, printing or type checking a file")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    public static final class PhaseEvent extends Event {
+        @Label("Phase")
+        private String phase;
+
+        private static PhaseEvent start(String phase) {
+            PhaseEvent event = new PhaseEvent(phase);
+            event.begin();
+            return event;
+        }
+
+        private PhaseEvent(String phase) {
+            this.phase = phase;
+        }
+    }
+
+    @Name("typechecker.MethodCheck")
+    @Label("Method Check")
+    @Description("Type checking the arguments, locals and statements of one method")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    public static final class MethodCheckEvent extends Event {
+        @Label("Method")
+        private String method;
+
+        @Label("Statements")
+        @Description("Statements at the top level of the method body")
+        private int statements;
+
+        private static MethodCheckEvent start() {
+            MethodCheckEvent event = new MethodCheckEvent();
+            event.begin();
+            return event;
+        }
+
+        private MethodCheckEvent() {
+        }
+
+        public void commit(String method, int statements) {
+            if (shouldCommit()) {
+                this.method = method;
+                this.statements = statements;
+                commit();
+            }
+        }
+    }
+
+    @Name("typechecker.Scope")
+    @Label("Symbol Table Scope")
+    @Description("A scope of the field symbol table getting its first declaration or being left; one in "
+            + ScopeEvent.SAMPLE_INTERVAL + " is recorded")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    public static final class ScopeEvent extends Event {
+        private static final int SAMPLE_INTERVAL = 64;
+
+        @Label("Change")
+        private String change;
+
+        @Label("Scope")
+        @Description("Depth of the scope")
+        private int scope;
+
+        @Label("Symbols")
+        @Description("Identifiers declared in the table, leaving out any table it is layered over")
+        private int symbols;
+
+        /**
+         * Records one in every {@value #SAMPLE_INTERVAL} changes, picked at random, while the event is being recorded.
+         */
+        private static void sample(String change, int scope, int symbols) {
+            ScopeEvent event = new ScopeEvent();
+            if (event.shouldCommit() && ThreadLocalRandom.current().nextInt(SAMPLE_INTERVAL) == 0) {
+                event.change = change;
+                event.scope = scope;
+                event.symbols = symbols;
+                event.commit();
+            }
+        }
+
+        private ScopeEvent() {
+        }
+    }
+
+    @Name("typechecker.File")
+    @Label("File")
+    @Description("Compiling one file of a batch")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    public static final class FileEvent extends Event {
+        @Label("File")
+        private String file;
+
+        @Label("Outcome")
+        private String outcome;
+
+        private static FileEvent start(String file) {
+            FileEvent event = new FileEvent(file);
+            event.begin();
+            return event;
+        }
+
+        private FileEvent(String file) {
+            this.file = file;
+        }
+
+        public void commit(String outcome) {
+            if (shouldCommit()) {
+                this.outcome = outcome;
+                commit();
+            }
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package utils;
+
+/**
+ * Parses numeric literals straight out of a character buffer, for a scanner that should not build a {@link String} per
+ * token, and decodes the escapes in char and string literals for running a program. Input is assumed to already match
+ * the literal's pattern.
+ */
+public final class Literals {
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+    private static final double[] POWERS_OF_TEN = new double[23];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    private Literals() {
+    }
+
+    /**
+     * The value of the digits in {@code chars[start, start + length)}, failing the same way {@link Integer#parseInt}
+     * does when it does not fit in an int.
+     */
+    public static int parseInt(char[] chars, int start, int length) {
+        long value = 0;
+        for (int i = start; i < start + length; i++) {
+            value = value * 10 + (chars[i] - '0');
+            if (value > Integer.MAX_VALUE) {
+                return Integer.parseInt(new String(chars, start, length));
+            }
+        }
+        return (int) value;
+    }
+
+    /**
+     * The value of the {@code digits.digits} literal in {@code chars[start, start + length)}. When the digits form an
+     * integer below 2^53 with at most 22 of them after the point, both it and the power of ten dividing it are exact
+     * doubles, so a single division is correctly rounded; anything else goes through {@link Double#parseDouble}.
+     */
+    public static double parseDouble(char[] chars, int start, int length) {
+        long mantissa = 0;
+        int point = -1;
+        for (int i = start; i < start + length; i++) {
+            char c = chars[i];
+            if (c == '.') {
+                point = i;
+                continue;
+            }
+            mantissa = mantissa * 10 + (c - '0');
+            if (mantissa >= MAX_EXACT_MANTISSA) {
+                return Double.parseDouble(new String(chars, start, length));
+            }
+        }
+        int fractionDigits = start + length - 1 - point;
+        if (fractionDigits >= POWERS_OF_TEN.length) {
+            return Double.parseDouble(new String(chars, start, length));
+        }
+        return mantissa / POWERS_OF_TEN[fractionDigits];
+    }
+
+    /**
+     * The character a char literal such as {@code 'a'} or {@code '\n'}, quotes included, stands for.
+     */
+    public static char charValue(String literal) {
+        return unescape(literal).charAt(0);
+    }
+
+    /**
+     * The text a string literal, quotes included, stands for.
+     */
+    public static String stringValue(String literal) {
+        return unescape(literal);
+    }
+
+    private static String unescape(String literal) {
+        StringBuilder text = new StringBuilder(literal.length() - 2);
+        for (int i = 1; i < literal.length() - 1; i++) {
+            char c = literal.charAt(i);
+            if (c == '\\' && i + 1 < literal.length() - 1) {
+                char escaped = literal.charAt(++i);
+                c = escaped == 'n' ? '\n' : escaped == 't' ? '\t' : escaped;
+            }
+            text.append(c);
+        }
+        return text.toString();
+    }
+}
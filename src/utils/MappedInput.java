@@ -0,0 +1,159 @@
+package utils;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads a source file through a memory mapping instead of a stream. While the input is plain ASCII, bytes are widened
+ * straight into the caller's buffer with no charset decoding; from the first non-ASCII byte on, the rest of the file
+ * is decoded as UTF-8. The file is mapped one window at a time, so its size is not bounded by a single mapping.
+ */
+public final class MappedInput extends Reader {
+    private static final long WINDOW_SIZE = 1L << 30;
+    private static final int SCRATCH_SIZE = 1 << 14;
+
+    public static MappedInput open(Path path) throws IOException {
+        return new MappedInput(FileChannel.open(path, StandardOpenOption.READ));
+    }
+
+    private final FileChannel channel;
+    private final long size;
+    private final byte[] scratch = new byte[SCRATCH_SIZE];
+    private MappedByteBuffer window;
+    private long windowStart;
+    // Null while everything read so far has been ASCII.
+    private CharsetDecoder decoder;
+    private boolean decoded;
+    // The decoder only has a fast loop for heap buffers, so bytes are decoded from the scratch array.
+    private final ByteBuffer bytes = ByteBuffer.wrap(scratch);
+    private final CharBuffer overflow = CharBuffer.allocate(2);
+
+    private MappedInput(FileChannel channel) throws IOException {
+        this.channel = channel;
+        this.size = channel.size();
+        this.bytes.flip();
+        this.overflow.flip();
+        map(0);
+    }
+
+    /**
+     * Whether the input has needed UTF-8 decoding so far, as opposed to being read entirely on the ASCII fast path.
+     */
+    public boolean isDecoding() {
+        return decoder != null;
+    }
+
+    @Override
+    public int read(char[] buffer, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        if (overflow.hasRemaining()) {
+            buffer[offset] = overflow.get();
+            return 1;
+        }
+        if (decoder == null) {
+            if (!window.hasRemaining()) {
+                if (isLastWindow()) {
+                    return -1;
+                }
+                map(windowStart + window.limit());
+            }
+            int ascii = readAscii(buffer, offset, length);
+            if (ascii > 0) {
+                return ascii;
+            }
+            decoder = StandardCharsets.UTF_8.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        }
+        return decode(buffer, offset, length);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Widens bytes into the buffer up to the first non-ASCII one, returning how many were read.
+     */
+    private int readAscii(char[] buffer, int offset, int length) {
+        int start = window.position();
+        int count = Math.min(Math.min(length, window.remaining()), SCRATCH_SIZE);
+        window.get(start, scratch, 0, count);
+        int read = 0;
+        while (read < count && scratch[read] >= 0) {
+            buffer[offset + read] = (char) scratch[read];
+            read++;
+        }
+        window.position(start + read);
+        return read;
+    }
+
+    private int decode(char[] buffer, int offset, int length) throws IOException {
+        if (decoded) {
+            return -1;
+        }
+        CharBuffer out = CharBuffer.wrap(buffer, offset, length);
+        while (true) {
+            refill();
+            boolean endOfInput = isLastWindow() && !window.hasRemaining();
+            CoderResult result = decoder.decode(bytes, out, endOfInput);
+            if (endOfInput && result.isUnderflow()) {
+                decoder.flush(out);
+                decoded = true;
+            }
+            int read = out.position() - offset;
+            if (read > 0) {
+                return read;
+            }
+            if (result.isOverflow()) {
+                // A surrogate pair does not fit in a one char buffer: hand out its halves one at a time.
+                overflow.clear();
+                decoder.decode(bytes, overflow, endOfInput);
+                overflow.flip();
+                buffer[offset] = overflow.get();
+                return 1;
+            }
+            if (endOfInput) {
+                return -1;
+            }
+        }
+    }
+
+    /**
+     * Tops up the undecoded bytes from the mapping, moving on to the next window when this one is used up. Any bytes of
+     * a character split across the end of the previous fill stay in front of the new ones.
+     */
+    private void refill() throws IOException {
+        if (!window.hasRemaining() && !isLastWindow()) {
+            map(windowStart + window.limit());
+        }
+        bytes.compact();
+        int count = Math.min(bytes.remaining(), window.remaining());
+        bytes.put(bytes.position(), window, window.position(), count);
+        bytes.position(bytes.position() + count);
+        window.position(window.position() + count);
+        bytes.flip();
+    }
+
+    private boolean isLastWindow() {
+        return windowStart + window.limit() == size;
+    }
+
+    private void map(long start) throws IOException {
+        windowStart = start;
+        window = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(WINDOW_SIZE, size - start));
+    }
+}
@@ -0,0 +1,58 @@
+package utils;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * An unsynchronized buffer in front of a writer, for printing a tree with many small appends. It collects text in a
+ * fixed-size builder and only hands it to the writer when the builder is full or on {@link #flush()}.
+ */
+public final class OutputBuffer implements Appendable, Flushable {
+    private static final int CAPACITY = 1 << 16;
+
+    public static OutputBuffer over(Writer writer) {
+        return new OutputBuffer(writer);
+    }
+
+    private final Writer writer;
+    private final StringBuilder buffer = new StringBuilder(CAPACITY);
+
+    private OutputBuffer(Writer writer) {
+        this.writer = writer;
+    }
+
+    @Override
+    public OutputBuffer append(CharSequence text) throws IOException {
+        buffer.append(text);
+        if (buffer.length() >= CAPACITY) {
+            drain();
+        }
+        return this;
+    }
+
+    @Override
+    public OutputBuffer append(CharSequence text, int start, int end) throws IOException {
+        return append(text.subSequence(start, end));
+    }
+
+    @Override
+    public OutputBuffer append(char c) throws IOException {
+        buffer.append(c);
+        if (buffer.length() >= CAPACITY) {
+            drain();
+        }
+        return this;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        drain();
+        writer.flush();
+    }
+
+    private void drain() throws IOException {
+        writer.append(buffer);
+        buffer.setLength(0);
+    }
+}
@@ -0,0 +1,158 @@
+package utils;
+
+import java_cup.runtime.Scanner;
+import java_cup.runtime.Symbol;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Runs a scanner on its own thread, ahead of the parser that reads from this one. Tokens go through a bounded
+ * single-producer, single-consumer ring: each side works on its own position and only publishes it to the other side
+ * once per batch, and the lexer waits whenever the ring is full. An exception thrown by the scanner is rethrown to the
+ * parser once it has read every token lexed before it.
+ */
+public final class PipelinedScanner implements Scanner, AutoCloseable {
+    private static final int CAPACITY = 1 << 14;
+    private static final int MASK = CAPACITY - 1;
+    private static final int BATCH = 256;
+    private static final int SPINS = 100;
+    private static final int YIELDS = 100;
+    private static final long PARK_NANOS = 20_000;
+    private static final Object FAILED = new Object();
+
+    public static PipelinedScanner start(Scanner source) {
+        PipelinedScanner scanner = new PipelinedScanner(source);
+        scanner.lexer.start();
+        return scanner;
+    }
+
+    private final Scanner source;
+    private final Thread lexer;
+    private final Object[] slots = new Object[CAPACITY];
+    // How far the lexer has written and the parser has read, as seen by the other side.
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong consumed = new AtomicLong();
+    private volatile Throwable failure;
+    private volatile boolean closed;
+
+    // Only touched by the lexer thread.
+    private long tail;
+    private long writable;
+
+    // Only touched by the parser thread.
+    private long head;
+    private long readable;
+    private boolean ended;
+
+    private PipelinedScanner(Scanner source) {
+        this.source = source;
+        this.writable = CAPACITY;
+        this.lexer = new Thread(this::lex, "lexer");
+        this.lexer.setDaemon(true);
+    }
+
+    @Override
+    public Symbol next_token() throws Exception {
+        if (ended) {
+            // Like the scanner itself, every call past the end gets a symbol of its own, as the parser insists on it.
+            return new Symbol(0);
+        }
+        if (head == readable) {
+            consumed.lazySet(head);
+            readable = awaitPublished();
+        }
+        int slot = (int) head & MASK;
+        Object token = slots[slot];
+        slots[slot] = null;
+        head++;
+        if (head % BATCH == 0) {
+            consumed.lazySet(head);
+        }
+        if (token == FAILED) {
+            ended = true;
+            throw rethrow(failure);
+        }
+        Symbol symbol = (Symbol) token;
+        ended = symbol.sym == 0;
+        return symbol;
+    }
+
+    /**
+     * Stops the lexer thread, e.g. once the parser has given up on the input.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        LockSupport.unpark(lexer);
+    }
+
+    private void lex() {
+        CompilerEvents.PhaseEvent event = CompilerEvents.phaseStarted(CompileStats.LEX);
+        try {
+            Symbol token;
+            do {
+                token = source.next_token();
+                if (!put(token)) {
+                    return;
+                }
+            } while (token.sym != 0);
+        } catch (Throwable e) {
+            failure = e;
+            put(FAILED);
+        } finally {
+            if (event != null) {
+                event.commit();
+            }
+        }
+        published.lazySet(tail);
+    }
+
+    /**
+     * Writes the token into the ring, publishing a batch when it is full. False when the parser closed the scanner
+     * while waiting for it to make room.
+     */
+    private boolean put(Object token) {
+        if (tail == writable) {
+            published.lazySet(tail);
+            for (int attempt = 0; tail - consumed.get() == CAPACITY; attempt++) {
+                if (closed) {
+                    return false;
+                }
+                idle(attempt);
+            }
+            writable = consumed.get() + CAPACITY;
+        }
+        slots[(int) tail & MASK] = token;
+        tail++;
+        if (tail % BATCH == 0) {
+            published.lazySet(tail);
+        }
+        return true;
+    }
+
+    private long awaitPublished() {
+        long available;
+        for (int attempt = 0; (available = published.get()) == head; attempt++) {
+            idle(attempt);
+        }
+        return available;
+    }
+
+    private static void idle(int attempt) {
+        if (attempt < SPINS) {
+            Thread.onSpinWait();
+        } else if (attempt < SPINS + YIELDS) {
+            Thread.yield();
+        } else {
+            LockSupport.parkNanos(PARK_NANOS);
+        }
+    }
+
+    private static Exception rethrow(Throwable failure) {
+        if (failure instanceof Error) {
+            throw (Error) failure;
+        }
+        return (Exception) failure;
+    }
+}
@@ -1,18 +1,46 @@
 package utils;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
 public final class StringHelper {
     private StringHelper() {
     }
 
-    public static String tabs(int tabs) {
-        StringBuilder tabbedStr = new StringBuilder();
-        for (int i = 0; i < tabs; i++) {
-            tabbedStr.append("    ");
+    /**
+     * Something that writes text to an output.
+     */
+    public interface Printer {
+        void printTo(Appendable out) throws IOException;
+    }
+
+    private static final String TAB = "    ";
+    private static final String[] INDENTS = new String[32];
+
+    static {
+        for (int tabs = 0; tabs < INDENTS.length; tabs++) {
+            INDENTS[tabs] = TAB.repeat(tabs);
         }
-        return tabbedStr.toString();
     }
 
-    public static String withTabs(int tabs, String text) {
-        return tabs(tabs) + text;
+    /**
+     * The indentation for the given number of tabs. Indentations for the usual nesting depths are shared instances.
+     */
+    public static String tabs(int tabs) {
+        return tabs < INDENTS.length ? INDENTS[tabs] : TAB.repeat(tabs);
+    }
+
+    /**
+     * Runs the printer against a string builder and returns what it wrote.
+     */
+    public static String collect(Printer printer) {
+        StringBuilder builder = new StringBuilder();
+        try {
+            printer.printTo(builder);
+        } catch (IOException e) {
+            // A StringBuilder never throws.
+            throw new UncheckedIOException(e);
+        }
+        return builder.toString();
     }
 }
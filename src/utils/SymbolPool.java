@@ -0,0 +1,95 @@
+package utils;
+
+import java.util.Arrays;
+
+/**
+ * Interns names straight out of a character buffer. Each distinct name gets a dense int id and is turned into a
+ * {@link String} once, the first time it is seen; interning a name seen before allocates nothing.
+ */
+public final class SymbolPool {
+    private static final int INITIAL_CAPACITY = 256;
+
+    public static SymbolPool create() {
+        return new SymbolPool();
+    }
+
+    private String[] names = new String[INITIAL_CAPACITY];
+    private int[] hashes = new int[INITIAL_CAPACITY];
+    private int size;
+    // Open addressing over ids + 1, with 0 marking an empty slot. Kept at most half full.
+    private int[] slots = new int[INITIAL_CAPACITY * 2];
+
+    private SymbolPool() {
+    }
+
+    /**
+     * The id of the name in {@code chars[start, start + length)}, adding it to the pool if it is new.
+     */
+    public int intern(char[] chars, int start, int length) {
+        int hash = 0;
+        for (int i = start; i < start + length; i++) {
+            hash = 31 * hash + chars[i];
+        }
+        int mask = slots.length - 1;
+        for (int slot = mix(hash) & mask; ; slot = (slot + 1) & mask) {
+            int id = slots[slot] - 1;
+            if (id < 0) {
+                return add(new String(chars, start, length), hash, slot);
+            }
+            if (hashes[id] == hash && matches(names[id], chars, start, length)) {
+                return id;
+            }
+        }
+    }
+
+    public String name(int id) {
+        return names[id];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private int add(String name, int hash, int slot) {
+        if (size == names.length) {
+            names = Arrays.copyOf(names, size * 2);
+            hashes = Arrays.copyOf(hashes, size * 2);
+        }
+        int id = size++;
+        names[id] = name;
+        hashes[id] = hash;
+        slots[slot] = id + 1;
+        if (size * 2 > slots.length) {
+            rehash();
+        }
+        return id;
+    }
+
+    private void rehash() {
+        slots = new int[slots.length * 2];
+        int mask = slots.length - 1;
+        for (int id = 0; id < size; id++) {
+            int slot = mix(hashes[id]) & mask;
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = id + 1;
+        }
+    }
+
+    private static int mix(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private static boolean matches(String name, char[] chars, int start, int length) {
+        if (name.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (name.charAt(i) != chars[start + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
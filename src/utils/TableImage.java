@@ -0,0 +1,168 @@
+package utils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The parse and scan tables of the generated parser and scanner, stored as a binary image so that startup can copy
+ * them straight into arrays instead of unpacking them from the run-length encoded string literals the generators
+ * emit. Each table is only decoded when it is asked for.
+ *
+ * The image is a magic number and format version, the number of tables, then each table: its name, its kind, and
+ * its contents as big-endian lengths and values. Rows of shorts are stored as the number of rows and of values, the
+ * length of each row, then the values of every row one after the other.
+ */
+public final class TableImage {
+    private static final int MAGIC = 0x54424C53;
+    private static final int VERSION = 1;
+    private static final byte INTS = 1;
+    private static final byte SHORT_ROWS = 2;
+
+    /**
+     * Reads an image compiled into a class as Latin-1 string constants, one char per byte, split to fit the class
+     * file's limit on constants.
+     */
+    public static TableImage of(String... chunks) {
+        int length = 0;
+        for (String chunk : chunks) {
+            length += chunk.length();
+        }
+        // Views of a direct buffer copy out whole tables at once, where views of a heap buffer go value by value,
+        // which is slow while startup is still interpreting.
+        ByteBuffer bytes = ByteBuffer.allocateDirect(length);
+        for (String chunk : chunks) {
+            bytes.put(chunk.getBytes(StandardCharsets.ISO_8859_1));
+        }
+        return new TableImage(bytes.flip());
+    }
+
+    /**
+     * Starts a new image to write tables into.
+     */
+    public static Writer writer() {
+        return new Writer();
+    }
+
+    private final ByteBuffer bytes;
+    // Where each table's kind byte is.
+    private final Map<String, Integer> offsets = new HashMap<>();
+
+    private TableImage(ByteBuffer bytes) {
+        this.bytes = bytes;
+        if (bytes.getInt() != MAGIC || bytes.getInt() != VERSION) {
+            throw new IllegalStateException("Not a version " + VERSION + " table image");
+        }
+        int tables = bytes.getInt();
+        for (int i = 0; i < tables; i++) {
+            String name = readName();
+            offsets.put(name, bytes.position());
+            byte kind = bytes.get();
+            int length = bytes.getInt();
+            if (kind == INTS) {
+                bytes.position(bytes.position() + length * Integer.BYTES);
+            } else {
+                int values = bytes.getInt();
+                bytes.position(bytes.position() + length * Integer.BYTES + values * Short.BYTES);
+            }
+        }
+    }
+
+    public int[] ints(String name) {
+        ByteBuffer table = table(name, INTS);
+        int[] values = new int[table.getInt()];
+        table.asIntBuffer().get(values);
+        return values;
+    }
+
+    public short[][] shortRows(String name) {
+        ByteBuffer table = table(name, SHORT_ROWS);
+        int[] lengths = new int[table.getInt()];
+        short[] values = new short[table.getInt()];
+        table.asIntBuffer().get(lengths);
+        table.position(table.position() + lengths.length * Integer.BYTES).asShortBuffer().get(values);
+        // One bulk copy out of the buffer, then rows split off by array copies, is far cheaper than a copy per row.
+        short[][] rows = new short[lengths.length][];
+        int start = 0;
+        for (int row = 0; row < rows.length; row++) {
+            rows[row] = Arrays.copyOfRange(values, start, start + lengths[row]);
+            start += lengths[row];
+        }
+        return rows;
+    }
+
+    private ByteBuffer table(String name, byte kind) {
+        Integer offset = offsets.get(name);
+        if (offset == null) {
+            throw new IllegalStateException("The table image has no table " + name);
+        }
+        ByteBuffer table = bytes.duplicate().position(offset);
+        if (table.get() != kind) {
+            throw new IllegalStateException("Table " + name + " is not of the kind asked for");
+        }
+        return table;
+    }
+
+    private String readName() {
+        byte[] name = new byte[bytes.getShort() & 0xFFFF];
+        bytes.get(name);
+        return new String(name, StandardCharsets.UTF_8);
+    }
+
+    public static final class Writer {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final DataOutputStream out = new DataOutputStream(bytes);
+        private int tables;
+
+        private Writer() {
+        }
+
+        public Writer ints(String name, int[] values) throws IOException {
+            out.writeUTF(name);
+            out.writeByte(INTS);
+            out.writeInt(values.length);
+            for (int value : values) {
+                out.writeInt(value);
+            }
+            tables++;
+            return this;
+        }
+
+        public Writer shortRows(String name, short[][] rows) throws IOException {
+            out.writeUTF(name);
+            out.writeByte(SHORT_ROWS);
+            out.writeInt(rows.length);
+            int values = 0;
+            for (short[] row : rows) {
+                values += row.length;
+            }
+            out.writeInt(values);
+            for (short[] row : rows) {
+                out.writeInt(row.length);
+            }
+            for (short[] row : rows) {
+                for (short value : row) {
+                    out.writeShort(value);
+                }
+            }
+            tables++;
+            return this;
+        }
+
+        public byte[] toByteArray() throws IOException {
+            ByteArrayOutputStream image = new ByteArrayOutputStream();
+            DataOutputStream header = new DataOutputStream(image);
+            header.writeInt(MAGIC);
+            header.writeInt(VERSION);
+            header.writeInt(tables);
+            out.flush();
+            bytes.writeTo(image);
+            return image.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package utils;
+
+import java.util.Arrays;
+
+/**
+ * Tokens packed into parallel primitive arrays instead of one object each. A token's value depends on its kind: the
+ * value of an int literal, the raw bits of a float literal, or otherwise the pool id of its text, which for keywords
+ * and operators is the same text their symbols carry. The arrays are kept across {@link #clear()}, so a buffer can be
+ * refilled without allocating once it has grown to size.
+ */
+public final class TokenBuffer {
+    private static final int INITIAL_CAPACITY = 1024;
+
+    public static TokenBuffer create() {
+        return new TokenBuffer();
+    }
+
+    private int[] kinds = new int[INITIAL_CAPACITY];
+    private int[] offsets = new int[INITIAL_CAPACITY];
+    private int[] lengths = new int[INITIAL_CAPACITY];
+    private int[] lines = new int[INITIAL_CAPACITY];
+    private int[] columns = new int[INITIAL_CAPACITY];
+    private long[] values = new long[INITIAL_CAPACITY];
+    private int size;
+
+    private TokenBuffer() {
+    }
+
+    public void add(int kind, int offset, int length, int line, int column, long value) {
+        if (size == kinds.length) {
+            grow();
+        }
+        kinds[size] = kind;
+        offsets[size] = offset;
+        lengths[size] = length;
+        lines[size] = line;
+        columns[size] = column;
+        values[size] = value;
+        size++;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int kind(int token) {
+        return kinds[token];
+    }
+
+    public int offset(int token) {
+        return offsets[token];
+    }
+
+    public int length(int token) {
+        return lengths[token];
+    }
+
+    public int line(int token) {
+        return lines[token];
+    }
+
+    public int column(int token) {
+        return columns[token];
+    }
+
+    public long value(int token) {
+        return values[token];
+    }
+
+    private void grow() {
+        int capacity = kinds.length * 2;
+        kinds = Arrays.copyOf(kinds, capacity);
+        offsets = Arrays.copyOf(offsets, capacity);
+        lengths = Arrays.copyOf(lengths, capacity);
+        lines = Arrays.copyOf(lines, capacity);
+        columns = Arrays.copyOf(columns, capacity);
+        values = Arrays.copyOf(values, capacity);
+    }
+}
@@ -0,0 +1,49 @@
+class x
+{
+  int a = 1;
+  int b = 2;
+
+  int straight()
+  {
+    a = a + 1;
+    b = b + 1;
+    a = a + b;
+    return a;
+  }
+
+  int branches(int n)
+  {
+    a = n;
+    b = n;
+    if (n < 0)
+      return -1;
+    else if (n == 0)
+    {
+      a = 0;
+      return 0;
+    }
+    else
+      return 1;
+  }
+
+  int nested(int n)
+  {
+    a = n;
+    b = n;
+    while (n > 0)
+    {
+      n--;
+    }
+    {
+      b = a;
+      if (n > 1)
+      {
+        return a;
+      }
+      else
+      {
+        return b;
+      }
+    }
+  }
+}
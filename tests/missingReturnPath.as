@@ -0,0 +1,48 @@
+class x
+{
+  int a = 1;
+  int b = 2;
+
+  int noReturnAfterSeveralStmts()
+  {
+    a = a + 1;
+    b = b + 1;
+    a = a + b;
+  }
+
+  int onlyThenReturns(int n)
+  {
+    a = n;
+    b = n;
+    if (n > 0)
+      return 1;
+  }
+
+  int onlyElseReturns(int n)
+  {
+    a = n;
+    b = n;
+    if (n > 0)
+    {
+      a = 0;
+    }
+    else
+      return 1;
+  }
+
+  int onlyLoopReturns(int n)
+  {
+    a = n;
+    b = n;
+    while (n > 0)
+      return n;
+  }
+
+  int emptyBlock()
+  {
+    a = 0;
+    b = 0;
+    {
+    }
+  }
+}
@@ -0,0 +1,99 @@
+class numericLoops{
+	\\------------------------------------
+	\\--Numeric program to run with --run-
+	\\------------------------------------
+	int limit = 5000;
+	bool composite[5001];
+	int primes[1000];
+	int primeCount;
+
+	\*
+	 *marks every composite number up to the limit with the sieve of
+	 *Eratosthenes and collects the primes in order.
+	 *\
+	void sieve()
+	{
+	    int i = 2;
+	    int j;
+	    primeCount = 0;
+	    while (i <= limit)
+	    {
+	        if (~composite[i])
+	        {
+	            if (primeCount < 1000)
+	            {
+	                primes[primeCount] = i;
+	                primeCount++;
+	            }
+	            j = i * i;
+	            while (j <= limit)
+	            {
+	                composite[j] = true;
+	                j = j + i;
+	            }
+	        }
+	        i++;
+	    }
+	}
+
+	\*
+	 *the n-th fibonacci number, computed with plain recursion on purpose.
+	 *\
+	int fib(int n)
+	{
+	    if (n < 2)
+	        return n;
+	    return fib(n - 1) + fib(n - 2);
+	}
+
+	\*
+	 *the sum of the products of every pair of numbers below the size, each
+	 *taken modulo 7.
+	 *\
+	int pairProducts(int size)
+	{
+	    int i = 0;
+	    int j;
+	    int sum = 0;
+	    while (i < size)
+	    {
+	        j = 0;
+	        while (j < size)
+	        {
+	            sum = sum + i * j - i * j / 7 * 7;
+	            j++;
+	        }
+	        i++;
+	    }
+	    return sum;
+	}
+
+	\*
+	 *the average gap between consecutive primes found by the sieve.
+	 *\
+	float averageGap()
+	{
+	    float total = 0;
+	    int i = 1;
+	    while (i < primeCount)
+	    {
+	        total = total + (primes[i] - primes[i - 1]);
+	        i++;
+	    }
+	    return total / (primeCount - 1);
+	}
+
+	void main()
+	{
+	    char grade;
+	    sieve();
+	    print("primes up to " + limit + ": " + primeCount);
+	    printline();
+	    print("largest: " + primes[primeCount - 1] + ", average gap: " + averageGap());
+	    printline();
+	    printline("fib(20) = ", fib(20));
+	    printline("pair products: ", pairProducts(200));
+	    grade = (primeCount > 500 ? 'A' : 'B');
+	    printline("grade ", grade, ", primes as a float ", (float) primeCount);
+	}
+}